@@ -0,0 +1,52 @@
+package com.groceryautomation.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only view over one decoded sensor frame.
+ * 
+ * Records are read straight out of the underlying buffer with absolute gets, so
+ * iterating a frame allocates nothing per reading. Instances are created by
+ * {@link SensorFrameCodec#decode(ByteBuffer)}, which validates the layout first.
+ */
+public final class SensorFrame {
+    
+    private final ByteBuffer buffer;
+    private final int recordsOffset;
+    private final int size;
+    private final long baseTimestampMillis;
+    
+    SensorFrame(ByteBuffer buffer, int recordsOffset, int size, long baseTimestampMillis) {
+        this.buffer = buffer;
+        this.recordsOffset = recordsOffset;
+        this.size = size;
+        this.baseTimestampMillis = baseTimestampMillis;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public long baseTimestampMillis() {
+        return baseTimestampMillis;
+    }
+    
+    public long groceryItemId(int index) {
+        return Integer.toUnsignedLong(buffer.getInt(recordOffset(index)));
+    }
+    
+    public double quantity(int index) {
+        return buffer.getInt(recordOffset(index) + 4) / SensorFrameCodec.QUANTITY_SCALE;
+    }
+    
+    public long timestampMillis(int index) {
+        return baseTimestampMillis + Integer.toUnsignedLong(buffer.getInt(recordOffset(index) + 8));
+    }
+    
+    private int recordOffset(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Reading index " + index + " out of range for frame of " + size);
+        }
+        return recordsOffset + index * SensorFrameCodec.RECORD_SIZE;
+    }
+}
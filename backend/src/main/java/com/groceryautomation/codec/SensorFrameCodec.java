@@ -0,0 +1,106 @@
+package com.groceryautomation.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-width binary format for device reading uplinks.
+ * 
+ * Version 1 layout (big-endian):
+ * <pre>
+ * Header (16 bytes)
+ *   0  u16  magic 0x4752 ("GR")
+ *   2  u8   version (1)
+ *   3  u8   flags (reserved, 0)
+ *   4  u16  record count
+ *   6  u16  reserved (0)
+ *   8  i64  base timestamp, epoch millis
+ * Record (12 bytes each)
+ *   0  u32  grocery item ID
+ *   4  i32  quantity in thousandths of a unit
+ *   8  u32  capture time offset from base timestamp, millis
+ * </pre>
+ * A frame of 10 readings is 136 bytes, against roughly 700 bytes of JSON.
+ */
+public final class SensorFrameCodec {
+    
+    public static final String MEDIA_TYPE = "application/x-grocery-readings";
+    
+    public static final short MAGIC = 0x4752;
+    public static final byte VERSION_1 = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 12;
+    public static final int MAX_RECORDS = 1000;
+    
+    static final double QUANTITY_SCALE = 1000.0;
+    
+    private SensorFrameCodec() {
+    }
+    
+    /**
+     * Validate the header and return a view over the records in place.
+     * The buffer's contents are not copied.
+     */
+    public static SensorFrame decode(ByteBuffer buffer) {
+        ByteBuffer frame = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        
+        if (frame.remaining() < HEADER_SIZE) {
+            throw new IllegalArgumentException("Frame too short: " + frame.remaining() + " bytes");
+        }
+        if (frame.getShort(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a sensor reading frame (bad magic)");
+        }
+        byte version = frame.get(2);
+        if (version != VERSION_1) {
+            throw new IllegalArgumentException("Unsupported frame version: " + version);
+        }
+        
+        int count = Short.toUnsignedInt(frame.getShort(4));
+        if (count == 0) {
+            throw new IllegalArgumentException("At least one reading is required");
+        }
+        if (count > MAX_RECORDS) {
+            throw new IllegalArgumentException("A frame may contain at most " + MAX_RECORDS + " readings");
+        }
+        int expectedLength = HEADER_SIZE + count * RECORD_SIZE;
+        if (frame.remaining() != expectedLength) {
+            throw new IllegalArgumentException("Frame length " + frame.remaining() 
+                    + " does not match " + count + " records (expected " + expectedLength + ")");
+        }
+        
+        for (int i = 0; i < count; i++) {
+            if (frame.getInt(HEADER_SIZE + i * RECORD_SIZE + 4) < 0) {
+                throw new IllegalArgumentException("Quantity must be zero or positive (reading " + i + ")");
+            }
+        }
+        
+        return new SensorFrame(frame, HEADER_SIZE, count, frame.getLong(8));
+    }
+    
+    /**
+     * Encode readings into a version 1 frame. Used by device simulators and tests.
+     */
+    public static ByteBuffer encode(long baseTimestampMillis, long[] groceryItemIds, double[] quantities, 
+                                    long[] timestampsMillis) {
+        int count = groceryItemIds.length;
+        if (quantities.length != count || timestampsMillis.length != count) {
+            throw new IllegalArgumentException("Reading arrays must have the same length");
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + count * RECORD_SIZE).order(ByteOrder.BIG_ENDIAN);
+        buffer.putShort(MAGIC)
+                .put(VERSION_1)
+                .put((byte) 0)
+                .putShort((short) count)
+                .putShort((short) 0)
+                .putLong(baseTimestampMillis);
+        
+        for (int i = 0; i < count; i++) {
+            buffer.putInt((int) groceryItemIds[i])
+                    .putInt((int) Math.round(quantities[i] * QUANTITY_SCALE))
+                    .putInt((int) (timestampsMillis[i] - baseTimestampMillis));
+        }
+        
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,118 @@
+package com.groceryautomation.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors for asynchronous event listeners, outbound store API calls and long-running jobs
+ * started by the scheduler.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+    
+    public static final String EVENT_EXECUTOR = "eventExecutor";
+    public static final String STORE_API_EXECUTOR = "storeApiExecutor";
+    public static final String REORDER_SWEEP_EXECUTOR = "reorderSweepExecutor";
+    public static final String ORDER_RECONCILE_EXECUTOR = "orderReconcileExecutor";
+    public static final String OUTBOX_RELAY_EXECUTOR = "outboxRelayExecutor";
+    
+    /**
+     * Boot only auto-configures its default executor when no other executor bean exists,
+     * so it is declared here alongside the dedicated pools.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @Primary
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+    
+    /**
+     * Bounded pool for domain event listeners. When the queue is full the publishing
+     * thread runs the listener itself, which slows producers down instead of dropping events.
+     */
+    @Bean(name = EVENT_EXECUTOR)
+    public ThreadPoolTaskExecutor eventExecutor(
+            @Value("${events.pool-size:2}") int poolSize,
+            @Value("${events.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("events-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+    
+    /**
+     * Pool for concurrent calls to store APIs, so pricing several stores takes as long as the
+     * slowest one. Callers wait on the results, so a full queue runs the call on the caller.
+     */
+    @Bean(name = STORE_API_EXECUTOR)
+    public ThreadPoolTaskExecutor storeApiExecutor(
+            @Value("${store-api.pool-size:8}") int poolSize,
+            @Value("${store-api.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("store-api-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+    
+    /**
+     * Runs the order status reconciler's per-store lanes. Separate from the store API pool, so
+     * long rate-limited lanes cannot starve the price fetches users wait on.
+     */
+    @Bean(name = ORDER_RECONCILE_EXECUTOR)
+    public ThreadPoolTaskExecutor orderReconcileExecutor(
+            @Value("${order.reconcile.pool-size:4}") int poolSize,
+            @Value("${order.reconcile.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-reconcile-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+    
+    /**
+     * Runs the nightly reorder sweep, so it does not hold a scheduler thread for its whole run.
+     * One sweep at a time: a trigger that arrives while one is running is rejected, not queued.
+     */
+    @Bean(name = REORDER_SWEEP_EXECUTOR)
+    public ThreadPoolTaskExecutor reorderSweepExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("reorder-sweep-run-");
+        return executor;
+    }
+    
+    /**
+     * Drains the outbox, so a backlog that takes several batches does not hold a scheduler thread
+     * the other periodic jobs need. A poll that arrives while the previous drain is still running
+     * is rejected, not queued.
+     */
+    @Bean(name = OUTBOX_RELAY_EXECUTOR)
+    public ThreadPoolTaskExecutor outboxRelayExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("outbox-relay-");
+        return executor;
+    }
+}
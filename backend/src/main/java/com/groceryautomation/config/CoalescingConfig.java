@@ -0,0 +1,23 @@
+package com.groceryautomation.config;
+
+import com.groceryautomation.util.RequestCoalescer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Request coalescers for endpoints that clients tend to call in bursts.
+ */
+@Configuration
+public class CoalescingConfig {
+    
+    /**
+     * Manual inventory syncs, keyed by device ID. Reconnecting clients and retries for the
+     * same device share one sync instead of each loading the device row.
+     */
+    @Bean
+    public RequestCoalescer<String, Void> inventorySyncCoalescer(
+            @Value("${inventory.sync.min-interval-ms:2000}") long minIntervalMillis) {
+        return new RequestCoalescer<>(minIntervalMillis);
+    }
+}
@@ -1,19 +1,29 @@
 package com.groceryautomation.controller;
 
+import com.groceryautomation.codec.SensorFrameCodec;
 import com.groceryautomation.dto.request.DeviceRegistrationRequest;
+import com.groceryautomation.dto.request.SensorReadingBatchRequest;
 import com.groceryautomation.dto.response.ApiResponse;
 import com.groceryautomation.dto.response.DeviceResponse;
+import com.groceryautomation.dto.response.IngestionAcceptedResponse;
+import com.groceryautomation.dto.response.SensorReadingBatchResponse;
 import com.groceryautomation.service.DeviceService;
+import com.groceryautomation.service.SensorIngestionPipeline;
+import com.groceryautomation.service.SensorIngestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,6 +34,8 @@ import java.util.List;
 public class DeviceController {
     
     private final DeviceService deviceService;
+    private final SensorIngestionService sensorIngestionService;
+    private final SensorIngestionPipeline sensorIngestionPipeline;
     
     @PostMapping("/register")
     @Operation(summary = "Register a new device", description = "Register a new device for a user")
@@ -81,6 +93,79 @@ public class DeviceController {
         }
     }
     
+    @PostMapping(value = "/{deviceId}/readings", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Ingest sensor readings", description = "Apply a batch of sensor readings for a device in a single transaction")
+    public ResponseEntity<ApiResponse<SensorReadingBatchResponse>> ingestReadings(
+            @Parameter(description = "Device ID string (e.g. FRIDGE-001)", example = "FRIDGE-001") @PathVariable String deviceId,
+            @Valid @RequestBody SensorReadingBatchRequest request) {
+        log.debug("Ingesting {} readings for device: {}", request.getReadings().size(), deviceId);
+        try {
+            SensorReadingBatchResponse response = sensorIngestionService.ingestReadings(deviceId, request);
+            return ResponseEntity.ok(ApiResponse.success(response, 
+                    response.getApplied() + " of " + response.getReceived() + " readings applied"));
+        } catch (RuntimeException e) {
+            log.error("Error ingesting readings for device {}: {}", deviceId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PostMapping(value = "/{deviceId}/readings", consumes = SensorFrameCodec.MEDIA_TYPE)
+    @Operation(summary = "Ingest binary sensor frame", 
+               description = "Apply a fixed-width binary frame of readings (" + SensorFrameCodec.MEDIA_TYPE + ", see SensorFrameCodec)")
+    public ResponseEntity<ApiResponse<SensorReadingBatchResponse>> ingestReadingFrame(
+            @Parameter(description = "Device ID string (e.g. FRIDGE-001)", example = "FRIDGE-001") @PathVariable String deviceId,
+            @RequestBody byte[] frame) {
+        log.debug("Ingesting {} byte reading frame for device: {}", frame.length, deviceId);
+        try {
+            SensorReadingBatchResponse response = sensorIngestionService.ingestFrame(deviceId, 
+                    SensorFrameCodec.decode(ByteBuffer.wrap(frame)));
+            return ResponseEntity.ok(ApiResponse.success(response, 
+                    response.getApplied() + " of " + response.getReceived() + " readings applied"));
+        } catch (RuntimeException e) {
+            log.error("Error ingesting reading frame for device {}: {}", deviceId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PostMapping(value = "/{deviceId}/readings/async", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Queue sensor readings", 
+               description = "Buffer a batch of readings for background persistence. Returns 202, or 429 with Retry-After when the ingestion queue is full")
+    public ResponseEntity<ApiResponse<IngestionAcceptedResponse>> queueReadings(
+            @Parameter(description = "Device ID string (e.g. FRIDGE-001)", example = "FRIDGE-001") @PathVariable String deviceId,
+            @Valid @RequestBody SensorReadingBatchRequest request) {
+        log.debug("Queueing {} readings for device: {}", request.getReadings().size(), deviceId);
+        return accepted(deviceId, sensorIngestionPipeline.submitReadings(deviceId, request));
+    }
+    
+    @PostMapping(value = "/{deviceId}/readings/async", consumes = SensorFrameCodec.MEDIA_TYPE)
+    @Operation(summary = "Queue binary sensor frame", 
+               description = "Buffer a binary frame (" + SensorFrameCodec.MEDIA_TYPE + ") for background decoding and persistence. Returns 202, or 429 with Retry-After when the ingestion queue is full")
+    public ResponseEntity<ApiResponse<IngestionAcceptedResponse>> queueReadingFrame(
+            @Parameter(description = "Device ID string (e.g. FRIDGE-001)", example = "FRIDGE-001") @PathVariable String deviceId,
+            @RequestBody byte[] frame) {
+        log.debug("Queueing {} byte reading frame for device: {}", frame.length, deviceId);
+        return accepted(deviceId, sensorIngestionPipeline.submitFrame(deviceId, frame));
+    }
+    
+    private ResponseEntity<ApiResponse<IngestionAcceptedResponse>> accepted(String deviceId, boolean queued) {
+        if (!queued) {
+            log.warn("Ingestion queue full, rejecting readings for device {}", deviceId);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(sensorIngestionPipeline.getRetryAfterSeconds()))
+                    .body(ApiResponse.error("Ingestion queue is full, retry later"));
+        }
+        IngestionAcceptedResponse response = IngestionAcceptedResponse.builder()
+                .deviceId(deviceId)
+                .queueDepth(sensorIngestionPipeline.getQueueDepth())
+                .queueCapacity(sensorIngestionPipeline.getQueueCapacity())
+                .acceptedAt(LocalDateTime.now())
+                .build();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(response, "Readings queued for processing"));
+    }
+    
     @DeleteMapping("/{deviceId}")
     @Operation(summary = "Deactivate device", description = "Deactivate a device (soft delete)")
     public ResponseEntity<ApiResponse<Void>> deactivateDevice(
@@ -1,18 +1,37 @@
 package com.groceryautomation.controller;
 
+import com.groceryautomation.dto.request.BulkThresholdUpdateRequest;
+import com.groceryautomation.dto.response.AggregatedInventoryResponse;
 import com.groceryautomation.dto.response.ApiResponse;
+import com.groceryautomation.dto.response.BulkThresholdUpdateResponse;
 import com.groceryautomation.dto.response.CurrentInventoryResponse;
+import com.groceryautomation.dto.response.InventoryChangesResponse;
+import com.groceryautomation.dto.response.InventoryHistoryResponse;
 import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.dto.response.InventorySummaryResponse;
+import com.groceryautomation.dto.response.ItemForecastResponse;
+import com.groceryautomation.enums.HistoryGranularity;
 import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.service.InventoryChangeService;
+import com.groceryautomation.service.InventoryHistoryService;
+import com.groceryautomation.service.InventoryPushService;
 import com.groceryautomation.service.InventoryService;
+import com.groceryautomation.service.InventorySummaryService;
+import com.groceryautomation.service.InventoryVersionTracker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,20 +42,86 @@ import java.util.List;
 public class InventoryController {
     
     private final InventoryService inventoryService;
+    private final InventoryHistoryService inventoryHistoryService;
+    private final InventorySummaryService inventorySummaryService;
+    private final InventoryVersionTracker inventoryVersionTracker;
+    private final InventoryChangeService inventoryChangeService;
+    private final InventoryPushService inventoryPushService;
     
     @GetMapping("/current/{userId}")
-    @Operation(summary = "Get current inventory", description = "Get all inventory items for a user's device")
+    @Operation(summary = "Get current inventory", 
+               description = "Get all inventory items for a user's device. Answers If-None-Match with 304 " +
+                       "while the inventory version in the ETag is unchanged")
     public ResponseEntity<ApiResponse<CurrentInventoryResponse>> getCurrentInventory(
-            @Parameter(description = "User ID") @PathVariable Long userId) {
+            @Parameter(description = "User ID") @PathVariable Long userId, WebRequest request) {
+        // Sets the ETag header; on a match the 304 is already prepared and nothing is loaded
+        if (request.checkNotModified(inventoryVersionTracker.getETag(userId))) {
+            return null;
+        }
         log.info("Fetching current inventory for user: {}", userId);
         CurrentInventoryResponse inventory = inventoryService.getCurrentInventory(userId);
         return ResponseEntity.ok(ApiResponse.success(inventory));
     }
     
+    @GetMapping("/aggregated/{userId}")
+    @Operation(summary = "Get aggregated inventory", 
+               description = "Inventory across all of a user's active devices, merged by grocery item with " +
+                       "summed quantities and the worst status, plus a per-device breakdown")
+    public ResponseEntity<ApiResponse<AggregatedInventoryResponse>> getAggregatedInventory(
+            @Parameter(description = "User ID") @PathVariable Long userId) {
+        log.info("Fetching aggregated inventory for user: {}", userId);
+        AggregatedInventoryResponse inventory = inventoryService.getAggregatedInventory(userId);
+        return ResponseEntity.ok(ApiResponse.success(inventory));
+    }
+    
+    @GetMapping("/summary/{userId}")
+    @Operation(summary = "Get inventory summary", 
+               description = "Item counts by status across a user's devices, read from maintained counters")
+    public ResponseEntity<ApiResponse<InventorySummaryResponse>> getInventorySummary(
+            @Parameter(description = "User ID") @PathVariable Long userId) {
+        log.debug("Fetching inventory summary for user: {}", userId);
+        return ResponseEntity.ok(ApiResponse.success(inventorySummaryService.getUserSummary(userId)));
+    }
+    
+    @GetMapping("/changes/{userId}")
+    @Operation(summary = "Get inventory changes", 
+               description = "Items added, updated or removed since a version returned by an earlier call, " +
+                       "plus the new version. Without a version, or with an expired one, the full inventory " +
+                       "is returned with fullSync set")
+    public ResponseEntity<ApiResponse<InventoryChangesResponse>> getInventoryChanges(
+            @Parameter(description = "User ID") @PathVariable Long userId,
+            @Parameter(description = "Version from the previous response") @RequestParam(required = false) String since) {
+        log.debug("Fetching inventory changes for user {} since {}", userId, since);
+        try {
+            InventoryChangesResponse changes = inventoryChangeService.getChangesSince(userId, since);
+            return ResponseEntity.ok(ApiResponse.success(changes));
+        } catch (RuntimeException e) {
+            log.error("Error fetching inventory changes: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @GetMapping(value = "/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream inventory changes", 
+               description = "Server-Sent Events of item changes, removals and status transitions. Reconnect " +
+                       "with Last-Event-ID to receive missed events; a resync event means the client should " +
+                       "catch up through /changes first")
+    public SseEmitter streamInventory(
+            @Parameter(description = "User ID") @PathVariable Long userId,
+            @Parameter(description = "ID of the last event received") 
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("Opening inventory stream for user {}", userId);
+        return inventoryPushService.subscribe(userId, lastEventId);
+    }
+    
     @GetMapping("/alerts/{userId}")
-    @Operation(summary = "Get inventory alerts", description = "Get items that need restocking (low, critical, or out of stock)")
+    @Operation(summary = "Get inventory alerts", 
+               description = "Get items that need restocking (low, critical, or out of stock). Supports If-None-Match")
     public ResponseEntity<ApiResponse<List<InventoryItemResponse>>> getInventoryAlerts(
-            @Parameter(description = "User ID") @PathVariable Long userId) {
+            @Parameter(description = "User ID") @PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(inventoryVersionTracker.getETag(userId))) {
+            return null;
+        }
         log.info("Fetching inventory alerts for user: {}", userId);
         List<InventoryItemResponse> alerts = inventoryService.getInventoryAlerts(userId);
         return ResponseEntity.ok(ApiResponse.success(alerts, 
@@ -53,6 +138,39 @@ public class InventoryController {
         return ResponseEntity.ok(ApiResponse.success(items));
     }
     
+    @GetMapping("/forecast/{userId}")
+    @Operation(summary = "Get consumption forecast", 
+               description = "Consumption rate, days until empty and suggested reorder quantity for every item of a user")
+    public ResponseEntity<ApiResponse<List<ItemForecastResponse>>> getConsumptionForecast(
+            @Parameter(description = "User ID") @PathVariable Long userId) {
+        log.info("Fetching consumption forecast for user: {}", userId);
+        List<ItemForecastResponse> forecast = inventoryService.getConsumptionForecast(userId);
+        return ResponseEntity.ok(ApiResponse.success(forecast));
+    }
+    
+    @GetMapping("/history/{itemId}")
+    @Operation(summary = "Get quantity history", 
+               description = "Quantity history for an inventory item. Without a granularity, short recent ranges " +
+                       "return raw readings and longer ranges return hourly or daily rollups")
+    public ResponseEntity<ApiResponse<InventoryHistoryResponse>> getInventoryHistory(
+            @Parameter(description = "Inventory item ID") @PathVariable Long itemId,
+            @Parameter(description = "Range start (ISO date-time), defaults to 24 hours before the end") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Range end (ISO date-time), defaults to now") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "RAW, HOUR or DAY") @RequestParam(required = false) HistoryGranularity granularity) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        log.info("Fetching history for item {} from {} to {}", itemId, start, end);
+        try {
+            InventoryHistoryResponse history = inventoryHistoryService.getHistory(itemId, start, end, granularity);
+            return ResponseEntity.ok(ApiResponse.success(history));
+        } catch (RuntimeException e) {
+            log.error("Error fetching history: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @PutMapping("/threshold/{itemId}")
     @Operation(summary = "Update item threshold", description = "Update the low-stock threshold for an inventory item")
     public ResponseEntity<ApiResponse<InventoryItemResponse>> updateThreshold(
@@ -68,6 +186,24 @@ public class InventoryController {
         }
     }
     
+    @PutMapping("/thresholds")
+    @Operation(summary = "Update thresholds in bulk", 
+               description = "Set thresholds for a list of items, or for all of a user's items in a category " +
+                       "(without a threshold, each item's default). Statuses are recomputed in the database and " +
+                       "the resulting status transitions are returned")
+    public ResponseEntity<ApiResponse<BulkThresholdUpdateResponse>> updateThresholds(
+            @Valid @RequestBody BulkThresholdUpdateRequest request) {
+        log.info("Bulk threshold update: {} items, category {}", 
+                request.getItems() != null ? request.getItems().size() : 0, request.getCategory());
+        try {
+            BulkThresholdUpdateResponse result = inventoryService.updateThresholds(request);
+            return ResponseEntity.ok(ApiResponse.success(result, "Thresholds updated successfully"));
+        } catch (RuntimeException e) {
+            log.error("Error updating thresholds: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @PostMapping("/sync/{deviceId}")
     @Operation(summary = "Sync inventory", description = "Manually trigger inventory sync for a device")
     public ResponseEntity<ApiResponse<Void>> syncInventory(
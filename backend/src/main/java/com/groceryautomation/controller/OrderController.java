@@ -1,16 +1,22 @@
 package com.groceryautomation.controller;
 
+import com.groceryautomation.dto.response.ApiResponse;
+import com.groceryautomation.dto.response.OrderSubmissionResponse;
 import com.groceryautomation.entity.Order;
+import com.groceryautomation.entity.OrderSubmissionJob;
 import com.groceryautomation.enums.OrderStatus;
 import com.groceryautomation.repository.OrderRepository;
+import com.groceryautomation.service.OrderSubmissionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +28,7 @@ import java.util.Optional;
 public class OrderController {
     
     private final OrderRepository orderRepository;
+    private final OrderSubmissionService orderSubmissionService;
     
     @GetMapping("/drafts/user/{userId}")
     @Operation(summary = "Get draft orders for user", 
@@ -116,8 +123,9 @@ public class OrderController {
     
     @PostMapping("/{orderId}/approve")
     @Operation(summary = "Approve draft order", 
-               description = "User approves a draft order for submission to store")
-    public ResponseEntity<Order> approveDraftOrder(
+               description = "User approves a draft order for submission to store. The order is marked submitted and " +
+                             "sent to the store in the background; returns 202 with the submission status URL")
+    public ResponseEntity<ApiResponse<OrderSubmissionResponse>> approveDraftOrder(
             @Parameter(description = "Order ID", example = "1") 
             @PathVariable Long orderId) {
         
@@ -129,24 +137,28 @@ public class OrderController {
             return ResponseEntity.notFound().build();
         }
         
-        Order order = orderOpt.get();
-        
-        if (!order.getStatus().isModifiable()) {
-            log.warn("Order {} cannot be approved - current status: {}", orderId, order.getStatus());
-            return ResponseEntity.badRequest().build();
+        try {
+            OrderSubmissionJob job = orderSubmissionService.submitOrder(orderId);
+            OrderSubmissionResponse response = toSubmissionResponse(job);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create(response.getStatusUrl()))
+                    .body(ApiResponse.success(response, "Order approved and queued for submission"));
+        } catch (RuntimeException e) {
+            log.warn("Order {} cannot be approved: {}", orderId, e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
-        
-        // Update order status and timestamps
-        order.setStatus(OrderStatus.SUBMITTED);
-        order.setUserReviewedAt(java.time.LocalDateTime.now());
-        order.setSubmittedAt(java.time.LocalDateTime.now());
-        order.setFinalTotal(order.getTotalAmount());
-        
-        Order savedOrder = orderRepository.save(order);
-        
-        log.info("Order '{}' approved and submitted with total: ${}", 
-                savedOrder.getOrderNumber(), savedOrder.getFinalTotal());
-        return ResponseEntity.ok(savedOrder);
+    }
+    
+    @GetMapping("/submissions/{jobId}")
+    @Operation(summary = "Get order submission status", 
+               description = "Poll the background submission of an approved order to its store")
+    public ResponseEntity<ApiResponse<OrderSubmissionResponse>> getSubmissionStatus(
+            @Parameter(description = "Submission job ID", example = "1") 
+            @PathVariable Long jobId) {
+        
+        return orderSubmissionService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(ApiResponse.success(toSubmissionResponse(job))))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
     
     @DeleteMapping("/{orderId}")
@@ -177,4 +189,19 @@ public class OrderController {
         log.info("Draft order '{}' cancelled successfully", order.getOrderNumber());
         return ResponseEntity.noContent().build();
     }
-} 
\ No newline at end of file
+    
+    private OrderSubmissionResponse toSubmissionResponse(OrderSubmissionJob job) {
+        return OrderSubmissionResponse.builder()
+                .jobId(job.getId())
+                .orderId(job.getOrderId())
+                .storeId(job.getStoreId())
+                .status(job.getStatus())
+                .attempts(job.getAttempts())
+                .externalOrderId(job.getExternalOrderId())
+                .lastError(job.getLastError())
+                .statusUrl("/api/orders/submissions/" + job.getId())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.groceryautomation.controller;
+
+import com.groceryautomation.dto.request.FleetSimulationRequest;
+import com.groceryautomation.dto.response.ApiResponse;
+import com.groceryautomation.dto.response.FleetSimulationReport;
+import com.groceryautomation.service.FleetSensorSimulator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/simulation")
+@Profile("!production")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Simulation", description = "Load generation endpoints for capacity testing (non-production only)")
+public class SimulationController {
+    
+    private final FleetSensorSimulator fleetSensorSimulator;
+    
+    @PostMapping("/fleet")
+    @Operation(summary = "Run fleet simulation", 
+               description = "Drive virtual sensors through the ingestion path and report readings/sec and write latency percentiles")
+    public ResponseEntity<ApiResponse<FleetSimulationReport>> runFleetSimulation(
+            @Valid @RequestBody(required = false) FleetSimulationRequest request) {
+        log.info("Starting fleet simulation: {}", request);
+        try {
+            FleetSimulationReport report = fleetSensorSimulator.runSimulation(
+                    request != null ? request : new FleetSimulationRequest());
+            return ResponseEntity.ok(ApiResponse.success(report, 
+                    String.format("%.0f readings/sec", report.getReadingsPerSecond())));
+        } catch (RuntimeException e) {
+            log.error("Fleet simulation failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
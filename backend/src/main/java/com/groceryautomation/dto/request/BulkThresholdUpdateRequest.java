@@ -0,0 +1,32 @@
+package com.groceryautomation.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Either explicit (item, threshold) pairs, or a rule applying one threshold to every item of a
+ * user in a category. Without a threshold, the rule resets each item to its grocery item's default.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkThresholdUpdateRequest {
+    
+    @Size(max = 1000, message = "At most 1000 items can be updated at once")
+    private List<@Valid ThresholdUpdateRequest> items;
+    
+    // Category rule
+    private Long userId;
+    private String category;
+    
+    @PositiveOrZero(message = "Threshold must be zero or positive")
+    private Double threshold;
+}
@@ -0,0 +1,35 @@
+package com.groceryautomation.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parameters for a fleet simulation run. Any field left null falls back to the
+ * sensor.simulator.* defaults in application.properties.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FleetSimulationRequest {
+    
+    @Min(value = 1, message = "At least one virtual device is required")
+    @Max(value = 1_000_000, message = "At most 1,000,000 virtual devices are supported")
+    private Integer virtualDevices;
+    
+    @Min(value = 1, message = "At least one frame per device is required")
+    @Max(value = 1_000, message = "At most 1,000 frames per device are supported")
+    private Integer framesPerDevice;
+    
+    @Min(value = 1, message = "At least one worker is required")
+    @Max(value = 256, message = "At most 256 workers are supported")
+    private Integer workers;
+    
+    private Long seed;
+    
+    private Boolean dryRun; // Generate readings without writing them, to measure the generator itself
+}
@@ -0,0 +1,22 @@
+package com.groceryautomation.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SensorReadingBatchRequest {
+    
+    @NotEmpty(message = "At least one reading is required")
+    @Size(max = 1000, message = "A batch may contain at most 1000 readings")
+    private List<@Valid SensorReadingRequest> readings;
+}
@@ -0,0 +1,26 @@
+package com.groceryautomation.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SensorReadingRequest {
+    
+    @NotNull(message = "Grocery item ID is required")
+    private Long groceryItemId;
+    
+    @NotNull(message = "Quantity is required")
+    @PositiveOrZero(message = "Quantity must be zero or positive")
+    private Double quantity;
+    
+    private LocalDateTime timestamp; // Sensor capture time, defaults to server receive time
+}
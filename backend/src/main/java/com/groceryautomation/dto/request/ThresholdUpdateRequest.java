@@ -0,0 +1,22 @@
+package com.groceryautomation.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ThresholdUpdateRequest {
+    
+    @NotNull(message = "Inventory item ID is required")
+    private Long itemId;
+    
+    @NotNull(message = "Threshold is required")
+    @PositiveOrZero(message = "Threshold must be zero or positive")
+    private Double threshold;
+}
@@ -0,0 +1,28 @@
+package com.groceryautomation.dto.response;
+
+import com.groceryautomation.enums.InventoryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AggregatedInventoryItemResponse {
+    
+    private Long itemId;
+    private String name;
+    private String category;
+    private String unit;
+    private String imageUrl;
+    private Double totalQuantity;
+    private Double totalThresholdQuantity;
+    private InventoryStatus status; // Worst status on any device
+    private LocalDateTime lastUpdated;
+    private List<String> deviceIds;
+}
@@ -0,0 +1,24 @@
+package com.groceryautomation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AggregatedInventoryResponse {
+    
+    private Long userId;
+    private int deviceCount;
+    private int onlineDevices;
+    private List<AggregatedInventoryItemResponse> items; // One entry per grocery item across all devices
+    private List<CurrentInventoryResponse> devices; // Per-device breakdown
+    private int totalItems;
+    private int lowStockItems;
+    private int outOfStockItems;
+}
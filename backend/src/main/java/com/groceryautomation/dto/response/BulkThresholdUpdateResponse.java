@@ -0,0 +1,20 @@
+package com.groceryautomation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkThresholdUpdateResponse {
+    
+    private int matched; // Items found for the request
+    private int updated; // Items whose threshold actually changed
+    private List<InventoryStatusTransitionResponse> transitions; // Items whose status changed as a result
+    private List<Long> missingItemIds; // Requested item IDs that do not exist
+}
@@ -0,0 +1,40 @@
+package com.groceryautomation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FleetSimulationReport {
+    
+    private int virtualDevices;
+    private int realDevices;
+    private int workers;
+    private long seed;
+    private boolean dryRun;
+    
+    private long frames;
+    private long readings;
+    private long failedFrames;
+    private long elapsedMillis;
+    
+    private double readingsPerSecond;
+    private double framesPerSecond;
+    
+    // Write latency per frame, in milliseconds
+    private double latencyP50Millis;
+    private double latencyP90Millis;
+    private double latencyP99Millis;
+    private double latencyMaxMillis;
+    
+    // Set when virtual devices share real devices, so their writes contend on the same rows
+    private String sharedDeviceWarning;
+    
+    private LocalDateTime startedAt;
+}
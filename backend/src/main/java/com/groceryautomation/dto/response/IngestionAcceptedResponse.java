@@ -0,0 +1,20 @@
+package com.groceryautomation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestionAcceptedResponse {
+    
+    private String deviceId;
+    private int queueDepth;
+    private int queueCapacity;
+    private LocalDateTime acceptedAt;
+}
@@ -0,0 +1,20 @@
+package com.groceryautomation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryChangesResponse {
+    
+    private String version; // Pass as "since" on the next request
+    private boolean fullSync; // True when upserted is the complete inventory and local state should be replaced
+    private List<InventoryItemResponse> upserted; // Added or updated items, current state
+    private List<Long> removed; // Inventory item IDs
+}
@@ -0,0 +1,24 @@
+package com.groceryautomation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryHistoryPoint {
+    
+    // Reading time for raw points, bucket start for rollups
+    private LocalDateTime timestamp;
+    private int samples;
+    private Double minQuantity;
+    private Double maxQuantity;
+    private Double avgQuantity;
+    private Double lastQuantity;
+    private Double consumed;
+}
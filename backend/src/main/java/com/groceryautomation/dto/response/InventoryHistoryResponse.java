@@ -0,0 +1,23 @@
+package com.groceryautomation.dto.response;
+
+import com.groceryautomation.enums.HistoryGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryHistoryResponse {
+    
+    private Long inventoryItemId;
+    private HistoryGranularity granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<InventoryHistoryPoint> points;
+}
@@ -25,4 +25,5 @@ public class InventoryItemResponse {
     private LocalDateTime lastUpdated;
     private LocalDateTime expirationDate;
     private String imageUrl;
+    private String deviceId;
 } 
\ No newline at end of file
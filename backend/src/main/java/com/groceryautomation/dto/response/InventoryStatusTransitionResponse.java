@@ -0,0 +1,19 @@
+package com.groceryautomation.dto.response;
+
+import com.groceryautomation.enums.InventoryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryStatusTransitionResponse {
+    
+    private Long itemId; // Inventory item ID
+    private Long deviceId;
+    private InventoryStatus from;
+    private InventoryStatus to;
+}
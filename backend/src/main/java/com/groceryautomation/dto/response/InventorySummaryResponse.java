@@ -0,0 +1,24 @@
+package com.groceryautomation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventorySummaryResponse {
+    
+    private Long userId;
+    private int deviceCount;
+    private int totalItems;
+    private int lowItems;
+    private int criticalItems;
+    private int outOfStockItems;
+    private int alertItems; // LOW + CRITICAL + OUT_OF_STOCK, for badges
+    private LocalDateTime lastChange;
+}
@@ -0,0 +1,21 @@
+package com.groceryautomation.dto.response;
+
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.enums.InventoryUpdateType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryUpdateResponse {
+    
+    private InventoryUpdateType type;
+    private Long itemId; // Inventory item ID
+    private InventoryItemResponse item; // Current state, for ITEM_CHANGED only
+    private InventoryStatus from; // For STATUS_CHANGED only
+    private InventoryStatus to; // For STATUS_CHANGED only
+}
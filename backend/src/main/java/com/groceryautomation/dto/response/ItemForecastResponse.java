@@ -0,0 +1,28 @@
+package com.groceryautomation.dto.response;
+
+import com.groceryautomation.enums.InventoryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemForecastResponse {
+    
+    private Long inventoryItemId;
+    private String name;
+    private String unit;
+    private Double quantity;
+    private InventoryStatus status;
+    private LocalDateTime expirationDate;
+    private Double dailyConsumptionRate;
+    private Double rateStdDev;
+    private Double daysUntilEmpty;
+    private Double suggestedQuantity;
+    private int samples;
+}
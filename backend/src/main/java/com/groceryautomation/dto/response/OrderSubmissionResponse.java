@@ -0,0 +1,27 @@
+package com.groceryautomation.dto.response;
+
+import com.groceryautomation.enums.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSubmissionResponse {
+    
+    private Long jobId;
+    private Long orderId;
+    private Long storeId;
+    private SubmissionStatus status;
+    private int attempts;
+    private String externalOrderId;
+    private String lastError;
+    private String statusUrl;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
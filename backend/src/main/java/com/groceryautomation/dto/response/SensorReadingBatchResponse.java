@@ -0,0 +1,23 @@
+package com.groceryautomation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SensorReadingBatchResponse {
+    
+    private String deviceId;
+    private int received;
+    private int applied;
+    private int rejected;
+    private List<SensorReadingResult> results;
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,23 @@
+package com.groceryautomation.dto.response;
+
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.enums.ReadingOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SensorReadingResult {
+    
+    private Long groceryItemId;
+    private Long inventoryItemId;
+    private ReadingOutcome outcome;
+    private Double previousQuantity;
+    private Double quantity;
+    private InventoryStatus previousStatus;
+    private InventoryStatus status;
+}
@@ -0,0 +1,61 @@
+package com.groceryautomation.entity;
+
+import com.groceryautomation.enums.InventoryChangeType;
+import com.groceryautomation.enums.InventoryStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the inventory change log behind delta sync and inventory push. The ID doubles
+ * as the change's position in the log.
+ * 
+ * Written with plain SQL by InventoryChangeServiceImpl inside the transaction that changed
+ * the item; the entity only defines the table.
+ */
+@Entity
+@Table(name = "inventory_changes", indexes = {
+        @Index(name = "idx_inventory_changes_user", columnList = "user_id, id"),
+        @Index(name = "idx_inventory_changes_item", columnList = "inventory_item_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "device_id", nullable = false)
+    private Long deviceId;
+    
+    @Column(name = "inventory_item_id", nullable = false)
+    private Long inventoryItemId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false)
+    private InventoryChangeType changeType;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    /**
+     * Set on entries that record a status transition, which inventory push relays to clients
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status")
+    private InventoryStatus fromStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status")
+    private InventoryStatus toStatus;
+}
@@ -1,23 +1,30 @@
 package com.groceryautomation.entity;
 
+import com.groceryautomation.enums.ExpirationStage;
 import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.event.listener.InventoryItemStatusListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory_items")
+@Table(name = "inventory_items", indexes = {
+        @Index(name = "idx_inventory_items_expiration", columnList = "expiration_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(InventoryItemStatusListener.class)
 public class InventoryItem {
     
     @Id
@@ -56,20 +63,47 @@ public class InventoryItem {
     private LocalDateTime addedAt;
     
     // Track expiration for perishables
+    @Column(name = "expiration_date")
     private LocalDateTime expirationDate;
     
-    // Helper method to calculate status based on quantity and threshold
+    // Last expiration alert and the date it was for; claimed with plain SQL by ExpirationTracker
+    // only, so saving a stale entity never resets them
+    @Column(name = "expiration_alert_date", insertable = false, updatable = false)
+    private LocalDateTime expirationAlertDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "expiration_alert_stage", insertable = false, updatable = false)
+    private ExpirationStage expirationAlertStage;
+    
+    // Status as last read from or written to the database, used to detect transitions
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private InventoryStatus persistedStatus;
+    
+    // Expiration date as last read from or written to the database
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private LocalDateTime persistedExpirationDate;
+    
     @PrePersist
     @PreUpdate
     public void updateStatus() {
+        this.status = statusFor(quantity, thresholdQuantity);
+    }
+    
+    // Status rule shared with paths that track quantities outside the entity; mirrored in SQL
+    // by the bulk threshold update in InventoryServiceImpl
+    public static InventoryStatus statusFor(double quantity, double thresholdQuantity) {
         if (quantity == 0) {
-            this.status = InventoryStatus.OUT_OF_STOCK;
+            return InventoryStatus.OUT_OF_STOCK;
         } else if (quantity <= thresholdQuantity * 0.5) {
-            this.status = InventoryStatus.CRITICAL;
+            return InventoryStatus.CRITICAL;
         } else if (quantity <= thresholdQuantity) {
-            this.status = InventoryStatus.LOW;
+            return InventoryStatus.LOW;
         } else {
-            this.status = InventoryStatus.SUFFICIENT;
+            return InventoryStatus.SUFFICIENT;
         }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.groceryautomation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single quantity reading for an inventory item. Rows are inserted, flagged once
+ * their hour has been rolled up, and eventually deleted by retention.
+ * 
+ * Item and device are plain ID columns rather than associations so inserts never
+ * load or lock the hot inventory rows.
+ */
+@Entity
+@Table(name = "inventory_readings", indexes = {
+        @Index(name = "idx_inventory_readings_item_time", columnList = "inventory_item_id, recorded_at"),
+        @Index(name = "idx_inventory_readings_time", columnList = "recorded_at"),
+        @Index(name = "idx_inventory_readings_pending", columnList = "rolled_up, recorded_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryReading {
+    
+    // Sequence with a block allocation so Hibernate can batch inserts (IDENTITY disables batching)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_reading_seq")
+    @SequenceGenerator(name = "inventory_reading_seq", sequenceName = "inventory_reading_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "inventory_item_id", nullable = false)
+    private Long inventoryItemId;
+    
+    @Column(nullable = false)
+    private Long deviceId;
+    
+    @Column(nullable = false)
+    private Double quantity;
+    
+    // When the sensor captured the reading
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+    
+    // Set once the reading is counted in its hourly rollup; readings can arrive for hours
+    // that were rolled up already, so this rather than the time decides what is pending
+    @Builder.Default
+    @Column(name = "rolled_up", nullable = false, columnDefinition = "boolean default false")
+    private boolean rolledUp = false;
+}
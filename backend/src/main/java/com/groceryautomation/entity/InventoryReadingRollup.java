@@ -0,0 +1,52 @@
+package com.groceryautomation.entity;
+
+import com.groceryautomation.enums.HistoryGranularity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregated readings for one inventory item over an hour or a day.
+ */
+@Entity
+@Table(name = "inventory_reading_rollups", 
+       uniqueConstraints = @UniqueConstraint(name = "uk_rollup_item_bucket", 
+               columnNames = {"inventory_item_id", "granularity", "bucket_start"}),
+       indexes = @Index(name = "idx_rollup_granularity_bucket", columnList = "granularity, bucket_start"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryReadingRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_rollup_seq")
+    @SequenceGenerator(name = "inventory_rollup_seq", sequenceName = "inventory_rollup_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "inventory_item_id", nullable = false)
+    private Long inventoryItemId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private HistoryGranularity granularity;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(nullable = false)
+    private Integer sampleCount;
+    
+    private Double minQuantity;
+    private Double maxQuantity;
+    private Double avgQuantity;
+    private Double firstQuantity;
+    private Double lastQuantity;
+    
+    // Sum of decreases between consecutive readings in the bucket
+    private Double consumed;
+}
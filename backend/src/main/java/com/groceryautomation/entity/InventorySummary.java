@@ -0,0 +1,48 @@
+package com.groceryautomation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized per-device inventory counts, kept current by applying status transitions
+ * as deltas so summary reads never depend on the number of items.
+ * 
+ * Maintained with plain SQL by InventorySummaryServiceImpl; the entity is only used for reads.
+ */
+@Entity
+@Table(name = "inventory_summaries", indexes = {
+        @Index(name = "idx_inventory_summaries_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventorySummary {
+    
+    @Id
+    @Column(name = "device_id")
+    private Long deviceId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "total_items", nullable = false)
+    private int totalItems;
+    
+    @Column(name = "low_items", nullable = false)
+    private int lowItems;
+    
+    @Column(name = "critical_items", nullable = false)
+    private int criticalItems;
+    
+    @Column(name = "out_of_stock_items", nullable = false)
+    private int outOfStockItems;
+    
+    @Column(name = "last_change")
+    private LocalDateTime lastChange;
+}
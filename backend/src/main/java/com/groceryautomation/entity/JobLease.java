@@ -0,0 +1,32 @@
+package com.groceryautomation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease that lets one instance at a time run a periodic job. Every instance triggers the job;
+ * the one that claims the lease runs it and the others skip. The lease is renewed while the job
+ * runs and runs out if its holder dies, so another instance takes over.
+ */
+@Entity
+@Table(name = "job_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease {
+    
+    @Id
+    @Column(length = 50)
+    private String name;
+    
+    @Column(length = 36)
+    private String owner;
+    
+    private LocalDateTime leaseUntil;
+}
@@ -1,15 +1,19 @@
 package com.groceryautomation.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.event.listener.OrderStatusListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -18,11 +22,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+       indexes = @Index(name = "idx_orders_status_next_check", columnList = "status, next_status_check_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(OrderStatusListener.class)
 public class Order {
     
     @Id
@@ -46,10 +52,17 @@ public class Order {
     private List<OrderItem> items = new ArrayList<>();
     
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Column(name = "status", nullable = false)
     @Builder.Default
     private OrderStatus status = OrderStatus.DRAFT;
     
+    // Status as last read from or written to the database, used to detect transitions
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @JsonIgnore
+    private OrderStatus persistedStatus;
+    
     @NotNull(message = "Subtotal is required")
     @Positive(message = "Subtotal must be positive")
     @Column(nullable = false)
@@ -82,6 +95,10 @@ public class Order {
     // External order ID from store's system
     private String externalOrderId;
     
+    // When the store should next be asked about this order; null means as soon as possible
+    @Column(name = "next_status_check_at")
+    private LocalDateTime nextStatusCheckAt;
+    
     // Notification sent flag
     @Builder.Default
     private boolean notificationSent = false;
@@ -122,11 +139,16 @@ public class Order {
     public void calculateTotals() {
         // Only recalculate if we have items, otherwise preserve explicitly set values
         if (items != null && !items.isEmpty()) {
-            this.subtotal = items.stream()
+            applySubtotal(items.stream()
                 .mapToDouble(item -> item.getQuantity() * item.getPrice())
-                .sum();
-            this.tax = this.subtotal * 0.08; // 8% tax for POC
-            this.totalAmount = this.subtotal + this.deliveryFee + this.tax;
+                .sum());
         }
     }
+    
+    // Tax and total for a subtotal, for items priced before they are attached to the order
+    public void applySubtotal(double subtotal) {
+        this.subtotal = subtotal;
+        this.tax = this.subtotal * 0.08; // 8% tax for POC
+        this.totalAmount = this.subtotal + this.deliveryFee + this.tax;
+    }
 } 
\ No newline at end of file
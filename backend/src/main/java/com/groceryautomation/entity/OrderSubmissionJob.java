@@ -0,0 +1,58 @@
+package com.groceryautomation.entity;
+
+import com.groceryautomation.enums.SubmissionStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending or finished submission of an approved order to its store. Jobs are persisted in the
+ * approving transaction and carried out by the submission workers, so the order reaches the
+ * store even if the application restarts before a worker gets to it.
+ */
+@Entity
+@Table(name = "order_submission_jobs",
+       indexes = @Index(name = "idx_order_submission_jobs_status", columnList = "status, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSubmissionJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long orderId;
+    
+    @Column(nullable = false)
+    private Long storeId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private SubmissionStatus status = SubmissionStatus.PENDING;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+    
+    private String externalOrderId;
+    
+    @Column(length = 500)
+    private String lastError;
+    
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime startedAt;
+    
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,38 @@
+package com.groceryautomation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks an outbox event as delivered to one handler. The relay writes a row as soon as a handler
+ * succeeds, so when another handler of the same event fails, the retry only runs the handlers
+ * without a row. Written and purged with plain JDBC by the relay; the entity defines the table.
+ */
+@Entity
+@Table(name = "outbox_deliveries",
+       uniqueConstraints = @UniqueConstraint(name = "uk_outbox_deliveries_event_handler",
+                                             columnNames = {"event_id", "handler"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxDelivery {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+    
+    @Column(nullable = false, length = 200)
+    private String handler;
+    
+    @Column(nullable = false)
+    private LocalDateTime deliveredAt;
+}
@@ -0,0 +1,65 @@
+package com.groceryautomation.entity;
+
+import com.groceryautomation.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event recorded in the same transaction as the change that caused it. Rows are written
+ * and claimed with plain JDBC by the outbox writer and relay; the entity defines the table.
+ *
+ * A row is claimed by stamping it with the relay's claim token. Claims older than the claim
+ * timeout are treated as abandoned, so a relay that dies mid-batch only delays its rows.
+ */
+@Entity
+@Table(name = "outbox_events",
+       indexes = @Index(name = "idx_outbox_events_status", columnList = "status, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 100)
+    private String eventType;
+    
+    @Column(nullable = false, length = 50)
+    private String aggregateType;
+    
+    @Column(nullable = false)
+    private Long aggregateId;
+    
+    @Column(nullable = false, length = 2000)
+    private String payload;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+    
+    @Column(length = 36)
+    private String claimToken;
+    
+    private LocalDateTime claimedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime processedAt;
+    
+    @Column(length = 500)
+    private String lastError;
+}
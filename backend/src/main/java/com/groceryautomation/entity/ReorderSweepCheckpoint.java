@@ -0,0 +1,50 @@
+package com.groceryautomation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the automatic reorder sweep. Every user up to and including lastUserId has been
+ * handled in the current run, so an interrupted run resumes after it.
+ * 
+ * The row also carries the lease that lets one instance at a time run the sweep. The lease is
+ * claimed and renewed with conditional updates only, so saving progress never touches it.
+ */
+@Entity
+@Table(name = "reorder_sweep_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReorderSweepCheckpoint {
+    
+    @Id
+    @Column(length = 50)
+    private String name;
+    
+    @Column(nullable = false)
+    private LocalDateTime runStartedAt;
+    
+    @Column(nullable = false)
+    private Long lastUserId;
+    
+    // Null while the run is in progress
+    private LocalDateTime completedAt;
+    
+    @Column(nullable = false)
+    private long usersScanned;
+    
+    @Column(nullable = false)
+    private long draftsCreated;
+    
+    @Column(length = 36, insertable = false, updatable = false)
+    private String leaseOwner;
+    
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime leaseUntil;
+}
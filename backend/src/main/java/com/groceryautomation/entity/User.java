@@ -82,6 +82,11 @@ public class User {
     @Builder.Default
     private boolean active = true;
     
+    // Bumped with plain SQL by InventoryVersionTracker, never written through the entity
+    @Column(name = "inventory_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    private long inventoryVersion;
+    
     // Helper method to get primary store
     @JsonIgnore
     public Store getPrimaryStore() {
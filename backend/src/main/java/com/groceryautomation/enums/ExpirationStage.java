@@ -0,0 +1,6 @@
+package com.groceryautomation.enums;
+
+public enum ExpirationStage {
+    EXPIRING_SOON,
+    EXPIRED
+}
@@ -0,0 +1,10 @@
+package com.groceryautomation.enums;
+
+/**
+ * Resolution of inventory history data, from raw readings to daily rollups.
+ */
+public enum HistoryGranularity {
+    RAW,
+    HOUR,
+    DAY
+}
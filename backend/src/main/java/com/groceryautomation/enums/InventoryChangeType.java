@@ -0,0 +1,7 @@
+package com.groceryautomation.enums;
+
+public enum InventoryChangeType {
+    ADDED,
+    UPDATED,
+    REMOVED
+}
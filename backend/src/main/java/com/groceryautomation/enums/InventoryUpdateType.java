@@ -0,0 +1,20 @@
+package com.groceryautomation.enums;
+
+/**
+ * Kind of a pushed inventory update (SSE event name and GraphQL subscription payload)
+ */
+public enum InventoryUpdateType {
+    ITEM_CHANGED("item-changed"),
+    ITEM_REMOVED("item-removed"),
+    STATUS_CHANGED("status-changed");
+    
+    private final String eventName;
+    
+    InventoryUpdateType(String eventName) {
+        this.eventName = eventName;
+    }
+    
+    public String getEventName() {
+        return eventName;
+    }
+}
@@ -7,6 +7,8 @@ public enum NotificationType {
     // Inventory related
     LOW_INVENTORY("Low Inventory Alert", "Some items in your inventory are running low"),
     OUT_OF_STOCK("Out of Stock Alert", "Some items are completely out of stock"),
+    ITEM_EXPIRING_SOON("Item Expiring Soon", "An item in your inventory is about to expire"),
+    ITEM_EXPIRED("Item Expired", "An item in your inventory has expired"),
     
     // Order related
     DRAFT_ORDER_CREATED("Draft Order Created", "A new order has been created for your review"),
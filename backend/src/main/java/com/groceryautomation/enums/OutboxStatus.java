@@ -0,0 +1,10 @@
+package com.groceryautomation.enums;
+
+/**
+ * Delivery state of a transactional outbox row
+ */
+public enum OutboxStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.groceryautomation.enums;
+
+/**
+ * Result of applying a single sensor reading to a device's inventory
+ */
+public enum ReadingOutcome {
+    APPLIED,       // Quantity changed and was written
+    UNCHANGED,     // Quantity matched the stored value, nothing to write
+    SUPERSEDED,    // A newer reading for the same item in the batch won
+    UNKNOWN_ITEM   // Item is not tracked on this device
+}
@@ -0,0 +1,15 @@
+package com.groceryautomation.enums;
+
+/**
+ * Progress of an order submission job handed to a store API
+ */
+public enum SubmissionStatus {
+    PENDING,
+    IN_PROGRESS,
+    SUCCEEDED,
+    FAILED;
+    
+    public boolean isFinalState() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -0,0 +1,15 @@
+package com.groceryautomation.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when the liveness tracker moves a device online or offline.
+ * 
+ * @param lastSeen the heartbeat that brought the device online, or the last one before it went silent
+ */
+public record DeviceStatusChangedEvent(Long deviceId,
+                                       String externalDeviceId,
+                                       Long userId,
+                                       boolean online,
+                                       LocalDateTime lastSeen) {
+}
@@ -0,0 +1,14 @@
+package com.groceryautomation.event;
+
+import com.groceryautomation.enums.InventoryChangeType;
+
+/**
+ * Published whenever an inventory item row is inserted, updated or deleted, whether or not
+ * its status changed. Used to drop cached views of the owner's inventory and to record
+ * the change for delta sync.
+ */
+public record InventoryItemChangedEvent(Long itemId,
+                                        Long deviceId,
+                                        Long userId,
+                                        InventoryChangeType changeType) {
+}
@@ -0,0 +1,14 @@
+package com.groceryautomation.event;
+
+import com.groceryautomation.enums.InventoryStatus;
+
+/**
+ * Published when an inventory item is inserted (delta +1) or deleted (delta -1),
+ * carrying the item's status at that point.
+ */
+public record InventoryItemCountChangedEvent(Long itemId,
+                                             Long deviceId,
+                                             Long userId,
+                                             InventoryStatus status,
+                                             int delta) {
+}
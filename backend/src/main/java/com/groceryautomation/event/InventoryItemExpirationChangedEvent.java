@@ -0,0 +1,15 @@
+package com.groceryautomation.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when an inventory item is written with a different expiration date than it was
+ * loaded with, including being inserted with one. Keeps the expiration tracker's window current.
+ *
+ * @param expirationDate the new date, or null when it was cleared
+ */
+public record InventoryItemExpirationChangedEvent(Long itemId,
+                                                  Long deviceId,
+                                                  Long userId,
+                                                  LocalDateTime expirationDate) {
+}
@@ -0,0 +1,16 @@
+package com.groceryautomation.event;
+
+import com.groceryautomation.enums.ExpirationStage;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by the expiration tracker when a stocked item is about to expire, and again
+ * when it has expired.
+ */
+public record InventoryItemExpirationEvent(Long itemId,
+                                           Long deviceId,
+                                           Long userId,
+                                           LocalDateTime expirationDate,
+                                           ExpirationStage stage) {
+}
@@ -0,0 +1,27 @@
+package com.groceryautomation.event;
+
+import com.groceryautomation.enums.InventoryStatus;
+
+/**
+ * Published when an inventory item's status actually changes on write,
+ * e.g. SUFFICIENT to LOW. Notification listeners receive it after the transaction commits;
+ * the summary counters apply it within the transaction.
+ */
+public record InventoryStatusChangedEvent(Long itemId,
+                                          Long deviceId,
+                                          Long userId,
+                                          InventoryStatus from,
+                                          InventoryStatus to) {
+    
+    /**
+     * @return true when the item moved into a worse (lower stock) status
+     */
+    public boolean isDegraded() {
+        // InventoryStatus constants are declared from best to worst
+        return to.ordinal() > from.ordinal();
+    }
+    
+    public boolean isAlert() {
+        return to != InventoryStatus.SUFFICIENT;
+    }
+}
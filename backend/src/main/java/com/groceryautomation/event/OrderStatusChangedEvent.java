@@ -0,0 +1,15 @@
+package com.groceryautomation.event;
+
+import com.groceryautomation.enums.OrderStatus;
+
+/**
+ * Published when an order is created (from is null) or its status changes on write,
+ * e.g. DRAFT to SUBMITTED. Written to the outbox within the transaction; subscriptions read it
+ * from there.
+ */
+public record OrderStatusChangedEvent(Long orderId,
+                                      Long userId,
+                                      String orderNumber,
+                                      OrderStatus from,
+                                      OrderStatus to) {
+}
@@ -0,0 +1,10 @@
+package com.groceryautomation.event;
+
+/**
+ * Published when an approved order has been queued for submission to its store.
+ * Listeners receive it after the transaction commits, once the job row is visible to workers.
+ */
+public record OrderSubmissionRequestedEvent(Long jobId,
+                                            Long orderId,
+                                            Long storeId) {
+}
@@ -0,0 +1,15 @@
+package com.groceryautomation.event;
+
+/**
+ * Side effect run by the outbox relay for a committed domain event. Delivery is at least once:
+ * a handler may see the same event again after a crash between handling it and recording the
+ * delivery, so handlers must tolerate repeats. Deliveries are recorded per handler class, so a
+ * failure in another handler for the same event does not run this one again. Throwing leaves
+ * the event for a retry.
+ */
+public interface OutboxHandler<E> {
+    
+    Class<E> eventType();
+    
+    void handle(E event);
+}
@@ -0,0 +1,44 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.config.AsyncConfig;
+import com.groceryautomation.enums.NotificationType;
+import com.groceryautomation.event.DeviceStatusChangedEvent;
+import com.groceryautomation.repository.UserRepository;
+import com.groceryautomation.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Tells the owner when a device goes silent or comes back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeviceStatusNotificationListener {
+    
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    
+    @Async(AsyncConfig.EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceStatusChanged(DeviceStatusChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        
+        NotificationType type = event.online() ? NotificationType.DEVICE_ONLINE : NotificationType.DEVICE_OFFLINE;
+        String message = event.online() 
+                ? "Device " + event.externalDeviceId() + " is reporting again"
+                : "Device " + event.externalDeviceId() + " has not reported since " + event.lastSeen();
+        try {
+            userRepository.findById(event.userId()).ifPresent(user -> 
+                    notificationService.createNotification(user, type, type.getTitle(), message, 
+                            "DEVICE", event.deviceId()));
+        } catch (RuntimeException e) {
+            log.error("Failed to notify user {} about device {}", event.userId(), event.externalDeviceId(), e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.event.OutboxHandler;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.repository.UserRepository;
+import com.groceryautomation.service.OrderManagementService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Starts a draft order when an item becomes critical or runs out. Runs from the outbox, so a
+ * crash after the status change commits still ends in a draft; a repeated event, or a later one
+ * for an item already drafted, returns the draft already open for the store.
+ */
+@Component
+@Slf4j
+public class DraftOrderListener implements OutboxHandler<InventoryStatusChangedEvent> {
+    
+    private final UserRepository userRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final ObjectProvider<OrderManagementService> orderManagementService;
+    private final boolean enabled;
+    
+    public DraftOrderListener(UserRepository userRepository,
+                              InventoryItemRepository inventoryItemRepository,
+                              ObjectProvider<OrderManagementService> orderManagementService,
+                              @Value("${inventory.events.auto-draft-orders:true}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.orderManagementService = orderManagementService;
+        this.enabled = enabled;
+    }
+    
+    @Override
+    public Class<InventoryStatusChangedEvent> eventType() {
+        return InventoryStatusChangedEvent.class;
+    }
+    
+    @Override
+    public void handle(InventoryStatusChangedEvent event) {
+        if (!enabled || !event.isDegraded() 
+                || (event.to() != InventoryStatus.CRITICAL && event.to() != InventoryStatus.OUT_OF_STOCK)) {
+            return;
+        }
+        
+        OrderManagementService orders = orderManagementService.getIfAvailable();
+        if (orders == null) {
+            log.debug("No order management service available, skipping draft order for item {}", event.itemId());
+            return;
+        }
+        
+        // Failures propagate so the relay retries the event
+        userRepository.findById(event.userId()).ifPresent(user -> 
+                inventoryItemRepository.findById(event.itemId()).ifPresent(item -> 
+                        orders.createDraftOrder(user, List.of(item))));
+    }
+}
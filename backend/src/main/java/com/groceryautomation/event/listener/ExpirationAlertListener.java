@@ -0,0 +1,71 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.config.AsyncConfig;
+import com.groceryautomation.enums.ExpirationStage;
+import com.groceryautomation.enums.NotificationType;
+import com.groceryautomation.event.InventoryItemExpirationEvent;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.repository.UserRepository;
+import com.groceryautomation.service.NotificationService;
+import com.groceryautomation.service.OrderManagementService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Tells the owner when an item is about to expire or has expired, and starts a draft order
+ * to replace an expired item.
+ */
+@Component
+@Slf4j
+public class ExpirationAlertListener {
+    
+    private final UserRepository userRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final NotificationService notificationService;
+    private final ObjectProvider<OrderManagementService> orderManagementService;
+    private final boolean draftOrdersEnabled;
+    
+    public ExpirationAlertListener(UserRepository userRepository,
+                                   InventoryItemRepository inventoryItemRepository,
+                                   NotificationService notificationService,
+                                   ObjectProvider<OrderManagementService> orderManagementService,
+                                   @Value("${inventory.events.auto-draft-orders:true}") boolean draftOrdersEnabled) {
+        this.userRepository = userRepository;
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.notificationService = notificationService;
+        this.orderManagementService = orderManagementService;
+        this.draftOrdersEnabled = draftOrdersEnabled;
+    }
+    
+    @Async(AsyncConfig.EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpiration(InventoryItemExpirationEvent event) {
+        boolean expired = event.stage() == ExpirationStage.EXPIRED;
+        NotificationType type = expired ? NotificationType.ITEM_EXPIRED : NotificationType.ITEM_EXPIRING_SOON;
+        
+        try {
+            userRepository.findById(event.userId()).ifPresent(user -> 
+                    inventoryItemRepository.findById(event.itemId()).ifPresent(item -> {
+                        String name = item.getGroceryItem().getName();
+                        String message = expired 
+                                ? name + " expired on " + event.expirationDate()
+                                : name + " expires on " + event.expirationDate();
+                        notificationService.createNotification(user, type, type.getTitle(), message, 
+                                "INVENTORY_ITEM", item.getId());
+                        
+                        OrderManagementService orders = orderManagementService.getIfAvailable();
+                        if (expired && draftOrdersEnabled && orders != null) {
+                            orders.createDraftOrder(user, List.of(item));
+                        }
+                    }));
+        } catch (RuntimeException e) {
+            log.error("Failed to handle expiration of item {}", event.itemId(), e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.event.InventoryItemExpirationChangedEvent;
+import com.groceryautomation.service.ExpirationTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hands committed expiration dates to the tracker, so a date inside its loaded window
+ * does not wait for the next window query.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExpirationTrackingListener {
+    
+    private final ExpirationTracker expirationTracker;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpirationChanged(InventoryItemExpirationChangedEvent event) {
+        expirationTracker.track(event.itemId(), event.deviceId(), event.userId(), event.expirationDate());
+    }
+}
@@ -0,0 +1,31 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.event.DeviceStatusChangedEvent;
+import com.groceryautomation.event.InventoryItemChangedEvent;
+import com.groceryautomation.service.InventoryReadCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops a user's cached inventory views once a change to their items or devices commits.
+ * 
+ * Runs synchronously after commit, so the next poll after a write already misses the cache;
+ * a rolled back write leaves the cache untouched.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryCacheInvalidationListener {
+    
+    private final InventoryReadCache inventoryReadCache;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemChangedEvent event) {
+        inventoryReadCache.invalidateUser(event.userId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceStatusChanged(DeviceStatusChangedEvent event) {
+        inventoryReadCache.invalidateUser(event.userId());
+    }
+}
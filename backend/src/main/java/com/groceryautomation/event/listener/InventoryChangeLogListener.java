@@ -0,0 +1,32 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.event.InventoryItemChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.service.InventoryChangeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends every inventory item change and status transition to the change log read by
+ * delta sync and inventory push.
+ * 
+ * Runs synchronously inside the transaction that changed the item, so a change is logged
+ * if and only if it commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryChangeLogListener {
+    
+    private final InventoryChangeService inventoryChangeService;
+    
+    @EventListener
+    public void onItemChanged(InventoryItemChangedEvent event) {
+        inventoryChangeService.recordChange(event);
+    }
+    
+    @EventListener
+    public void onStatusChanged(InventoryStatusChangedEvent event) {
+        inventoryChangeService.recordTransition(event);
+    }
+}
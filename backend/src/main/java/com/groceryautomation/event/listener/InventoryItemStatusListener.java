@@ -0,0 +1,108 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.enums.InventoryChangeType;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.event.InventoryItemChangedEvent;
+import com.groceryautomation.event.InventoryItemCountChangedEvent;
+import com.groceryautomation.event.InventoryItemExpirationChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JPA entity listener that turns inventory status changes into {@link InventoryStatusChangedEvent}s,
+ * and inserts and deletes into {@link InventoryItemCountChangedEvent}s. Every written row,
+ * including quantity-only updates, also yields an {@link InventoryItemChangedEvent}, and a
+ * changed expiration date an {@link InventoryItemExpirationChangedEvent}.
+ * 
+ * The status seen at load time is remembered on the entity, so a status event is only published
+ * when a write actually moves the item to a different status. Instantiated by Spring through
+ * Hibernate's bean container.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryItemStatusListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Resolved lazily: JdbcTemplate waits for the EntityManagerFactory, which needs this listener
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    
+    // Devices never change owner, so the device -> user mapping is cached for the process lifetime
+    private final Map<Long, Long> userIdByDeviceId = new ConcurrentHashMap<>();
+    
+    @PostLoad
+    public void rememberStatus(InventoryItem item) {
+        item.setPersistedStatus(item.getStatus());
+        item.setPersistedExpirationDate(item.getExpirationDate());
+    }
+    
+    @PostPersist
+    public void publishAdded(InventoryItem item) {
+        item.setPersistedStatus(item.getStatus());
+        publishCountChange(item, item.getStatus(), 1);
+        publishExpirationChange(item);
+    }
+    
+    @PostRemove
+    public void publishRemoved(InventoryItem item) {
+        // The status last written, not any unsaved in-memory change
+        InventoryStatus status = item.getPersistedStatus() != null ? item.getPersistedStatus() : item.getStatus();
+        publishCountChange(item, status, -1);
+    }
+    
+    private void publishCountChange(InventoryItem item, InventoryStatus status, int delta) {
+        Long deviceId = item.getDevice().getId();
+        Long userId = userIdFor(deviceId);
+        eventPublisher.publishEvent(new InventoryItemCountChangedEvent(item.getId(), deviceId, userId, status, delta));
+        eventPublisher.publishEvent(new InventoryItemChangedEvent(item.getId(), deviceId, userId, 
+                delta > 0 ? InventoryChangeType.ADDED : InventoryChangeType.REMOVED));
+    }
+    
+    @PostUpdate
+    public void publishTransition(InventoryItem item) {
+        // getId() on the lazy device proxy does not initialize it
+        Long deviceId = item.getDevice().getId();
+        Long userId = userIdFor(deviceId);
+        if (item.getPersistedStatus() != null && item.getPersistedStatus() != item.getStatus()) {
+            InventoryStatusChangedEvent event = new InventoryStatusChangedEvent(
+                    item.getId(), deviceId, userId, item.getPersistedStatus(), item.getStatus());
+            log.debug("Inventory item {} changed status {} -> {}", item.getId(), event.from(), event.to());
+            eventPublisher.publishEvent(event);
+        }
+        item.setPersistedStatus(item.getStatus());
+        eventPublisher.publishEvent(new InventoryItemChangedEvent(item.getId(), deviceId, userId, 
+                InventoryChangeType.UPDATED));
+        publishExpirationChange(item);
+    }
+    
+    private void publishExpirationChange(InventoryItem item) {
+        if (Objects.equals(item.getPersistedExpirationDate(), item.getExpirationDate())) {
+            return;
+        }
+        Long deviceId = item.getDevice().getId();
+        eventPublisher.publishEvent(new InventoryItemExpirationChangedEvent(
+                item.getId(), deviceId, userIdFor(deviceId), item.getExpirationDate()));
+        item.setPersistedExpirationDate(item.getExpirationDate());
+    }
+    
+    private Long userIdFor(Long deviceId) {
+        // Plain JDBC so nothing is lazily loaded while Hibernate is flushing
+        return userIdByDeviceId.computeIfAbsent(deviceId, id -> jdbcTemplate.getObject()
+                .queryForObject("SELECT user_id FROM devices WHERE id = ?", Long.class, id));
+    }
+}
@@ -0,0 +1,31 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.event.InventoryItemCountChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.service.InventorySummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies inventory changes to the per-device summary counters.
+ * 
+ * Unlike the notification listeners this runs synchronously, inside the transaction that
+ * changed the item, so the counters commit or roll back together with the item.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventorySummaryListener {
+    
+    private final InventorySummaryService inventorySummaryService;
+    
+    @EventListener
+    public void onStatusChanged(InventoryStatusChangedEvent event) {
+        inventorySummaryService.applyTransition(event);
+    }
+    
+    @EventListener
+    public void onItemCountChanged(InventoryItemCountChangedEvent event) {
+        inventorySummaryService.applyItemCountChange(event);
+    }
+}
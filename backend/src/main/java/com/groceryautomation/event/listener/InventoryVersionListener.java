@@ -0,0 +1,31 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.event.DeviceStatusChangedEvent;
+import com.groceryautomation.event.InventoryItemChangedEvent;
+import com.groceryautomation.service.InventoryVersionTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the owner's inventory version for every change to their items or devices.
+ * 
+ * Runs synchronously inside the transaction that made the change, so the new version
+ * commits together with it and every instance's ETags and cached views move at once.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryVersionListener {
+    
+    private final InventoryVersionTracker inventoryVersionTracker;
+    
+    @EventListener
+    public void onItemChanged(InventoryItemChangedEvent event) {
+        inventoryVersionTracker.bump(event.userId());
+    }
+    
+    @EventListener
+    public void onDeviceStatusChanged(DeviceStatusChangedEvent event) {
+        inventoryVersionTracker.bump(event.userId());
+    }
+}
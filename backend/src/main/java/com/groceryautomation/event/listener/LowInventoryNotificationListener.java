@@ -0,0 +1,40 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.event.OutboxHandler;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.repository.UserRepository;
+import com.groceryautomation.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Notifies the owner when an item drops into a low stock status. Runs from the outbox.
+ */
+@Component
+@RequiredArgsConstructor
+public class LowInventoryNotificationListener implements OutboxHandler<InventoryStatusChangedEvent> {
+    
+    private final UserRepository userRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final NotificationService notificationService;
+    
+    @Override
+    public Class<InventoryStatusChangedEvent> eventType() {
+        return InventoryStatusChangedEvent.class;
+    }
+    
+    @Override
+    public void handle(InventoryStatusChangedEvent event) {
+        // Recovering from LOW to SUFFICIENT, or LOW to LOW after a restock, needs no alert
+        if (!event.isAlert() || !event.isDegraded()) {
+            return;
+        }
+        
+        userRepository.findById(event.userId()).ifPresent(user -> 
+                inventoryItemRepository.findById(event.itemId()).ifPresent(item -> 
+                        notificationService.notifyLowInventory(user, List.of(item))));
+    }
+}
@@ -0,0 +1,54 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.entity.Order;
+import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.event.OrderStatusChangedEvent;
+import com.groceryautomation.event.OutboxHandler;
+import com.groceryautomation.repository.OrderRepository;
+import com.groceryautomation.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tells the owner about new draft orders and about confirmation and delivery. Runs from the
+ * outbox; the draft notice is recorded in {@link Order#isNotificationSent()} so a repeated
+ * event does not send it twice.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderNotificationListener implements OutboxHandler<OrderStatusChangedEvent> {
+    
+    private final OrderRepository orderRepository;
+    private final NotificationService notificationService;
+    
+    @Override
+    public Class<OrderStatusChangedEvent> eventType() {
+        return OrderStatusChangedEvent.class;
+    }
+    
+    @Override
+    @Transactional
+    public void handle(OrderStatusChangedEvent event) {
+        boolean created = event.from() == null && event.to() == OrderStatus.DRAFT;
+        if (!created && event.to() != OrderStatus.CONFIRMED && event.to() != OrderStatus.DELIVERED) {
+            return;
+        }
+        
+        Order order = orderRepository.findById(event.orderId()).orElse(null);
+        if (order == null) {
+            return;
+        }
+        if (created) {
+            if (!order.isNotificationSent()) {
+                notificationService.notifyDraftOrderCreated(order.getUser(), order);
+                order.setNotificationSent(true);
+                orderRepository.save(order);
+            }
+        } else if (event.to() == OrderStatus.CONFIRMED) {
+            notificationService.notifyOrderConfirmed(order.getUser(), order);
+        } else {
+            notificationService.notifyOrderDelivered(order.getUser(), order);
+        }
+    }
+}
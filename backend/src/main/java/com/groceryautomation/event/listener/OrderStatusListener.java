@@ -0,0 +1,51 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.entity.Order;
+import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.event.OrderStatusChangedEvent;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that turns order creation and status changes into {@link OrderStatusChangedEvent}s.
+ * Like {@link InventoryItemStatusListener}, it remembers the status seen at load time so updates
+ * that leave the status alone publish nothing.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatusListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @PostLoad
+    public void rememberStatus(Order order) {
+        order.setPersistedStatus(order.getStatus());
+    }
+    
+    @PostPersist
+    public void publishCreated(Order order) {
+        order.setPersistedStatus(order.getStatus());
+        publish(order, null);
+    }
+    
+    @PostUpdate
+    public void publishTransition(Order order) {
+        if (order.getPersistedStatus() != null && order.getPersistedStatus() != order.getStatus()) {
+            log.debug("Order {} changed status {} -> {}", order.getId(), order.getPersistedStatus(), order.getStatus());
+            publish(order, order.getPersistedStatus());
+        }
+        order.setPersistedStatus(order.getStatus());
+    }
+    
+    private void publish(Order order, OrderStatus from) {
+        // getId() on the lazy user proxy does not initialize it
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getUser().getId(), 
+                order.getOrderNumber(), from, order.getStatus()));
+    }
+}
@@ -0,0 +1,22 @@
+package com.groceryautomation.event.listener;
+
+import com.groceryautomation.event.OrderSubmissionRequestedEvent;
+import com.groceryautomation.service.OrderSubmissionWorker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hands committed submission jobs to the store's workers, so they do not wait for the next poll.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderSubmissionDispatchListener {
+    
+    private final OrderSubmissionWorker orderSubmissionWorker;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionRequested(OrderSubmissionRequestedEvent event) {
+        orderSubmissionWorker.enqueue(event.jobId(), event.storeId());
+    }
+}
@@ -0,0 +1,52 @@
+package com.groceryautomation.event.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.event.OrderStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Records order and inventory status changes in the outbox. The entity listeners publish these
+ * while Hibernate writes the row, so the insert runs on the same connection and commits or rolls
+ * back with the change itself. The relay takes it from there.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (event_type, aggregate_type, aggregate_id, payload, status, attempts, created_at) " +
+            "VALUES (?, ?, ?, ?, 'PENDING', 0, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        write("Order", event.orderId(), event);
+    }
+    
+    @EventListener
+    public void onInventoryStatusChanged(InventoryStatusChangedEvent event) {
+        write("InventoryItem", event.itemId(), event);
+    }
+    
+    private void write(String aggregateType, Long aggregateId, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            // Failing here rolls back the change, which is the point of writing both together
+            throw new IllegalStateException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+        jdbcTemplate.update(INSERT_SQL, event.getClass().getSimpleName(), aggregateType, aggregateId, payload,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -1,9 +1,22 @@
 package com.groceryautomation.graphql.config;
 
+import com.groceryautomation.event.OrderStatusChangedEvent;
+import com.groceryautomation.util.UserEventHub;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class GraphQLConfig {
     // Basic GraphQL configuration
     // DateTime scalar will be handled by Spring GraphQL automatically
-}
\ No newline at end of file
+    
+    /**
+     * Order status changes for the orderStatusChanged subscription, one shared stream per user.
+     */
+    @Bean
+    public UserEventHub<OrderStatusChangedEvent> orderStatusHub(
+            @Value("${graphql.subscriptions.buffer-size:128}") int bufferSize) {
+        return new UserEventHub<>(bufferSize);
+    }
+}
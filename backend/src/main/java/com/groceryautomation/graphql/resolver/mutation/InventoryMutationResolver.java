@@ -0,0 +1,39 @@
+package com.groceryautomation.graphql.resolver.mutation;
+
+import com.groceryautomation.dto.request.BulkThresholdUpdateRequest;
+import com.groceryautomation.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryMutationResolver {
+    
+    private final InventoryService inventoryService;
+    
+    @MutationMapping
+    public Map<String, Object> updateInventoryThresholds(@Argument BulkThresholdUpdateRequest input) {
+        log.info("Bulk threshold update via GraphQL, category: {}", input.getCategory());
+        
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("result", inventoryService.updateThresholds(input));
+            response.put("success", true);
+            response.put("message", "Thresholds updated successfully");
+        } catch (Exception e) {
+            log.error("Error updating thresholds: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("result", null);
+        }
+        
+        return response;
+    }
+}
@@ -1,9 +1,11 @@
 package com.groceryautomation.graphql.resolver.query;
 
 import com.groceryautomation.dto.response.CurrentInventoryResponse;
+import com.groceryautomation.dto.response.InventoryChangesResponse;
 import com.groceryautomation.dto.response.InventoryItemResponse;
 import com.groceryautomation.entity.InventoryItem;
 import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.service.InventoryChangeService;
 import com.groceryautomation.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +22,7 @@ import java.util.stream.Collectors;
 public class InventoryQueryResolver {
     
     private final InventoryService inventoryService;
+    private final InventoryChangeService inventoryChangeService;
     
     @QueryMapping
     public CurrentInventoryResponse currentInventory(@Argument Long deviceId) {
@@ -66,6 +69,13 @@ public class InventoryQueryResolver {
         }
     }
     
+    @QueryMapping
+    public InventoryChangesResponse inventoryChanges(@Argument Long userId, @Argument String since) {
+        log.info("Fetching inventory changes for user: {} since: {} from GraphQL", userId, since);
+        // Errors surface as GraphQL errors, so a client with a bad version knows to resync
+        return inventoryChangeService.getChangesSince(userId, since);
+    }
+    
     private InventoryItem convertToEntity(InventoryItemResponse response) {
         return InventoryItem.builder()
                 .id(response.getId())
@@ -0,0 +1,33 @@
+package com.groceryautomation.graphql.resolver.subscription;
+
+import com.groceryautomation.dto.response.InventoryUpdateResponse;
+import com.groceryautomation.event.OrderStatusChangedEvent;
+import com.groceryautomation.service.InventoryPushService;
+import com.groceryautomation.util.UserEventHub;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriptionResolver {
+    
+    private final InventoryPushService inventoryPushService;
+    private final UserEventHub<OrderStatusChangedEvent> orderStatusHub;
+    
+    @SubscriptionMapping
+    public Flux<InventoryUpdateResponse> inventoryChanged(@Argument Long userId) {
+        log.info("Subscribing to inventory changes for user: {} from GraphQL", userId);
+        return inventoryPushService.subscribeUpdates(userId);
+    }
+    
+    @SubscriptionMapping
+    public Flux<OrderStatusChangedEvent> orderStatusChanged(@Argument Long userId) {
+        log.info("Subscribing to order status changes for user: {} from GraphQL", userId);
+        return orderStatusHub.subscribe(userId);
+    }
+}
@@ -2,10 +2,12 @@ package com.groceryautomation.repository;
 
 import com.groceryautomation.entity.Device;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,4 +27,21 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
     
     @Query("SELECT d FROM Device d WHERE d.active = true AND d.online = true")
     List<Device> findAllActiveAndOnlineDevices();
+    
+    // Liveness writes are conditional so instances that each see part of a device's
+    // heartbeats agree on its state through the row rather than their own view
+    
+    @Modifying
+    @Query("UPDATE Device d SET d.online = true, d.lastSync = :lastSeen WHERE d.id = :id AND d.online = false")
+    int markOnline(@Param("id") Long id, @Param("lastSeen") LocalDateTime lastSeen);
+    
+    @Modifying
+    @Query("UPDATE Device d SET d.lastSync = :lastSeen WHERE d.id = :id " +
+           "AND (d.lastSync IS NULL OR d.lastSync < :lastSeen)")
+    int touchLastSync(@Param("id") Long id, @Param("lastSeen") LocalDateTime lastSeen);
+    
+    @Modifying
+    @Query("UPDATE Device d SET d.online = false WHERE d.id = :id AND d.online = true " +
+           "AND (d.lastSync IS NULL OR d.lastSync <= :lastSeen)")
+    int markOfflineIfSilent(@Param("id") Long id, @Param("lastSeen") LocalDateTime lastSeen);
 } 
\ No newline at end of file
@@ -1,12 +1,16 @@
 package com.groceryautomation.repository;
 
+import com.groceryautomation.dto.response.InventoryItemResponse;
 import com.groceryautomation.entity.InventoryItem;
 import com.groceryautomation.enums.InventoryStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +19,9 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
     
     List<InventoryItem> findByDeviceId(Long deviceId);
     
+    @Query("SELECT i FROM InventoryItem i JOIN FETCH i.groceryItem WHERE i.device.id = :deviceId")
+    List<InventoryItem> findByDeviceIdWithGroceryItem(@Param("deviceId") Long deviceId);
+    
     List<InventoryItem> findByDeviceIdAndStatus(Long deviceId, InventoryStatus status);
     
     @Query("SELECT i FROM InventoryItem i WHERE i.device.id = :deviceId AND i.status IN :statuses")
@@ -24,10 +31,47 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
     @Query("SELECT i FROM InventoryItem i WHERE i.device.user.id = :userId")
     List<InventoryItem> findByUserId(@Param("userId") Long userId);
     
+    @Query("SELECT i FROM InventoryItem i JOIN FETCH i.groceryItem WHERE i.device.user.id = :userId")
+    List<InventoryItem> findByUserIdWithGroceryItem(@Param("userId") Long userId);
+    
     @Query("SELECT i FROM InventoryItem i WHERE i.device.user.id = :userId AND i.status IN (:statuses)")
     List<InventoryItem> findByUserIdAndStatusIn(@Param("userId") Long userId, 
                                                 @Param("statuses") List<InventoryStatus> statuses);
     
+    // Read-only views: DTOs built straight from the selected columns, so no entities are
+    // hydrated, tracked by the persistence context or dirty-checked at flush
+    
+    String ITEM_RESPONSE_PROJECTION = "SELECT new com.groceryautomation.dto.response.InventoryItemResponse(" +
+            "i.id, g.id, g.name, g.category, g.unit, i.quantity, i.thresholdQuantity, i.status, " +
+            "i.lastUpdated, i.expirationDate, g.imageUrl, d.deviceId) " +
+            "FROM InventoryItem i JOIN i.groceryItem g JOIN i.device d ";
+    
+    @Query(ITEM_RESPONSE_PROJECTION + "WHERE d.id = :deviceId ORDER BY i.id")
+    List<InventoryItemResponse> findResponsesByDeviceId(@Param("deviceId") Long deviceId);
+    
+    @Query(ITEM_RESPONSE_PROJECTION + "WHERE d.id IN (:deviceIds) ORDER BY d.id, i.id")
+    List<InventoryItemResponse> findResponsesByDeviceIdIn(@Param("deviceIds") List<Long> deviceIds);
+    
+    @Query(ITEM_RESPONSE_PROJECTION + "WHERE d.user.id = :userId ORDER BY i.id")
+    List<InventoryItemResponse> findResponsesByUserId(@Param("userId") Long userId);
+    
+    @Query(ITEM_RESPONSE_PROJECTION + "WHERE i.id IN (:ids) ORDER BY i.id")
+    List<InventoryItemResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(ITEM_RESPONSE_PROJECTION + "WHERE d.user.id = :userId AND i.status IN (:statuses) ORDER BY i.id")
+    List<InventoryItemResponse> findResponsesByUserIdAndStatusIn(@Param("userId") Long userId, 
+                                                                 @Param("statuses") List<InventoryStatus> statuses);
+    
+    @Query("SELECT i FROM InventoryItem i JOIN FETCH i.groceryItem JOIN FETCH i.device d " +
+           "WHERE d.user.id IN (:userIds) AND d.active = true AND i.status IN (:statuses)")
+    List<InventoryItem> findByUserIdInAndStatusIn(@Param("userIds") Collection<Long> userIds, 
+                                                  @Param("statuses") List<InventoryStatus> statuses);
+    
+    // Row locks taken in ID order so concurrent flushes cannot deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventoryItem i WHERE i.id IN (:ids) ORDER BY i.id")
+    List<InventoryItem> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
     Optional<InventoryItem> findByDeviceIdAndGroceryItemId(Long deviceId, Long groceryItemId);
     
     @Query("SELECT COUNT(i) FROM InventoryItem i WHERE i.device.user.id = :userId AND i.status = :status")
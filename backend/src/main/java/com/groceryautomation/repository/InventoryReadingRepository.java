@@ -0,0 +1,29 @@
+package com.groceryautomation.repository;
+
+import com.groceryautomation.entity.InventoryReading;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryReadingRepository extends JpaRepository<InventoryReading, Long> {
+    
+    @Query("SELECT r FROM InventoryReading r WHERE r.inventoryItemId = :itemId " +
+           "AND r.recordedAt >= :from AND r.recordedAt < :to ORDER BY r.recordedAt")
+    List<InventoryReading> findByItemInRange(@Param("itemId") Long itemId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+    
+    @Query("SELECT r FROM InventoryReading r WHERE r.recordedAt >= :from AND r.recordedAt < :to " +
+           "ORDER BY r.inventoryItemId, r.recordedAt")
+    List<InventoryReading> findAllInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Modifying
+    @Query("DELETE FROM InventoryReading r WHERE r.recordedAt < :cutoff AND r.rolledUp = true")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,48 @@
+package com.groceryautomation.repository;
+
+import com.groceryautomation.entity.InventoryReadingRollup;
+import com.groceryautomation.enums.HistoryGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryReadingRollupRepository extends JpaRepository<InventoryReadingRollup, Long> {
+    
+    @Query("SELECT r FROM InventoryReadingRollup r WHERE r.inventoryItemId = :itemId " +
+           "AND r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "ORDER BY r.bucketStart")
+    List<InventoryReadingRollup> findByItemInRange(@Param("itemId") Long itemId,
+                                                   @Param("granularity") HistoryGranularity granularity,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to);
+    
+    @Query("SELECT r FROM InventoryReadingRollup r WHERE r.granularity = :granularity " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.inventoryItemId, r.bucketStart")
+    List<InventoryReadingRollup> findAllInRange(@Param("granularity") HistoryGranularity granularity,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+    
+    @Query("SELECT r FROM InventoryReadingRollup r WHERE r.granularity = :granularity " +
+           "AND r.inventoryItemId IN (:itemIds) AND r.bucketStart >= :from AND r.bucketStart < :to")
+    List<InventoryReadingRollup> findByItemsInRange(@Param("granularity") HistoryGranularity granularity,
+                                                    @Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+    
+    @Query("SELECT MAX(r.bucketStart) FROM InventoryReadingRollup r WHERE r.granularity = :granularity")
+    LocalDateTime findLatestBucketStart(@Param("granularity") HistoryGranularity granularity);
+    
+    @Query("SELECT MIN(r.bucketStart) FROM InventoryReadingRollup r WHERE r.granularity = :granularity")
+    LocalDateTime findEarliestBucketStart(@Param("granularity") HistoryGranularity granularity);
+    
+    @Modifying
+    @Query("DELETE FROM InventoryReadingRollup r WHERE r.granularity = :granularity AND r.bucketStart < :cutoff")
+    int deleteOlderThan(@Param("granularity") HistoryGranularity granularity, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,13 @@
+package com.groceryautomation.repository;
+
+import com.groceryautomation.entity.InventorySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventorySummaryRepository extends JpaRepository<InventorySummary, Long> {
+    
+    List<InventorySummary> findByUserId(Long userId);
+}
@@ -0,0 +1,27 @@
+package com.groceryautomation.repository;
+
+import com.groceryautomation.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    
+    /**
+     * Takes or renews a lease. Succeeds for the current holder and once the lease has run out.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.leaseUntil = :until " +
+           "WHERE l.name = :name AND (l.owner = :owner OR l.leaseUntil IS NULL OR l.leaseUntil < :now)")
+    int claim(@Param("name") String name, @Param("owner") String owner,
+              @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobLease l SET l.owner = NULL, l.leaseUntil = NULL WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
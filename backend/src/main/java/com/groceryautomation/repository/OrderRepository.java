@@ -4,12 +4,15 @@ import com.groceryautomation.entity.Order;
 import com.groceryautomation.enums.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +21,11 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Optional<Order> findByOrderNumber(String orderNumber);
     
+    // Held until commit so concurrent approvals of one order run one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+    
     Page<Order> findByUserId(Long userId, Pageable pageable);
     
     List<Order> findByUserId(Long userId);
@@ -43,6 +51,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.status IN ('DRAFT', 'USER_MODIFIED') ORDER BY o.createdAt DESC")
     List<Order> findDraftOrdersByUserId(@Param("userId") Long userId);
     
+    @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.store.id IN (:storeIds) AND o.status = 'DRAFT' ORDER BY o.createdAt DESC")
+    List<Order> findOpenDraftOrders(@Param("userId") Long userId, @Param("storeIds") Collection<Long> storeIds);
+    
     @Query("SELECT o FROM Order o WHERE o.status = 'DRAFT' AND o.notificationSent = false")
     List<Order> findUnnotifiedDraftOrders();
     
@@ -57,4 +68,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     @Query("SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId AND o.status IN ('DRAFT', 'USER_MODIFIED')")
     Long countDraftOrdersByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT DISTINCT o.user.id FROM Order o WHERE o.user.id IN (:userIds) AND o.status IN ('DRAFT', 'USER_MODIFIED')")
+    List<Long> findUserIdsWithDraftOrders(@Param("userIds") Collection<Long> userIds);
 } 
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.groceryautomation.repository;
+
+import com.groceryautomation.entity.OrderSubmissionJob;
+import com.groceryautomation.enums.SubmissionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderSubmissionJobRepository extends JpaRepository<OrderSubmissionJob, Long> {
+    
+    Optional<OrderSubmissionJob> findFirstByOrderIdOrderByIdDesc(Long orderId);
+    
+    List<OrderSubmissionJob> findByStatusOrderByIdAsc(SubmissionStatus status, Pageable pageable);
+    
+    /**
+     * Moves a pending job to in progress. Only one caller can win, so a job queued twice
+     * is still submitted once.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderSubmissionJob j SET j.status = 'IN_PROGRESS', j.attempts = j.attempts + 1, " +
+           "j.startedAt = :now WHERE j.id = :id AND j.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    /**
+     * Records the outcome of the given attempt. Matches nothing once the job was released as
+     * stale and claimed again, so a late outcome of an earlier attempt cannot overwrite it.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderSubmissionJob j SET j.status = :status, j.externalOrderId = :externalOrderId, " +
+           "j.lastError = :error, j.completedAt = :now " +
+           "WHERE j.id = :id AND j.status = 'IN_PROGRESS' AND j.attempts = :attempt")
+    int complete(@Param("id") Long id,
+                 @Param("attempt") int attempt,
+                 @Param("status") SubmissionStatus status,
+                 @Param("externalOrderId") String externalOrderId,
+                 @Param("error") String error,
+                 @Param("now") LocalDateTime now);
+    
+    /**
+     * Returns the job to pending after a failed attempt, under the same condition as {@link #complete}.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderSubmissionJob j SET j.status = 'PENDING', j.lastError = :error " +
+           "WHERE j.id = :id AND j.status = 'IN_PROGRESS' AND j.attempts = :attempt")
+    int retryLater(@Param("id") Long id, @Param("attempt") int attempt, @Param("error") String error);
+    
+    /**
+     * Returns jobs whose worker went away mid-call (e.g. a restart) to pending.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderSubmissionJob j SET j.status = 'PENDING' " +
+           "WHERE j.status = 'IN_PROGRESS' AND j.startedAt < :before")
+    int releaseStale(@Param("before") LocalDateTime before);
+}
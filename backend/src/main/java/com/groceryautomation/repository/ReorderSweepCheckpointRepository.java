@@ -0,0 +1,29 @@
+package com.groceryautomation.repository;
+
+import com.groceryautomation.entity.ReorderSweepCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReorderSweepCheckpointRepository extends JpaRepository<ReorderSweepCheckpoint, String> {
+    
+    /**
+     * Takes or renews the sweep lease. Succeeds for the current holder and once the lease has run
+     * out, so only one instance sweeps at a time and a crashed one is taken over.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ReorderSweepCheckpoint c SET c.leaseOwner = :owner, c.leaseUntil = :until " +
+           "WHERE c.name = :name AND (c.leaseOwner = :owner OR c.leaseUntil IS NULL OR c.leaseUntil < :now)")
+    int claimLease(@Param("name") String name, @Param("owner") String owner,
+                   @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ReorderSweepCheckpoint c SET c.leaseOwner = NULL, c.leaseUntil = NULL " +
+           "WHERE c.name = :name AND c.leaseOwner = :owner")
+    int releaseLease(@Param("name") String name, @Param("owner") String owner);
+}
@@ -1,11 +1,15 @@
 package com.groceryautomation.repository;
 
 import com.groceryautomation.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,9 +21,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByEmailAndActive(String email, boolean active);
     
+    // Held until commit so concurrent draft writes for one user run one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+    
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.devices WHERE u.id = :id")
     Optional<User> findByIdWithDevices(@Param("id") Long id);
     
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.orders WHERE u.id = :id")
     Optional<User> findByIdWithOrders(@Param("id") Long id);
+    
+    // Keyset page: the next active user IDs after the given one, limited by the pageable's size
+    @Query("SELECT u.id FROM User u WHERE u.active = true AND u.id > :afterId ORDER BY u.id")
+    List<Long> findActiveIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 } 
\ No newline at end of file
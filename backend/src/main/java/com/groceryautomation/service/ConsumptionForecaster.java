@@ -0,0 +1,302 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.InventoryReadingRollup;
+import com.groceryautomation.enums.HistoryGranularity;
+import com.groceryautomation.repository.InventoryReadingRollupRepository;
+import com.groceryautomation.util.LongIntHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Incremental consumption-rate model per inventory item.
+ *
+ * Each reading updates the item's state in O(1), so forecasts never rescan history. Consumption
+ * is accumulated over a sample interval (an hour by default) and each completed interval feeds
+ * an exponentially weighted daily rate and variance. Intervals vary in length, so the smoothing
+ * weight depends on the time covered: an hour moves the estimate far less than a day. Increases
+ * in quantity are treated as restocks and only reset the baseline.
+ *
+ * State lives in primitive arrays split across lock-striped segments, so millions of items
+ * cost a few dozen bytes each and concurrent ingestion threads rarely contend. It is not
+ * persisted: the first time an item is seen, its recent hourly rollups are replayed, so a
+ * restarted or newly added instance forecasts from the same history as the others.
+ */
+@Service
+public class ConsumptionForecaster {
+
+    private static final int SEGMENTS = 64;
+    private static final double MILLIS_PER_DAY = 86_400_000d;
+    // Below this a rate is treated as no consumption at all
+    private static final double MIN_RATE = 1e-6;
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    // Marks an item seeded without history, whose first reading only sets the baseline
+    private static final long NO_READING = Long.MIN_VALUE;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final InventoryReadingRollupRepository rollupRepository;
+    private final double smoothingDays;
+    private final double coverDays;
+    private final double safetyFactor;
+    private final int minSamples;
+    private final long sampleIntervalMillis;
+    private final long seedMillis;
+
+    public ConsumptionForecaster(InventoryReadingRollupRepository rollupRepository,
+                                 @Value("${forecast.smoothing-days:7}") double smoothingDays,
+                                 @Value("${forecast.cover-days:7}") double coverDays,
+                                 @Value("${forecast.safety-factor:1.65}") double safetyFactor,
+                                 @Value("${forecast.min-samples:3}") int minSamples,
+                                 @Value("${forecast.sample-interval-minutes:60}") int sampleIntervalMinutes,
+                                 @Value("${forecast.seed-days:28}") int seedDays) {
+        this.rollupRepository = rollupRepository;
+        this.smoothingDays = smoothingDays;
+        this.coverDays = coverDays;
+        this.safetyFactor = safetyFactor;
+        this.minSamples = minSamples;
+        this.sampleIntervalMillis = sampleIntervalMinutes * 60_000L;
+        this.seedMillis = seedDays * (long) MILLIS_PER_DAY;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Feeds one quantity reading into the model. Readings older than the last one seen for
+     * the item are ignored.
+     */
+    public void observe(long inventoryItemId, double quantity, long timestampMillis) {
+        Segment segment = segmentFor(inventoryItemId);
+        seedIfAbsent(segment, inventoryItemId, timestampMillis);
+        segment.lock.lock();
+        try {
+            int slot = segment.slots.get(inventoryItemId);
+            if (segment.lastTimestamps[slot] == NO_READING) {
+                segment.lastQuantities[slot] = quantity;
+                segment.lastTimestamps[slot] = timestampMillis;
+                segment.intervalStarts[slot] = timestampMillis;
+                return;
+            }
+
+            if (timestampMillis <= segment.lastTimestamps[slot]) {
+                return;
+            }
+
+            // Decreases count as consumption; increases are restocks and only move the baseline
+            advance(segment, slot, Math.max(0, segment.lastQuantities[slot] - quantity), quantity, timestampMillis);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private void advance(Segment segment, int slot, double consumed, double quantity, long timestampMillis) {
+        segment.intervalConsumed[slot] += consumed;
+        segment.lastQuantities[slot] = quantity;
+        segment.lastTimestamps[slot] = timestampMillis;
+
+        long elapsedMillis = timestampMillis - segment.intervalStarts[slot];
+        if (elapsedMillis < sampleIntervalMillis) {
+            return;
+        }
+
+        double elapsedDays = elapsedMillis / MILLIS_PER_DAY;
+        double rate = segment.intervalConsumed[slot] / elapsedDays;
+        double alpha = 1 - Math.exp(-elapsedDays / smoothingDays);
+        segment.intervalStarts[slot] = timestampMillis;
+        segment.intervalConsumed[slot] = 0;
+
+        if (segment.samples[slot] == 0) {
+            segment.rates[slot] = rate;
+            segment.variances[slot] = 0;
+        } else {
+            // Exponentially weighted mean and variance (West's incremental form)
+            double diff = rate - segment.rates[slot];
+            double increment = alpha * diff;
+            segment.rates[slot] += increment;
+            segment.variances[slot] = (1 - alpha) * (segment.variances[slot] + diff * increment);
+        }
+        segment.samples[slot]++;
+    }
+
+    /**
+     * Adds an item the first time it is seen, replaying its hourly rollups from the seed window
+     * before the given time. The rollups are loaded outside the segment lock; if another thread
+     * added the item meanwhile, its state is kept and the rollups are dropped.
+     */
+    private void seedIfAbsent(Segment segment, long inventoryItemId, long untilMillis) {
+        segment.lock.lock();
+        try {
+            if (segment.slots.get(inventoryItemId) >= 0) {
+                return;
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        List<InventoryReadingRollup> rollups = rollupRepository.findByItemInRange(inventoryItemId,
+                HistoryGranularity.HOUR, toDateTime(untilMillis - seedMillis), toDateTime(untilMillis));
+
+        segment.lock.lock();
+        try {
+            if (segment.slots.get(inventoryItemId) >= 0) {
+                return;
+            }
+            int slot = segment.add(inventoryItemId);
+            for (InventoryReadingRollup rollup : rollups) {
+                long startMillis = toMillis(rollup.getBucketStart());
+                long endMillis = startMillis + MILLIS_PER_HOUR;
+                if (endMillis > untilMillis) {
+                    break;
+                }
+                if (segment.lastTimestamps[slot] == NO_READING) {
+                    segment.lastQuantities[slot] = rollup.getFirstQuantity();
+                    segment.intervalStarts[slot] = startMillis;
+                }
+                // The drop from the previous hour's last reading to this one's first, then the hour itself
+                double consumed = Math.max(0, segment.lastQuantities[slot] - rollup.getFirstQuantity()) + rollup.getConsumed();
+                advance(segment, slot, consumed, rollup.getLastQuantity(), endMillis);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Forecast for one item at its current quantity. Items without enough readings fall back
+     * to refilling to twice the threshold.
+     */
+    public Forecast forecast(InventoryItem item, double currentQuantity) {
+        return forecast(item, currentQuantity, System.currentTimeMillis());
+    }
+    
+    /**
+     * As {@link #forecast(InventoryItem, double)}, counting only stock that will be used before
+     * the item's expiration date: expired stock counts as none, and of perishable stock only what
+     * the consumption rate uses up by that date.
+     */
+    public Forecast forecast(InventoryItem item, double currentQuantity, long nowMillis) {
+        double rate = 0;
+        double stdDev = 0;
+        int samples = 0;
+
+        Segment segment = segmentFor(item.getId());
+        seedIfAbsent(segment, item.getId(), nowMillis);
+        segment.lock.lock();
+        try {
+            int slot = segment.slots.get(item.getId());
+            if (slot >= 0) {
+                rate = segment.rates[slot];
+                stdDev = Math.sqrt(segment.variances[slot]);
+                samples = segment.samples[slot];
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        boolean rateKnown = samples >= minSamples && rate > MIN_RATE;
+        double usableQuantity = usableQuantity(item, currentQuantity, rateKnown ? rate : 0, nowMillis);
+        
+        double threshold = item.getThresholdQuantity() != null ? item.getThresholdQuantity() : 0;
+        double target;
+        if (rateKnown) {
+            // Expected use over the cover period plus safety stock for the rate's volatility,
+            // never less than the threshold so the order does not immediately trigger again
+            target = Math.max(threshold, rate * coverDays + safetyFactor * stdDev * Math.sqrt(coverDays));
+        } else {
+            target = threshold * 2;
+        }
+
+        // Whole units, with a small tolerance so floating-point noise does not add an extra one
+        double suggested = Math.max(0, Math.ceil(target - usableQuantity - 1e-9));
+        Double daysUntilEmpty = rateKnown ? usableQuantity / rate : null;
+        return new Forecast(item.getId(), samples >= minSamples ? rate : null,
+                samples >= minSamples ? stdDev : null, daysUntilEmpty, suggested, samples);
+    }
+
+    private static double usableQuantity(InventoryItem item, double currentQuantity, double rate, long nowMillis) {
+        if (item.getExpirationDate() == null) {
+            return currentQuantity;
+        }
+        long expiresAtMillis = toMillis(item.getExpirationDate());
+        if (expiresAtMillis <= nowMillis) {
+            return 0;
+        }
+        // Without a rate there is no telling how much will spoil, so all of it counts
+        return rate > 0 ? Math.min(currentQuantity, rate * (expiresAtMillis - nowMillis) / MILLIS_PER_DAY) : currentQuantity;
+    }
+    
+    public int getTrackedItemCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                count += segment.size;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    private Segment segmentFor(long inventoryItemId) {
+        return segments[(int) (inventoryItemId ^ (inventoryItemId >>> 32)) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * @param dailyRate smoothed consumption per day, null until enough readings were seen
+     * @param daysUntilEmpty null when the item is not being consumed or has too few readings
+     */
+    public record Forecast(Long inventoryItemId,
+                           Double dailyRate,
+                           Double rateStdDev,
+                           Double daysUntilEmpty,
+                           double suggestedQuantity,
+                           int samples) {
+    }
+
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LongIntHashMap slots = new LongIntHashMap(64);
+        private double[] lastQuantities = new double[64];
+        private long[] lastTimestamps = new long[64];
+        private long[] intervalStarts = new long[64];
+        private double[] intervalConsumed = new double[64];
+        private double[] rates = new double[64];
+        private double[] variances = new double[64];
+        private int[] samples = new int[64];
+        private int size;
+
+        private int add(long inventoryItemId) {
+            if (size == lastQuantities.length) {
+                int capacity = size << 1;
+                lastQuantities = Arrays.copyOf(lastQuantities, capacity);
+                lastTimestamps = Arrays.copyOf(lastTimestamps, capacity);
+                intervalStarts = Arrays.copyOf(intervalStarts, capacity);
+                intervalConsumed = Arrays.copyOf(intervalConsumed, capacity);
+                rates = Arrays.copyOf(rates, capacity);
+                variances = Arrays.copyOf(variances, capacity);
+                samples = Arrays.copyOf(samples, capacity);
+            }
+            lastQuantities[size] = 0;
+            lastTimestamps[size] = NO_READING;
+            intervalStarts[size] = 0;
+            slots.put(inventoryItemId, size);
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.entity.Device;
+import com.groceryautomation.event.DeviceStatusChangedEvent;
+import com.groceryautomation.repository.DeviceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks device liveness with a hashed timing wheel.
+ *
+ * A heartbeat only stores the current time on the device's entry, which is O(1) and never
+ * touches the database. Each online device sits in the wheel bucket for its expiry deadline;
+ * when the wheel reaches that bucket the entry is checked against its latest heartbeat and
+ * either moved to its new deadline (lazy rescheduling) or flipped offline.
+ *
+ * Each instance only sees the heartbeats routed to it, so the devices table decides. A device's
+ * last sync is refreshed at most once per touch interval while it is heard from, and the wheel
+ * only proposes transitions: going offline is a conditional update that fails if any instance
+ * has recorded a later sighting, and coming online only changes a row that is still offline.
+ * A {@link DeviceStatusChangedEvent} follows only the update that actually changed the row, and
+ * a write that fails is queued again for the next tick.
+ */
+@Service
+@Slf4j
+public class DeviceLivenessTracker {
+
+    private static final int ONLINE = 0;
+    private static final int OFFLINE = 1;
+
+    private final DeviceRepository deviceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long silenceWindowMillis;
+    private final long touchIntervalMillis;
+    private final long tickMillis;
+    private final int mask;
+    private final long startMillis;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Transition> pendingTransitions = new ConcurrentLinkedQueue<>();
+
+    // Wheel state, guarded by wheelLock
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private final ArrayDeque<Entry>[] buckets;
+    private long processedTick;
+
+    @SuppressWarnings("unchecked")
+    public DeviceLivenessTracker(DeviceRepository deviceRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${device.liveness.silence-window-seconds:300}") long silenceWindowSeconds,
+                                 @Value("${device.liveness.touch-interval-seconds:60}") long touchIntervalSeconds,
+                                 @Value("${device.liveness.tick-ms:1000}") long tickMillis,
+                                 @Value("${device.liveness.wheel-size:512}") int wheelSize) {
+        this.deviceRepository = deviceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.silenceWindowMillis = silenceWindowSeconds * 1000;
+        // A sighting older than the window would let another instance expire a live device
+        this.touchIntervalMillis = Math.min(touchIntervalSeconds * 1000, silenceWindowMillis / 2);
+        this.tickMillis = tickMillis;
+
+        int size = Integer.highestOneBit(Math.max(16, wheelSize - 1)) << 1;
+        this.mask = size - 1;
+        this.buckets = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.startMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Seeds the wheel with devices the database considers online. The application was not
+     * receiving heartbeats while it was down, so each one gets a full silence window; one
+     * that another instance keeps hearing from survives the expiry check against its row.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnlineDevices() {
+        long now = System.currentTimeMillis();
+        List<Device> devices = deviceRepository.findAllActiveAndOnlineDevices();
+        for (Device device : devices) {
+            entries.computeIfAbsent(device.getId(), id -> {
+                Entry entry = new Entry(device.getId(), device.getDeviceId(), device.getUser().getId(), now, ONLINE);
+                entry.lastTouched = now;
+                schedule(entry, now + silenceWindowMillis);
+                return entry;
+            });
+        }
+        log.info("Liveness tracking started for {} online devices", devices.size());
+    }
+
+    /**
+     * Records that the device was heard from. Routine heartbeats are a single field write;
+     * a device coming back online, or one whose persisted sighting is a touch interval old,
+     * is queued for persistence.
+     */
+    public void heartbeat(Device device) {
+        heartbeat(device, System.currentTimeMillis());
+    }
+
+    public void heartbeat(Device device, long nowMillis) {
+        Entry entry = entries.get(device.getId());
+        if (entry == null) {
+            entry = entries.computeIfAbsent(device.getId(), id -> new Entry(device.getId(), device.getDeviceId(),
+                    device.getUser() != null ? device.getUser().getId() : null, nowMillis, OFFLINE));
+        }
+
+        entry.lastHeartbeat = nowMillis;
+        if (entry.state == ONLINE) {
+            if (nowMillis - entry.lastTouched >= touchIntervalMillis) {
+                synchronized (entry) {
+                    if (nowMillis - entry.lastTouched >= touchIntervalMillis) {
+                        entry.lastTouched = nowMillis;
+                        pendingTransitions.add(new Transition(entry, true, nowMillis));
+                    }
+                }
+            }
+            return;
+        }
+
+        synchronized (entry) {
+            if (entry.state != OFFLINE) {
+                return;
+            }
+            entry.state = ONLINE;
+            // Even if this device's snapshot says online, another instance may have expired it
+            entry.lastTouched = nowMillis;
+            pendingTransitions.add(new Transition(entry, true, nowMillis));
+        }
+        // Outside the entry monitor: the tick thread takes the wheel lock first, then entries.
+        // An offline entry is not in the wheel, so nothing can process it in between.
+        schedule(entry, nowMillis + silenceWindowMillis);
+    }
+
+    /**
+     * Stops tracking a device, e.g. after it was deactivated or set offline manually.
+     */
+    public void forget(Long deviceId) {
+        Entry entry = entries.remove(deviceId);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.state = OFFLINE;
+            }
+        }
+    }
+
+    /**
+     * @return the last heartbeat seen since startup, or null if the device has not been heard from
+     */
+    public LocalDateTime getLastHeartbeat(Long deviceId) {
+        Entry entry = entries.get(deviceId);
+        return entry != null ? toLocalDateTime(entry.lastHeartbeat) : null;
+    }
+
+    /**
+     * The device's persisted last sync, or the last heartbeat if that is more recent. Routine
+     * heartbeats are not written to the database, so responses should read through this.
+     */
+    public LocalDateTime getLastSeen(Device device) {
+        LocalDateTime lastHeartbeat = getLastHeartbeat(device.getId());
+        LocalDateTime lastSync = device.getLastSync();
+        if (lastHeartbeat == null) {
+            return lastSync;
+        }
+        return lastSync == null || lastHeartbeat.isAfter(lastSync) ? lastHeartbeat : lastSync;
+    }
+
+    public boolean isOnline(Long deviceId) {
+        Entry entry = entries.get(deviceId);
+        return entry != null && entry.state == ONLINE;
+    }
+
+    @Scheduled(fixedDelayString = "${device.liveness.tick-ms:1000}")
+    public void tick() {
+        advance(System.currentTimeMillis());
+    }
+
+    /**
+     * Processes every wheel bucket up to the given time, then persists queued transitions.
+     *
+     * @return the number of online/offline changes written
+     */
+    public int advance(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+
+        wheelLock.lock();
+        try {
+            while (processedTick < targetTick) {
+                processedTick++;
+                ArrayDeque<Entry> bucket = buckets[(int) (processedTick & mask)];
+                int pending = bucket.size();
+                for (int i = 0; i < pending; i++) {
+                    Entry entry = bucket.poll();
+                    if (entry.remainingRounds > 0) {
+                        entry.remainingRounds--;
+                        bucket.add(entry);
+                    } else {
+                        expireOrReschedule(entry, nowMillis);
+                    }
+                }
+            }
+        } finally {
+            wheelLock.unlock();
+        }
+
+        return persistTransitions();
+    }
+
+    // Caller holds wheelLock
+    private void expireOrReschedule(Entry entry, long nowMillis) {
+        synchronized (entry) {
+            if (entry.state != ONLINE) {
+                return; // Forgotten or already offline; drop from the wheel
+            }
+
+            long lastHeartbeat = entry.lastHeartbeat;
+            if (nowMillis - lastHeartbeat < silenceWindowMillis) {
+                schedule(entry, lastHeartbeat + silenceWindowMillis);
+                return;
+            }
+
+            entry.state = OFFLINE;
+            // A heartbeat may have landed between the check and the state change; it saw ONLINE and
+            // returned, so undo the expiry rather than leave a live device offline
+            if (entry.lastHeartbeat != lastHeartbeat) {
+                entry.state = ONLINE;
+                schedule(entry, entry.lastHeartbeat + silenceWindowMillis);
+                return;
+            }
+            pendingTransitions.add(new Transition(entry, false, lastHeartbeat));
+        }
+    }
+
+    private void schedule(Entry entry, long deadlineMillis) {
+        wheelLock.lock();
+        try {
+            long deadlineTick = Math.max(processedTick + 1,
+                    (deadlineMillis - startMillis + tickMillis - 1) / tickMillis);
+            entry.remainingRounds = (deadlineTick - processedTick - 1) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(entry);
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private int persistTransitions() {
+        if (pendingTransitions.isEmpty()) {
+            return 0;
+        }
+
+        List<Transition> transitions = new ArrayList<>();
+        Transition transition;
+        while ((transition = pendingTransitions.poll()) != null) {
+            transitions.add(transition);
+        }
+
+        List<DeviceStatusChangedEvent> changes = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                changes.clear();
+                for (Transition t : transitions) {
+                    LocalDateTime lastSeen = toLocalDateTime(t.atMillis());
+                    boolean changed;
+                    if (t.online()) {
+                        changed = deviceRepository.markOnline(t.entry().deviceId, lastSeen) > 0;
+                        if (!changed) {
+                            deviceRepository.touchLastSync(t.entry().deviceId, lastSeen);
+                        }
+                    } else {
+                        // Fails if any instance heard from the device after this one last did
+                        changed = deviceRepository.markOfflineIfSilent(t.entry().deviceId, lastSeen) > 0;
+                    }
+                    if (changed) {
+                        DeviceStatusChangedEvent event = new DeviceStatusChangedEvent(
+                                t.entry().deviceId, t.entry().externalId, t.entry().userId, t.online(), lastSeen);
+                        eventPublisher.publishEvent(event);
+                        changes.add(event);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // Conditional writes make a retry safe in any order; the next tick tries again
+            pendingTransitions.addAll(transitions);
+            log.error("Persisting {} device liveness transitions failed, retrying next tick", transitions.size(), e);
+            return 0;
+        }
+
+        if (!changes.isEmpty()) {
+            log.info("Persisted {} device liveness transitions", changes.size());
+        }
+        return changes.size();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class Entry {
+        private final Long deviceId;
+        private final String externalId;
+        private final Long userId;
+        private volatile long lastHeartbeat;
+        private volatile long lastTouched; // When a sighting was last queued for persistence
+        private volatile int state;
+        // Full wheel revolutions left before the deadline; guarded by wheelLock
+        private long remainingRounds;
+
+        private Entry(Long deviceId, String externalId, Long userId, long lastHeartbeat, int state) {
+            this.deviceId = deviceId;
+            this.externalId = externalId;
+            this.userId = userId;
+            this.lastHeartbeat = lastHeartbeat;
+            this.state = state;
+        }
+    }
+
+    // online: the device was heard at atMillis; otherwise it has been silent since then
+    private record Transition(Entry entry, boolean online, long atMillis) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.enums.ExpirationStage;
+import com.groceryautomation.event.InventoryItemExpirationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Fires "expiring soon" and "expired" events for perishable inventory items.
+ *
+ * Only items expiring within a sliding window are held in memory, in a queue ordered by when
+ * their next event is due. The window is loaded lazily from the expiration index as time moves
+ * on, one range query at a time, so the cost of a tick follows the items expiring in the window
+ * rather than the size of the inventory. Expiration dates written inside the loaded window are
+ * added through {@link #track}; later ones are picked up when the window reaches them.
+ *
+ * Queue entries are never removed in place. When an entry comes due it is checked against the
+ * date currently tracked for the item and then claimed in the database, so entries for items
+ * that were emptied, removed or given a new date are dropped at that point.
+ *
+ * Every instance runs its own tracker, and a restarted one loads the same window again. The claim
+ * is a conditional update that records the stage announced for the item's current date, so each
+ * stage is announced once across instances and restarts. An alert whose listener fails after the
+ * claim is not retried. The first load also leaves out "expiring soon" events that were already
+ * due before the tracker started.
+ */
+@Service
+@Slf4j
+public class ExpirationTracker {
+
+    private static final String ITEM_SQL =
+            "SELECT i.id, i.device_id, d.user_id, i.expiration_date, i.quantity FROM inventory_items i " +
+            "JOIN devices d ON d.id = i.device_id ";
+
+    // A stage is claimed once per expiration date; EXPIRED may follow EXPIRING_SOON but not the reverse
+    private static final String CLAIM_SQL =
+            "UPDATE inventory_items SET expiration_alert_date = expiration_date, expiration_alert_stage = ? " +
+            "WHERE id = ? AND expiration_date = ? AND quantity > 0 AND (expiration_alert_date IS NULL " +
+            "OR expiration_alert_date <> expiration_date OR (expiration_alert_stage = 'EXPIRING_SOON' AND ? = 'EXPIRED'))";
+
+    private static final RowMapper<ExpiringItem> ITEM_MAPPER = (rs, rowNum) -> new ExpiringItem(
+            rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getTimestamp(4).toLocalDateTime(), rs.getDouble(5));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long leadMillis;
+    private final long windowMillis;
+
+    // Guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(Entry::fireAtMillis));
+    private final Map<Long, LocalDateTime> trackedDates = new HashMap<>();
+    private LocalDateTime loadedUntil;
+    private long lastAdvanceMillis;
+
+    public ExpirationTracker(JdbcTemplate jdbcTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${inventory.expiration.lead-hours:48}") long leadHours,
+                             @Value("${inventory.expiration.window-hours:24}") long windowHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.leadMillis = leadHours * 3_600_000L;
+        this.windowMillis = windowHours * 3_600_000L;
+    }
+
+    /**
+     * Follows a changed expiration date. Dates beyond the loaded window are left to the window
+     * query, so only the item's entry in the index matters until then.
+     */
+    public void track(Long itemId, Long deviceId, Long userId, LocalDateTime expirationDate) {
+        lock.lock();
+        try {
+            if (expirationDate == null || loadedUntil == null || expirationDate.isAfter(loadedUntil)) {
+                trackedDates.remove(itemId);
+                return;
+            }
+            schedule(new ExpiringItem(itemId, deviceId, userId, expirationDate, 0), false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.expiration.tick-ms:60000}")
+    public void tick() {
+        advance(System.currentTimeMillis());
+    }
+
+    /**
+     * Loads the window up to the given time plus the lead, then publishes every event due by then.
+     * Items that expired before the first call are not announced.
+     *
+     * @return the number of events published
+     */
+    public int advance(long nowMillis) {
+        List<Entry> due = new ArrayList<>();
+        lock.lock();
+        try {
+            lastAdvanceMillis = nowMillis;
+            boolean initialLoad = loadedUntil == null;
+            if (initialLoad) {
+                loadedUntil = toLocalDateTime(nowMillis);
+            }
+            LocalDateTime horizon = toLocalDateTime(nowMillis + leadMillis);
+            if (!loadedUntil.isAfter(horizon)) {
+                // Loading under the lock: an item committed meanwhile is either in this query
+                // or tracked after the new bound is in place
+                LocalDateTime until = toLocalDateTime(nowMillis + leadMillis + windowMillis);
+                List<ExpiringItem> items = jdbcTemplate.query(
+                        ITEM_SQL + "WHERE i.expiration_date > ? AND i.expiration_date <= ?",
+                        ITEM_MAPPER, Timestamp.valueOf(loadedUntil), Timestamp.valueOf(until));
+                items.forEach(item -> schedule(item, initialLoad));
+                loadedUntil = until;
+                log.debug("Loaded {} items expiring up to {}", items.size(), until);
+            }
+
+            while (!queue.isEmpty() && queue.peek().fireAtMillis() <= nowMillis) {
+                Entry entry = queue.poll();
+                LocalDateTime tracked = trackedDates.get(entry.item().itemId());
+                if (!entry.item().expirationDate().equals(tracked)) {
+                    continue; // Superseded by a newer date
+                }
+                if (entry.stage() == ExpirationStage.EXPIRED) {
+                    trackedDates.remove(entry.item().itemId());
+                }
+                due.add(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return publish(due);
+    }
+
+    public int getTrackedItemCount() {
+        lock.lock();
+        try {
+            return trackedDates.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds lock. On the initial load, a soon event already due was announced before this start
+    private void schedule(ExpiringItem item, boolean initialLoad) {
+        if (item.expirationDate().equals(trackedDates.put(item.itemId(), item.expirationDate()))) {
+            return; // Already queued for this date
+        }
+        long expiresAtMillis = toEpochMillis(item.expirationDate());
+        long soonAtMillis = expiresAtMillis - leadMillis;
+        if (expiresAtMillis > lastAdvanceMillis && (!initialLoad || soonAtMillis >= lastAdvanceMillis)) {
+            queue.add(new Entry(soonAtMillis, item, ExpirationStage.EXPIRING_SOON));
+        }
+        queue.add(new Entry(expiresAtMillis, item, ExpirationStage.EXPIRED));
+    }
+
+    private int publish(List<Entry> due) {
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        // Removed, used up, re-dated in a way not tracked yet, or announced by another instance
+        List<Object[]> claims = due.stream()
+                .map(entry -> new Object[]{entry.stage().name(), entry.item().itemId(),
+                        Timestamp.valueOf(entry.item().expirationDate()), entry.stage().name()})
+                .collect(Collectors.toList());
+        int[] claimed = jdbcTemplate.batchUpdate(CLAIM_SQL, claims);
+
+        int published = 0;
+        for (int i = 0; i < due.size(); i++) {
+            if (claimed[i] == 0) {
+                continue;
+            }
+            Entry entry = due.get(i);
+            ExpiringItem item = entry.item();
+            eventPublisher.publishEvent(new InventoryItemExpirationEvent(
+                    item.itemId(), item.deviceId(), item.userId(), item.expirationDate(), entry.stage()));
+            published++;
+        }
+        return published;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public record ExpiringItem(Long itemId, Long deviceId, Long userId, LocalDateTime expirationDate, double quantity) {
+    }
+
+    private record Entry(long fireAtMillis, ExpiringItem item, ExpirationStage stage) {
+    }
+}
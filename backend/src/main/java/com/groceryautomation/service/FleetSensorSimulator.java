@@ -0,0 +1,293 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.dto.request.FleetSimulationRequest;
+import com.groceryautomation.dto.request.SensorReadingBatchRequest;
+import com.groceryautomation.dto.request.SensorReadingRequest;
+import com.groceryautomation.dto.response.FleetSimulationReport;
+import com.groceryautomation.entity.Device;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.repository.DeviceRepository;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.util.LatencyHistogram;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives a fleet of virtual sensors against the ingestion path to prove ingest capacity.
+ * 
+ * Virtual devices are partitioned into one shard per worker (device v belongs to shard
+ * v % workers). Each shard owns its own seeded RNG and consumption state, so a run with
+ * the same seed and worker count replays the exact same readings. Virtual devices are
+ * bound round-robin to the real active devices, reusing their tracked items.
+ * 
+ * Frame latencies go into a fixed-size histogram per shard, merged for the report, so memory
+ * does not grow with the number of frames. Virtual devices bound to the same real device write
+ * the same inventory rows; when there are more of them than real devices, the latencies include
+ * waits on those rows' locks, and the report says so.
+ */
+@Service
+@Profile("!production")
+@RequiredArgsConstructor
+@Slf4j
+public class FleetSensorSimulator {
+    
+    private final DeviceRepository deviceRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final SensorIngestionService sensorIngestionService;
+    
+    @Value("${sensor.simulator.virtual-devices:1000}")
+    private int defaultVirtualDevices;
+    
+    @Value("${sensor.simulator.frames-per-device:1}")
+    private int defaultFramesPerDevice;
+    
+    @Value("${sensor.simulator.workers:0}")
+    private int defaultWorkers; // 0 = one worker per available processor
+    
+    @Value("${sensor.simulator.seed:42}")
+    private long defaultSeed;
+    
+    public FleetSimulationReport runSimulation(FleetSimulationRequest request) {
+        int virtualDevices = request.getVirtualDevices() != null ? request.getVirtualDevices() : defaultVirtualDevices;
+        int framesPerDevice = request.getFramesPerDevice() != null ? request.getFramesPerDevice() : defaultFramesPerDevice;
+        int workers = request.getWorkers() != null ? request.getWorkers() : resolveDefaultWorkers();
+        long seed = request.getSeed() != null ? request.getSeed() : defaultSeed;
+        boolean dryRun = Boolean.TRUE.equals(request.getDryRun());
+        int shards = Math.min(workers, virtualDevices);
+        
+        List<DeviceProfile> profiles = loadDeviceProfiles();
+        if (profiles.isEmpty()) {
+            throw new RuntimeException("No active and online devices with inventory to simulate against");
+        }
+        
+        log.info("Starting fleet simulation: {} virtual devices over {} real devices, {} workers, seed {}{}", 
+                virtualDevices, profiles.size(), shards, seed, dryRun ? " (dry run)" : "");
+        
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        List<ShardResult> results = new ArrayList<>(shards);
+        
+        ExecutorService pool = Executors.newFixedThreadPool(shards, namedThreadFactory());
+        try {
+            List<Future<ShardResult>> futures = new ArrayList<>(shards);
+            for (int shard = 0; shard < shards; shard++) {
+                final int shardIndex = shard;
+                futures.add(pool.submit(() -> runShard(shardIndex, shards, virtualDevices, framesPerDevice, 
+                        seed, dryRun, profiles)));
+            }
+            for (Future<ShardResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Fleet simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Fleet simulation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        long elapsedNanos = System.nanoTime() - start;
+        FleetSimulationReport report = buildReport(results, virtualDevices, profiles.size(), shards, seed, 
+                dryRun, elapsedNanos, startedAt);
+        
+        log.info("Fleet simulation finished: {} readings in {} ms ({} readings/sec, p99 {} ms, {} failed frames)", 
+                report.getReadings(), report.getElapsedMillis(), Math.round(report.getReadingsPerSecond()), 
+                report.getLatencyP99Millis(), report.getFailedFrames());
+        if (report.getSharedDeviceWarning() != null) {
+            log.warn("Fleet simulation: {}", report.getSharedDeviceWarning());
+        }
+        return report;
+    }
+    
+    private ShardResult runShard(int shard, int shards, int virtualDevices, int framesPerDevice, long seed, 
+                                 boolean dryRun, List<DeviceProfile> profiles) {
+        SplittableRandom random = new SplittableRandom(seed + shard);
+        int ownedDevices = (virtualDevices - shard + shards - 1) / shards;
+        
+        // Per virtual device quantity state, seeded from the bound real device
+        double[][] quantities = new double[ownedDevices][];
+        for (int k = 0; k < ownedDevices; k++) {
+            DeviceProfile profile = profiles.get((shard + k * shards) % profiles.size());
+            quantities[k] = profile.initialQuantities.clone();
+        }
+        
+        LatencyHistogram latencies = new LatencyHistogram();
+        long readings = 0;
+        long failures = 0;
+        
+        for (int frame = 0; frame < framesPerDevice; frame++) {
+            for (int k = 0; k < ownedDevices; k++) {
+                DeviceProfile profile = profiles.get((shard + k * shards) % profiles.size());
+                SensorReadingBatchRequest batch = nextFrame(profile, quantities[k], random);
+                readings += batch.getReadings().size();
+                
+                long frameStart = System.nanoTime();
+                try {
+                    if (!dryRun) {
+                        sensorIngestionService.ingestReadings(profile.deviceId, batch);
+                    }
+                } catch (RuntimeException e) {
+                    failures++;
+                    log.debug("Simulated frame failed for device {}: {}", profile.deviceId, e.getMessage());
+                }
+                latencies.record(System.nanoTime() - frameStart);
+            }
+        }
+        
+        return new ShardResult(latencies, readings, failures);
+    }
+    
+    /**
+     * Advance one virtual device by one tick, using the same consumption model as
+     * MockSensorService: 70% chance an item is consumed by rate ±20%, and empty items
+     * occasionally get restocked so long runs keep producing changes.
+     */
+    private SensorReadingBatchRequest nextFrame(DeviceProfile profile, double[] quantities, SplittableRandom random) {
+        List<SensorReadingRequest> readings = new ArrayList<>(quantities.length);
+        LocalDateTime now = LocalDateTime.now();
+        
+        for (int j = 0; j < quantities.length; j++) {
+            if (quantities[j] <= 0) {
+                if (random.nextDouble() < 0.2) {
+                    quantities[j] = profile.thresholds[j] * (0.8 + random.nextDouble() * 0.7);
+                }
+            } else if (random.nextDouble() < 0.7) {
+                double consumption = quantities[j] * profile.consumptionRate * (0.8 + random.nextDouble() * 0.4);
+                quantities[j] = Math.max(0, quantities[j] - consumption);
+            }
+            
+            readings.add(SensorReadingRequest.builder()
+                    .groceryItemId(profile.groceryItemIds[j])
+                    .quantity(Math.round(quantities[j] * 1000.0) / 1000.0)
+                    .timestamp(now)
+                    .build());
+        }
+        
+        return SensorReadingBatchRequest.builder().readings(readings).build();
+    }
+    
+    private List<DeviceProfile> loadDeviceProfiles() {
+        List<DeviceProfile> profiles = new ArrayList<>();
+        for (Device device : deviceRepository.findAllActiveAndOnlineDevices()) {
+            List<InventoryItem> items = inventoryItemRepository.findByDeviceIdWithGroceryItem(device.getId());
+            if (items.isEmpty()) {
+                continue;
+            }
+            
+            long[] groceryItemIds = new long[items.size()];
+            double[] initialQuantities = new double[items.size()];
+            double[] thresholds = new double[items.size()];
+            for (int j = 0; j < items.size(); j++) {
+                InventoryItem item = items.get(j);
+                groceryItemIds[j] = item.getGroceryItem().getId();
+                thresholds[j] = item.getThresholdQuantity();
+                initialQuantities[j] = Math.max(item.getQuantity(), item.getThresholdQuantity() * 3);
+            }
+            
+            double consumptionRate = device.getMockConsumptionRate() != null ? device.getMockConsumptionRate() : 0.1;
+            profiles.add(new DeviceProfile(device.getDeviceId(), groceryItemIds, initialQuantities, thresholds, 
+                    consumptionRate));
+        }
+        return profiles;
+    }
+    
+    private FleetSimulationReport buildReport(List<ShardResult> results, int virtualDevices, int realDevices, 
+                                              int workers, long seed, boolean dryRun, long elapsedNanos,
+                                              LocalDateTime startedAt) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        long readings = 0;
+        long failures = 0;
+        for (ShardResult result : results) {
+            latencies.merge(result.latencies);
+            readings += result.readings;
+            failures += result.failures;
+        }
+        long totalFrames = latencies.getTotalCount();
+        
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        return FleetSimulationReport.builder()
+                .virtualDevices(virtualDevices)
+                .realDevices(realDevices)
+                .workers(workers)
+                .seed(seed)
+                .dryRun(dryRun)
+                .frames(totalFrames)
+                .readings(readings)
+                .failedFrames(failures)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .readingsPerSecond(elapsedSeconds > 0 ? readings / elapsedSeconds : 0)
+                .framesPerSecond(elapsedSeconds > 0 ? totalFrames / elapsedSeconds : 0)
+                .latencyP50Millis(percentileMillis(latencies, 0.50))
+                .latencyP90Millis(percentileMillis(latencies, 0.90))
+                .latencyP99Millis(percentileMillis(latencies, 0.99))
+                .latencyMaxMillis(latencies.getMax() / 1_000_000.0)
+                .sharedDeviceWarning(virtualDevices > realDevices
+                        ? String.format("%d virtual devices share the inventory rows of %d real devices; latencies "
+                                + "include waits on those rows' locks and understate ingest capacity",
+                                virtualDevices, realDevices)
+                        : null)
+                .startedAt(startedAt)
+                .build();
+    }
+    
+    private double percentileMillis(LatencyHistogram latencies, double percentile) {
+        return latencies.valueAt(percentile) / 1_000_000.0;
+    }
+    
+    private int resolveDefaultWorkers() {
+        return defaultWorkers > 0 ? defaultWorkers : Runtime.getRuntime().availableProcessors();
+    }
+    
+    private ThreadFactory namedThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "fleet-sim-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static final class DeviceProfile {
+        private final String deviceId;
+        private final long[] groceryItemIds;
+        private final double[] initialQuantities;
+        private final double[] thresholds;
+        private final double consumptionRate;
+        
+        private DeviceProfile(String deviceId, long[] groceryItemIds, double[] initialQuantities, 
+                              double[] thresholds, double consumptionRate) {
+            this.deviceId = deviceId;
+            this.groceryItemIds = groceryItemIds;
+            this.initialQuantities = initialQuantities;
+            this.thresholds = thresholds;
+            this.consumptionRate = consumptionRate;
+        }
+    }
+    
+    private static final class ShardResult {
+        private final LatencyHistogram latencies;
+        private final long readings;
+        private final long failures;
+        
+        private ShardResult(LatencyHistogram latencies, long readings, long failures) {
+            this.latencies = latencies;
+            this.readings = readings;
+            this.failures = failures;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.dto.response.InventoryChangesResponse;
+import com.groceryautomation.event.InventoryItemChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+
+/**
+ * Service for the inventory change log behind delta sync
+ */
+public interface InventoryChangeService {
+    
+    /**
+     * Append an item change to the log, in the caller's transaction
+     */
+    void recordChange(InventoryItemChangedEvent event);
+    
+    /**
+     * Append a status transition to the log, in the caller's transaction. Delta sync reads it as
+     * an update of the item
+     */
+    void recordTransition(InventoryStatusChangedEvent event);
+    
+    /**
+     * Get the user's inventory changes since a version returned by an earlier call
+     * 
+     * @param userId The user's ID
+     * @param since The version token, or null for the full inventory
+     * @return Items added, updated and removed since the version, and the new version. The full
+     *         inventory is returned instead when there is no version or it is too old
+     */
+    InventoryChangesResponse getChangesSince(Long userId, String since);
+    
+    /**
+     * Drop log entries that are superseded by a newer entry for the same item, and removals
+     * older than the retention
+     * 
+     * @return The number of entries deleted
+     */
+    int compact();
+}
@@ -0,0 +1,38 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.dto.response.InventoryHistoryResponse;
+import com.groceryautomation.entity.InventoryReading;
+import com.groceryautomation.enums.HistoryGranularity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service for the append-only inventory reading history and its rollups
+ */
+public interface InventoryHistoryService {
+    
+    /**
+     * Append readings to the raw history
+     * 
+     * @param readings Readings to store, written as JDBC batches
+     */
+    void recordReadings(List<InventoryReading> readings);
+    
+    /**
+     * Get quantity history for an inventory item
+     * 
+     * @param inventoryItemId The inventory item ID
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (exclusive)
+     * @param granularity Requested resolution, or null to use the coarsest one that suits the range
+     * @return History points at the resolved granularity
+     */
+    InventoryHistoryResponse getHistory(Long inventoryItemId, LocalDateTime from, LocalDateTime to,
+                                        HistoryGranularity granularity);
+    
+    /**
+     * Roll completed hours and days up into aggregates and apply the retention policy
+     */
+    void runMaintenance();
+}
@@ -0,0 +1,519 @@
+package com.groceryautomation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.dto.response.InventoryUpdateResponse;
+import com.groceryautomation.enums.InventoryChangeType;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.enums.InventoryUpdateType;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.util.LogTail;
+import com.groceryautomation.util.UserEventHub;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes inventory changes to Server-Sent Events streams and GraphQL subscriptions, so clients can
+ * stop polling the inventory views.
+ *
+ * Changes are read from the inventory change log on a short interval rather than taken from
+ * in-process events, so a client sees the changes made through every instance, not only the one
+ * it is connected to. Each flush reads the new log entries of all users with an open stream in one
+ * query, then loads every changed item of a user in one query. Each update is built and serialized
+ * once, then shared by all of the user's streams and subscriptions.
+ *
+ * Streams are async servlet requests: an open connection holds no thread. They are written by a
+ * small sender pool. Each connection has a bounded queue; a client that falls so far behind that
+ * its queue fills up is disconnected rather than buffered without limit.
+ *
+ * Every event carries an ID of the form "{startup epoch}-{sequence}". The last events of each user are
+ * kept so a reconnecting client sending Last-Event-ID gets what it missed. When that is not possible
+ * (restart, another instance, gap too large) it gets a {@value #RESYNC} event instead and should
+ * catch up through the delta sync endpoint before applying further events.
+ */
+@Service
+@Slf4j
+public class InventoryPushService {
+
+    public static final String RESYNC = "resync";
+
+    private static final PushEvent HEARTBEAT = new PushEvent(0, null, null);
+
+    private static final String HEAD_SQL = "SELECT COALESCE(MAX(id), 0) FROM inventory_changes";
+
+    private static final String COLUMNS =
+            "SELECT id, user_id, device_id, inventory_item_id, change_type, from_status, to_status FROM inventory_changes ";
+
+    // Every user's entries are read, so an entry that is not returned really is missing
+    private static final String CHANGES_SQL = COLUMNS + "WHERE id > ? AND id <= ?";
+
+    private static final String GAPS_SQL = COLUMNS + "WHERE id IN ";
+
+    private static final int GAPS_PER_QUERY = 500;
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int replaySize;
+    private final long idleChannelMillis;
+    private final long commitLagMillis;
+    private final ExecutorService senders;
+    private final Counter dropped;
+    private final UserEventHub<InventoryUpdateResponse> updateHub;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, UserChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    // Only touched by flush(); null while nobody listens, so the log is not read for nothing
+    private LogTail tail;
+
+    public InventoryPushService(InventoryItemRepository inventoryItemRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${inventory.push.timeout-minutes:30}") long timeoutMinutes,
+                                @Value("${inventory.push.buffer-size:128}") int bufferSize,
+                                @Value("${inventory.push.replay-size:256}") int replaySize,
+                                @Value("${inventory.push.idle-channel-minutes:10}") long idleChannelMinutes,
+                                @Value("${inventory.push.sender-threads:2}") int senderThreads,
+                                @Value("${inventory.changes.commit-lag-seconds:30}") long commitLagSeconds) {
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.timeoutMillis = timeoutMinutes * 60_000L;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.idleChannelMillis = idleChannelMinutes * 60_000L;
+        this.commitLagMillis = commitLagSeconds * 1_000L;
+        this.updateHub = new UserEventHub<>(bufferSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-push-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("inventory.push.connections", connections, AtomicInteger::get).register(meterRegistry);
+        this.dropped = Counter.builder("inventory.push.dropped")
+                .description("Streams closed because the client fell behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the user. With a Last-Event-ID from an earlier stream, the events the
+     * client missed are sent first.
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = createEmitter(timeoutMillis);
+        // compute() keeps the idle sweep from dropping the channel while the connection is attached
+        channels.compute(userId, (key, existing) -> {
+            UserChannel channel = existing != null ? existing : new UserChannel(userId);
+            channel.attach(new Connection(channel, emitter), lastEventId);
+            return channel;
+        });
+        log.debug("Opened inventory stream for user {} (resuming from {})", userId, lastEventId);
+        return emitter;
+    }
+
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * Updates for a GraphQL subscription. Live only: there is no replay, so a subscriber that is
+     * terminated for falling behind should re-read the inventory before subscribing again.
+     */
+    public Flux<InventoryUpdateResponse> subscribeUpdates(Long userId) {
+        return Flux.defer(() -> {
+            // The channel is what gets the user's log entries read; the idle sweep keeps it while subscribed
+            channels.computeIfAbsent(userId, UserChannel::new);
+            return updateHub.subscribe(userId);
+        });
+    }
+
+    /**
+     * Reads the change log entries since the last flush and sends them, one item query per user.
+     */
+    @Scheduled(fixedDelayString = "${inventory.push.flush-interval-ms:250}")
+    public void flush() {
+        if (channels.isEmpty()) {
+            tail = null;
+            return;
+        }
+        try {
+            readLog();
+        } catch (RuntimeException e) {
+            log.warn("Failed to read the inventory change log: {}", e.getMessage());
+            return;
+        }
+        for (UserChannel channel : channels.values()) {
+            try {
+                flush(channel);
+            } catch (RuntimeException e) {
+                log.warn("Failed to push inventory changes for user {}: {}", channel.userId, e.getMessage());
+            }
+        }
+    }
+
+    // Hands the new entries of listening users to their channels
+    private void readLog() {
+        long now = System.currentTimeMillis();
+        Long head = jdbcTemplate.queryForObject(HEAD_SQL, Long.class);
+        if (tail == null) {
+            // Clients load the inventory when they connect; only what changes afterwards is pushed
+            tail = new LogTail(head, commitLagMillis, now);
+            return;
+        }
+
+        List<LogEntry> entries = new ArrayList<>(jdbcTemplate.query(CHANGES_SQL, LOG_ENTRY_MAPPER, tail.getReadUpTo(), head));
+        List<Long> gaps = new ArrayList<>(tail.getGaps());
+        for (int from = 0; from < gaps.size(); from += GAPS_PER_QUERY) {
+            List<Long> chunk = gaps.subList(from, Math.min(from + GAPS_PER_QUERY, gaps.size()));
+            entries.addAll(jdbcTemplate.query(GAPS_SQL + placeholders(chunk.size()), LOG_ENTRY_MAPPER, chunk.toArray()));
+        }
+        // Late entries are applied in log order along with the new ones
+        entries.sort(Comparator.comparingLong(LogEntry::id));
+
+        for (LogEntry entry : entries) {
+            UserChannel channel = tail.accept(entry.id()) ? channels.get(entry.userId()) : null;
+            if (channel == null) {
+                continue;
+            }
+            if (entry.to() != null) {
+                channel.addTransition(new InventoryStatusChangedEvent(entry.itemId(), entry.deviceId(),
+                        entry.userId(), entry.from(), entry.to()));
+            }
+            channel.addChange(entry.itemId(), entry.changeType());
+        }
+        tail.advance(head, now);
+    }
+
+    private static String placeholders(int count) {
+        return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    private void flush(UserChannel channel) {
+        Map<Long, InventoryChangeType> changes;
+        List<InventoryStatusChangedEvent> transitions;
+        synchronized (channel) {
+            if (channel.changes.isEmpty() && channel.transitions.isEmpty()) {
+                return;
+            }
+            changes = channel.changes;
+            transitions = channel.transitions;
+            channel.changes = new LinkedHashMap<>();
+            channel.transitions = new ArrayList<>();
+        }
+
+        Set<Long> upsertedIds = changes.entrySet().stream()
+                .filter(entry -> entry.getValue() != InventoryChangeType.REMOVED)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        Map<Long, InventoryItemResponse> items = upsertedIds.isEmpty()
+                ? Map.of()
+                : readOnlyTransaction.execute(status -> inventoryItemRepository.findResponsesByIdIn(upsertedIds))
+                        .stream()
+                        .collect(Collectors.toMap(InventoryItemResponse::getId, Function.identity()));
+
+        List<InventoryUpdateResponse> updates = new ArrayList<>(changes.size() + transitions.size());
+        changes.forEach((itemId, changeType) -> {
+            InventoryItemResponse item = items.get(itemId);
+            // A change followed by a removal that committed before the load reads as gone
+            updates.add(InventoryUpdateResponse.builder()
+                    .type(item != null ? InventoryUpdateType.ITEM_CHANGED : InventoryUpdateType.ITEM_REMOVED)
+                    .itemId(itemId)
+                    .item(item)
+                    .build());
+        });
+        transitions.forEach(transition -> updates.add(InventoryUpdateResponse.builder()
+                .type(InventoryUpdateType.STATUS_CHANGED)
+                .itemId(transition.itemId())
+                .from(transition.from())
+                .to(transition.to())
+                .build()));
+        channel.publish(updates);
+    }
+
+    private String toJson(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize inventory update: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Keeps idle streams open through proxies and notices closed ones; drops the replay state of
+     * users who have had no stream for a while.
+     */
+    @Scheduled(fixedDelayString = "${inventory.push.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long idleBefore = System.currentTimeMillis() - idleChannelMillis;
+        for (UserChannel channel : channels.values()) {
+            channel.connections.forEach(connection -> connection.offer(HEARTBEAT));
+            channels.computeIfPresent(channel.userId, (key, existing) -> existing.isIdleSince(idleBefore) ? null : existing);
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.connections.forEach(connection -> {
+            connection.close();
+            connection.emitter.complete();
+        }));
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Returns the sequence number of an event ID issued by this process, or -1.
+     */
+    private long parseSequence(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Per-user state: pending changes, recent events for replay, and open streams.
+     * Guarded by its own monitor; connection queues never block, so fan-out happens under it.
+     */
+    private final class UserChannel {
+
+        private final Long userId;
+        private final Set<Connection> connections = new CopyOnWriteArraySet<>();
+        private final Deque<PushEvent> recent = new ArrayDeque<>();
+        private Map<Long, InventoryChangeType> changes = new LinkedHashMap<>();
+        private List<InventoryStatusChangedEvent> transitions = new ArrayList<>();
+        private long lastSequence;
+        private long idleSince = System.currentTimeMillis();
+
+        private UserChannel(Long userId) {
+            this.userId = userId;
+        }
+
+        synchronized void addChange(Long itemId, InventoryChangeType changeType) {
+            changes.put(itemId, changeType);
+        }
+
+        synchronized void addTransition(InventoryStatusChangedEvent transition) {
+            transitions.add(transition);
+        }
+
+        synchronized void publish(List<InventoryUpdateResponse> updates) {
+            for (InventoryUpdateResponse update : updates) {
+                PushEvent event = new PushEvent(++lastSequence, update.getType().getEventName(), toJson(update));
+                recent.addLast(event);
+                if (recent.size() > replaySize) {
+                    recent.removeFirst();
+                }
+                connections.forEach(connection -> connection.offer(event));
+                updateHub.publish(userId, update);
+            }
+        }
+
+        /**
+         * Replays under the same lock that publishes, so the stream neither misses nor repeats an event.
+         */
+        synchronized void attach(Connection connection, String lastEventId) {
+            connections.add(connection);
+            InventoryPushService.this.connections.incrementAndGet();
+            connection.offer(HEARTBEAT);
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return;
+            }
+
+            long resumeAfter = parseSequence(lastEventId);
+            long oldest = recent.isEmpty() ? lastSequence + 1 : recent.peekFirst().sequence();
+            boolean resumable = resumeAfter >= oldest - 1 && resumeAfter <= lastSequence
+                    && lastSequence - resumeAfter < bufferSize;
+            if (!resumable) {
+                // Carries the current ID, so the client resumes from here once it has caught up
+                connection.offer(new PushEvent(lastSequence, RESYNC, toJson(Map.of("userId", userId))));
+                return;
+            }
+            for (PushEvent event : recent) {
+                if (event.sequence() > resumeAfter) {
+                    connection.offer(event);
+                }
+            }
+        }
+
+        synchronized void detach(Connection connection) {
+            if (connections.remove(connection)) {
+                InventoryPushService.this.connections.decrementAndGet();
+                if (connections.isEmpty()) {
+                    idleSince = System.currentTimeMillis();
+                }
+            }
+        }
+
+        synchronized boolean isIdleSince(long time) {
+            return connections.isEmpty() && idleSince < time && !updateHub.hasSubscribers(userId);
+        }
+    }
+
+    /**
+     * One open stream. Events are queued without blocking and written by the sender pool,
+     * with at most one drain task per connection so writes stay in order.
+     */
+    private final class Connection {
+
+        private final UserChannel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<PushEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(UserChannel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(error -> close());
+        }
+
+        void offer(PushEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.warn("Closing inventory stream of user {}: client is {} events behind", channel.userId, bufferSize);
+                dropped.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                PushEvent event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    emitter.send(toSse(event));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Inventory stream of user {} is gone: {}", channel.userId, e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (closed.get()) {
+                emitter.complete();
+            } else if (!queue.isEmpty()) {
+                // An event offered after the last poll but before the flag was cleared
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * Completes the stream from the sender pool: the caller may hold the channel lock, and the
+         * emitter stays locked while a send to a slow client blocks.
+         */
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                channel.detach(this);
+                queue.clear();
+                scheduleDrain();
+            }
+        }
+
+        private SseEmitter.SseEventBuilder toSse(PushEvent event) {
+            if (event == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event()
+                    .id(eventId(event.sequence()))
+                    .name(event.name())
+                    .data(event.json(), MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private static final RowMapper<LogEntry> LOG_ENTRY_MAPPER = (rs, rowNum) -> {
+        String from = rs.getString(6);
+        String to = rs.getString(7);
+        return new LogEntry(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                InventoryChangeType.valueOf(rs.getString(5)),
+                from == null ? null : InventoryStatus.valueOf(from), to == null ? null : InventoryStatus.valueOf(to));
+    };
+
+    /**
+     * A change log entry; from and to are set when it records a status transition.
+     */
+    private record LogEntry(long id, long userId, long deviceId, long itemId, InventoryChangeType changeType,
+                            InventoryStatus from, InventoryStatus to) {
+    }
+
+    /**
+     * An SSE event with its payload already serialized, shared by every connection it goes to.
+     */
+    private record PushEvent(long sequence, String name, String json) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.groceryautomation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.groceryautomation.dto.response.AggregatedInventoryResponse;
+import com.groceryautomation.dto.response.CurrentInventoryResponse;
+import com.groceryautomation.dto.response.InventoryItemResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the inventory views that mobile clients poll, keyed by user.
+ *
+ * Each entry is tagged with the user's {@link InventoryVersionTracker} version read before it was
+ * loaded, and a hit is only served while that is still the current version, so a change committed
+ * on any instance is seen at once. Checking costs a primary-key lookup instead of the load; a miss
+ * runs the loader in a read-only transaction. Entries are bounded by size and expire after a TTL,
+ * and are dropped early on this instance by {@link #invalidateUser(Long)} once a change commits.
+ *
+ * As the version is read first, a load that races with a commit is tagged older than its data and
+ * is reloaded on the next read rather than served stale. Hit, miss and eviction counts are
+ * published as {@code cache.*} meters.
+ */
+@Service
+@Slf4j
+public class InventoryReadCache {
+
+    private final InventoryVersionTracker versionTracker;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Long, Versioned<CurrentInventoryResponse>> currentInventory;
+    private final Cache<Long, Versioned<AggregatedInventoryResponse>> aggregatedInventory;
+    private final Cache<Long, Versioned<List<InventoryItemResponse>>> alerts;
+
+    public InventoryReadCache(InventoryVersionTracker versionTracker,
+                              MeterRegistry meterRegistry,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${inventory.cache.max-users:10000}") long maxUsers,
+                              @Value("${inventory.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.versionTracker = versionTracker;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.currentInventory = build(meterRegistry, "inventory.current", maxUsers, ttlSeconds);
+        this.aggregatedInventory = build(meterRegistry, "inventory.aggregated", maxUsers, ttlSeconds);
+        this.alerts = build(meterRegistry, "inventory.alerts", maxUsers, ttlSeconds);
+    }
+
+    private static <V> Cache<Long, V> build(MeterRegistry meterRegistry, String name, long maxUsers, long ttlSeconds) {
+        Cache<Long, V> cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public CurrentInventoryResponse getCurrentInventory(Long userId, Supplier<CurrentInventoryResponse> loader) {
+        return read(currentInventory, userId, loader);
+    }
+
+    public AggregatedInventoryResponse getAggregatedInventory(Long userId, Supplier<AggregatedInventoryResponse> loader) {
+        return read(aggregatedInventory, userId, loader);
+    }
+
+    public List<InventoryItemResponse> getAlerts(Long userId, Supplier<List<InventoryItemResponse>> loader) {
+        return read(alerts, userId, loader);
+    }
+
+    private <V> V read(Cache<Long, Versioned<V>> cache, Long userId, Supplier<V> loader) {
+        long version = versionTracker.getVersion(userId);
+        Versioned<V> cached = cache.getIfPresent(userId);
+        if (cached != null && cached.version() == version) {
+            return cached.value();
+        }
+
+        V loaded = readOnlyTransaction.execute(status -> loader.get());
+        if (loaded != null) {
+            // A slower load of an older version never replaces a newer entry
+            cache.asMap().merge(userId, new Versioned<>(version, loaded),
+                    (existing, fresh) -> existing.version() > fresh.version() ? existing : fresh);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops every cached view of the user on this instance. Called after a change has committed;
+     * other instances notice the new version on their next read.
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        currentInventory.invalidate(userId);
+        aggregatedInventory.invalidate(userId);
+        alerts.invalidate(userId);
+        log.trace("Invalidated cached inventory for user {}", userId);
+    }
+
+    private record Versioned<V>(long version, V value) {
+    }
+}
@@ -1,7 +1,11 @@
 package com.groceryautomation.service;
 
+import com.groceryautomation.dto.request.BulkThresholdUpdateRequest;
+import com.groceryautomation.dto.response.AggregatedInventoryResponse;
+import com.groceryautomation.dto.response.BulkThresholdUpdateResponse;
 import com.groceryautomation.dto.response.CurrentInventoryResponse;
 import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.dto.response.ItemForecastResponse;
 import com.groceryautomation.enums.InventoryStatus;
 
 import java.util.List;
@@ -10,6 +14,8 @@ public interface InventoryService {
     
     CurrentInventoryResponse getCurrentInventory(Long userId);
     
+    AggregatedInventoryResponse getAggregatedInventory(Long userId);
+    
     InventoryItemResponse getInventoryItemById(Long id);
     
     List<InventoryItemResponse> getInventoryAlerts(Long userId);
@@ -18,5 +24,9 @@ public interface InventoryService {
     
     InventoryItemResponse updateThreshold(Long inventoryItemId, Double newThreshold);
     
+    BulkThresholdUpdateResponse updateThresholds(BulkThresholdUpdateRequest request);
+    
     void syncInventory(String deviceId);
+    
+    List<ItemForecastResponse> getConsumptionForecast(Long userId);
 } 
\ No newline at end of file
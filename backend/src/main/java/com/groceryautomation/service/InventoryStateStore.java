@@ -0,0 +1,518 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.util.LongIntHashMap;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind store for hot inventory quantities.
+ *
+ * Sensor updates land in flat primitive arrays indexed through a {@link LongIntHashMap},
+ * so status transitions are evaluated immediately without touching the database.
+ * Dirty items are written back in one batch per flush, on a fixed interval or once the
+ * dirty count reaches a threshold, so an item that changes a hundred times between
+ * flushes costs a single UPDATE. On shutdown any unflushed quantities are written
+ * to a journal file if the final flush fails, and replayed on the next startup.
+ *
+ * Every instance keeps its own copy, so a flush locks the rows and checks each against
+ * the quantity its slot last saw there. A row another instance has written since is
+ * merged rather than overwritten: consumption and restock deltas are reapplied on top of
+ * the stored quantity, while an absolute sensor reading yields to the stored one and the
+ * device's next reading settles it. Slots that are clean after a flush are dropped and
+ * re-seeded from the caller's entity on next access, so the store only holds items
+ * touched since the last flush.
+ *
+ * Disabled by default; with {@code inventory.state-store.enabled=false} callers keep
+ * writing through the repository as before.
+ */
+@Service
+@Slf4j
+public class InventoryStateStore {
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int initialCapacity;
+    private final int dirtyThreshold;
+    private final Path journalPath;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inventory-state-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Slot-indexed state, guarded by lock
+    private LongIntHashMap slotsByItemId;
+    private long[] itemIds;
+    private double[] quantities;
+    private double[] baseQuantities; // As last seen in the row
+    private boolean[] readings; // An absolute reading arrived since the last flush
+    private double[] thresholds;
+    private byte[] statuses;
+    private boolean[] dirty;
+    private int[] dirtySlots;
+    private int dirtyCount;
+    private int slotCount;
+
+    public InventoryStateStore(InventoryItemRepository inventoryItemRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${inventory.state-store.enabled:false}") boolean enabled,
+                               @Value("${inventory.state-store.initial-capacity:1024}") int initialCapacity,
+                               @Value("${inventory.state-store.dirty-threshold:500}") int dirtyThreshold,
+                               @Value("${inventory.state-store.journal-path:data/inventory-state.journal}") String journalPath) {
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.initialCapacity = Math.max(16, initialCapacity);
+        this.dirtyThreshold = dirtyThreshold;
+        this.journalPath = Paths.get(journalPath);
+        allocate(this.initialCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Current quantity for the item, seeding the store from the loaded entity on first access.
+     */
+    public double currentQuantity(InventoryItem item) {
+        lock.lock();
+        try {
+            return quantities[slotFor(item)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records an absolute quantity reading and returns the resulting transition.
+     */
+    public QuantityChange applyQuantity(InventoryItem item, double quantity) {
+        QuantityChange change;
+        lock.lock();
+        try {
+            int slot = slotFor(item);
+            change = apply(slot, quantity);
+            readings[slot] |= change.isChanged();
+        } finally {
+            lock.unlock();
+        }
+        requestFlushIfNeeded();
+        return change;
+    }
+
+    /**
+     * Records a relative change such as a consumption event; quantities never go below zero.
+     */
+    public QuantityChange applyDelta(InventoryItem item, double delta) {
+        QuantityChange change;
+        lock.lock();
+        try {
+            int slot = slotFor(item);
+            change = apply(slot, Math.max(0, quantities[slot] + delta));
+        } finally {
+            lock.unlock();
+        }
+        requestFlushIfNeeded();
+        return change;
+    }
+
+    /**
+     * Keeps the cached threshold in line with a threshold update written through the repository.
+     */
+    public void updateThreshold(Long inventoryItemId, double thresholdQuantity) {
+        lock.lock();
+        try {
+            int slot = slotsByItemId.get(inventoryItemId);
+            if (slot >= 0) {
+                thresholds[slot] = thresholdQuantity;
+                statuses[slot] = (byte) InventoryItem.statusFor(quantities[slot], thresholdQuantity).ordinal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getDirtyCount() {
+        lock.lock();
+        try {
+            return dirtyCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTrackedCount() {
+        lock.lock();
+        try {
+            return slotCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.state-store.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes every dirty quantity back in one transaction, then drops the slots that stayed clean.
+     *
+     * @return the number of items written
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            int[] slots;
+            PendingWrite pending;
+            lock.lock();
+            try {
+                if (dirtyCount == 0) {
+                    evictClean();
+                    return 0;
+                }
+                slots = Arrays.copyOf(dirtySlots, dirtyCount);
+                pending = new PendingWrite(slots.length);
+                for (int slot : slots) {
+                    pending.add(itemIds[slot], quantities[slot], baseQuantities[slot], readings[slot]);
+                    dirty[slot] = false;
+                    readings[slot] = false;
+                }
+                dirtyCount = 0;
+            } finally {
+                lock.unlock();
+            }
+
+            PendingWrite attempted = pending.copy();
+            int written;
+            try {
+                written = writeQuantities(pending);
+            } catch (RuntimeException e) {
+                // Put the slots back; they are written again with whatever value is newest
+                lock.lock();
+                try {
+                    for (int i = 0; i < slots.length; i++) {
+                        readings[slots[i]] |= pending.readings[i];
+                        markDirty(slots[i]);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+
+            lock.lock();
+            try {
+                rebase(slots, attempted, pending);
+                evictClean();
+            } finally {
+                lock.unlock();
+            }
+            log.debug("Flushed {} inventory quantities", written);
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayJournal() {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(journalPath, StandardCharsets.UTF_8);
+            PendingWrite pending = new PendingWrite(lines.size());
+            for (String line : lines) {
+                // id,quantity[,base,reading]; entries without a base are written unchecked
+                String[] fields = line.split(",");
+                if (fields.length >= 2) {
+                    boolean checked = fields.length >= 4;
+                    pending.add(Long.parseLong(fields[0].trim()), Double.parseDouble(fields[1].trim()),
+                            checked ? Double.parseDouble(fields[2].trim()) : Double.NaN,
+                            checked && Boolean.parseBoolean(fields[3].trim()));
+                }
+            }
+            int written = writeQuantities(pending);
+            Files.delete(journalPath);
+            log.info("Replayed {} unflushed inventory quantities from {}", written, journalPath);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to replay inventory state journal {}", journalPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+        if (!enabled) {
+            return;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Final inventory flush failed, writing journal to {}", journalPath, e);
+            writeJournal();
+        }
+    }
+
+    // Leaves the quantity each row ended up with in pending.values
+    private int writeQuantities(PendingWrite pending) {
+        LongIntHashMap positions = new LongIntHashMap(pending.count);
+        List<Long> idList = new ArrayList<>(pending.count);
+        for (int i = 0; i < pending.count; i++) {
+            positions.put(pending.ids[i], i);
+            idList.add(pending.ids[i]);
+        }
+
+        Integer written = transactionTemplate.execute(status -> {
+            List<InventoryItem> items = inventoryItemRepository.findAllByIdForUpdate(idList);
+            int merged = 0;
+            for (InventoryItem item : items) {
+                int i = positions.get(item.getId());
+                double stored = item.getQuantity();
+                double base = pending.bases[i];
+                if (!Double.isNaN(base) && stored != base) {
+                    // Another instance wrote the row since this one last saw it
+                    pending.values[i] = pending.readings[i] ? stored : Math.max(0, stored + pending.values[i] - base);
+                    merged++;
+                }
+                item.setQuantity(pending.values[i]);
+            }
+            if (merged > 0) {
+                log.info("Merged {} inventory quantities written by another instance", merged);
+            }
+            // Status is recomputed by @PreUpdate; rows go out as JDBC batches
+            inventoryItemRepository.saveAll(items);
+            return items.size();
+        });
+        return written != null ? written : 0;
+    }
+
+    private void writeJournal() {
+        lock.lock();
+        try {
+            Files.createDirectories(journalPath.toAbsolutePath().getParent());
+            Path temp = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < dirtyCount; i++) {
+                    int slot = dirtySlots[i];
+                    writer.write(itemIds[slot] + "," + quantities[slot] + "," + baseQuantities[slot] + "," + readings[slot]);
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Journaled {} unflushed inventory quantities", dirtyCount);
+        } catch (IOException e) {
+            log.error("Failed to write inventory state journal; {} updates lost", dirtyCount, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void requestFlushIfNeeded() {
+        if (getDirtyCount() >= dirtyThreshold && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                try {
+                    flush();
+                } catch (RuntimeException e) {
+                    log.error("Threshold flush of inventory state failed", e);
+                }
+            });
+        }
+    }
+
+    // Caller holds lock
+    private QuantityChange apply(int slot, double quantity) {
+        double previousQuantity = quantities[slot];
+        InventoryStatus previousStatus = InventoryStatus.values()[statuses[slot]];
+        InventoryStatus status = previousStatus;
+
+        if (previousQuantity != quantity) {
+            quantities[slot] = quantity;
+            status = InventoryItem.statusFor(quantity, thresholds[slot]);
+            statuses[slot] = (byte) status.ordinal();
+            markDirty(slot);
+        }
+        return new QuantityChange(itemIds[slot], previousQuantity, quantity, previousStatus, status);
+    }
+
+    // Caller holds lock
+    private void markDirty(int slot) {
+        if (!dirty[slot]) {
+            dirty[slot] = true;
+            dirtySlots[dirtyCount++] = slot;
+        }
+    }
+
+    // Caller holds lock
+    private int slotFor(InventoryItem item) {
+        int slot = slotsByItemId.get(item.getId());
+        if (slot >= 0) {
+            return slot;
+        }
+
+        if (slotCount == itemIds.length) {
+            int capacity = itemIds.length << 1;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            baseQuantities = Arrays.copyOf(baseQuantities, capacity);
+            readings = Arrays.copyOf(readings, capacity);
+            thresholds = Arrays.copyOf(thresholds, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            dirty = Arrays.copyOf(dirty, capacity);
+            dirtySlots = Arrays.copyOf(dirtySlots, capacity);
+        }
+
+        slot = slotCount++;
+        itemIds[slot] = item.getId();
+        quantities[slot] = item.getQuantity();
+        baseQuantities[slot] = item.getQuantity();
+        thresholds[slot] = item.getThresholdQuantity();
+        statuses[slot] = (byte) InventoryItem.statusFor(item.getQuantity(), item.getThresholdQuantity()).ordinal();
+        slotsByItemId.put(item.getId(), slot);
+        return slot;
+    }
+
+    // Caller holds lock. A flushed slot now has the written value as its base; one that changed
+    // again during the write keeps its change on top of whatever the merge settled on.
+    private void rebase(int[] slots, PendingWrite attempted, PendingWrite written) {
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            baseQuantities[slot] = written.values[i];
+            double shift = written.values[i] - attempted.values[i];
+            if (shift != 0 && !readings[slot]) {
+                quantities[slot] = Math.max(0, quantities[slot] + shift);
+                statuses[slot] = (byte) InventoryItem.statusFor(quantities[slot], thresholds[slot]).ordinal();
+            }
+        }
+    }
+
+    // Caller holds lock. Compacts the slots down to the dirty ones.
+    private void evictClean() {
+        if (dirtyCount == slotCount) {
+            return;
+        }
+        long[] oldIds = itemIds;
+        double[] oldQuantities = quantities;
+        double[] oldBases = baseQuantities;
+        boolean[] oldReadings = readings;
+        double[] oldThresholds = thresholds;
+        byte[] oldStatuses = statuses;
+        int[] oldDirtySlots = dirtySlots;
+        int kept = dirtyCount;
+        int dropped = slotCount - kept;
+
+        allocate(Math.max(initialCapacity, Integer.highestOneBit(Math.max(1, kept)) << 1));
+        for (int i = 0; i < kept; i++) {
+            int from = oldDirtySlots[i];
+            itemIds[i] = oldIds[from];
+            quantities[i] = oldQuantities[from];
+            baseQuantities[i] = oldBases[from];
+            readings[i] = oldReadings[from];
+            thresholds[i] = oldThresholds[from];
+            statuses[i] = oldStatuses[from];
+            dirty[i] = true;
+            dirtySlots[i] = i;
+            slotsByItemId.put(itemIds[i], i);
+        }
+        slotCount = kept;
+        dirtyCount = kept;
+        log.debug("Dropped {} clean inventory slots", dropped);
+    }
+
+    // Caller holds lock, or the constructor is running
+    private void allocate(int capacity) {
+        slotsByItemId = new LongIntHashMap(capacity);
+        itemIds = new long[capacity];
+        quantities = new double[capacity];
+        baseQuantities = new double[capacity];
+        readings = new boolean[capacity];
+        thresholds = new double[capacity];
+        statuses = new byte[capacity];
+        dirty = new boolean[capacity];
+        dirtySlots = new int[capacity];
+        slotCount = 0;
+        dirtyCount = 0;
+    }
+
+    // Slot-independent copy of the quantities handed to one write
+    private static final class PendingWrite {
+        private final long[] ids;
+        private final double[] values;
+        private final double[] bases;
+        private final boolean[] readings;
+        private int count;
+
+        private PendingWrite(int capacity) {
+            ids = new long[capacity];
+            values = new double[capacity];
+            bases = new double[capacity];
+            readings = new boolean[capacity];
+        }
+
+        private void add(long id, double value, double base, boolean reading) {
+            ids[count] = id;
+            values[count] = value;
+            bases[count] = base;
+            readings[count] = reading;
+            count++;
+        }
+
+        private PendingWrite copy() {
+            PendingWrite copy = new PendingWrite(count);
+            for (int i = 0; i < count; i++) {
+                copy.add(ids[i], values[i], bases[i], readings[i]);
+            }
+            return copy;
+        }
+    }
+
+    public record QuantityChange(long inventoryItemId,
+                                 double previousQuantity,
+                                 double quantity,
+                                 InventoryStatus previousStatus,
+                                 InventoryStatus status) {
+
+        public boolean isChanged() {
+            return previousQuantity != quantity;
+        }
+
+        public boolean isStatusChanged() {
+            return previousStatus != status;
+        }
+    }
+}
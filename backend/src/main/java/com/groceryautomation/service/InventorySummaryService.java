@@ -0,0 +1,50 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.dto.response.InventorySummaryResponse;
+import com.groceryautomation.entity.InventorySummary;
+import com.groceryautomation.event.InventoryItemCountChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+
+import java.util.Optional;
+
+/**
+ * Service for the materialized per-device inventory counts
+ */
+public interface InventorySummaryService {
+    
+    /**
+     * Get the user's inventory counts across all of their devices
+     * 
+     * @param userId The user's ID
+     * @return Counts summed over the user's device summaries
+     */
+    InventorySummaryResponse getUserSummary(Long userId);
+    
+    /**
+     * Get the counts for one device
+     * 
+     * @param deviceId The device's database ID
+     * @return The device summary, or empty if it has not been built yet
+     */
+    Optional<InventorySummary> getDeviceSummary(Long deviceId);
+    
+    /**
+     * Create an empty summary for a newly registered device
+     */
+    void initializeDevice(Long deviceId, Long userId);
+    
+    /**
+     * Move one item between status counters, in the caller's transaction
+     */
+    void applyTransition(InventoryStatusChangedEvent event);
+    
+    /**
+     * Add or remove one item from the counters, in the caller's transaction
+     */
+    void applyItemCountChange(InventoryItemCountChangedEvent event);
+    
+    /**
+     * Recount every device summary from the inventory items
+     */
+    void rebuildAll();
+}
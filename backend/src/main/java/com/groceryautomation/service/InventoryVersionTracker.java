@@ -0,0 +1,84 @@
+package com.groceryautomation.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Per-user inventory version, kept in {@code users.inventory_version} so every instance sees the
+ * same value.
+ *
+ * A change to one of the user's items or devices bumps the version once per transaction, just
+ * before it commits, so the bump commits or rolls back with the change and the row lock is only
+ * held for the commit itself. Reading a version is a primary-key lookup, which lets conditional
+ * requests be answered, and cached views be checked, without loading any inventory.
+ */
+@Service
+public class InventoryVersionTracker {
+
+    private static final String VERSION_SQL = "SELECT inventory_version FROM users WHERE id = ?";
+    private static final String BUMP_SQL = "UPDATE users SET inventory_version = inventory_version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryVersionTracker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long getVersion(Long userId) {
+        List<Long> versions = jdbcTemplate.queryForList(VERSION_SQL, Long.class, userId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    /**
+     * Bumps the user's version when the current transaction commits, or right away outside one.
+     */
+    public void bump(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.update(BUMP_SQL, userId);
+            return;
+        }
+        // Looked up among the current transaction's synchronizations, so a suspended outer
+        // transaction keeps its own bumps
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBumps pending && pending.tracker() == this) {
+                pending.userIds.add(userId);
+                return;
+            }
+        }
+        PendingBumps pending = new PendingBumps();
+        pending.userIds.add(userId);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    /**
+     * Strong ETag for the user's inventory views. Take it before loading, so the payload is never
+     * older than the version it is tagged with.
+     */
+    public String getETag(Long userId) {
+        return "\"inv-" + getVersion(userId) + "\"";
+    }
+
+    private final class PendingBumps implements TransactionSynchronization {
+
+        // Sorted, so transactions touching several users lock their rows in the same order
+        private final Set<Long> userIds = new TreeSet<>();
+
+        private InventoryVersionTracker tracker() {
+            return InventoryVersionTracker.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.batchUpdate(BUMP_SQL, userIds.stream().map(userId -> new Object[]{userId}).toList());
+        }
+    }
+}
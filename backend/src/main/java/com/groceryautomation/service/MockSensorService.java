@@ -2,15 +2,17 @@ package com.groceryautomation.service;
 
 import com.groceryautomation.entity.Device;
 import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.InventoryReading;
 import com.groceryautomation.repository.DeviceRepository;
 import com.groceryautomation.repository.InventoryItemRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -21,10 +23,31 @@ public class MockSensorService {
     
     private final DeviceRepository deviceRepository;
     private final InventoryItemRepository inventoryItemRepository;
+    private final InventoryStateStore inventoryStateStore;
+    private final InventoryHistoryService inventoryHistoryService;
+    private final ConsumptionForecaster consumptionForecaster;
+    private final DeviceLivenessTracker deviceLivenessTracker;
     private final Random random = new Random();
     
-    // @Scheduled(fixedDelay = 30000, initialDelay = 60000) // Run every 30 seconds, start after 1 minute
-    // @Transactional
+    @Value("${sensor.mock.enabled:false}")
+    private boolean mockSensorEnabled;
+    
+    @Scheduled(fixedDelayString = "${sensor.mock.consumption-interval-ms:30000}", 
+               initialDelayString = "${sensor.mock.consumption-initial-delay-ms:60000}")
+    public void scheduledConsumption() {
+        if (mockSensorEnabled) {
+            simulateInventoryConsumption();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${sensor.mock.restock-interval-ms:300000}", 
+               initialDelayString = "${sensor.mock.restock-initial-delay-ms:120000}")
+    public void scheduledRestocking() {
+        if (mockSensorEnabled) {
+            simulateOccasionalRestocking();
+        }
+    }
+    
     public void simulateInventoryConsumption() {
         log.debug("Running mock sensor data generation...");
         
@@ -38,6 +61,8 @@ public class MockSensorService {
     
     private void simulateDeviceConsumption(Device device) {
         List<InventoryItem> items = inventoryItemRepository.findByDeviceId(device.getId());
+        List<InventoryReading> history = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
         
         for (InventoryItem item : items) {
             // Skip items that are already out of stock
@@ -55,12 +80,20 @@ public class MockSensorService {
                 double randomFactor = 0.8 + (random.nextDouble() * 0.4);
                 double consumption = baseConsumption * randomFactor;
                 
-                // Ensure we don't go negative
-                double newQuantity = Math.max(0, item.getQuantity() - consumption);
-                item.setQuantity(newQuantity);
-                
-                // The @PreUpdate will automatically update the status
-                inventoryItemRepository.save(item);
+                double newQuantity;
+                if (inventoryStateStore.isEnabled()) {
+                    // Absorbed in memory and written back on the next flush
+                    newQuantity = inventoryStateStore.applyDelta(item, -consumption).quantity();
+                } else {
+                    // Ensure we don't go negative
+                    newQuantity = Math.max(0, item.getQuantity() - consumption);
+                    item.setQuantity(newQuantity);
+                    
+                    // The @PreUpdate will automatically update the status
+                    inventoryItemRepository.save(item);
+                }
+                history.add(reading(device, item, newQuantity, now));
+                consumptionForecaster.observe(item.getId(), newQuantity, System.currentTimeMillis());
                 
                 log.debug("Consumed {:.2f} {} of {} (device: {})", 
                     consumption, item.getGroceryItem().getUnit(), 
@@ -68,15 +101,13 @@ public class MockSensorService {
             }
         }
         
-        // Update device last sync time
-        device.setLastSync(LocalDateTime.now());
-        deviceRepository.save(device);
+        inventoryHistoryService.recordReadings(history);
+        
+        deviceLivenessTracker.heartbeat(device);
         
         log.info("Mock sensor data updated for device: {}", device.getDeviceId());
     }
     
-    // @Scheduled(fixedDelay = 300000, initialDelay = 120000) // Run every 5 minutes, start after 2 minutes
-    // @Transactional
     public void simulateOccasionalRestocking() {
         log.debug("Running occasional restocking simulation...");
         
@@ -99,13 +130,29 @@ public class MockSensorService {
             
             // Restock to a random amount between 80% and 150% of threshold
             double restockAmount = item.getThresholdQuantity() * (0.8 + random.nextDouble() * 0.7);
-            item.setQuantity(item.getQuantity() + restockAmount);
-            
-            inventoryItemRepository.save(item);
+            double newQuantity;
+            if (inventoryStateStore.isEnabled()) {
+                newQuantity = inventoryStateStore.applyDelta(item, restockAmount).quantity();
+            } else {
+                newQuantity = item.getQuantity() + restockAmount;
+                item.setQuantity(newQuantity);
+                inventoryItemRepository.save(item);
+            }
+            inventoryHistoryService.recordReadings(List.of(reading(device, item, newQuantity, LocalDateTime.now())));
+            consumptionForecaster.observe(item.getId(), newQuantity, System.currentTimeMillis());
             
             log.info("Restocked {} {} of {} (device: {})", 
                 restockAmount, item.getGroceryItem().getUnit(),
                 item.getGroceryItem().getName(), device.getDeviceId());
         }
     }
-} 
\ No newline at end of file
+    
+    private InventoryReading reading(Device device, InventoryItem item, double quantity, LocalDateTime recordedAt) {
+        return InventoryReading.builder()
+                .inventoryItemId(item.getId())
+                .deviceId(device.getId())
+                .quantity(quantity)
+                .recordedAt(recordedAt)
+                .build();
+    }
+}
@@ -58,10 +58,10 @@ public interface OrderManagementService {
     Order addItem(Long orderId, Long groceryItemId, Double quantity);
     
     /**
-     * Submit a draft order to the store
+     * Approve a draft order and queue it for submission to the store
      * 
      * @param orderId The order ID
-     * @return Order with updated status and external order ID
+     * @return Order marked as submitted; the external order ID is filled in once the store accepts it
      */
     Order submitOrder(Long orderId);
     
@@ -0,0 +1,124 @@
+package com.groceryautomation.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.groceryautomation.event.OrderStatusChangedEvent;
+import com.groceryautomation.util.LogTail;
+import com.groceryautomation.util.UserEventHub;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Feeds the orderStatusChanged subscriptions from the outbox.
+ *
+ * Every order status change is written to the outbox in the transaction that made it, whichever
+ * instance that was, so each instance tails the outbox for the changes of the users subscribed
+ * to it. Delivered rows stay in the outbox until the relay purges them, long after they are read here.
+ */
+@Service
+@Slf4j
+public class OrderStatusFeed {
+
+    private static final String HEAD_SQL = "SELECT COALESCE(MAX(id), 0) FROM outbox_events";
+
+    // Every event type is read, so an event that is not returned really is missing; only the
+    // payloads of order status changes are fetched
+    private static final String COLUMNS = "SELECT id, CASE WHEN event_type = ? THEN payload END FROM outbox_events ";
+
+    private static final String EVENTS_SQL = COLUMNS + "WHERE id > ? AND id <= ? ORDER BY id";
+
+    private static final String GAPS_SQL = COLUMNS + "WHERE id IN ";
+
+    private static final int GAPS_PER_QUERY = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectReader reader;
+    private final UserEventHub<OrderStatusChangedEvent> orderStatusHub;
+    private final long commitLagMillis;
+
+    // Only touched by poll(); null while nobody subscribes, so the outbox is not read for nothing
+    private LogTail tail;
+
+    public OrderStatusFeed(JdbcTemplate jdbcTemplate,
+                           ObjectMapper objectMapper,
+                           UserEventHub<OrderStatusChangedEvent> orderStatusHub,
+                           @Value("${graphql.subscriptions.commit-lag-seconds:30}") long commitLagSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reader = objectMapper.readerFor(OrderStatusChangedEvent.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.orderStatusHub = orderStatusHub;
+        this.commitLagMillis = commitLagSeconds * 1_000L;
+    }
+
+    /**
+     * Publishes the order status changes written since the last poll.
+     *
+     * @return the number of changes read
+     */
+    @Scheduled(fixedDelayString = "${graphql.subscriptions.poll-interval-ms:500}")
+    public int poll() {
+        if (!orderStatusHub.hasSubscribers()) {
+            tail = null;
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        Long head = jdbcTemplate.queryForObject(HEAD_SQL, Long.class);
+        if (tail == null) {
+            // Subscriptions are live only; what changed before the first subscriber is not replayed
+            tail = new LogTail(head, commitLagMillis, now);
+            return 0;
+        }
+
+        String eventType = OrderStatusChangedEvent.class.getSimpleName();
+        List<Row> rows = new ArrayList<>();
+        List<Long> gaps = new ArrayList<>(tail.getGaps());
+        for (int from = 0; from < gaps.size(); from += GAPS_PER_QUERY) {
+            List<Long> chunk = gaps.subList(from, Math.min(from + GAPS_PER_QUERY, gaps.size()));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(eventType);
+            args.addAll(chunk);
+            rows.addAll(jdbcTemplate.query(GAPS_SQL + placeholders(chunk.size()), ROW_MAPPER, args.toArray()));
+        }
+        rows.addAll(jdbcTemplate.query(EVENTS_SQL, ROW_MAPPER, eventType, tail.getReadUpTo(), head));
+        rows.sort(Comparator.comparingLong(Row::id));
+
+        int read = 0;
+        for (Row row : rows) {
+            if (!tail.accept(row.id()) || row.payload() == null) {
+                continue;
+            }
+            try {
+                OrderStatusChangedEvent event = reader.readValue(row.payload());
+                orderStatusHub.publish(event.userId(), event);
+                read++;
+            } catch (IOException e) {
+                log.warn("Skipping unreadable order status change {}: {}", row.id(), e.getMessage());
+            }
+        }
+        tail.advance(head, now);
+        return read;
+    }
+
+    private static String placeholders(int count) {
+        return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(rs.getLong(1), rs.getString(2));
+
+    /**
+     * An outbox row; the payload is null unless it is an order status change.
+     */
+    private record Row(long id, String payload) {
+    }
+}
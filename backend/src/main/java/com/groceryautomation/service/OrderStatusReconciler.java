@@ -0,0 +1,328 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.config.AsyncConfig;
+import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.event.OrderStatusChangedEvent;
+import com.groceryautomation.util.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Brings in-flight orders up to date with what their stores report.
+ *
+ * Each run picks the orders whose next check is due, groups them by store and asks every store
+ * about them in batches, no larger than one request to that store covers. A store gets at most
+ * a few batches in flight at once and a bounded request rate, so a backlog of tens of thousands of orders costs each store a steady trickle
+ * rather than a burst. Transitions are written in one batch per run, guarded by the status the
+ * run read so a concurrent change wins, and each is published as an {@link OrderStatusChangedEvent}
+ * in the same transaction, which puts it in the outbox like any other status change.
+ *
+ * Orders are checked again after a delay that depends on their status and grows with their age:
+ * a just-submitted order is asked about every couple of minutes, a day-old confirmed one rarely.
+ *
+ * A run claims its orders before asking about them, by pushing their next check out by the claim
+ * timeout in a short transaction of its own, so other instances running at the same time pass
+ * over them. On PostgreSQL the due orders are selected with {@code FOR UPDATE SKIP LOCKED}, as the
+ * outbox relay does; elsewhere the claiming update re-checks that the order is still due. Orders of
+ * a run that dies midway fall due again once the claim timeout passes.
+ */
+@Service
+@Slf4j
+public class OrderStatusReconciler {
+
+    private static final String DUE_SQL =
+            "SELECT id, store_id, user_id, order_number, external_order_id, status, submitted_at FROM orders " +
+            "WHERE status IN ('SUBMITTED', 'CONFIRMED', 'IN_PROGRESS', 'OUT_FOR_DELIVERY') " +
+            "AND external_order_id IS NOT NULL AND (next_status_check_at IS NULL OR next_status_check_at <= ?) " +
+            "ORDER BY next_status_check_at NULLS FIRST LIMIT ?";
+
+    private static final String SKIP_LOCKED_DUE_SQL = DUE_SQL + " FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM_SQL =
+            "UPDATE orders SET next_status_check_at = ? " +
+            "WHERE id = ? AND (next_status_check_at IS NULL OR next_status_check_at <= ?)";
+
+    private static final String TRANSITION_SQL =
+            "UPDATE orders SET status = ?, next_status_check_at = ?, " +
+            "actual_delivery_time = COALESCE(?, actual_delivery_time), updated_at = ? WHERE id = ? AND status = ?";
+
+    private static final int[] TRANSITION_TYPES =
+            {Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT, Types.VARCHAR};
+
+    private static final String RESCHEDULE_SQL = "UPDATE orders SET next_status_check_at = ? WHERE id = ?";
+
+    private static final RowMapper<DueOrder> DUE_MAPPER = (rs, rowNum) -> {
+        Timestamp submittedAt = rs.getTimestamp(7);
+        return new DueOrder(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4), rs.getString(5),
+                OrderStatus.valueOf(rs.getString(6)), submittedAt == null ? null : submittedAt.toLocalDateTime());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StoreApiService storeApiService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor reconcileExecutor;
+    private final int batchSize;
+    private final int storeConcurrency;
+    private final double storeRequestsPerSecond;
+    private final int maxOrdersPerRun;
+    private final Duration maxInterval;
+    private final Duration claimTimeout;
+
+    private final Map<Long, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Boolean skipLocked;
+
+    public OrderStatusReconciler(JdbcTemplate jdbcTemplate,
+                                 StoreApiService storeApiService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier(AsyncConfig.ORDER_RECONCILE_EXECUTOR) TaskExecutor reconcileExecutor,
+                                 @Value("${order.reconcile.batch-size:50}") int batchSize,
+                                 @Value("${order.reconcile.store-concurrency:2}") int storeConcurrency,
+                                 @Value("${order.reconcile.store-requests-per-second:5}") double storeRequestsPerSecond,
+                                 @Value("${order.reconcile.max-orders-per-run:5000}") int maxOrdersPerRun,
+                                 @Value("${order.reconcile.max-interval-minutes:60}") long maxIntervalMinutes,
+                                 @Value("${order.reconcile.claim-timeout-minutes:10}") long claimTimeoutMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storeApiService = storeApiService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileExecutor = reconcileExecutor;
+        this.batchSize = batchSize;
+        this.storeConcurrency = storeConcurrency;
+        this.storeRequestsPerSecond = storeRequestsPerSecond;
+        this.maxOrdersPerRun = maxOrdersPerRun;
+        this.maxInterval = Duration.ofMinutes(maxIntervalMinutes);
+        this.claimTimeout = Duration.ofMinutes(claimTimeoutMinutes);
+    }
+
+    @Scheduled(fixedDelayString = "${order.reconcile.interval-ms:60000}")
+    public void scheduledReconcile() {
+        // One run at a time, or runs waiting on their lanes could take every thread of the pool
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Order reconciliation still running from an earlier trigger, skipping");
+            return;
+        }
+        try {
+            reconcileExecutor.execute(() -> {
+                try {
+                    reconcile(LocalDateTime.now());
+                } catch (RuntimeException e) {
+                    // Claimed orders fall due again once the claim times out
+                    log.warn("Order reconciliation failed: {}", e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            log.warn("Order reconcile pool is full, skipping this run");
+        }
+    }
+
+    /**
+     * Checks every order due by the given time.
+     *
+     * @return the number of orders whose status changed
+     */
+    public int reconcile(LocalDateTime now) {
+        List<DueOrder> due = transactionTemplate.execute(status -> claimDue(now));
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<DueOrder>> byStore = due.stream()
+                .collect(Collectors.groupingBy(DueOrder::storeId, LinkedHashMap::new, Collectors.toList()));
+        Map<String, String> reported = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> lanes = new ArrayList<>();
+        byStore.forEach((storeId, orders) -> lanes.addAll(queryStore(storeId, orders, reported)));
+        CompletableFuture.allOf(lanes.toArray(CompletableFuture[]::new)).join();
+
+        Integer changed = transactionTemplate.execute(status -> apply(due, reported, now));
+        log.info("Reconciled {} orders across {} stores, {} changed status", due.size(), byStore.size(), changed);
+        return changed == null ? 0 : changed;
+    }
+
+    /**
+     * How long to wait before asking about an order again.
+     */
+    public Duration nextCheckDelay(OrderStatus status, LocalDateTime submittedAt, LocalDateTime now) {
+        Duration base = switch (status) {
+            case SUBMITTED, OUT_FOR_DELIVERY -> Duration.ofMinutes(2);
+            case IN_PROGRESS -> Duration.ofMinutes(5);
+            case CONFIRMED -> Duration.ofMinutes(10);
+            default -> maxInterval;
+        };
+        long ageHours = submittedAt == null ? 0 : Math.max(0, Duration.between(submittedAt, now).toHours());
+        // One more base interval for every six hours the order has been out
+        Duration delay = base.multipliedBy(1 + ageHours / 6);
+        return delay.compareTo(maxInterval) > 0 ? maxInterval : delay;
+    }
+
+    // Pushes the due orders' next check past the claim timeout and returns those this run won
+    private List<DueOrder> claimDue(LocalDateTime now) {
+        Timestamp dueBy = Timestamp.valueOf(now);
+        List<DueOrder> candidates = jdbcTemplate.query(isSkipLocked() ? SKIP_LOCKED_DUE_SQL : DUE_SQL, DUE_MAPPER,
+                dueBy, maxOrdersPerRun);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Timestamp claimedUntil = Timestamp.valueOf(now.plus(claimTimeout));
+        int[] counts = jdbcTemplate.batchUpdate(CLAIM_SQL, candidates.stream()
+                .map(order -> new Object[]{claimedUntil, order.id(), dueBy})
+                .collect(Collectors.toList()));
+        List<DueOrder> claimed = new ArrayList<>(candidates.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                claimed.add(candidates.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    private boolean isSkipLocked() {
+        if (skipLocked == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            skipLocked = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return skipLocked;
+    }
+
+    // Splits a store's orders into batches drained by at most storeConcurrency lanes
+    private List<CompletableFuture<Void>> queryStore(Long storeId, List<DueOrder> orders, Map<String, String> reported) {
+        // One batch per store request, so every request takes a permit from the rate limiter
+        int storeBatchSize = Math.max(1, Math.min(batchSize, storeApiService.maxOrderStatusBatchSize(storeId)));
+        Queue<List<String>> batches = new ConcurrentLinkedQueue<>();
+        for (int from = 0; from < orders.size(); from += storeBatchSize) {
+            batches.add(orders.subList(from, Math.min(from + storeBatchSize, orders.size())).stream()
+                    .map(DueOrder::externalOrderId)
+                    .collect(Collectors.toList()));
+        }
+        RateLimiter rateLimiter = rateLimiters.computeIfAbsent(storeId, id -> new RateLimiter(storeRequestsPerSecond));
+
+        List<CompletableFuture<Void>> lanes = new ArrayList<>();
+        int laneCount = Math.min(storeConcurrency, batches.size());
+        for (int lane = 0; lane < laneCount; lane++) {
+            lanes.add(CompletableFuture.runAsync(() -> {
+                List<String> batch;
+                while ((batch = batches.poll()) != null) {
+                    try {
+                        rateLimiter.acquire();
+                        storeApiService.checkOrderStatuses(storeId, batch)
+                                .forEach((externalOrderId, status) -> {
+                                    if (status != null) {
+                                        reported.put(key(storeId, externalOrderId), status);
+                                    }
+                                });
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (RuntimeException e) {
+                        // The batch's orders are simply checked again next time
+                        log.warn("Status check of {} orders at store {} failed: {}", batch.size(), storeId, e.getMessage());
+                    }
+                }
+            }, reconcileExecutor));
+        }
+        return lanes;
+    }
+
+    private int apply(List<DueOrder> due, Map<String, String> reported, LocalDateTime now) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        List<DueOrder> transitioned = new ArrayList<>();
+        List<OrderStatus> targets = new ArrayList<>();
+        List<Object[]> transitions = new ArrayList<>();
+        List<Object[]> reschedules = new ArrayList<>();
+        for (DueOrder order : due) {
+            OrderStatus target = parse(reported.get(key(order.storeId(), order.externalOrderId())));
+            if (target == null || !isForward(order.status(), target)) {
+                LocalDateTime next = now.plus(nextCheckDelay(order.status(), order.submittedAt(), now));
+                reschedules.add(new Object[]{Timestamp.valueOf(next), order.id()});
+                continue;
+            }
+            Timestamp next = target.isFinalState()
+                    ? null
+                    : Timestamp.valueOf(now.plus(nextCheckDelay(target, order.submittedAt(), now)));
+            Timestamp deliveredAt = target == OrderStatus.DELIVERED ? updatedAt : null;
+            transitions.add(new Object[]{target.name(), next, deliveredAt, updatedAt, order.id(), order.status().name()});
+            transitioned.add(order);
+            targets.add(target);
+        }
+
+        if (!reschedules.isEmpty()) {
+            jdbcTemplate.batchUpdate(RESCHEDULE_SQL, reschedules);
+        }
+        if (transitions.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(TRANSITION_SQL, transitions, TRANSITION_TYPES);
+        int changed = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue; // Changed by someone else since it was read
+            }
+            DueOrder order = transitioned.get(i);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(order.id(), order.userId(), order.orderNumber(),
+                    order.status(), targets.get(i)));
+            changed++;
+        }
+        return changed;
+    }
+
+    // External order IDs are only unique within their store
+    private static String key(Long storeId, String externalOrderId) {
+        return storeId + ":" + externalOrderId;
+    }
+
+    private static OrderStatus parse(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return OrderStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Stores may answer from a stale replica; an order never moves back along the delivery path
+    private static boolean isForward(OrderStatus from, OrderStatus to) {
+        if (to == OrderStatus.CANCELLED || to == OrderStatus.FAILED) {
+            return true;
+        }
+        return to.ordinal() > from.ordinal();
+    }
+
+    private record DueOrder(long id, long storeId, long userId, String orderNumber, String externalOrderId,
+                            OrderStatus status, LocalDateTime submittedAt) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.entity.OrderSubmissionJob;
+
+import java.util.Optional;
+
+public interface OrderSubmissionService {
+    
+    /**
+     * Marks a draft order as submitted and queues it for its store. Returns as soon as the job
+     * is persisted; the store is called by {@link OrderSubmissionWorker}.
+     */
+    OrderSubmissionJob submitOrder(Long orderId);
+    
+    Optional<OrderSubmissionJob> getJob(Long jobId);
+    
+    Optional<OrderSubmissionJob> getLatestJobForOrder(Long orderId);
+}
@@ -0,0 +1,239 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.entity.Order;
+import com.groceryautomation.entity.OrderSubmissionJob;
+import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.enums.SubmissionStatus;
+import com.groceryautomation.repository.OrderRepository;
+import com.groceryautomation.repository.OrderSubmissionJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Submits approved orders to their stores off the request threads.
+ *
+ * Every store gets its own bounded pool, sized by {@code order.submission.stores.<id>.threads}
+ * or the default, so a slow store only holds up its own orders. A job is claimed with a
+ * conditional update before the call, which keeps a job that was queued twice from being sent
+ * twice, and its outcome is recorded only if the job is still on the attempt that was claimed, so
+ * a call that outlived a stale release cannot overwrite the attempt that followed. Jobs that could not be queued, failed with attempts left, or were cut off by a restart
+ * stay in the table and are picked up again by {@link #recover()}.
+ */
+@Service
+@Slf4j
+public class OrderSubmissionWorker {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OrderSubmissionJobRepository jobRepository;
+    private final OrderRepository orderRepository;
+    private final StoreApiService storeApiService;
+    private final TransactionTemplate transactionTemplate;
+    private final Environment environment;
+    private final int defaultThreads;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long staleAfterSeconds;
+    private final int recoveryBatchSize;
+
+    private final Map<Long, ThreadPoolExecutor> poolsByStore = new ConcurrentHashMap<>();
+    // Jobs waiting in or running on a pool, so recovery does not queue them again
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public OrderSubmissionWorker(OrderSubmissionJobRepository jobRepository,
+                                 OrderRepository orderRepository,
+                                 StoreApiService storeApiService,
+                                 PlatformTransactionManager transactionManager,
+                                 Environment environment,
+                                 @Value("${order.submission.threads-per-store:2}") int defaultThreads,
+                                 @Value("${order.submission.queue-capacity:100}") int queueCapacity,
+                                 @Value("${order.submission.max-attempts:3}") int maxAttempts,
+                                 @Value("${order.submission.stale-after-seconds:300}") long staleAfterSeconds,
+                                 @Value("${order.submission.recovery-batch-size:200}") int recoveryBatchSize) {
+        this.jobRepository = jobRepository;
+        this.orderRepository = orderRepository;
+        this.storeApiService = storeApiService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.environment = environment;
+        this.defaultThreads = defaultThreads;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.staleAfterSeconds = staleAfterSeconds;
+        this.recoveryBatchSize = recoveryBatchSize;
+    }
+
+    /**
+     * Queues a job on its store's pool. Never blocks: when the pool is full the job is left
+     * pending for the next recovery pass.
+     *
+     * @return whether the job was queued
+     */
+    public boolean enqueue(Long jobId, Long storeId) {
+        if (!queued.add(jobId)) {
+            return false;
+        }
+        try {
+            poolFor(storeId).execute(() -> {
+                try {
+                    process(jobId);
+                } finally {
+                    queued.remove(jobId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(jobId);
+            log.warn("Submission queue for store {} is full, job {} waits for recovery", storeId, jobId);
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.submission.recovery-ms:30000}")
+    public void recover() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(staleAfterSeconds);
+        Integer released = transactionTemplate.execute(status -> jobRepository.releaseStale(staleBefore));
+        if (released != null && released > 0) {
+            log.warn("Released {} submission jobs stuck in progress since before {}", released, staleBefore);
+        }
+
+        List<OrderSubmissionJob> pending = jobRepository.findByStatusOrderByIdAsc(
+                SubmissionStatus.PENDING, PageRequest.ofSize(recoveryBatchSize));
+        for (OrderSubmissionJob job : pending) {
+            enqueue(job.getId(), job.getStoreId());
+        }
+    }
+
+    /**
+     * Claims a job, calls the store and records the outcome. The store call happens outside
+     * any transaction so no connection is held while waiting on it.
+     */
+    public void process(Long jobId) {
+        Claim claim = transactionTemplate.execute(status -> claim(jobId));
+        if (claim == null) {
+            return;
+        }
+
+        Order order = claim.order();
+        try {
+            String externalOrderId = storeApiService.submitOrder(order, idempotencyKey(jobId));
+            transactionTemplate.executeWithoutResult(status -> recordSuccess(jobId, claim, externalOrderId));
+        } catch (RuntimeException e) {
+            log.warn("Submitting order {} failed: {}", order.getOrderNumber(), e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> recordFailure(jobId, claim, e));
+        }
+    }
+
+    /**
+     * The key the store deduplicates a job's submissions by. A job released as stale may still
+     * be waiting on the store when it is claimed again, so every attempt sends the same key.
+     */
+    static String idempotencyKey(Long jobId) {
+        return "order-submission-" + jobId;
+    }
+
+    public int getQueuedJobCount() {
+        return queued.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Jobs still queued are pending in the table and resume after the restart
+        poolsByStore.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    private Claim claim(Long jobId) {
+        if (jobRepository.claim(jobId, LocalDateTime.now()) == 0) {
+            return null; // Already taken, finished or gone
+        }
+        OrderSubmissionJob job = jobRepository.findById(jobId).orElseThrow();
+        Order order = orderRepository.findById(job.getOrderId()).orElse(null);
+        if (order == null || order.getStatus() != OrderStatus.SUBMITTED) {
+            finish(job, SubmissionStatus.FAILED, "Order is no longer awaiting submission");
+            return null;
+        }
+        // Loaded here because the store API reads it after the transaction ends
+        order.getStore().getName();
+        return new Claim(order, job.getAttempts());
+    }
+
+    private void recordSuccess(Long jobId, Claim claim, String externalOrderId) {
+        if (jobRepository.complete(jobId, claim.attempt(), SubmissionStatus.SUCCEEDED, externalOrderId, null,
+                LocalDateTime.now()) == 0) {
+            log.warn("Dropping outcome of attempt {} of submission job {}: the job has moved on", claim.attempt(), jobId);
+            return;
+        }
+        orderRepository.findById(claim.order().getId()).ifPresent(order -> {
+            order.setExternalOrderId(externalOrderId);
+            orderRepository.save(order);
+        });
+        log.info("Order {} submitted to store {} as {}", claim.order().getId(), claim.order().getStore().getId(), externalOrderId);
+    }
+
+    private void recordFailure(Long jobId, Claim claim, RuntimeException error) {
+        String message = error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        boolean lastAttempt = claim.attempt() >= maxAttempts;
+        int updated = lastAttempt
+                ? jobRepository.complete(jobId, claim.attempt(), SubmissionStatus.FAILED, null, message, LocalDateTime.now())
+                : jobRepository.retryLater(jobId, claim.attempt(), message);
+        if (updated == 0) {
+            log.warn("Dropping outcome of attempt {} of submission job {}: the job has moved on", claim.attempt(), jobId);
+            return;
+        }
+        if (lastAttempt) {
+            orderRepository.findById(claim.order().getId()).ifPresent(order -> {
+                order.setStatus(OrderStatus.FAILED);
+                orderRepository.save(order);
+            });
+        }
+    }
+
+    private void finish(OrderSubmissionJob job, SubmissionStatus status, String error) {
+        job.setStatus(status);
+        job.setLastError(error);
+        job.setCompletedAt(LocalDateTime.now());
+        jobRepository.save(job);
+    }
+
+    /**
+     * A claimed job's order and the attempt the claim started.
+     */
+    private record Claim(Order order, int attempt) {
+    }
+
+    private ThreadPoolExecutor poolFor(Long storeId) {
+        return poolsByStore.computeIfAbsent(storeId, id -> {
+            int threads = environment.getProperty("order.submission.stores." + id + ".threads",
+                    Integer.class, defaultThreads);
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, "order-submit-" + id + "-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        });
+    }
+}
@@ -0,0 +1,263 @@
+package com.groceryautomation.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.groceryautomation.config.AsyncConfig;
+import com.groceryautomation.event.OutboxHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers outbox rows to the in-process {@link OutboxHandler}s.
+ *
+ * Each pass claims a batch of pending rows by stamping them with a fresh token in a single
+ * update, then reads back what it won. On PostgreSQL the candidate rows are selected with
+ * {@code FOR UPDATE SKIP LOCKED}, so several instances split the backlog without waiting on one
+ * another. Other databases (H2 locally) re-check the claim condition in the update itself, which
+ * keeps two claimers from winning the same row at the cost of one waiting for the other.
+ *
+ * Rows are handled in ID order. Each handler that succeeds is recorded in
+ * {@code outbox_deliveries} right away, so a row retried because another of its handlers failed
+ * is not delivered twice to the ones that already ran. Rows whose handlers all succeeded are
+ * marked done in one batch; failed rows are released for a later pass and marked failed once
+ * they run out of attempts.
+ *
+ * A batch whose handlers are slow can take longer than the claim timeout, after which another
+ * relay is free to claim its remaining rows. Once half the timeout has passed the relay renews
+ * the claim on the rows it still holds and drops those already taken over from the batch, and
+ * the done and failed updates only match rows that still carry its token.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private static final String CANDIDATES_SQL =
+            "SELECT id FROM outbox_events WHERE status = 'PENDING' AND (claimed_at IS NULL OR claimed_at < ?) " +
+            "ORDER BY id LIMIT ?";
+
+    private static final String SKIP_LOCKED_CLAIM_SQL =
+            "UPDATE outbox_events SET claim_token = ?, claimed_at = ? WHERE id IN (" +
+            CANDIDATES_SQL + " FOR UPDATE SKIP LOCKED)";
+
+    private static final String CHECKED_CLAIM_SQL =
+            "UPDATE outbox_events SET claim_token = ?, claimed_at = ? WHERE id IN (" + CANDIDATES_SQL + ") " +
+            "AND status = 'PENDING' AND (claimed_at IS NULL OR claimed_at < ?)";
+
+    private static final String CLAIMED_SQL =
+            "SELECT id, event_type, payload FROM outbox_events WHERE claim_token = ? ORDER BY id";
+
+    private static final String DELIVERED_SQL =
+            "SELECT d.event_id, d.handler FROM outbox_deliveries d JOIN outbox_events e ON e.id = d.event_id " +
+            "WHERE e.claim_token = ?";
+
+    private static final String DELIVERY_SQL =
+            "INSERT INTO outbox_deliveries (event_id, handler, delivered_at) VALUES (?, ?, ?)";
+
+    private static final String DONE_SQL =
+            "UPDATE outbox_events SET status = 'DONE', processed_at = ?, claim_token = NULL " +
+            "WHERE id = ? AND claim_token = ?";
+
+    private static final String FAILED_SQL =
+            "UPDATE outbox_events SET attempts = attempts + 1, last_error = ?, claim_token = NULL, claimed_at = NULL, " +
+            "status = CASE WHEN attempts + 1 >= ? THEN 'FAILED' ELSE 'PENDING' END WHERE id = ? AND claim_token = ?";
+
+    private static final String RENEW_SQL =
+            "UPDATE outbox_events SET claimed_at = ? WHERE claim_token = ? AND status = 'PENDING'";
+
+    private static final String HELD_SQL = "SELECT id FROM outbox_events WHERE claim_token = ?";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final RowMapper<ClaimedRow> ROW_MAPPER =
+            (rs, rowNum) -> new ClaimedRow(rs.getLong(1), rs.getString(2), rs.getString(3));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskExecutor relayExecutor;
+    private final ObjectReader reader;
+    private final Map<String, List<OutboxHandler<?>>> handlersByType = new HashMap<>();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long claimTimeoutSeconds;
+    private final long retentionHours;
+
+    private volatile Boolean skipLocked;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       @Qualifier(AsyncConfig.OUTBOX_RELAY_EXECUTOR) TaskExecutor relayExecutor,
+                       ObjectMapper objectMapper,
+                       List<OutboxHandler<?>> handlers,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.max-attempts:5}") int maxAttempts,
+                       @Value("${outbox.relay.claim-timeout-seconds:300}") long claimTimeoutSeconds,
+                       @Value("${outbox.relay.retention-hours:24}") long retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.relayExecutor = relayExecutor;
+        // Events carry derived getters such as isDegraded() that serialize but have no matching field
+        this.reader = objectMapper.reader().without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        for (OutboxHandler<?> handler : handlers) {
+            handlersByType.computeIfAbsent(handler.eventType().getSimpleName(), type -> new ArrayList<>()).add(handler);
+        }
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.claimTimeoutSeconds = claimTimeoutSeconds;
+        this.retentionHours = retentionHours;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-ms:1000}")
+    public void poll() {
+        try {
+            relayExecutor.execute(() -> {
+                try {
+                    drain();
+                } catch (RuntimeException e) {
+                    // Claimed rows are picked up again once their claim times out
+                    log.warn("Outbox relay failed: {}", e.getMessage());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.debug("Outbox relay still draining from an earlier poll, skipping");
+        }
+    }
+
+    /**
+     * Relays batches until the backlog is smaller than one batch.
+     */
+    public void drain() {
+        // A full batch means there is probably more waiting
+        while (relayBatch() == batchSize) {
+            log.debug("Outbox backlog exceeds one batch, relaying the next");
+        }
+    }
+
+    /**
+     * Claims and delivers one batch.
+     *
+     * @return the number of rows claimed
+     */
+    public int relayBatch() {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp abandonedBefore = Timestamp.valueOf(now.minusSeconds(claimTimeoutSeconds));
+        int claimed = isSkipLocked()
+                ? jdbcTemplate.update(SKIP_LOCKED_CLAIM_SQL, token, Timestamp.valueOf(now), abandonedBefore, batchSize)
+                : jdbcTemplate.update(CHECKED_CLAIM_SQL, token, Timestamp.valueOf(now), abandonedBefore, batchSize,
+                        abandonedBefore);
+        if (claimed == 0) {
+            return 0;
+        }
+
+        // Handlers that already ran for rows retried after a partial failure
+        Map<Long, Set<String>> delivered = new HashMap<>();
+        jdbcTemplate.query(DELIVERED_SQL, rs -> {
+            delivered.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getString(2));
+        }, token);
+
+        List<Object[]> done = new ArrayList<>();
+        List<Object[]> failed = new ArrayList<>();
+        long renewAfterNanos = TimeUnit.SECONDS.toNanos(claimTimeoutSeconds) / 2;
+        long claimedAtNanos = System.nanoTime();
+        Set<Long> held = null;
+        for (ClaimedRow row : jdbcTemplate.query(CLAIMED_SQL, ROW_MAPPER, token)) {
+            if (System.nanoTime() - claimedAtNanos >= renewAfterNanos) {
+                held = renewClaim(token);
+                claimedAtNanos = System.nanoTime();
+            }
+            if (held != null && !held.contains(row.id())) {
+                log.debug("Outbox event {} was claimed by another relay while this batch ran", row.id());
+                continue;
+            }
+            try {
+                dispatch(row, delivered.getOrDefault(row.id(), Set.of()));
+                done.add(new Object[]{Timestamp.valueOf(LocalDateTime.now()), row.id(), token});
+            } catch (Exception e) {
+                log.warn("Outbox event {} ({}) failed: {}", row.id(), row.eventType(), e.getMessage());
+                failed.add(new Object[]{truncate(e), maxAttempts, row.id(), token});
+            }
+        }
+        if (!done.isEmpty()) {
+            jdbcTemplate.batchUpdate(DONE_SQL, done);
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(FAILED_SQL, failed);
+        }
+        return claimed;
+    }
+
+    @Scheduled(cron = "${outbox.relay.purge-cron:0 15 * * * *}")
+    public void purge() {
+        Timestamp before = Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours));
+        jdbcTemplate.update("DELETE FROM outbox_deliveries WHERE event_id IN " +
+                "(SELECT id FROM outbox_events WHERE status = 'DONE' AND processed_at < ?)", before);
+        int purged = jdbcTemplate.update("DELETE FROM outbox_events WHERE status = 'DONE' AND processed_at < ?",
+                before);
+        if (purged > 0) {
+            log.info("Purged {} delivered outbox events", purged);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(ClaimedRow row, Set<String> delivered) throws Exception {
+        List<OutboxHandler<?>> handlers = handlersByType.get(row.eventType());
+        if (handlers == null) {
+            return; // Nothing in this process handles it
+        }
+        Object event = reader.readValue(row.payload(), handlers.get(0).eventType());
+        for (OutboxHandler<?> handler : handlers) {
+            String name = ClassUtils.getUserClass(handler).getName();
+            if (delivered.contains(name)) {
+                continue;
+            }
+            ((OutboxHandler<Object>) handler).handle(event);
+            jdbcTemplate.update(DELIVERY_SQL, row.id(), name, Timestamp.valueOf(LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Pushes the claim on this batch's remaining rows forward.
+     *
+     * @return the IDs still claimed with the token
+     */
+    private Set<Long> renewClaim(String token) {
+        jdbcTemplate.update(RENEW_SQL, Timestamp.valueOf(LocalDateTime.now()), token);
+        return new HashSet<>(jdbcTemplate.queryForList(HELD_SQL, Long.class, token));
+    }
+
+    private boolean isSkipLocked() {
+        if (skipLocked == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            skipLocked = "PostgreSQL".equalsIgnoreCase(product);
+            log.info("Outbox relay claiming with {}", skipLocked ? "FOR UPDATE SKIP LOCKED" : "checked updates");
+        }
+        return skipLocked;
+    }
+
+    private static String truncate(Exception e) {
+        String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private record ClaimedRow(long id, String eventType, String payload) {
+    }
+}
@@ -0,0 +1,273 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.config.AsyncConfig;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.ReorderSweepCheckpoint;
+import com.groceryautomation.entity.User;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.repository.OrderRepository;
+import com.groceryautomation.repository.ReorderSweepCheckpointRepository;
+import com.groceryautomation.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns low inventory into draft orders for every user, nightly.
+ *
+ * Users are walked in ID order with keyset pagination, so each page costs the same however far
+ * the sweep has got. Every page becomes a chunk for a bounded worker pool; a chunk costs one query
+ * for the users that already have an open draft and one for the low items of the rest, however
+ * many users it holds. Drafts are created per user through {@link OrderManagementService}.
+ *
+ * The checkpoint only moves past a chunk once it and every chunk before it have finished, so
+ * a run that is interrupted resumes after the last fully handled user. Chunks after that point
+ * may run again, which at worst finds the drafts they created and skips those users.
+ *
+ * The scheduler only hands the sweep to its own executor. Every instance is triggered, so a run
+ * first claims the lease on the checkpoint row; the others skip the night. The lease is renewed
+ * with every checkpoint and runs out if its holder dies, so another instance can resume the run.
+ */
+@Service
+@Slf4j
+public class ReorderSweeper {
+
+    public static final String CHECKPOINT_NAME = "reorder";
+
+    private static final List<InventoryStatus> REORDER_STATUSES =
+            List.of(InventoryStatus.LOW, InventoryStatus.CRITICAL, InventoryStatus.OUT_OF_STOCK);
+
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final ReorderSweepCheckpointRepository checkpointRepository;
+    private final OrderManagementService orderManagementService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor sweepExecutor;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int workers;
+    private final Duration leaseDuration;
+    private final Duration minInterval;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ReorderSweeper(UserRepository userRepository,
+                          OrderRepository orderRepository,
+                          InventoryItemRepository inventoryItemRepository,
+                          ReorderSweepCheckpointRepository checkpointRepository,
+                          OrderManagementService orderManagementService,
+                          PlatformTransactionManager transactionManager,
+                          @Qualifier(AsyncConfig.REORDER_SWEEP_EXECUTOR) TaskExecutor sweepExecutor,
+                          @Value("${reorder.sweep.enabled:true}") boolean enabled,
+                          @Value("${reorder.sweep.chunk-size:500}") int chunkSize,
+                          @Value("${reorder.sweep.workers:4}") int workers,
+                          @Value("${reorder.sweep.lease-minutes:15}") long leaseMinutes,
+                          @Value("${reorder.sweep.min-interval-hours:12}") long minIntervalHours) {
+        this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.orderManagementService = orderManagementService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweepExecutor = sweepExecutor;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.leaseDuration = Duration.ofMinutes(leaseMinutes);
+        this.minInterval = Duration.ofHours(minIntervalHours);
+    }
+
+    @Scheduled(cron = "${reorder.sweep.cron:0 0 2 * * *}")
+    public void nightlySweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sweepExecutor.execute(() -> {
+                try {
+                    sweep();
+                } catch (RuntimeException e) {
+                    // Already logged with the checkpoint it stopped at; the next trigger resumes there
+                    log.debug("Reorder sweep failed", e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("Reorder sweep still running from an earlier trigger, skipping");
+        }
+    }
+
+    /**
+     * Runs a sweep, resuming the previous one if it did not complete.
+     *
+     * @return the finished checkpoint, the previous one when it completed within the minimum
+     *         interval, or null when a sweep was already running here or on another instance
+     */
+    public ReorderSweepCheckpoint sweep() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Reorder sweep already running, skipping");
+            return null;
+        }
+        try {
+            if (!claimLease()) {
+                log.info("Reorder sweep is running on another instance, skipping");
+                return null;
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "reorder-sweep");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                return run(pool);
+            } finally {
+                pool.shutdownNow();
+                transactionTemplate.execute(status -> checkpointRepository.releaseLease(CHECKPOINT_NAME, instanceId));
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private boolean claimLease() {
+        if (!checkpointRepository.existsById(CHECKPOINT_NAME)) {
+            try {
+                transactionTemplate.execute(status -> checkpointRepository.saveAndFlush(newRun()));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created the row first; the lease decides which of them runs
+                log.debug("Reorder sweep checkpoint created concurrently");
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                checkpointRepository.claimLease(CHECKPOINT_NAME, instanceId, now.plus(leaseDuration), now));
+        return claimed != null && claimed > 0;
+    }
+
+    private ReorderSweepCheckpoint run(ExecutorService pool) {
+        ReorderSweepCheckpoint previous = checkpointRepository.findById(CHECKPOINT_NAME).orElse(null);
+        if (previous != null && previous.getCompletedAt() != null
+                && previous.getCompletedAt().isAfter(LocalDateTime.now().minus(minInterval))) {
+            // Another instance finished tonight's sweep before this one got the lease
+            log.info("Reorder sweep already completed at {}, skipping", previous.getCompletedAt());
+            return previous;
+        }
+        ReorderSweepCheckpoint checkpoint = previous != null && previous.getCompletedAt() == null ? previous : newRun();
+        log.info("Reorder sweep {} after user {}", checkpoint.getLastUserId() > 0 ? "resuming" : "starting",
+                checkpoint.getLastUserId());
+
+        // Chunks in submission order; a few per worker are queued so no worker waits on the reader
+        ArrayDeque<Chunk> inFlight = new ArrayDeque<>();
+        int maxInFlight = workers * 2;
+        Long afterId = checkpoint.getLastUserId();
+        try {
+            while (true) {
+                List<Long> userIds = userRepository.findActiveIdsAfter(afterId, PageRequest.ofSize(chunkSize));
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                afterId = userIds.get(userIds.size() - 1);
+                inFlight.add(new Chunk(afterId, userIds.size(),
+                        CompletableFuture.supplyAsync(() -> processChunk(userIds), pool)));
+
+                while (inFlight.size() >= maxInFlight || (!inFlight.isEmpty() && inFlight.peek().drafts().isDone())) {
+                    complete(inFlight.poll(), checkpoint);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                complete(inFlight.poll(), checkpoint);
+            }
+        } catch (CompletionException e) {
+            inFlight.forEach(chunk -> chunk.drafts().cancel(true));
+            log.error("Reorder sweep stopped after user {}", checkpoint.getLastUserId(), e.getCause());
+            throw e;
+        }
+
+        checkpoint.setCompletedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        log.info("Reorder sweep finished: {} users scanned, {} drafts created",
+                checkpoint.getUsersScanned(), checkpoint.getDraftsCreated());
+        return checkpoint;
+    }
+
+    private static ReorderSweepCheckpoint newRun() {
+        return ReorderSweepCheckpoint.builder()
+                .name(CHECKPOINT_NAME)
+                .runStartedAt(LocalDateTime.now())
+                .lastUserId(0L)
+                .build();
+    }
+
+    private void complete(Chunk chunk, ReorderSweepCheckpoint checkpoint) {
+        int drafts = chunk.drafts().join();
+        LocalDateTime now = LocalDateTime.now();
+        Integer renewed = transactionTemplate.execute(status ->
+                checkpointRepository.claimLease(CHECKPOINT_NAME, instanceId, now.plus(leaseDuration), now));
+        if (renewed == null || renewed == 0) {
+            // Taken over after it ran out; the new holder owns the checkpoint from here
+            throw new IllegalStateException("Reorder sweep lease lost after user " + checkpoint.getLastUserId());
+        }
+        checkpoint.setLastUserId(chunk.lastUserId());
+        checkpoint.setUsersScanned(checkpoint.getUsersScanned() + chunk.users());
+        checkpoint.setDraftsCreated(checkpoint.getDraftsCreated() + drafts);
+        checkpointRepository.save(checkpoint);
+    }
+
+    private int processChunk(List<Long> userIds) {
+        Set<Long> withDrafts = new HashSet<>(orderRepository.findUserIdsWithDraftOrders(userIds));
+        List<Long> candidates = userIds.stream().filter(id -> !withDrafts.contains(id)).toList();
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<InventoryItem>> itemsByUser = new LinkedHashMap<>();
+        Map<Long, User> users = new LinkedHashMap<>();
+        for (InventoryItem item : inventoryItemRepository.findByUserIdInAndStatusIn(candidates, REORDER_STATUSES)) {
+            User user = item.getDevice().getUser();
+            users.putIfAbsent(user.getId(), user);
+            itemsByUser.computeIfAbsent(user.getId(), id -> new ArrayList<>()).add(item);
+        }
+
+        AtomicInteger created = new AtomicInteger();
+        itemsByUser.forEach((userId, items) -> {
+            try {
+                orderManagementService.createDraftOrder(users.get(userId), items);
+                created.incrementAndGet();
+            } catch (RuntimeException e) {
+                // One user's store or pricing problem must not hold up everyone after them
+                log.warn("Reorder sweep could not draft an order for user {}: {}", userId, e.getMessage());
+            }
+        });
+        return created.get();
+    }
+
+    private record Chunk(Long lastUserId, int users, CompletableFuture<Integer> drafts) {
+    }
+}
@@ -0,0 +1,309 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.codec.SensorFrame;
+import com.groceryautomation.codec.SensorFrameCodec;
+import com.groceryautomation.dto.request.SensorReadingBatchRequest;
+import com.groceryautomation.dto.request.SensorReadingRequest;
+import com.groceryautomation.util.MpmcRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Staged, buffered path from the HTTP handlers to {@link SensorIngestionService}.
+ *
+ * Request threads only place the raw payload in a bounded ring buffer and return; when the
+ * buffer is full the submission is refused so the caller can answer 429 instead of queueing
+ * behind the connection pool. Decode workers parse and validate payloads into a second
+ * bounded buffer, and persistence workers drain it in batches, applying each batch in one
+ * transaction. A full decoded buffer stalls the decoders, which in turn fills the intake
+ * buffer, so backpressure always surfaces at the API.
+ */
+@Service
+@Slf4j
+public class SensorIngestionPipeline {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final SensorIngestionService sensorIngestionService;
+    private final TransactionTemplate transactionTemplate;
+    private final MpmcRingBuffer<Submission> intake;
+    private final MpmcRingBuffer<Submission> decoded;
+    private final int decodeWorkers;
+    private final int persistWorkers;
+    private final int maxBatch;
+    private final int retryAfterSeconds;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter persisted;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private volatile List<Thread> decodeThreads = List.of();
+    private volatile List<Thread> persistThreads = List.of();
+
+    public SensorIngestionPipeline(SensorIngestionService sensorIngestionService,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${ingestion.pipeline.intake-capacity:4096}") int intakeCapacity,
+                                   @Value("${ingestion.pipeline.decoded-capacity:1024}") int decodedCapacity,
+                                   @Value("${ingestion.pipeline.decode-workers:1}") int decodeWorkers,
+                                   @Value("${ingestion.pipeline.persist-workers:2}") int persistWorkers,
+                                   @Value("${ingestion.pipeline.max-batch:32}") int maxBatch,
+                                   @Value("${ingestion.pipeline.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.sensorIngestionService = sensorIngestionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.intake = new MpmcRingBuffer<>(intakeCapacity);
+        this.decoded = new MpmcRingBuffer<>(decodedCapacity);
+        this.decodeWorkers = decodeWorkers;
+        this.persistWorkers = persistWorkers;
+        this.maxBatch = maxBatch;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        Gauge.builder("ingestion.pipeline.queue.depth", intake, MpmcRingBuffer::size)
+                .tag("stage", "intake").register(meterRegistry);
+        Gauge.builder("ingestion.pipeline.queue.depth", decoded, MpmcRingBuffer::size)
+                .tag("stage", "decoded").register(meterRegistry);
+        Gauge.builder("ingestion.pipeline.queue.capacity", intake, MpmcRingBuffer::capacity)
+                .tag("stage", "intake").register(meterRegistry);
+        Gauge.builder("ingestion.pipeline.queue.capacity", decoded, MpmcRingBuffer::capacity)
+                .tag("stage", "decoded").register(meterRegistry);
+        this.accepted = submissions(meterRegistry, "accepted");
+        this.rejected = submissions(meterRegistry, "rejected");
+        this.persisted = submissions(meterRegistry, "persisted");
+        this.failed = submissions(meterRegistry, "failed");
+    }
+
+    private static Counter submissions(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ingestion.pipeline.submissions")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        decodeThreads = startWorkers("ingest-decode-", decodeWorkers, this::decodeLoop);
+        persistThreads = startWorkers("ingest-persist-", persistWorkers, this::persistLoop);
+        log.info("Ingestion pipeline started: {} decode and {} persist workers", decodeWorkers, persistWorkers);
+    }
+
+    /**
+     * Stops the workers and applies whatever is still buffered before the application exits.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread thread : decodeThreads) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        for (Thread thread : persistThreads) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        while (runDecodeStage(Integer.MAX_VALUE) > 0 || runPersistStage() > 0) {
+            // Drain remaining submissions on the shutdown thread
+        }
+    }
+
+    /**
+     * @return false when the pipeline is full and the caller should retry later
+     */
+    public boolean submitReadings(String deviceId, SensorReadingBatchRequest request) {
+        return submit(new Submission(deviceId, request, null, System.currentTimeMillis()));
+    }
+
+    /**
+     * @return false when the pipeline is full and the caller should retry later
+     */
+    public boolean submitFrame(String deviceId, byte[] frame) {
+        return submit(new Submission(deviceId, null, frame, System.currentTimeMillis()));
+    }
+
+    private boolean submit(Submission submission) {
+        if (!intake.offer(submission)) {
+            rejected.increment();
+            return false;
+        }
+        accepted.increment();
+        for (Thread thread : decodeThreads) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return intake.size() + decoded.size();
+    }
+
+    public int getQueueCapacity() {
+        return intake.capacity() + decoded.capacity();
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Decodes and validates up to maxSubmissions from the intake buffer.
+     *
+     * @return the number of submissions taken from the intake buffer
+     */
+    public int runDecodeStage(int maxSubmissions) {
+        int taken = 0;
+        Submission submission;
+        while (taken < maxSubmissions && (submission = intake.poll()) != null) {
+            taken++;
+            try {
+                decode(submission);
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("Dropping invalid submission from device {}: {}", submission.deviceId, e.getMessage());
+                continue;
+            }
+
+            while (!decoded.offer(submission)) {
+                if (running) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS); // Persistence is behind; hold the intake back
+                } else {
+                    runPersistStage(); // No persistence workers during shutdown
+                }
+            }
+            for (Thread thread : persistThreads) {
+                LockSupport.unpark(thread);
+            }
+        }
+        return taken;
+    }
+
+    private void decode(Submission submission) {
+        if (submission.frameBytes != null) {
+            submission.frame = SensorFrameCodec.decode(ByteBuffer.wrap(submission.frameBytes));
+            return;
+        }
+
+        List<SensorReadingRequest> readings = submission.request.getReadings();
+        if (readings == null || readings.isEmpty()) {
+            throw new RuntimeException("Reading batch is empty");
+        }
+        // Readings without a capture time default to when the API accepted them, not when they are persisted
+        LocalDateTime acceptedAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(submission.acceptedAtMillis), ZoneId.systemDefault());
+        for (SensorReadingRequest reading : readings) {
+            if (reading.getTimestamp() == null) {
+                reading.setTimestamp(acceptedAt);
+            }
+        }
+    }
+
+    /**
+     * Applies up to one batch of decoded submissions in a single transaction. If the batch
+     * fails, its submissions are retried one transaction each so one bad submission (e.g. an
+     * unknown device) does not discard the rest.
+     *
+     * @return the number of submissions taken from the decoded buffer
+     */
+    public int runPersistStage() {
+        List<Submission> batch = new ArrayList<>(maxBatch);
+        if (decoded.drainTo(batch, maxBatch) == 0) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::apply));
+            persisted.increment(batch.size());
+            return batch.size();
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failed.increment();
+                log.warn("Failed to persist readings for device {}: {}", batch.get(0).deviceId, e.getMessage());
+                return 1;
+            }
+            log.debug("Batch of {} submissions failed, retrying individually: {}", batch.size(), e.getMessage());
+        }
+
+        for (Submission submission : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(submission));
+                persisted.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("Failed to persist readings for device {}: {}", submission.deviceId, e.getMessage());
+            }
+        }
+        return batch.size();
+    }
+
+    private void apply(Submission submission) {
+        if (submission.frame != null) {
+            sensorIngestionService.ingestFrame(submission.deviceId, submission.frame);
+        } else {
+            sensorIngestionService.ingestReadings(submission.deviceId, submission.request);
+        }
+    }
+
+    private void decodeLoop() {
+        while (running) {
+            if (runDecodeStage(maxBatch) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void persistLoop() {
+        while (running) {
+            try {
+                if (runPersistStage() == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException e) {
+                log.error("Ingestion persistence worker error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private static List<Thread> startWorkers(String prefix, int count, Runnable loop) {
+        List<Thread> threads = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Thread thread = new Thread(loop, prefix + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        return List.copyOf(threads);
+    }
+
+    private static final class Submission {
+        private final String deviceId;
+        private final SensorReadingBatchRequest request;
+        private final byte[] frameBytes;
+        private final long acceptedAtMillis;
+        // Set by the decode stage; the ring buffer hand-off makes it visible to persistence workers
+        private SensorFrame frame;
+
+        private Submission(String deviceId, SensorReadingBatchRequest request, byte[] frameBytes, long acceptedAtMillis) {
+            this.deviceId = deviceId;
+            this.request = request;
+            this.frameBytes = frameBytes;
+            this.acceptedAtMillis = acceptedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.groceryautomation.service;
+
+import com.groceryautomation.codec.SensorFrame;
+import com.groceryautomation.dto.request.SensorReadingBatchRequest;
+import com.groceryautomation.dto.response.SensorReadingBatchResponse;
+
+/**
+ * Service for applying sensor readings pushed by devices
+ */
+public interface SensorIngestionService {
+    
+    /**
+     * Apply a frame of readings for one device in a single transaction
+     * 
+     * @param deviceId Device ID string (e.g. FRIDGE-001)
+     * @param request Readings captured by the device
+     * @return Per-item results of the batch
+     */
+    SensorReadingBatchResponse ingestReadings(String deviceId, SensorReadingBatchRequest request);
+    
+    /**
+     * Apply a decoded binary frame of readings for one device in a single transaction
+     * 
+     * @param deviceId Device ID string (e.g. FRIDGE-001)
+     * @param frame Binary frame decoded by SensorFrameCodec
+     * @return Per-item results of the batch
+     */
+    SensorReadingBatchResponse ingestFrame(String deviceId, SensorFrame frame);
+}
@@ -3,6 +3,7 @@ package com.groceryautomation.service;
 import com.groceryautomation.dto.ProductPrice;
 import com.groceryautomation.entity.Order;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,12 +22,14 @@ public interface StoreApiService {
     Map<String, ProductPrice> fetchPrices(Long storeId, List<String> skus);
     
     /**
-     * Submit an order to the store's system
+     * Submit an order to the store's system. A submission repeated with the same key returns
+     * the order the store already created instead of placing a second one.
      * 
      * @param order The order to submit
+     * @param idempotencyKey Key identifying this submission across retries
      * @return External order ID from the store's system
      */
-    String submitOrder(Order order);
+    String submitOrder(Order order, String idempotencyKey);
     
     /**
      * Check the status of an order in the store's system
@@ -37,6 +40,36 @@ public interface StoreApiService {
      */
     String checkOrderStatus(Long storeId, String externalOrderId);
     
+    /**
+     * Check the status of several orders at one store in a single request. Stores without a
+     * bulk endpoint fall back to one call per order.
+     * 
+     * @param storeId The store ID
+     * @param externalOrderIds Order IDs in the store's system
+     * @return Map of external order ID to current status; orders the store does not know are left out
+     */
+    default Map<String, String> checkOrderStatuses(Long storeId, List<String> externalOrderIds) {
+        Map<String, String> statuses = new HashMap<>();
+        for (String externalOrderId : externalOrderIds) {
+            String status = checkOrderStatus(storeId, externalOrderId);
+            if (status != null) {
+                statuses.put(externalOrderId, status);
+            }
+        }
+        return statuses;
+    }
+    
+    /**
+     * How many orders one {@link #checkOrderStatuses} call asks the store about in a single
+     * request. Stores without a bulk endpoint answer one order per request.
+     * 
+     * @param storeId The store ID
+     * @return Orders covered by one status request
+     */
+    default int maxOrderStatusBatchSize(Long storeId) {
+        return 1;
+    }
+    
     /**
      * Search for a product in the store's catalog
      * 
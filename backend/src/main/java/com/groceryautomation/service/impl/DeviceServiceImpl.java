@@ -6,7 +6,9 @@ import com.groceryautomation.entity.Device;
 import com.groceryautomation.entity.User;
 import com.groceryautomation.repository.DeviceRepository;
 import com.groceryautomation.repository.UserRepository;
+import com.groceryautomation.service.DeviceLivenessTracker;
 import com.groceryautomation.service.DeviceService;
+import com.groceryautomation.service.InventorySummaryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,6 +26,8 @@ public class DeviceServiceImpl implements DeviceService {
     
     private final DeviceRepository deviceRepository;
     private final UserRepository userRepository;
+    private final DeviceLivenessTracker deviceLivenessTracker;
+    private final InventorySummaryService inventorySummaryService;
     
     @Override
     public DeviceResponse registerDevice(DeviceRegistrationRequest request) {
@@ -47,6 +51,7 @@ public class DeviceServiceImpl implements DeviceService {
                 .build();
         
         Device savedDevice = deviceRepository.save(device);
+        inventorySummaryService.initializeDevice(savedDevice.getId(), user.getId());
         log.info("Device registered successfully: {} for user: {}", savedDevice.getDeviceId(), user.getEmail());
         
         return mapToResponse(savedDevice);
@@ -80,6 +85,11 @@ public class DeviceServiceImpl implements DeviceService {
         }
         
         Device updatedDevice = deviceRepository.save(device);
+        if (online) {
+            deviceLivenessTracker.heartbeat(updatedDevice);
+        } else {
+            deviceLivenessTracker.forget(updatedDevice.getId());
+        }
         log.info("Device {} status updated to: {}", deviceId, online ? "online" : "offline");
         
         return mapToResponse(updatedDevice);
@@ -104,6 +114,7 @@ public class DeviceServiceImpl implements DeviceService {
         device.setActive(false);
         device.setOnline(false);
         deviceRepository.save(device);
+        deviceLivenessTracker.forget(device.getId());
         
         log.info("Device deactivated: {}", deviceId);
     }
@@ -117,7 +128,7 @@ public class DeviceServiceImpl implements DeviceService {
                 .userEmail(device.getUser().getEmail())
                 .active(device.isActive())
                 .online(device.isOnline())
-                .lastSync(device.getLastSync())
+                .lastSync(deviceLivenessTracker.getLastSeen(device))
                 .createdAt(device.getCreatedAt())
                 .inventoryItemCount(device.getInventoryItems() != null ? device.getInventoryItems().size() : 0)
                 .build();
@@ -0,0 +1,243 @@
+package com.groceryautomation.service.impl;
+
+import com.groceryautomation.dto.response.InventoryChangesResponse;
+import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.enums.InventoryChangeType;
+import com.groceryautomation.event.InventoryItemChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.service.InventoryChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Inventory change log for delta sync and inventory push.
+ *
+ * Every item change and status transition is appended with plain SQL in the transaction that made it, collected
+ * per transaction and written in one batch just before it commits. A version token
+ * is the last log ID a client has seen plus the time it was issued. Log IDs are assigned at insert
+ * rather than at commit, so each request also re-reads entries logged within the commit lag before
+ * the token was issued; re-sending an item is harmless because clients apply upserts.
+ *
+ * Compaction keeps only the newest entry per item, and drops removals once they are older than the
+ * retention. A token issued before the retention could have missed a dropped removal, so it gets a
+ * full sync instead.
+ */
+@Service
+@Slf4j
+@Transactional
+public class InventoryChangeServiceImpl implements InventoryChangeService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_changes (user_id, device_id, inventory_item_id, change_type, changed_at, " +
+            "from_status, to_status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Index of changed_at in an insert row, filled in when the batch is written
+    private static final int CHANGED_AT = 4;
+
+    private static final String CHANGES_SQL =
+            "SELECT id, inventory_item_id, change_type FROM inventory_changes " +
+            "WHERE user_id = ? AND (id > ? OR changed_at >= ?) ORDER BY id";
+
+    private static final String DELETE_SUPERSEDED_SQL =
+            "DELETE FROM inventory_changes c WHERE c.changed_at < ? AND EXISTS (" +
+            "SELECT 1 FROM inventory_changes n WHERE n.inventory_item_id = c.inventory_item_id AND n.id > c.id)";
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long retentionMillis;
+    private final long commitLagMillis;
+
+    public InventoryChangeServiceImpl(InventoryItemRepository inventoryItemRepository,
+                                      JdbcTemplate jdbcTemplate,
+                                      @Value("${inventory.changes.retention-hours:168}") long retentionHours,
+                                      @Value("${inventory.changes.commit-lag-seconds:30}") long commitLagSeconds) {
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionMillis = retentionHours * 3_600_000L;
+        this.commitLagMillis = commitLagSeconds * 1_000L;
+    }
+
+    @Override
+    public void recordChange(InventoryItemChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        append(new Object[]{event.userId(), event.deviceId(), event.itemId(), event.changeType().name(), null, null, null});
+    }
+
+    @Override
+    public void recordTransition(InventoryStatusChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        append(new Object[]{event.userId(), event.deviceId(), event.itemId(), InventoryChangeType.UPDATED.name(), null,
+                event.from().name(), event.to().name()});
+    }
+
+    /**
+     * Queues a row for the current transaction's batch, or inserts it right away outside one.
+     */
+    private void append(Object[] row) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            row[CHANGED_AT] = LocalDateTime.now();
+            jdbcTemplate.update(INSERT_SQL, row);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.owner() == this) {
+                pending.rows.add(row);
+                return;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        pending.rows.add(row);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryChangesResponse getChangesSince(Long userId, String since) {
+        // Taken before reading, so anything committed later is covered by the next request
+        long now = System.currentTimeMillis();
+        VersionToken token = VersionToken.parse(since);
+        if (token == null || token.issuedAt() < now - retentionMillis + commitLagMillis) {
+            return fullSync(userId, now);
+        }
+
+        List<ChangeRow> rows = jdbcTemplate.query(CHANGES_SQL,
+                (rs, rowNum) -> new ChangeRow(rs.getLong(1), rs.getLong(2),
+                        InventoryChangeType.valueOf(rs.getString(3))),
+                userId, token.lastChangeId(), toDateTime(token.issuedAt() - commitLagMillis));
+
+        // Rows are in log order, so each item ends up with its newest change
+        Map<Long, InventoryChangeType> latest = new LinkedHashMap<>();
+        long lastChangeId = token.lastChangeId();
+        for (ChangeRow row : rows) {
+            latest.put(row.itemId(), row.changeType());
+            lastChangeId = Math.max(lastChangeId, row.id());
+        }
+
+        Set<Long> upsertedIds = latest.entrySet().stream()
+                .filter(entry -> entry.getValue() != InventoryChangeType.REMOVED)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        List<InventoryItemResponse> upserted = upsertedIds.isEmpty()
+                ? List.of()
+                : inventoryItemRepository.findResponsesByIdIn(upsertedIds);
+
+        // An item whose removal is not committed yet reads as gone; report it removed now
+        List<Long> removed = new ArrayList<>();
+        Set<Long> found = upserted.stream().map(InventoryItemResponse::getId).collect(Collectors.toSet());
+        latest.forEach((itemId, changeType) -> {
+            if (changeType == InventoryChangeType.REMOVED || !found.contains(itemId)) {
+                removed.add(itemId);
+            }
+        });
+
+        log.debug("User {} has {} changed and {} removed items since {}", userId, upserted.size(), removed.size(), since);
+        return InventoryChangesResponse.builder()
+                .version(new VersionToken(lastChangeId, now).toString())
+                .fullSync(false)
+                .upserted(upserted)
+                .removed(removed)
+                .build();
+    }
+
+    private InventoryChangesResponse fullSync(Long userId, long now) {
+        Long lastChangeId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM inventory_changes WHERE user_id = ?", Long.class, userId);
+        return InventoryChangesResponse.builder()
+                .version(new VersionToken(lastChangeId, now).toString())
+                .fullSync(true)
+                .upserted(inventoryItemRepository.findResponsesByUserId(userId))
+                .removed(List.of())
+                .build();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${inventory.changes.compaction-interval-ms:300000}")
+    public int compact() {
+        long now = System.currentTimeMillis();
+        // A client only needs an item's newest change; entries still inside the commit lag are kept
+        int superseded = jdbcTemplate.update(DELETE_SUPERSEDED_SQL, toDateTime(now - commitLagMillis));
+        int removals = jdbcTemplate.update(
+                "DELETE FROM inventory_changes WHERE change_type = ? AND changed_at < ?",
+                InventoryChangeType.REMOVED.name(), toDateTime(now - retentionMillis));
+        if (superseded + removals > 0) {
+            log.info("Compacted inventory change log: {} superseded entries, {} expired removals", superseded, removals);
+        }
+        return superseded + removals;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private record ChangeRow(long id, long itemId, InventoryChangeType changeType) {
+    }
+
+    /**
+     * The rows appended in one transaction, in the order they were recorded.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<Object[]> rows = new ArrayList<>();
+
+        private InventoryChangeServiceImpl owner() {
+            return InventoryChangeServiceImpl.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Stamped at insert, which is what the commit lag is measured from
+            LocalDateTime now = LocalDateTime.now();
+            for (Object[] row : rows) {
+                row[CHANGED_AT] = now;
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    /**
+     * Opaque to clients: "{last change ID}-{issued at epoch millis}".
+     */
+    private record VersionToken(long lastChangeId, long issuedAt) {
+
+        static VersionToken parse(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            String[] parts = token.split("-");
+            try {
+                if (parts.length == 2) {
+                    return new VersionToken(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new RuntimeException("Invalid inventory version: " + token);
+        }
+
+        @Override
+        public String toString() {
+            return lastChangeId + "-" + issuedAt;
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package com.groceryautomation.service.impl;
+
+import com.groceryautomation.dto.response.InventoryHistoryPoint;
+import com.groceryautomation.dto.response.InventoryHistoryResponse;
+import com.groceryautomation.entity.InventoryReading;
+import com.groceryautomation.entity.JobLease;
+import com.groceryautomation.entity.InventoryReadingRollup;
+import com.groceryautomation.enums.HistoryGranularity;
+import com.groceryautomation.repository.InventoryReadingRepository;
+import com.groceryautomation.repository.InventoryReadingRollupRepository;
+import com.groceryautomation.repository.JobLeaseRepository;
+import com.groceryautomation.service.InventoryHistoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@Transactional
+public class InventoryHistoryServiceImpl implements InventoryHistoryService {
+    
+    public static final String LEASE_NAME = "history-maintenance";
+    
+    // Hours rolled up per transaction; readings are aggregated in the database, so only the
+    // resulting rollups, at most one per item and hour, are loaded
+    private static final int ROLLUP_CHUNK_HOURS = 24;
+    
+    // Item IDs per query for the rollups already written
+    private static final int ITEM_BATCH_SIZE = 1000;
+    
+    private static final String EARLIEST_PENDING_SQL =
+            "SELECT MIN(recorded_at) FROM inventory_readings WHERE rolled_up = false AND recorded_at < ?";
+    
+    // One row per item and hour with pending readings. Hours from the raw cutoff on are rebuilt
+    // from all their readings; earlier ones only count the pending readings, to be merged into
+    // the rollup already written. Ties in time are ordered by ID, like the readings arrived.
+    private static final String HOURLY_AGGREGATE_SQL =
+            "SELECT inventory_item_id, bucket, COUNT(*), MIN(quantity), MAX(quantity), SUM(quantity), " +
+            "MAX(CASE WHEN first_rank = 1 THEN quantity END), MAX(CASE WHEN last_rank = 1 THEN quantity END), " +
+            "SUM(CASE WHEN previous > quantity THEN previous - quantity ELSE 0 END) " +
+            "FROM (SELECT inventory_item_id, quantity, rolled_up, DATE_TRUNC('hour', recorded_at) AS bucket, " +
+            "LAG(quantity) OVER (PARTITION BY inventory_item_id, DATE_TRUNC('hour', recorded_at) " +
+            "ORDER BY recorded_at, id) AS previous, " +
+            "ROW_NUMBER() OVER (PARTITION BY inventory_item_id, DATE_TRUNC('hour', recorded_at) " +
+            "ORDER BY recorded_at, id) AS first_rank, " +
+            "ROW_NUMBER() OVER (PARTITION BY inventory_item_id, DATE_TRUNC('hour', recorded_at) " +
+            "ORDER BY recorded_at DESC, id DESC) AS last_rank " +
+            "FROM inventory_readings WHERE recorded_at >= ? AND recorded_at < ? " +
+            "AND (rolled_up = false OR DATE_TRUNC('hour', recorded_at) >= ?)) r " +
+            "GROUP BY inventory_item_id, bucket HAVING SUM(CASE WHEN rolled_up THEN 0 ELSE 1 END) > 0 " +
+            "ORDER BY inventory_item_id, bucket";
+    
+    private static final String MARK_ROLLED_UP_SQL =
+            "UPDATE inventory_readings SET rolled_up = true WHERE rolled_up = false AND recorded_at >= ? AND recorded_at < ?";
+    
+    private final InventoryReadingRepository readingRepository;
+    private final InventoryReadingRollupRepository rollupRepository;
+    private final JobLeaseRepository leaseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final Duration leaseDuration;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final int rawRetentionDays;
+    private final int hourlyRetentionDays;
+    private final int graceMinutes;
+    private final Duration rawMaxSpan;
+    private final Duration hourlyMaxSpan;
+    
+    public InventoryHistoryServiceImpl(InventoryReadingRepository readingRepository,
+                                       InventoryReadingRollupRepository rollupRepository,
+                                       JobLeaseRepository leaseRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${history.retention.raw-days:7}") int rawRetentionDays,
+                                       @Value("${history.retention.hourly-days:90}") int hourlyRetentionDays,
+                                       @Value("${history.rollup.grace-minutes:5}") int graceMinutes,
+                                       @Value("${history.query.raw-max-hours:24}") int rawMaxHours,
+                                       @Value("${history.query.hourly-max-days:31}") int hourlyMaxDays,
+                                       @Value("${history.rollup.lease-minutes:10}") long leaseMinutes) {
+        this.readingRepository = readingRepository;
+        this.rollupRepository = rollupRepository;
+        this.leaseRepository = leaseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The aggregate and the flagging must see the same readings, or a reading committed
+        // between them would be flagged without being counted
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.leaseDuration = Duration.ofMinutes(leaseMinutes);
+        this.rawRetentionDays = rawRetentionDays;
+        this.hourlyRetentionDays = hourlyRetentionDays;
+        this.graceMinutes = graceMinutes;
+        this.rawMaxSpan = Duration.ofHours(rawMaxHours);
+        this.hourlyMaxSpan = Duration.ofDays(hourlyMaxDays);
+    }
+    
+    @Override
+    public void recordReadings(List<InventoryReading> readings) {
+        if (!readings.isEmpty()) {
+            readingRepository.saveAll(readings);
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryHistoryResponse getHistory(Long inventoryItemId, LocalDateTime from, LocalDateTime to,
+                                               HistoryGranularity granularity) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("History range start must be before its end");
+        }
+        
+        HistoryGranularity resolved = granularity != null ? granularity : resolveGranularity(from, to, LocalDateTime.now());
+        List<InventoryHistoryPoint> points = switch (resolved) {
+            case RAW -> readingRepository.findByItemInRange(inventoryItemId, from, to).stream()
+                    .map(this::toPoint)
+                    .collect(Collectors.toList());
+            case HOUR -> hourlyPoints(inventoryItemId, from, to);
+            case DAY -> dailyPoints(inventoryItemId, from, to);
+        };
+        
+        return InventoryHistoryResponse.builder()
+                .inventoryItemId(inventoryItemId)
+                .granularity(resolved)
+                .from(from)
+                .to(to)
+                .points(points)
+                .build();
+    }
+    
+    /**
+     * Picks the coarsest resolution the range calls for: raw readings for short recent ranges,
+     * hourly rollups up to a month, daily rollups beyond that or once finer data has expired.
+     */
+    public HistoryGranularity resolveGranularity(LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        Duration span = Duration.between(from, to);
+        if (span.compareTo(rawMaxSpan) <= 0 && !from.isBefore(now.minusDays(rawRetentionDays))) {
+            return HistoryGranularity.RAW;
+        }
+        if (span.compareTo(hourlyMaxSpan) <= 0 && !from.isBefore(now.minusDays(hourlyRetentionDays))) {
+            return HistoryGranularity.HOUR;
+        }
+        return HistoryGranularity.DAY;
+    }
+    
+    /**
+     * Runs on one instance at a time, under a lease renewed after every chunk, so two instances
+     * never write the same rollups. Each chunk commits on its own, so its persistence context is
+     * dropped before the next one and a failure only repeats that chunk on the next run.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(fixedDelayString = "${history.rollup.interval-ms:300000}", 
+               initialDelayString = "${history.rollup.initial-delay-ms:60000}")
+    public void runMaintenance() {
+        if (!claimLease()) {
+            log.debug("History maintenance is running on another instance, skipping");
+            return;
+        }
+        try {
+            maintain();
+        } finally {
+            transactionTemplate.execute(status -> leaseRepository.release(LEASE_NAME, instanceId));
+        }
+    }
+    
+    private void maintain() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settled = now.minusMinutes(graceMinutes);
+        LocalDateTime rawCutoff = now.minusDays(rawRetentionDays);
+        
+        NavigableSet<LocalDateTime> touchedDays = new TreeSet<>();
+        int hours = rollupHours(settled.truncatedTo(ChronoUnit.HOURS), rawCutoff, touchedDays);
+        if (!claimLease()) {
+            log.warn("History maintenance lease lost after the hourly rollups, leaving the rest to its holder");
+            return;
+        }
+        Integer days = transactionTemplate.execute(status ->
+                rollupDays(settled.truncatedTo(ChronoUnit.DAYS), touchedDays, now.minusDays(hourlyRetentionDays)));
+        
+        // Raw rows are only dropped once they have been rolled up
+        Integer rawDeleted = transactionTemplate.execute(status -> readingRepository.deleteOlderThan(rawCutoff));
+        Integer hourlyDeleted = transactionTemplate.execute(status -> rollupRepository.deleteOlderThan(
+                HistoryGranularity.HOUR, min(now.minusDays(hourlyRetentionDays), settled.truncatedTo(ChronoUnit.DAYS))));
+        
+        if (hours + days + rawDeleted + hourlyDeleted > 0) {
+            log.info("History maintenance: {} hourly and {} daily rollups written, {} raw and {} hourly rows expired",
+                    hours, days, rawDeleted, hourlyDeleted);
+        }
+    }
+    
+    private boolean claimLease() {
+        if (!leaseRepository.existsById(LEASE_NAME)) {
+            try {
+                transactionTemplate.execute(status ->
+                        leaseRepository.saveAndFlush(JobLease.builder().name(LEASE_NAME).build()));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created the row first; the claim decides which of them runs
+                log.debug("History maintenance lease created concurrently");
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                leaseRepository.claim(LEASE_NAME, instanceId, now.plus(leaseDuration), now));
+        return claimed != null && claimed > 0;
+    }
+    
+    /**
+     * Rolls up every pending reading recorded before the end, however late it arrived, one chunk
+     * of hours per transaction. An hour that already has a rollup is re-aggregated from its raw
+     * readings, or, once those have expired, has the late readings merged into it. Days whose
+     * hours changed are collected.
+     */
+    private int rollupHours(LocalDateTime end, LocalDateTime rawCutoff, NavigableSet<LocalDateTime> touchedDays) {
+        int written = 0;
+        LocalDateTime next;
+        // Each chunk flags what it rolled up, so the earliest pending reading moves forward
+        while ((next = jdbcTemplate.queryForObject(EARLIEST_PENDING_SQL, LocalDateTime.class, Timestamp.valueOf(end))) != null) {
+            LocalDateTime start = next.truncatedTo(ChronoUnit.HOURS);
+            LocalDateTime chunkEnd = min(start.plusHours(ROLLUP_CHUNK_HOURS), end);
+            Integer chunk = chunkTransaction.execute(status -> rollupChunk(start, chunkEnd, rawCutoff, touchedDays));
+            written += chunk == null ? 0 : chunk;
+            if (!claimLease()) {
+                log.warn("History maintenance lease lost after rolling up to {}, stopping", chunkEnd);
+                break;
+            }
+        }
+        return written;
+    }
+    
+    private int rollupChunk(LocalDateTime start, LocalDateTime end, LocalDateTime rawCutoff,
+                            NavigableSet<LocalDateTime> touchedDays) {
+        List<Accumulator> aggregates = jdbcTemplate.query(HOURLY_AGGREGATE_SQL, (rs, rowNum) -> {
+            Accumulator accumulator = new Accumulator(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime());
+            accumulator.count = rs.getInt(3);
+            accumulator.min = rs.getDouble(4);
+            accumulator.max = rs.getDouble(5);
+            accumulator.sum = rs.getDouble(6);
+            accumulator.first = rs.getDouble(7);
+            accumulator.last = rs.getDouble(8);
+            accumulator.consumed = rs.getDouble(9);
+            return accumulator;
+        }, Timestamp.valueOf(start), Timestamp.valueOf(end), Timestamp.valueOf(rawCutoff));
+        
+        List<Long> itemIds = aggregates.stream().map(aggregate -> aggregate.inventoryItemId).distinct().toList();
+        Map<String, InventoryReadingRollup> existing = new HashMap<>();
+        for (int from = 0; from < itemIds.size(); from += ITEM_BATCH_SIZE) {
+            for (InventoryReadingRollup rollup : rollupRepository.findByItemsInRange(HistoryGranularity.HOUR,
+                    itemIds.subList(from, Math.min(from + ITEM_BATCH_SIZE, itemIds.size())), start, end)) {
+                existing.put(bucketKey(rollup.getInventoryItemId(), rollup.getBucketStart()), rollup);
+            }
+        }
+        
+        List<InventoryReadingRollup> rollups = new ArrayList<>(aggregates.size());
+        for (Accumulator aggregate : aggregates) {
+            InventoryReadingRollup previous = existing.get(bucketKey(aggregate.inventoryItemId, aggregate.bucketStart));
+            InventoryReadingRollup rollup;
+            if (previous != null && aggregate.bucketStart.isBefore(rawCutoff)) {
+                // Only the late readings were aggregated; they follow what the rollup already holds
+                Accumulator merged = new Accumulator(aggregate.inventoryItemId, aggregate.bucketStart);
+                merged.merge(previous);
+                merged.merge(aggregate.toRollup(HistoryGranularity.HOUR));
+                rollup = merged.toRollup(HistoryGranularity.HOUR);
+            } else {
+                rollup = aggregate.toRollup(HistoryGranularity.HOUR);
+            }
+            if (previous != null) {
+                rollup.setId(previous.getId());
+            }
+            rollups.add(rollup);
+            touchedDays.add(aggregate.bucketStart.truncatedTo(ChronoUnit.DAYS));
+        }
+        
+        rollupRepository.saveAll(rollups);
+        jdbcTemplate.update(MARK_ROLLED_UP_SQL, Timestamp.valueOf(start), Timestamp.valueOf(end));
+        return rollups.size();
+    }
+    
+    /**
+     * Rolls up the days after the latest daily rollup, and rebuilds earlier ones whose hours changed.
+     */
+    private int rollupDays(LocalDateTime end, NavigableSet<LocalDateTime> touchedDays, LocalDateTime hourlyCutoff) {
+        LocalDateTime latest = rollupRepository.findLatestBucketStart(HistoryGranularity.DAY);
+        LocalDateTime start = latest != null 
+                ? latest.plusDays(1) 
+                : rollupRepository.findEarliestBucketStart(HistoryGranularity.HOUR);
+        int written = 0;
+        
+        if (start != null) {
+            for (LocalDateTime day : touchedDays.headSet(start.truncatedTo(ChronoUnit.DAYS), false)) {
+                written += rebuildDay(day, hourlyCutoff);
+            }
+        }
+        if (start == null || !start.isBefore(end)) {
+            return written;
+        }
+        
+        List<InventoryReadingRollup> rollups = mergeRollups(
+                rollupRepository.findAllInRange(HistoryGranularity.HOUR, start.truncatedTo(ChronoUnit.DAYS), end),
+                HistoryGranularity.DAY);
+        rollupRepository.saveAll(rollups);
+        return written + rollups.size();
+    }
+    
+    private int rebuildDay(LocalDateTime day, LocalDateTime hourlyCutoff) {
+        if (day.isBefore(hourlyCutoff.truncatedTo(ChronoUnit.DAYS))) {
+            // Its hours have partly expired; rebuilding from the rest would lose more than it adds
+            log.warn("Late readings for {} are past hourly retention; its daily rollup is left as is", day.toLocalDate());
+            return 0;
+        }
+        Map<Long, InventoryReadingRollup> existing = rollupRepository
+                .findAllInRange(HistoryGranularity.DAY, day, day.plusDays(1)).stream()
+                .collect(Collectors.toMap(InventoryReadingRollup::getInventoryItemId, rollup -> rollup));
+        List<InventoryReadingRollup> rollups = mergeRollups(
+                rollupRepository.findAllInRange(HistoryGranularity.HOUR, day, day.plusDays(1)), HistoryGranularity.DAY);
+        for (InventoryReadingRollup rollup : rollups) {
+            InventoryReadingRollup previous = existing.get(rollup.getInventoryItemId());
+            if (previous != null) {
+                rollup.setId(previous.getId());
+            }
+        }
+        rollupRepository.saveAll(rollups);
+        return rollups.size();
+    }
+    
+    private List<InventoryHistoryPoint> hourlyPoints(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<InventoryReadingRollup> rollups = new ArrayList<>(
+                rollupRepository.findByItemInRange(itemId, HistoryGranularity.HOUR, from, to));
+        
+        // Hours not rolled up yet are aggregated from raw readings on the fly
+        LocalDateTime tailStart = rollups.isEmpty() 
+                ? from.truncatedTo(ChronoUnit.HOURS) 
+                : rollups.get(rollups.size() - 1).getBucketStart().plusHours(1);
+        if (tailStart.isBefore(to)) {
+            rollups.addAll(aggregateReadings(
+                    readingRepository.findByItemInRange(itemId, max(tailStart, from), to), HistoryGranularity.HOUR));
+        }
+        return rollups.stream().map(this::toPoint).collect(Collectors.toList());
+    }
+    
+    private List<InventoryHistoryPoint> dailyPoints(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<InventoryReadingRollup> rollups = new ArrayList<>(
+                rollupRepository.findByItemInRange(itemId, HistoryGranularity.DAY, from, to));
+        
+        // Days not rolled up yet are merged from their hourly rollups
+        LocalDateTime tailStart = rollups.isEmpty() 
+                ? from.truncatedTo(ChronoUnit.DAYS) 
+                : rollups.get(rollups.size() - 1).getBucketStart().plusDays(1);
+        if (tailStart.isBefore(to)) {
+            rollups.addAll(mergeRollups(
+                    rollupRepository.findByItemInRange(itemId, HistoryGranularity.HOUR, max(tailStart, from), to),
+                    HistoryGranularity.DAY));
+        }
+        return rollups.stream().map(this::toPoint).collect(Collectors.toList());
+    }
+    
+    /**
+     * Aggregates readings ordered by item and time into one rollup per item and bucket.
+     */
+    private List<InventoryReadingRollup> aggregateReadings(List<InventoryReading> readings, HistoryGranularity granularity) {
+        Map<String, Accumulator> buckets = new LinkedHashMap<>();
+        for (InventoryReading reading : readings) {
+            LocalDateTime bucketStart = bucketStart(reading.getRecordedAt(), granularity);
+            buckets.computeIfAbsent(bucketKey(reading.getInventoryItemId(), bucketStart), 
+                            key -> new Accumulator(reading.getInventoryItemId(), bucketStart))
+                    .add(reading.getQuantity());
+        }
+        return buckets.values().stream().map(acc -> acc.toRollup(granularity)).collect(Collectors.toList());
+    }
+    
+    /**
+     * Merges finer rollups ordered by item and time into coarser buckets.
+     */
+    private List<InventoryReadingRollup> mergeRollups(List<InventoryReadingRollup> rollups, HistoryGranularity granularity) {
+        Map<String, Accumulator> buckets = new LinkedHashMap<>();
+        for (InventoryReadingRollup rollup : rollups) {
+            LocalDateTime bucketStart = bucketStart(rollup.getBucketStart(), granularity);
+            buckets.computeIfAbsent(bucketKey(rollup.getInventoryItemId(), bucketStart), 
+                            key -> new Accumulator(rollup.getInventoryItemId(), bucketStart))
+                    .merge(rollup);
+        }
+        return buckets.values().stream().map(acc -> acc.toRollup(granularity)).collect(Collectors.toList());
+    }
+    
+    private static String bucketKey(Long inventoryItemId, LocalDateTime bucketStart) {
+        return inventoryItemId + "@" + bucketStart;
+    }
+    
+    private static LocalDateTime bucketStart(LocalDateTime time, HistoryGranularity granularity) {
+        return time.truncatedTo(granularity == HistoryGranularity.DAY ? ChronoUnit.DAYS : ChronoUnit.HOURS);
+    }
+    
+    private InventoryHistoryPoint toPoint(InventoryReading reading) {
+        return InventoryHistoryPoint.builder()
+                .timestamp(reading.getRecordedAt())
+                .samples(1)
+                .minQuantity(reading.getQuantity())
+                .maxQuantity(reading.getQuantity())
+                .avgQuantity(reading.getQuantity())
+                .lastQuantity(reading.getQuantity())
+                .consumed(0.0)
+                .build();
+    }
+    
+    private InventoryHistoryPoint toPoint(InventoryReadingRollup rollup) {
+        return InventoryHistoryPoint.builder()
+                .timestamp(rollup.getBucketStart())
+                .samples(rollup.getSampleCount())
+                .minQuantity(rollup.getMinQuantity())
+                .maxQuantity(rollup.getMaxQuantity())
+                .avgQuantity(rollup.getAvgQuantity())
+                .lastQuantity(rollup.getLastQuantity())
+                .consumed(rollup.getConsumed())
+                .build();
+    }
+    
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+    
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+    
+    private static final class Accumulator {
+        private final Long inventoryItemId;
+        private final LocalDateTime bucketStart;
+        private int count;
+        private double sum;
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+        private double first;
+        private double last;
+        private double consumed;
+        
+        private Accumulator(Long inventoryItemId, LocalDateTime bucketStart) {
+            this.inventoryItemId = inventoryItemId;
+            this.bucketStart = bucketStart;
+        }
+        
+        private void add(double quantity) {
+            if (count == 0) {
+                first = quantity;
+            } else if (quantity < last) {
+                consumed += last - quantity;
+            }
+            last = quantity;
+            count++;
+            sum += quantity;
+            min = Math.min(min, quantity);
+            max = Math.max(max, quantity);
+        }
+        
+        private void merge(InventoryReadingRollup rollup) {
+            if (count == 0) {
+                first = rollup.getFirstQuantity();
+            } else if (rollup.getFirstQuantity() < last) {
+                // Consumption across the boundary between two finer buckets
+                consumed += last - rollup.getFirstQuantity();
+            }
+            last = rollup.getLastQuantity();
+            count += rollup.getSampleCount();
+            sum += rollup.getAvgQuantity() * rollup.getSampleCount();
+            min = Math.min(min, rollup.getMinQuantity());
+            max = Math.max(max, rollup.getMaxQuantity());
+            consumed += rollup.getConsumed();
+        }
+        
+        private InventoryReadingRollup toRollup(HistoryGranularity granularity) {
+            return InventoryReadingRollup.builder()
+                    .inventoryItemId(inventoryItemId)
+                    .granularity(granularity)
+                    .bucketStart(bucketStart)
+                    .sampleCount(count)
+                    .minQuantity(min)
+                    .maxQuantity(max)
+                    .avgQuantity(sum / count)
+                    .firstQuantity(first)
+                    .lastQuantity(last)
+                    .consumed(consumed)
+                    .build();
+        }
+    }
+}
@@ -1,20 +1,45 @@
 package com.groceryautomation.service.impl;
 
+import com.groceryautomation.dto.request.BulkThresholdUpdateRequest;
+import com.groceryautomation.dto.request.ThresholdUpdateRequest;
+import com.groceryautomation.dto.response.AggregatedInventoryItemResponse;
+import com.groceryautomation.dto.response.AggregatedInventoryResponse;
+import com.groceryautomation.dto.response.BulkThresholdUpdateResponse;
 import com.groceryautomation.dto.response.CurrentInventoryResponse;
 import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.dto.response.InventoryStatusTransitionResponse;
+import com.groceryautomation.dto.response.ItemForecastResponse;
 import com.groceryautomation.entity.Device;
 import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.InventorySummary;
+import com.groceryautomation.enums.InventoryChangeType;
 import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.event.InventoryItemChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
 import com.groceryautomation.repository.DeviceRepository;
 import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.service.ConsumptionForecaster;
+import com.groceryautomation.service.DeviceLivenessTracker;
+import com.groceryautomation.service.InventoryReadCache;
 import com.groceryautomation.service.InventoryService;
+import com.groceryautomation.service.InventoryStateStore;
+import com.groceryautomation.service.InventorySummaryService;
+import com.groceryautomation.util.RequestCoalescer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,12 +48,51 @@ import java.util.stream.Collectors;
 @Transactional
 public class InventoryServiceImpl implements InventoryService {
     
+    private static final String THRESHOLD_TARGETS_SQL =
+            "SELECT i.id, i.device_id, d.user_id, g.default_threshold FROM inventory_items i " +
+            "JOIN devices d ON d.id = i.device_id JOIN grocery_items g ON g.id = i.grocery_item_id ";
+    
+    // Status rule of InventoryItem.statusFor, evaluated by the database for every row
+    private static final String UPDATE_THRESHOLD_SQL =
+            "UPDATE inventory_items SET threshold_quantity = ?, status = CASE " +
+            "WHEN quantity = 0 THEN 'OUT_OF_STOCK' WHEN quantity <= ? * 0.5 THEN 'CRITICAL' " +
+            "WHEN quantity <= ? THEN 'LOW' ELSE 'SUFFICIENT' END, last_updated = ? WHERE id IN ";
+    
+    private static final int MAX_IDS_PER_STATEMENT = 500;
+    
     private final InventoryItemRepository inventoryItemRepository;
     private final DeviceRepository deviceRepository;
+    private final InventoryStateStore inventoryStateStore;
+    private final ConsumptionForecaster consumptionForecaster;
+    private final DeviceLivenessTracker deviceLivenessTracker;
+    private final RequestCoalescer<String, Void> inventorySyncCoalescer;
+    private final InventorySummaryService inventorySummaryService;
+    private final InventoryReadCache inventoryReadCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Polled views are answered from the read cache, which runs misses in a read-only transaction,
+    // so a hit does not open a transaction here
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CurrentInventoryResponse getCurrentInventory(Long userId) {
+        return inventoryReadCache.getCurrentInventory(userId, () -> loadCurrentInventory(userId));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AggregatedInventoryResponse getAggregatedInventory(Long userId) {
+        return inventoryReadCache.getAggregatedInventory(userId, () -> loadAggregatedInventory(userId));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<InventoryItemResponse> getInventoryAlerts(Long userId) {
+        return inventoryReadCache.getAlerts(userId, () -> loadInventoryAlerts(userId));
+    }
+    
+    private CurrentInventoryResponse loadCurrentInventory(Long userId) {
         // For POC, we'll get the first active device for the user
         List<Device> userDevices = deviceRepository.findByUserIdAndActive(userId, true);
         
@@ -44,28 +108,121 @@ public class InventoryServiceImpl implements InventoryService {
         }
         
         Device device = userDevices.get(0); // Get first device for POC
-        List<InventoryItem> inventoryItems = inventoryItemRepository.findByDeviceId(device.getId());
+        List<InventoryItemResponse> itemResponses = inventoryItemRepository.findResponsesByDeviceId(device.getId());
+        
+        // Counts come from the maintained summary; counting the items is only a fallback
+        // for a device whose summary has not been built yet
+        InventorySummary summary = inventorySummaryService.getDeviceSummary(device.getId()).orElse(null);
+        return toCurrentInventory(device, itemResponses, summary);
+    }
+    
+    private AggregatedInventoryResponse loadAggregatedInventory(Long userId) {
+        List<Device> userDevices = deviceRepository.findByUserIdAndActive(userId, true);
+        
+        if (userDevices.isEmpty()) {
+            log.warn("No active devices found for user: {}", userId);
+            return AggregatedInventoryResponse.builder()
+                    .userId(userId)
+                    .items(List.of())
+                    .devices(List.of())
+                    .build();
+        }
         
-        List<InventoryItemResponse> itemResponses = inventoryItems.stream()
-                .map(this::mapToInventoryItemResponse)
+        // Every device is read by one query, so latency does not grow with the device count
+        List<InventoryItemResponse> allItems = inventoryItemRepository.findResponsesByDeviceIdIn(
+                userDevices.stream().map(Device::getId).collect(Collectors.toList()));
+        Map<String, List<InventoryItemResponse>> itemsByDevice = allItems.stream()
+                .collect(Collectors.groupingBy(InventoryItemResponse::getDeviceId));
+        
+        List<CurrentInventoryResponse> devices = userDevices.stream()
+                .map(device -> toCurrentInventory(device, 
+                        itemsByDevice.getOrDefault(device.getDeviceId(), List.of()), null))
                 .collect(Collectors.toList());
         
-        int lowStockCount = (int) inventoryItems.stream()
-                .filter(item -> item.getStatus() == InventoryStatus.LOW || 
-                               item.getStatus() == InventoryStatus.CRITICAL)
-                .count();
+        Map<Long, AggregatedInventoryItemResponse> merged = new LinkedHashMap<>();
+        for (InventoryItemResponse item : allItems) {
+            mergeInto(merged, item);
+        }
+        List<AggregatedInventoryItemResponse> items = new ArrayList<>(merged.values());
+        
+        return AggregatedInventoryResponse.builder()
+                .userId(userId)
+                .deviceCount(userDevices.size())
+                .onlineDevices((int) userDevices.stream().filter(Device::isOnline).count())
+                .items(items)
+                .devices(devices)
+                .totalItems(items.size())
+                .lowStockItems((int) items.stream()
+                        .filter(item -> item.getStatus() == InventoryStatus.LOW || 
+                                       item.getStatus() == InventoryStatus.CRITICAL)
+                        .count())
+                .outOfStockItems((int) items.stream()
+                        .filter(item -> item.getStatus() == InventoryStatus.OUT_OF_STOCK)
+                        .count())
+                .build();
+    }
+    
+    private List<InventoryItemResponse> loadInventoryAlerts(Long userId) {
+        List<InventoryStatus> alertStatuses = Arrays.asList(
+                InventoryStatus.LOW, 
+                InventoryStatus.CRITICAL, 
+                InventoryStatus.OUT_OF_STOCK
+        );
+        
+        return inventoryItemRepository.findResponsesByUserIdAndStatusIn(userId, alertStatuses);
+    }
+    
+    private void mergeInto(Map<Long, AggregatedInventoryItemResponse> merged, InventoryItemResponse item) {
+        AggregatedInventoryItemResponse aggregate = merged.computeIfAbsent(item.getItemId(), 
+                itemId -> AggregatedInventoryItemResponse.builder()
+                        .itemId(itemId)
+                        .name(item.getName())
+                        .category(item.getCategory())
+                        .unit(item.getUnit())
+                        .imageUrl(item.getImageUrl())
+                        .totalQuantity(0.0)
+                        .totalThresholdQuantity(0.0)
+                        .status(InventoryStatus.SUFFICIENT)
+                        .deviceIds(new ArrayList<>())
+                        .build());
         
-        int outOfStockCount = (int) inventoryItems.stream()
-                .filter(item -> item.getStatus() == InventoryStatus.OUT_OF_STOCK)
-                .count();
+        aggregate.setTotalQuantity(aggregate.getTotalQuantity() + item.getQuantity());
+        aggregate.setTotalThresholdQuantity(aggregate.getTotalThresholdQuantity() + item.getThresholdQuantity());
+        // Statuses are declared from best to worst
+        if (item.getStatus().compareTo(aggregate.getStatus()) > 0) {
+            aggregate.setStatus(item.getStatus());
+        }
+        if (item.getLastUpdated() != null && 
+                (aggregate.getLastUpdated() == null || item.getLastUpdated().isAfter(aggregate.getLastUpdated()))) {
+            aggregate.setLastUpdated(item.getLastUpdated());
+        }
+        aggregate.getDeviceIds().add(item.getDeviceId());
+    }
+    
+    private CurrentInventoryResponse toCurrentInventory(Device device, List<InventoryItemResponse> itemResponses, 
+                                                        InventorySummary summary) {
+        int lowStockCount;
+        int outOfStockCount;
+        if (summary != null) {
+            lowStockCount = summary.getLowItems() + summary.getCriticalItems();
+            outOfStockCount = summary.getOutOfStockItems();
+        } else {
+            lowStockCount = (int) itemResponses.stream()
+                    .filter(item -> item.getStatus() == InventoryStatus.LOW || 
+                                   item.getStatus() == InventoryStatus.CRITICAL)
+                    .count();
+            outOfStockCount = (int) itemResponses.stream()
+                    .filter(item -> item.getStatus() == InventoryStatus.OUT_OF_STOCK)
+                    .count();
+        }
         
         return CurrentInventoryResponse.builder()
                 .deviceId(device.getDeviceId())
                 .deviceName(device.getName())
                 .deviceOnline(device.isOnline())
-                .lastSync(device.getLastSync())
+                .lastSync(deviceLivenessTracker.getLastSeen(device))
                 .items(itemResponses)
-                .totalItems(inventoryItems.size())
+                .totalItems(summary != null ? summary.getTotalItems() : itemResponses.size())
                 .lowStockItems(lowStockCount)
                 .outOfStockItems(outOfStockCount)
                 .build();
@@ -79,26 +236,10 @@ public class InventoryServiceImpl implements InventoryService {
         return mapToInventoryItemResponse(item);
     }
     
-    @Override
-    @Transactional(readOnly = true)
-    public List<InventoryItemResponse> getInventoryAlerts(Long userId) {
-        List<InventoryStatus> alertStatuses = Arrays.asList(
-                InventoryStatus.LOW, 
-                InventoryStatus.CRITICAL, 
-                InventoryStatus.OUT_OF_STOCK
-        );
-        
-        return inventoryItemRepository.findByUserIdAndStatusIn(userId, alertStatuses).stream()
-                .map(this::mapToInventoryItemResponse)
-                .collect(Collectors.toList());
-    }
-    
     @Override
     @Transactional(readOnly = true)
     public List<InventoryItemResponse> getInventoryByStatus(Long userId, InventoryStatus status) {
-        return inventoryItemRepository.findByUserIdAndStatusIn(userId, List.of(status)).stream()
-                .map(this::mapToInventoryItemResponse)
-                .collect(Collectors.toList());
+        return inventoryItemRepository.findResponsesByUserIdAndStatusIn(userId, List.of(status));
     }
     
     @Override
@@ -110,22 +251,193 @@ public class InventoryServiceImpl implements InventoryService {
         item.updateStatus(); // Recalculate status based on new threshold
         
         InventoryItem updatedItem = inventoryItemRepository.save(item);
+        inventoryStateStore.updateThreshold(inventoryItemId, newThreshold);
         log.info("Updated threshold for item {} to {}", inventoryItemId, newThreshold);
         
         return mapToInventoryItemResponse(updatedItem);
     }
     
     @Override
-    public void syncInventory(String deviceId) {
-        Device device = deviceRepository.findByDeviceId(deviceId)
-                .orElseThrow(() -> new RuntimeException("Device not found: " + deviceId));
+    public BulkThresholdUpdateResponse updateThresholds(BulkThresholdUpdateRequest request) {
+        Map<Long, ThresholdTarget> targets = findThresholdTargets(request);
+        
+        // Locks the rows, so the statuses reported below are the ones the UPDATEs compute
+        Map<Long, ThresholdTarget> changed = new LinkedHashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(targets.keySet()))) {
+            jdbcTemplate.query("SELECT id, quantity, threshold_quantity, status FROM inventory_items WHERE id IN "
+                    + placeholders(chunk.size()) + " FOR UPDATE", rs -> {
+                ThresholdTarget target = targets.get(rs.getLong(1));
+                if (rs.getDouble(3) != target.threshold) {
+                    target.quantity = rs.getDouble(2);
+                    target.status = InventoryStatus.valueOf(rs.getString(4));
+                    changed.put(target.itemId, target);
+                }
+            }, chunk.toArray());
+        }
+        
+        // One set-based UPDATE per distinct threshold, which is a single statement for a category rule
+        Map<Double, List<Long>> idsByThreshold = changed.values().stream()
+                .collect(Collectors.groupingBy(target -> target.threshold, LinkedHashMap::new,
+                        Collectors.mapping(target -> target.itemId, Collectors.toList())));
+        LocalDateTime now = LocalDateTime.now();
+        idsByThreshold.forEach((threshold, ids) -> {
+            for (List<Long> chunk : chunks(ids)) {
+                List<Object> args = new ArrayList<>(List.of(threshold, threshold, threshold, now));
+                args.addAll(chunk);
+                jdbcTemplate.update(UPDATE_THRESHOLD_SQL + placeholders(chunk.size()), args.toArray());
+            }
+        });
         
-        // In a real implementation, this would sync with actual sensor data
-        // For POC, we'll just update the last sync time
-        device.setLastSync(java.time.LocalDateTime.now());
-        deviceRepository.save(device);
+        // The UPDATEs bypass the entity listener, so its events are published here
+        List<InventoryStatusTransitionResponse> transitions = new ArrayList<>();
+        for (ThresholdTarget target : changed.values()) {
+            InventoryStatus status = InventoryItem.statusFor(target.quantity, target.threshold);
+            if (status != target.status) {
+                eventPublisher.publishEvent(new InventoryStatusChangedEvent(
+                        target.itemId, target.deviceId, target.userId, target.status, status));
+                transitions.add(InventoryStatusTransitionResponse.builder()
+                        .itemId(target.itemId)
+                        .deviceId(target.deviceId)
+                        .from(target.status)
+                        .to(status)
+                        .build());
+            }
+            eventPublisher.publishEvent(new InventoryItemChangedEvent(
+                    target.itemId, target.deviceId, target.userId, InventoryChangeType.UPDATED));
+            inventoryStateStore.updateThreshold(target.itemId, target.threshold);
+        }
+        
+        List<Long> missingItemIds = request.getItems() == null ? List.of() : request.getItems().stream()
+                .map(ThresholdUpdateRequest::getItemId)
+                .filter(itemId -> !targets.containsKey(itemId))
+                .distinct()
+                .collect(Collectors.toList());
+        log.info("Bulk threshold update: {} items matched, {} updated, {} status transitions",
+                targets.size(), changed.size(), transitions.size());
+        return BulkThresholdUpdateResponse.builder()
+                .matched(targets.size())
+                .updated(changed.size())
+                .transitions(transitions)
+                .missingItemIds(missingItemIds)
+                .build();
+    }
+    
+    private Map<Long, ThresholdTarget> findThresholdTargets(BulkThresholdUpdateRequest request) {
+        boolean byItems = request.getItems() != null && !request.getItems().isEmpty();
+        boolean byCategory = request.getCategory() != null && !request.getCategory().isBlank();
+        if (byItems == byCategory) {
+            throw new RuntimeException("Provide either items or a category rule");
+        }
+        if (byCategory && request.getUserId() == null) {
+            throw new RuntimeException("A category rule needs a user ID");
+        }
+        
+        Map<Long, ThresholdTarget> targets = new LinkedHashMap<>();
+        if (byCategory) {
+            if (request.getThreshold() != null && request.getThreshold() < 0) {
+                throw new RuntimeException("Threshold must be zero or positive");
+            }
+            // Without a threshold each item goes back to its grocery item's default
+            jdbcTemplate.query(THRESHOLD_TARGETS_SQL + "WHERE d.user_id = ? AND g.category = ?", rs -> {
+                double threshold = request.getThreshold() != null ? request.getThreshold() : rs.getDouble(4);
+                targets.put(rs.getLong(1), new ThresholdTarget(rs.getLong(1), rs.getLong(2), rs.getLong(3), threshold));
+            }, request.getUserId(), request.getCategory());
+            return targets;
+        }
+        
+        // A repeated item takes its last threshold
+        Map<Long, Double> requested = new LinkedHashMap<>();
+        for (ThresholdUpdateRequest item : request.getItems()) {
+            if (item.getItemId() == null || item.getThreshold() == null || item.getThreshold() < 0) {
+                throw new RuntimeException("Each item needs an ID and a threshold of zero or more");
+            }
+            requested.put(item.getItemId(), item.getThreshold());
+        }
+        for (List<Long> chunk : chunks(new ArrayList<>(requested.keySet()))) {
+            jdbcTemplate.query(THRESHOLD_TARGETS_SQL + "WHERE i.id IN " + placeholders(chunk.size()), rs -> {
+                long itemId = rs.getLong(1);
+                targets.put(itemId, new ThresholdTarget(itemId, rs.getLong(2), rs.getLong(3), requested.get(itemId)));
+            }, chunk.toArray());
+        }
+        return targets;
+    }
+    
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT)));
+        }
+        return chunks;
+    }
+    
+    private static String placeholders(int count) {
+        return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+    
+    /**
+     * An item selected for a bulk threshold update; quantity and status are read under the row lock.
+     */
+    private static final class ThresholdTarget {
+        private final long itemId;
+        private final long deviceId;
+        private final long userId;
+        private final double threshold;
+        private double quantity;
+        private InventoryStatus status;
         
-        log.info("Inventory synced for device: {}", deviceId);
+        private ThresholdTarget(long itemId, long deviceId, long userId, double threshold) {
+            this.itemId = itemId;
+            this.deviceId = deviceId;
+            this.userId = userId;
+            this.threshold = threshold;
+        }
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void syncInventory(String deviceId) {
+        // Concurrent and rapid repeat syncs for a device share one execution; callers that
+        // only wait on it do not hold a transaction or connection meanwhile
+        inventorySyncCoalescer.execute(deviceId, () -> {
+            Device device = deviceRepository.findByDeviceId(deviceId)
+                    .orElseThrow(() -> new RuntimeException("Device not found: " + deviceId));
+            
+            // In a real implementation, this would sync with actual sensor data
+            // For POC, we just record the heartbeat; last sync is persisted on liveness transitions
+            deviceLivenessTracker.heartbeat(device);
+            
+            log.info("Inventory synced for device: {}", deviceId);
+            return null;
+        });
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemForecastResponse> getConsumptionForecast(Long userId) {
+        // One query for the user's items; each forecast is a constant-time lookup
+        return inventoryItemRepository.findByUserIdWithGroceryItem(userId).stream()
+                .map(this::mapToForecastResponse)
+                .collect(Collectors.toList());
+    }
+    
+    private ItemForecastResponse mapToForecastResponse(InventoryItem item) {
+        double quantity = inventoryStateStore.isEnabled() 
+                ? inventoryStateStore.currentQuantity(item) 
+                : item.getQuantity();
+        ConsumptionForecaster.Forecast forecast = consumptionForecaster.forecast(item, quantity);
+        return ItemForecastResponse.builder()
+                .inventoryItemId(item.getId())
+                .name(item.getGroceryItem().getName())
+                .unit(item.getGroceryItem().getUnit())
+                .quantity(quantity)
+                .status(InventoryItem.statusFor(quantity, item.getThresholdQuantity()))
+                .expirationDate(item.getExpirationDate())
+                .dailyConsumptionRate(forecast.dailyRate())
+                .rateStdDev(forecast.rateStdDev())
+                .daysUntilEmpty(forecast.daysUntilEmpty())
+                .suggestedQuantity(forecast.suggestedQuantity())
+                .samples(forecast.samples())
+                .build();
     }
     
     private InventoryItemResponse mapToInventoryItemResponse(InventoryItem item) {
@@ -141,6 +453,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .lastUpdated(item.getLastUpdated())
                 .expirationDate(item.getExpirationDate())
                 .imageUrl(item.getGroceryItem().getImageUrl())
+                .deviceId(item.getDevice().getDeviceId())
                 .build();
     }
 } 
\ No newline at end of file
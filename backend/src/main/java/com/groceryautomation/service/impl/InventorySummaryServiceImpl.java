@@ -0,0 +1,175 @@
+package com.groceryautomation.service.impl;
+
+import com.groceryautomation.dto.response.InventorySummaryResponse;
+import com.groceryautomation.entity.InventorySummary;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.event.InventoryItemCountChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.repository.InventorySummaryRepository;
+import com.groceryautomation.service.InventorySummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps inventory_summaries in step with inventory item statuses.
+ *
+ * Transitions are applied as relative increments with plain SQL in the transaction that
+ * changed the item, so concurrent writers never overwrite each other's counts and nothing is
+ * lazily loaded while Hibernate is flushing. Summaries are only recounted in full at startup
+ * when the table is empty, so a cold start does not scan the whole inventory; any device whose
+ * summary row was missing is recounted by a periodic repair.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class InventorySummaryServiceImpl implements InventorySummaryService {
+
+    private static final String APPLY_DELTAS_SQL =
+            "UPDATE inventory_summaries SET total_items = total_items + ?, low_items = low_items + ?, " +
+            "critical_items = critical_items + ?, out_of_stock_items = out_of_stock_items + ?, last_change = ? " +
+            "WHERE device_id = ?";
+
+    private static final String RECOUNT_SQL =
+            "INSERT INTO inventory_summaries " +
+            "(device_id, user_id, total_items, low_items, critical_items, out_of_stock_items, last_change) " +
+            "SELECT d.id, d.user_id, COUNT(i.id), " +
+            "COALESCE(SUM(CASE WHEN i.status = 'LOW' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN i.status = 'CRITICAL' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN i.status = 'OUT_OF_STOCK' THEN 1 ELSE 0 END), 0), " +
+            "MAX(i.last_updated) " +
+            "FROM devices d LEFT JOIN inventory_items i ON i.device_id = d.id ";
+
+    private final InventorySummaryRepository inventorySummaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Devices whose summary row was missing when a change arrived; recounted by repairStaleSummaries
+    private final Set<Long> staleDevices = ConcurrentHashMap.newKeySet();
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventorySummaryResponse getUserSummary(Long userId) {
+        // One row per device, so this is independent of how many items the user has
+        List<InventorySummary> summaries = inventorySummaryRepository.findByUserId(userId);
+
+        int total = 0;
+        int low = 0;
+        int critical = 0;
+        int outOfStock = 0;
+        LocalDateTime lastChange = null;
+        for (InventorySummary summary : summaries) {
+            total += summary.getTotalItems();
+            low += summary.getLowItems();
+            critical += summary.getCriticalItems();
+            outOfStock += summary.getOutOfStockItems();
+            if (summary.getLastChange() != null && (lastChange == null || summary.getLastChange().isAfter(lastChange))) {
+                lastChange = summary.getLastChange();
+            }
+        }
+
+        return InventorySummaryResponse.builder()
+                .userId(userId)
+                .deviceCount(summaries.size())
+                .totalItems(total)
+                .lowItems(low)
+                .criticalItems(critical)
+                .outOfStockItems(outOfStock)
+                .alertItems(low + critical + outOfStock)
+                .lastChange(lastChange)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<InventorySummary> getDeviceSummary(Long deviceId) {
+        return inventorySummaryRepository.findById(deviceId);
+    }
+
+    @Override
+    public void initializeDevice(Long deviceId, Long userId) {
+        inventorySummaryRepository.save(InventorySummary.builder()
+                .deviceId(deviceId)
+                .userId(userId)
+                .build());
+    }
+
+    @Override
+    public void applyTransition(InventoryStatusChangedEvent event) {
+        int[] deltas = new int[4];
+        addStatus(deltas, event.from(), -1);
+        addStatus(deltas, event.to(), 1);
+        applyDeltas(event.deviceId(), deltas);
+    }
+
+    @Override
+    public void applyItemCountChange(InventoryItemCountChangedEvent event) {
+        int[] deltas = new int[4];
+        deltas[0] = event.delta();
+        addStatus(deltas, event.status(), event.delta());
+        applyDeltas(event.deviceId(), deltas);
+    }
+
+    private void applyDeltas(Long deviceId, int[] deltas) {
+        int updated = jdbcTemplate.update(APPLY_DELTAS_SQL,
+                deltas[0], deltas[1], deltas[2], deltas[3], LocalDateTime.now(), deviceId);
+        // Recounting here could miss item updates still queued in Hibernate's JDBC batch
+        if (updated == 0 && staleDevices.add(deviceId)) {
+            log.warn("No inventory summary for device {}, scheduling a recount", deviceId);
+        }
+    }
+
+    // Counter layout: total, low, critical, out of stock
+    private static void addStatus(int[] deltas, InventoryStatus status, int delta) {
+        switch (status) {
+            case LOW -> deltas[1] += delta;
+            case CRITICAL -> deltas[2] += delta;
+            case OUT_OF_STOCK -> deltas[3] += delta;
+            default -> {
+                // SUFFICIENT only counts towards the total
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeSummaries() {
+        if (jdbcTemplate.queryForList("SELECT device_id FROM inventory_summaries LIMIT 1", Long.class).isEmpty()) {
+            rebuildAll();
+        }
+    }
+
+    @Override
+    public void rebuildAll() {
+        staleDevices.clear();
+        jdbcTemplate.update("DELETE FROM inventory_summaries");
+        int devices = jdbcTemplate.update(RECOUNT_SQL + "GROUP BY d.id, d.user_id");
+        log.info("Rebuilt inventory summaries for {} devices", devices);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.summary.repair-interval-ms:60000}")
+    public void repairStaleSummaries() {
+        if (staleDevices.isEmpty()) {
+            return;
+        }
+
+        List<Long> deviceIds = new ArrayList<>(staleDevices);
+        for (Long deviceId : deviceIds) {
+            staleDevices.remove(deviceId);
+            jdbcTemplate.update("DELETE FROM inventory_summaries WHERE device_id = ?", deviceId);
+            jdbcTemplate.update(RECOUNT_SQL + "WHERE d.id = ? GROUP BY d.id, d.user_id", deviceId);
+        }
+        log.info("Recounted inventory summaries for {} devices", deviceIds.size());
+    }
+}
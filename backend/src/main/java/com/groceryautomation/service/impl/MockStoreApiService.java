@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -25,6 +26,9 @@ public class MockStoreApiService implements StoreApiService {
     
     private final StoreRepository storeRepository;
     
+    // External order ID by idempotency key, as a store would remember them
+    private final Map<String, String> submittedOrders = new ConcurrentHashMap<>();
+    
     // Mock price variations to simulate real-world scenarios
     private static final double PRICE_VARIATION_PERCENT = 0.15; // ±15% price variation
     private static final double SALE_PROBABILITY = 0.3; // 30% chance of sale
@@ -46,7 +50,12 @@ public class MockStoreApiService implements StoreApiService {
     }
     
     @Override
-    public String submitOrder(Order order) {
+    public String submitOrder(Order order, String idempotencyKey) {
+        String existing = submittedOrders.get(idempotencyKey);
+        if (existing != null) {
+            log.info("Order {} already submitted under {}, returning {}", order.getOrderNumber(), idempotencyKey, existing);
+            return existing;
+        }
         log.info("Submitting order {} to store {}", order.getOrderNumber(), order.getStore().getName());
         
         // Simulate API processing time
@@ -57,7 +66,8 @@ public class MockStoreApiService implements StoreApiService {
         }
         
         // Generate external order ID
-        String externalOrderId = "EXT-" + order.getStore().getId() + "-" + System.currentTimeMillis();
+        String externalOrderId = submittedOrders.computeIfAbsent(idempotencyKey,
+                key -> "EXT-" + order.getStore().getId() + "-" + System.currentTimeMillis());
         log.info("Order submitted successfully. External ID: {}", externalOrderId);
         
         return externalOrderId;
@@ -74,6 +84,30 @@ public class MockStoreApiService implements StoreApiService {
         return statuses[randomIndex];
     }
     
+    @Override
+    public Map<String, String> checkOrderStatuses(Long storeId, List<String> externalOrderIds) {
+        log.info("Checking {} order statuses at store {}", externalOrderIds.size(), storeId);
+        
+        // Simulate one round trip for the whole batch
+        try {
+            Thread.sleep(50 + ThreadLocalRandom.current().nextInt(100));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        String[] statuses = {"CONFIRMED", "IN_PROGRESS", "OUT_FOR_DELIVERY", "DELIVERED"};
+        Map<String, String> result = new HashMap<>();
+        for (String externalOrderId : externalOrderIds) {
+            result.put(externalOrderId, statuses[ThreadLocalRandom.current().nextInt(statuses.length)]);
+        }
+        return result;
+    }
+    
+    @Override
+    public int maxOrderStatusBatchSize(Long storeId) {
+        return Integer.MAX_VALUE;
+    }
+    
     @Override
     public List<ProductPrice> searchProducts(Long storeId, String searchTerm) {
         log.info("Searching for '{}' at store {}", searchTerm, storeId);
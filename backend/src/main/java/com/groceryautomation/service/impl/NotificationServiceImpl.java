@@ -0,0 +1,149 @@
+package com.groceryautomation.service.impl;
+
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.Notification;
+import com.groceryautomation.entity.Order;
+import com.groceryautomation.entity.User;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.enums.NotificationType;
+import com.groceryautomation.repository.NotificationRepository;
+import com.groceryautomation.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class NotificationServiceImpl implements NotificationService {
+    
+    private final NotificationRepository notificationRepository;
+    
+    @Override
+    public void notifyLowInventory(User user, List<InventoryItem> lowItems) {
+        if (lowItems.isEmpty()) {
+            return;
+        }
+        
+        boolean anyOutOfStock = lowItems.stream()
+                .anyMatch(item -> item.getStatus() == InventoryStatus.OUT_OF_STOCK);
+        NotificationType type = anyOutOfStock ? NotificationType.OUT_OF_STOCK : NotificationType.LOW_INVENTORY;
+        
+        String itemNames = lowItems.stream()
+                .map(item -> item.getGroceryItem().getName())
+                .collect(Collectors.joining(", "));
+        
+        // A single item links straight to it; several items link to nothing in particular
+        Long relatedId = lowItems.size() == 1 ? lowItems.get(0).getId() : null;
+        createNotification(user, type, type.getTitle(), type.getDefaultMessage() + ": " + itemNames,
+                relatedId != null ? "INVENTORY_ITEM" : null, relatedId);
+    }
+    
+    @Override
+    public void notifyDraftOrderCreated(User user, Order draftOrder) {
+        createNotification(user, NotificationType.DRAFT_ORDER_CREATED,
+                NotificationType.DRAFT_ORDER_CREATED.getTitle(),
+                String.format("Order %s is ready for your review (estimated total $%.2f)",
+                        draftOrder.getOrderNumber(), draftOrder.getTotalAmount()),
+                "ORDER", draftOrder.getId());
+    }
+    
+    @Override
+    public void notifyPriceChanges(User user, Order order, List<String> changedItems) {
+        createNotification(user, NotificationType.PRICE_CHANGE, NotificationType.PRICE_CHANGE.getTitle(),
+                "Prices changed for: " + String.join(", ", changedItems), "ORDER", order.getId());
+    }
+    
+    @Override
+    public void notifyOrderConfirmed(User user, Order order) {
+        createNotification(user, NotificationType.ORDER_CONFIRMED, NotificationType.ORDER_CONFIRMED.getTitle(),
+                "Order " + order.getOrderNumber() + " has been confirmed by the store", "ORDER", order.getId());
+    }
+    
+    @Override
+    public void notifyOrderDelivered(User user, Order order) {
+        createNotification(user, NotificationType.ORDER_DELIVERED, NotificationType.ORDER_DELIVERED.getTitle(),
+                "Order " + order.getOrderNumber() + " has been delivered", "ORDER", order.getId());
+    }
+    
+    @Override
+    public Notification createNotification(User user, NotificationType type, String title, String message,
+                                           String relatedEntityType, Long relatedEntityId) {
+        Notification notification = Notification.builder()
+                .user(user)
+                .type(type.name())
+                .title(title)
+                .message(message)
+                .relatedEntityType(relatedEntityType)
+                .relatedEntityId(relatedEntityId)
+                .build();
+        
+        Notification saved = notificationRepository.save(notification);
+        log.info("Created {} notification for user {}", type, user.getId());
+        return saved;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Notification> getUserNotifications(Long userId) {
+        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Notification> getUnreadNotifications(Long userId) {
+        return notificationRepository.findByUserIdAndReadFalseOrderByCreatedAtDesc(userId);
+    }
+    
+    @Override
+    public void markAsRead(Long notificationId) {
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification not found: " + notificationId));
+        notification.markAsRead();
+        notificationRepository.save(notification);
+    }
+    
+    @Override
+    public void markAllAsRead(Long userId) {
+        List<Notification> unread = notificationRepository.findByUserIdAndReadFalseOrderByCreatedAtDesc(userId);
+        unread.forEach(Notification::markAsRead);
+        notificationRepository.saveAll(unread);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Long getUnreadCount(Long userId) {
+        return notificationRepository.countUnreadByUserId(userId);
+    }
+    
+    @Override
+    public void deleteOldNotifications(int daysToKeep) {
+        List<Notification> old = notificationRepository.findOlderThan(LocalDateTime.now().minusDays(daysToKeep));
+        notificationRepository.deleteAll(old);
+        log.info("Deleted {} notifications older than {} days", old.size(), daysToKeep);
+    }
+    
+    @Override
+    public void sendEmailNotification(Notification notification) {
+        // For POC, no mail provider is configured; record the send so it is not retried
+        notification.setEmailSent(true);
+        notification.setEmailSentAt(LocalDateTime.now());
+        notificationRepository.save(notification);
+        log.info("Email notification {} sent (mock)", notification.getId());
+    }
+    
+    @Override
+    public void sendSmsNotification(Notification notification) {
+        // For POC, no SMS provider is configured; record the send so it is not retried
+        notification.setSmsSent(true);
+        notification.setSmsSentAt(LocalDateTime.now());
+        notificationRepository.save(notification);
+        log.info("SMS notification {} sent (mock)", notification.getId());
+    }
+}
@@ -0,0 +1,558 @@
+package com.groceryautomation.service.impl;
+
+import com.groceryautomation.config.AsyncConfig;
+import com.groceryautomation.dto.ProductPrice;
+import com.groceryautomation.entity.GroceryItem;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.Order;
+import com.groceryautomation.entity.OrderItem;
+import com.groceryautomation.entity.Store;
+import com.groceryautomation.entity.User;
+import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.repository.GroceryItemRepository;
+import com.groceryautomation.repository.OrderItemRepository;
+import com.groceryautomation.repository.OrderRepository;
+import com.groceryautomation.repository.UserRepository;
+import com.groceryautomation.service.ConsumptionForecaster;
+import com.groceryautomation.service.InventoryStateStore;
+import com.groceryautomation.service.NotificationService;
+import com.groceryautomation.service.OrderManagementService;
+import com.groceryautomation.service.OrderSubmissionService;
+import com.groceryautomation.service.StoreApiService;
+import com.groceryautomation.service.StoreSelectionStrategy;
+import com.groceryautomation.service.StoreSelectionStrategy.StoreSelection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@Transactional
+public class OrderManagementServiceImpl implements OrderManagementService {
+
+    private static final String INSERT_ORDER_ITEM_SQL =
+            "INSERT INTO order_items (order_id, grocery_item_id, quantity, price, price_at_creation, current_price, " +
+            "original_quantity, user_removed, price_changed, quantity_modified, subtotal, notes) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, FALSE, FALSE, ?, ?)";
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final GroceryItemRepository groceryItemRepository;
+    private final UserRepository userRepository;
+    private final StoreSelectionStrategy storeSelectionStrategy;
+    private final StoreApiService storeApiService;
+    private final OrderSubmissionService orderSubmissionService;
+    private final NotificationService notificationService;
+    private final ConsumptionForecaster consumptionForecaster;
+    private final InventoryStateStore inventoryStateStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor storeApiExecutor;
+    private final long storeApiTimeoutMillis;
+
+    public OrderManagementServiceImpl(OrderRepository orderRepository,
+                                      OrderItemRepository orderItemRepository,
+                                      GroceryItemRepository groceryItemRepository,
+                                      UserRepository userRepository,
+                                      StoreSelectionStrategy storeSelectionStrategy,
+                                      StoreApiService storeApiService,
+                                      OrderSubmissionService orderSubmissionService,
+                                      NotificationService notificationService,
+                                      ConsumptionForecaster consumptionForecaster,
+                                      InventoryStateStore inventoryStateStore,
+                                      JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      @Qualifier(AsyncConfig.STORE_API_EXECUTOR) TaskExecutor storeApiExecutor,
+                                      @Value("${store-api.timeout-ms:5000}") long storeApiTimeoutMillis) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.groceryItemRepository = groceryItemRepository;
+        this.userRepository = userRepository;
+        this.storeSelectionStrategy = storeSelectionStrategy;
+        this.storeApiService = storeApiService;
+        this.orderSubmissionService = orderSubmissionService;
+        this.notificationService = notificationService;
+        this.consumptionForecaster = consumptionForecaster;
+        this.inventoryStateStore = inventoryStateStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.storeApiExecutor = storeApiExecutor;
+        this.storeApiTimeoutMillis = storeApiTimeoutMillis;
+    }
+
+    /**
+     * Plans the drafts in a short read-only transaction, prices them with no transaction open, then
+     * writes them in a transaction of their own, so no connection is held while the stores answer.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Order createDraftOrder(User user, List<InventoryItem> lowInventoryItems) {
+        DraftPlan plan = readOnlyTransaction.execute(status -> planDrafts(user, lowInventoryItems));
+        // One price request per store, all stores in flight at once
+        Map<Long, Map<String, ProductPrice>> pricesByStore = fetchPricesByStore(plan.skusByStore());
+        return transactionTemplate.execute(status -> writeDrafts(plan, pricesByStore));
+    }
+
+    private DraftPlan planDrafts(User user, List<InventoryItem> lowInventoryItems) {
+        // Callers such as event listeners pass a detached user; its stores are loaded here
+        User owner = userRepository.findById(user.getId())
+                .orElseThrow(() -> new RuntimeException("User not found: " + user.getId()));
+
+        Map<Long, InventoryItem> itemsByGroceryId = new LinkedHashMap<>();
+        for (InventoryItem item : lowInventoryItems) {
+            itemsByGroceryId.putIfAbsent(item.getGroceryItem().getId(), item);
+        }
+        List<GroceryItem> groceryItems = itemsByGroceryId.values().stream()
+                .map(InventoryItem::getGroceryItem)
+                .collect(Collectors.toList());
+
+        List<StoreSelection> selections = storeSelectionStrategy.selectStoresForItems(owner, groceryItems);
+        if (selections.isEmpty()) {
+            throw new RuntimeException("No active store to order from for user: " + owner.getEmail());
+        }
+
+        Map<Long, List<String>> skusByStore = new LinkedHashMap<>();
+        Map<Long, Double> quantities = new HashMap<>();
+        for (StoreSelection selection : selections) {
+            skusByStore.put(selection.getStore().getId(), selection.getItems().stream()
+                    .map(GroceryItem::getSku)
+                    .collect(Collectors.toList()));
+            for (GroceryItem groceryItem : selection.getItems()) {
+                quantities.computeIfAbsent(groceryItem.getId(),
+                        id -> calculateSuggestedQuantity(itemsByGroceryId.get(id)));
+            }
+        }
+        return new DraftPlan(owner, selections, skusByStore, quantities);
+    }
+
+    private Order writeDrafts(DraftPlan plan, Map<Long, Map<String, ProductPrice>> pricesByStore) {
+        User owner = plan.owner();
+        // Two events for the same user would otherwise both find no open draft and each start one
+        userRepository.findByIdForUpdate(owner.getId())
+                .orElseThrow(() -> new RuntimeException("User not found: " + owner.getId()));
+        // New items join the user's open draft for the store rather than starting another one; read
+        // here rather than with the plan, so a draft written while the stores answered is found
+        Map<Long, Order> openDrafts = new HashMap<>();
+        for (Order draft : orderRepository.findOpenDraftOrders(owner.getId(), plan.skusByStore().keySet())) {
+            openDrafts.putIfAbsent(draft.getStore().getId(), draft);
+        }
+
+        // Keyed by id: Lombok's hashCode on Order walks its items and back again
+        Map<Long, Order> draftsById = new LinkedHashMap<>();
+        Map<Long, List<OrderItem>> newItemsByOrderId = new HashMap<>();
+        Order unchanged = null;
+        boolean unpriced = false;
+        for (StoreSelection selection : plan.selections()) {
+            Store store = selection.getStore();
+            Order order = openDrafts.get(store.getId());
+            Set<Long> alreadyOrdered = order == null ? Set.of() : order.getItems().stream()
+                    .map(orderItem -> orderItem.getGroceryItem().getId())
+                    .collect(Collectors.toSet());
+
+            Map<String, ProductPrice> prices = pricesByStore.getOrDefault(store.getId(), Map.of());
+            List<OrderItem> newItems = new ArrayList<>();
+            for (GroceryItem groceryItem : selection.getItems()) {
+                if (alreadyOrdered.contains(groceryItem.getId())) {
+                    continue;
+                }
+                ProductPrice price = prices.get(groceryItem.getSku());
+                if (price == null || price.getEffectivePrice() == null || price.getEffectivePrice() <= 0) {
+                    log.warn("No price for {} at store {}, leaving it out of the draft", groceryItem.getSku(), store.getId());
+                    unpriced = true;
+                    continue;
+                }
+                double quantity = plan.quantities().get(groceryItem.getId());
+                newItems.add(OrderItem.builder()
+                        .groceryItem(groceryItem)
+                        .quantity(quantity)
+                        .price(price.getEffectivePrice())
+                        .priceAtCreation(price.getEffectivePrice())
+                        .currentPrice(price.getEffectivePrice())
+                        .originalQuantity(quantity)
+                        .notes(price.isInStock() ? null : "Out of stock at " + store.getName())
+                        .build());
+            }
+            if (newItems.isEmpty()) {
+                if (unchanged == null) {
+                    unchanged = order;
+                }
+                continue;
+            }
+
+            if (order == null) {
+                order = Order.builder()
+                        .orderNumber("DRAFT-" + UUID.randomUUID().toString().substring(0, 13).toUpperCase())
+                        .user(owner)
+                        .store(store)
+                        .status(OrderStatus.DRAFT)
+                        .deliveryFee(store.getDeliveryFee() != null ? store.getDeliveryFee() : 0.0)
+                        .draftCreatedAt(LocalDateTime.now())
+                        .deliveryAddress(owner.getAddress())
+                        .build();
+            }
+            // Totals are set up front: the items are written after the order and attached afterwards
+            double subtotal = newItems.stream().mapToDouble(item -> item.getQuantity() * item.getPrice()).sum()
+                    + order.getItems().stream().mapToDouble(item -> item.getQuantity() * item.getPrice()).sum();
+            order.applySubtotal(subtotal);
+            if (order.getEstimatedTotal() == null) {
+                order.setEstimatedTotal(order.getTotalAmount());
+            }
+            Order saved = orderRepository.save(order);
+            draftsById.put(saved.getId(), saved);
+            newItemsByOrderId.put(saved.getId(), newItems);
+        }
+
+        if (draftsById.isEmpty() && unchanged != null && !unpriced) {
+            // Every item is on an open draft already, as after a repeated or further degrading event
+            log.debug("Items of user {} are already on draft {}", owner.getEmail(), unchanged.getOrderNumber());
+            return unchanged;
+        }
+        if (draftsById.isEmpty()) {
+            throw new RuntimeException("No prices available for any item of user: " + owner.getEmail());
+        }
+
+        insertOrderItems(draftsById, newItemsByOrderId);
+
+        log.info("Drafted {} items for user {} across {} stores",
+                newItemsByOrderId.values().stream().mapToInt(List::size).sum(), owner.getEmail(), draftsById.size());
+        return draftsById.values().iterator().next();
+    }
+
+    /**
+     * Reads the order, asks its store for current prices with no transaction open, then applies
+     * them to the order as it is when the answer arrives.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Order refreshPrices(Long orderId) {
+        PricingTarget target = readOnlyTransaction.execute(status -> {
+            Order order = findModifiableOrder(orderId);
+            return new PricingTarget(order.getStore().getId(), skusOf(order));
+        });
+        Map<String, ProductPrice> prices = target.skus().isEmpty()
+                ? Map.of()
+                : storeApiService.fetchPrices(target.storeId(), target.skus());
+
+        return transactionTemplate.execute(status -> {
+            Order order = findModifiableOrder(orderId);
+            List<String> changed = applyPrices(order, prices, true);
+            if (!changed.isEmpty()) {
+                notificationService.notifyPriceChanges(order.getUser(), order, changed);
+            }
+            return orderRepository.save(order);
+        });
+    }
+
+    @Override
+    public Order removeItems(Long orderId, List<Long> orderItemIds) {
+        Order order = findModifiableOrder(orderId);
+        Set<Long> ids = Set.copyOf(orderItemIds);
+        List<OrderItem> removed = order.getItems().stream()
+                .filter(item -> ids.contains(item.getId()))
+                .collect(Collectors.toList());
+        if (removed.isEmpty()) {
+            return order;
+        }
+
+        order.getItems().removeIf(item -> ids.contains(item.getId()));
+        orderItemRepository.deleteAllInBatch(removed);
+        order.setStatus(OrderStatus.USER_MODIFIED);
+        order.calculateTotals();
+        return orderRepository.save(order);
+    }
+
+    @Override
+    public Order updateItemQuantity(Long orderId, Long orderItemId, Double newQuantity) {
+        if (newQuantity == null || newQuantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+        Order order = findModifiableOrder(orderId);
+        OrderItem item = order.getItems().stream()
+                .filter(orderItem -> orderItem.getId().equals(orderItemId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Order item not found: " + orderItemId));
+
+        item.setQuantity(newQuantity);
+        item.setQuantityModified(!newQuantity.equals(item.getOriginalQuantity()));
+        item.calculateSubtotal();
+        order.setStatus(OrderStatus.USER_MODIFIED);
+        order.calculateTotals();
+        return orderRepository.save(order);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Order addItem(Long orderId, Long groceryItemId, Double quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+        Long storeId = readOnlyTransaction.execute(status -> findModifiableOrder(orderId).getStore().getId());
+        GroceryItem groceryItem = groceryItemRepository.findById(groceryItemId)
+                .orElseThrow(() -> new RuntimeException("Grocery item not found: " + groceryItemId));
+
+        // Priced with no transaction open; the order is read again to add the item
+        ProductPrice price = storeApiService.fetchPrices(storeId, List.of(groceryItem.getSku()))
+                .get(groceryItem.getSku());
+        if (price == null || price.getEffectivePrice() == null || price.getEffectivePrice() <= 0) {
+            throw new RuntimeException("Store has no price for: " + groceryItem.getName());
+        }
+
+        return transactionTemplate.execute(status -> {
+            Order order = findModifiableOrder(orderId);
+            order.getItems().add(OrderItem.builder()
+                    .order(order)
+                    .groceryItem(groceryItem)
+                    .quantity(quantity)
+                    .price(price.getEffectivePrice())
+                    .priceAtCreation(price.getEffectivePrice())
+                    .currentPrice(price.getEffectivePrice())
+                    .originalQuantity(quantity)
+                    .build());
+            order.setStatus(OrderStatus.USER_MODIFIED);
+            order.calculateTotals();
+            return orderRepository.save(order);
+        });
+    }
+
+    @Override
+    public Order submitOrder(Long orderId) {
+        // The store is called by the submission workers; the order carries its external ID once they have
+        orderSubmissionService.submitOrder(orderId);
+        return orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> getUserDraftOrders(Long userId) {
+        return orderRepository.findDraftOrdersByUserId(userId);
+    }
+
+    /**
+     * Like {@link #refreshPrices(Long)}, the store is asked with no transaction open, but current
+     * prices are only recorded next to the agreed ones without changing what the user pays.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Order getOrderWithPriceComparison(Long orderId) {
+        PricingTarget target = readOnlyTransaction.execute(status -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+            return order.getStatus().isModifiable() ? new PricingTarget(order.getStore().getId(), skusOf(order)) : null;
+        });
+        Map<String, ProductPrice> prices = target == null || target.skus().isEmpty()
+                ? Map.of()
+                : storeApiService.fetchPrices(target.storeId(), target.skus());
+
+        return transactionTemplate.execute(status -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+            if (!prices.isEmpty() && order.getStatus().isModifiable()) {
+                applyPrices(order, prices, false);
+            }
+            return order;
+        });
+    }
+
+    @Override
+    public void cancelOrder(Long orderId, String reason) {
+        Order order = findModifiableOrder(orderId);
+        order.setStatus(OrderStatus.CANCELLED);
+        orderRepository.save(order);
+        log.info("Cancelled order {}: {}", order.getOrderNumber(), reason);
+    }
+
+    /**
+     * Reads the order, asks its store for the status with no transaction open, then applies it
+     * unless the order moved on in the meantime.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Order updateOrderStatus(Long orderId) {
+        Order read = readOnlyTransaction.execute(status -> orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId)));
+        if (read.getExternalOrderId() == null || read.getStatus().isFinalState()) {
+            return read;
+        }
+
+        OrderStatus reported;
+        try {
+            reported = OrderStatus.valueOf(storeApiService.checkOrderStatus(read.getStore().getId(), read.getExternalOrderId()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Store reported an unknown status for order {}", read.getOrderNumber());
+            return read;
+        }
+        if (reported == read.getStatus()) {
+            return read;
+        }
+
+        return transactionTemplate.execute(status -> {
+            Order order = orderRepository.findByIdForUpdate(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+            if (order.getStatus() != read.getStatus()) {
+                // Changed by someone else while the store answered; their status stands
+                return order;
+            }
+            // The owner is notified from the outbox once the new status commits
+            order.setStatus(reported);
+            if (reported == OrderStatus.DELIVERED) {
+                order.setActualDeliveryTime(LocalDateTime.now());
+            }
+            return orderRepository.save(order);
+        });
+    }
+
+    @Override
+    public Double calculateSuggestedQuantity(InventoryItem inventoryItem) {
+        double quantity = inventoryStateStore.isEnabled()
+                ? inventoryStateStore.currentQuantity(inventoryItem)
+                : inventoryItem.getQuantity();
+        // Orders are placed in whole units, at least one of anything that was drafted
+        return Math.max(1.0, consumptionForecaster.forecast(inventoryItem, quantity).suggestedQuantity());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> getOrderHistory(Long userId, String includeStatus) {
+        if (includeStatus == null || includeStatus.isBlank()) {
+            return orderRepository.findOrderHistoryByUserId(userId);
+        }
+        try {
+            return orderRepository.findByUserIdAndStatus(userId, OrderStatus.valueOf(includeStatus.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid order status: " + includeStatus);
+        }
+    }
+
+    private Order findModifiableOrder(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        if (!order.getStatus().isModifiable()) {
+            throw new RuntimeException("Order " + order.getOrderNumber() + " can no longer be changed: " + order.getStatus());
+        }
+        return order;
+    }
+
+    private static List<String> skusOf(Order order) {
+        return order.getItems().stream()
+                .map(item -> item.getGroceryItem().getSku())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records the current prices on the order's items.
+     *
+     * @param reprice whether items take the current price, rather than only recording it
+     * @return names of the items whose price moved since the draft was created
+     */
+    private static List<String> applyPrices(Order order, Map<String, ProductPrice> prices, boolean reprice) {
+        List<String> changed = new ArrayList<>();
+        for (OrderItem item : order.getItems()) {
+            ProductPrice price = prices.get(item.getGroceryItem().getSku());
+            if (price == null || price.getEffectivePrice() == null || price.getEffectivePrice() <= 0) {
+                continue;
+            }
+            double current = price.getEffectivePrice();
+            boolean moved = item.getPriceAtCreation() != null && Math.abs(current - item.getPriceAtCreation()) > 0.005;
+            if (moved && (item.getCurrentPrice() == null || Math.abs(current - item.getCurrentPrice()) > 0.005)) {
+                changed.add(item.getGroceryItem().getName());
+            }
+            item.setCurrentPrice(current);
+            item.setPriceChanged(moved);
+            if (reprice) {
+                item.setPrice(current);
+                item.calculateSubtotal();
+            }
+        }
+        if (reprice) {
+            order.calculateTotals();
+        }
+        return changed;
+    }
+
+    /**
+     * Fetches each store's prices with a single call, running the stores concurrently. A store
+     * that fails or does not answer in time contributes no prices rather than failing the rest.
+     */
+    private Map<Long, Map<String, ProductPrice>> fetchPricesByStore(Map<Long, List<String>> skusByStore) {
+        Map<Long, CompletableFuture<Map<String, ProductPrice>>> requests = new LinkedHashMap<>();
+        skusByStore.forEach((storeId, skus) -> requests.put(storeId, CompletableFuture.supplyAsync(
+                () -> storeApiService.fetchPrices(storeId, skus), storeApiExecutor)));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(storeApiTimeoutMillis);
+        Map<Long, Map<String, ProductPrice>> pricesByStore = new HashMap<>();
+        for (Map.Entry<Long, CompletableFuture<Map<String, ProductPrice>>> request : requests.entrySet()) {
+            try {
+                pricesByStore.put(request.getKey(), request.getValue()
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                request.getValue().cancel(true);
+                log.warn("Store {} did not return prices within {} ms", request.getKey(), storeApiTimeoutMillis);
+            } catch (ExecutionException e) {
+                log.warn("Failed to fetch prices from store {}", request.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while fetching store prices", e);
+            }
+        }
+        return pricesByStore;
+    }
+
+    /**
+     * Writes every new item of every order in one JDBC batch (IDENTITY keys keep Hibernate from
+     * batching the inserts), then attaches the stored rows to their orders.
+     */
+    private void insertOrderItems(Map<Long, Order> ordersById, Map<Long, List<OrderItem>> newItemsByOrderId) {
+        List<Object[]> rows = new ArrayList<>();
+        newItemsByOrderId.forEach((orderId, items) -> {
+            for (OrderItem item : items) {
+                rows.add(new Object[]{orderId, item.getGroceryItem().getId(), item.getQuantity(), item.getPrice(),
+                        item.getPriceAtCreation(), item.getCurrentPrice(), item.getOriginalQuantity(),
+                        item.getQuantity() * item.getPrice(), item.getNotes()});
+            }
+        });
+        // The orders' own inserts and updates must reach the database first
+        orderRepository.flush();
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM_SQL, rows);
+
+        Map<Long, List<OrderItem>> stored = orderItemRepository.findByOrderIdIn(ordersById.keySet()).stream()
+                .collect(Collectors.groupingBy(item -> item.getOrder().getId()));
+        for (Order order : ordersById.values()) {
+            Set<Long> attached = order.getItems().stream().map(OrderItem::getId).collect(Collectors.toSet());
+            stored.getOrDefault(order.getId(), List.of()).stream()
+                    .filter(item -> !attached.contains(item.getId()))
+                    .forEach(order.getItems()::add);
+        }
+    }
+
+    private record DraftPlan(User owner, List<StoreSelection> selections, Map<Long, List<String>> skusByStore,
+                             Map<Long, Double> quantities) {
+    }
+
+    private record PricingTarget(Long storeId, List<String> skus) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.groceryautomation.service.impl;
+
+import com.groceryautomation.entity.Order;
+import com.groceryautomation.entity.OrderSubmissionJob;
+import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.event.OrderSubmissionRequestedEvent;
+import com.groceryautomation.repository.OrderRepository;
+import com.groceryautomation.repository.OrderSubmissionJobRepository;
+import com.groceryautomation.service.OrderSubmissionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class OrderSubmissionServiceImpl implements OrderSubmissionService {
+    
+    private final OrderRepository orderRepository;
+    private final OrderSubmissionJobRepository jobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Override
+    public OrderSubmissionJob submitOrder(Long orderId) {
+        // Locked so a second approval waits for this one and then finds the order submitted
+        Order order = orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        if (!order.getStatus().isModifiable()) {
+            throw new RuntimeException("Order " + order.getOrderNumber() + " can no longer be changed: " + order.getStatus());
+        }
+        if (order.getItems().isEmpty()) {
+            throw new RuntimeException("Cannot submit an empty order: " + order.getOrderNumber());
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        order.setStatus(OrderStatus.SUBMITTED);
+        order.setUserReviewedAt(now);
+        order.setSubmittedAt(now);
+        order.setFinalTotal(order.getTotalAmount());
+        orderRepository.save(order);
+        
+        OrderSubmissionJob job = jobRepository.save(OrderSubmissionJob.builder()
+                .orderId(order.getId())
+                .storeId(order.getStore().getId())
+                .build());
+        eventPublisher.publishEvent(new OrderSubmissionRequestedEvent(job.getId(), order.getId(), job.getStoreId()));
+        
+        log.info("Order {} approved, queued as submission job {}", order.getOrderNumber(), job.getId());
+        return job;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<OrderSubmissionJob> getJob(Long jobId) {
+        return jobRepository.findById(jobId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<OrderSubmissionJob> getLatestJobForOrder(Long orderId) {
+        return jobRepository.findFirstByOrderIdOrderByIdDesc(orderId);
+    }
+}
@@ -0,0 +1,248 @@
+package com.groceryautomation.service.impl;
+
+import com.groceryautomation.codec.SensorFrame;
+import com.groceryautomation.dto.request.SensorReadingBatchRequest;
+import com.groceryautomation.dto.request.SensorReadingRequest;
+import com.groceryautomation.dto.response.SensorReadingBatchResponse;
+import com.groceryautomation.dto.response.SensorReadingResult;
+import com.groceryautomation.entity.Device;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.InventoryReading;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.enums.ReadingOutcome;
+import com.groceryautomation.repository.DeviceRepository;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.service.ConsumptionForecaster;
+import com.groceryautomation.service.DeviceLivenessTracker;
+import com.groceryautomation.service.InventoryHistoryService;
+import com.groceryautomation.service.InventoryStateStore;
+import com.groceryautomation.service.SensorIngestionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SensorIngestionServiceImpl implements SensorIngestionService {
+    
+    private final DeviceRepository deviceRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final InventoryStateStore inventoryStateStore;
+    private final InventoryHistoryService inventoryHistoryService;
+    private final ConsumptionForecaster consumptionForecaster;
+    private final DeviceLivenessTracker deviceLivenessTracker;
+    
+    @Override
+    public SensorReadingBatchResponse ingestReadings(String deviceId, SensorReadingBatchRequest request) {
+        LocalDateTime receivedAt = LocalDateTime.now();
+        return ingest(deviceId, new RequestReadings(request.getReadings(), toEpochMillis(receivedAt)), receivedAt);
+    }
+    
+    @Override
+    public SensorReadingBatchResponse ingestFrame(String deviceId, SensorFrame frame) {
+        return ingest(deviceId, new FrameReadings(frame), LocalDateTime.now());
+    }
+    
+    private SensorReadingBatchResponse ingest(String deviceId, Readings readings, LocalDateTime receivedAt) {
+        Device device = deviceRepository.findByDeviceId(deviceId)
+                .orElseThrow(() -> new RuntimeException("Device not found: " + deviceId));
+        
+        if (!device.isActive()) {
+            throw new RuntimeException("Device is not active: " + deviceId);
+        }
+        
+        int count = readings.size();
+        
+        // Load the whole device inventory once instead of one lookup per reading
+        Map<Long, InventoryItem> itemsByGroceryItemId = new HashMap<>();
+        for (InventoryItem item : inventoryItemRepository.findByDeviceIdWithGroceryItem(device.getId())) {
+            itemsByGroceryItemId.put(item.getGroceryItem().getId(), item);
+        }
+        
+        // When a frame reports the same item more than once, only the newest reading is applied
+        Map<Long, Integer> latestReadingIndex = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Integer current = latestReadingIndex.get(readings.groceryItemId(i));
+            if (current == null || readings.capturedAtMillis(current) <= readings.capturedAtMillis(i)) {
+                latestReadingIndex.put(readings.groceryItemId(i), i);
+            }
+        }
+        
+        // With the write-behind store enabled, quantities are absorbed in memory and flushed later
+        boolean writeBehind = inventoryStateStore.isEnabled();
+        
+        List<SensorReadingResult> results = new ArrayList<>(count);
+        List<InventoryItem> changedItems = new ArrayList<>();
+        List<InventoryReading> history = new ArrayList<>(count);
+        int applied = 0;
+        int rejected = 0;
+        
+        for (int i = 0; i < count; i++) {
+            long groceryItemId = readings.groceryItemId(i);
+            double quantity = readings.quantity(i);
+            InventoryItem item = itemsByGroceryItemId.get(groceryItemId);
+            
+            if (item == null) {
+                rejected++;
+                results.add(SensorReadingResult.builder()
+                        .groceryItemId(groceryItemId)
+                        .outcome(ReadingOutcome.UNKNOWN_ITEM)
+                        .quantity(quantity)
+                        .build());
+                continue;
+            }
+            
+            // Every matched reading goes into the history, including ones superseded within this batch
+            history.add(InventoryReading.builder()
+                    .inventoryItemId(item.getId())
+                    .deviceId(device.getId())
+                    .quantity(quantity)
+                    .recordedAt(toLocalDateTime(readings.capturedAtMillis(i)))
+                    .build());
+            consumptionForecaster.observe(item.getId(), quantity, readings.capturedAtMillis(i));
+            
+            double previousQuantity = writeBehind ? inventoryStateStore.currentQuantity(item) : item.getQuantity();
+            InventoryStatus previousStatus = writeBehind 
+                    ? InventoryItem.statusFor(previousQuantity, item.getThresholdQuantity()) 
+                    : item.getStatus();
+            InventoryStatus status = previousStatus;
+            ReadingOutcome outcome;
+            
+            if (latestReadingIndex.get(groceryItemId) != i) {
+                outcome = ReadingOutcome.SUPERSEDED;
+            } else if (previousQuantity == quantity) {
+                outcome = ReadingOutcome.UNCHANGED;
+            } else if (writeBehind) {
+                status = inventoryStateStore.applyQuantity(item, quantity).status();
+                outcome = ReadingOutcome.APPLIED;
+                applied++;
+            } else {
+                item.setQuantity(quantity);
+                item.updateStatus(); // Recompute in memory so the response reflects the new status
+                changedItems.add(item);
+                status = item.getStatus();
+                outcome = ReadingOutcome.APPLIED;
+                applied++;
+            }
+            
+            results.add(SensorReadingResult.builder()
+                    .groceryItemId(groceryItemId)
+                    .inventoryItemId(item.getId())
+                    .outcome(outcome)
+                    .previousQuantity(previousQuantity)
+                    .quantity(outcome == ReadingOutcome.APPLIED ? quantity : previousQuantity)
+                    .previousStatus(previousStatus)
+                    .status(status)
+                    .build());
+        }
+        
+        // Written as JDBC batches on flush (see hibernate.jdbc.batch_size)
+        if (!changedItems.isEmpty()) {
+            inventoryItemRepository.saveAll(changedItems);
+        }
+        inventoryHistoryService.recordReadings(history);
+        
+        deviceLivenessTracker.heartbeat(device);
+        
+        log.info("Ingested {} readings for device {}: {} applied, {} rejected", 
+                count, deviceId, applied, rejected);
+        
+        return SensorReadingBatchResponse.builder()
+                .deviceId(deviceId)
+                .received(count)
+                .applied(applied)
+                .rejected(rejected)
+                .results(results)
+                .processedAt(receivedAt)
+                .build();
+    }
+    
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+    
+    /**
+     * Index-based access to a batch of readings, so JSON requests and binary frames
+     * share one ingestion loop without converting frames into request objects.
+     */
+    private interface Readings {
+        int size();
+        long groceryItemId(int index);
+        double quantity(int index);
+        long capturedAtMillis(int index);
+    }
+    
+    private static final class RequestReadings implements Readings {
+        private final List<SensorReadingRequest> readings;
+        private final long receivedAtMillis;
+        
+        private RequestReadings(List<SensorReadingRequest> readings, long receivedAtMillis) {
+            this.readings = readings;
+            this.receivedAtMillis = receivedAtMillis;
+        }
+        
+        @Override
+        public int size() {
+            return readings.size();
+        }
+        
+        @Override
+        public long groceryItemId(int index) {
+            return readings.get(index).getGroceryItemId();
+        }
+        
+        @Override
+        public double quantity(int index) {
+            return readings.get(index).getQuantity();
+        }
+        
+        @Override
+        public long capturedAtMillis(int index) {
+            LocalDateTime timestamp = readings.get(index).getTimestamp();
+            return timestamp != null ? toEpochMillis(timestamp) : receivedAtMillis;
+        }
+    }
+    
+    private static final class FrameReadings implements Readings {
+        private final SensorFrame frame;
+        
+        private FrameReadings(SensorFrame frame) {
+            this.frame = frame;
+        }
+        
+        @Override
+        public int size() {
+            return frame.size();
+        }
+        
+        @Override
+        public long groceryItemId(int index) {
+            return frame.groceryItemId(index);
+        }
+        
+        @Override
+        public double quantity(int index) {
+            return frame.quantity(index);
+        }
+        
+        @Override
+        public long capturedAtMillis(int index) {
+            return frame.timestampMillis(index);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.groceryautomation.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Position of a poller following an append-only table by ID, such as the inventory change log or
+ * the outbox. Every instance polls the table itself, so rows written by any instance reach the
+ * clients connected to each of them.
+ *
+ * IDs are assigned at insert rather than at commit, so a row can become visible after rows with
+ * higher IDs. Each poll reads the rows above the highest ID read so far, and every ID below it
+ * that has not appeared is kept as a gap and queried again by ID, until it appears or has been
+ * missing for longer than the commit lag. Rows are therefore read once, instead of the whole lag
+ * window on every poll. A row whose transaction takes longer than the lag to commit is missed, as
+ * is an ID that was never used, which simply ages out.
+ *
+ * Not thread-safe: owned by a single poller.
+ */
+public class LogTail {
+
+    private final long commitLagMillis;
+    private long readUpTo;
+    // Missing ID -> epoch millis it was first found missing
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+    // IDs above readUpTo returned since the last advance
+    private final Set<Long> read = new HashSet<>();
+
+    public LogTail(long head, long commitLagMillis, long now) {
+        this.commitLagMillis = commitLagMillis;
+        this.readUpTo = head;
+    }
+
+    /**
+     * Rows not read yet have an ID above this one, or are among the {@link #getGaps() gaps}.
+     */
+    public long getReadUpTo() {
+        return readUpTo;
+    }
+
+    /**
+     * Every row at or below this ID has been read or given up on.
+     */
+    public long getFloor() {
+        return gaps.isEmpty() ? readUpTo : gaps.firstKey() - 1;
+    }
+
+    /**
+     * IDs below {@link #getReadUpTo()} that were not visible yet, in ascending order.
+     */
+    public Collection<Long> getGaps() {
+        return Collections.unmodifiableSet(gaps.keySet());
+    }
+
+    /**
+     * @return true the first time a row is read, false when it was returned by an earlier read
+     */
+    public boolean accept(long id) {
+        if (id > readUpTo) {
+            return read.add(id);
+        }
+        return gaps.remove(id) != null;
+    }
+
+    /**
+     * Records that every row visible up to the given head has been read: IDs up to it that were
+     * not returned become gaps, and gaps older than the commit lag are given up on.
+     */
+    public void advance(long head, long now) {
+        long lagStart = now - commitLagMillis;
+        gaps.values().removeIf(missingSince -> missingSince < lagStart);
+        for (long id = readUpTo + 1; id <= head; id++) {
+            if (!read.contains(id)) {
+                gaps.put(id, now);
+            }
+        }
+        read.clear();
+        readUpTo = Math.max(readUpTo, head);
+    }
+}
@@ -0,0 +1,95 @@
+package com.groceryautomation.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from positive long keys to int values.
+ * 
+ * Keys and values live in two flat primitive arrays, so lookups neither box the
+ * key nor allocate entry objects. Key 0 marks an empty slot, which is safe for
+ * database identifiers. Not thread-safe; callers guard it with their own lock.
+ */
+public class LongIntHashMap {
+    
+    private static final int MISSING = -1;
+    
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+    
+    /**
+     * @return the value mapped to the key, or -1 when absent
+     */
+    public int get(long key) {
+        checkKey(key);
+        int index = indexFor(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return MISSING;
+    }
+    
+    public void put(long key, int value) {
+        checkKey(key);
+        int index = indexFor(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = indexFor(oldKeys[i]);
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+    }
+    
+    private int indexFor(long key) {
+        // Fibonacci hashing spreads sequential IDs across the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+    
+    private static void checkKey(long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.groceryautomation.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Spaces out calls to a fixed rate.
+ *
+ * Every permit reserves the next free slot, one interval after the previous one, so callers
+ * queue up behind each other rather than competing. An idle limiter does not save up permits:
+ * after a pause the next call goes straight through and the spacing starts again from there.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private long nextFreeNanos;
+
+    public RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    public RateLimiter(double permitsPerSecond, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nanoClock = nanoClock;
+        this.nextFreeNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Reserves a permit without waiting.
+     *
+     * @return how long the caller has to wait before using it, in nanoseconds
+     */
+    public synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        long waitNanos = Math.max(0, nextFreeNanos - now);
+        nextFreeNanos = Math.max(nextFreeNanos, now) + intervalNanos;
+        return waitNanos;
+    }
+
+    /**
+     * Waits for a permit.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.groceryautomation.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Collapses repeated requests for the same key into one execution.
+ *
+ * The first caller for a key runs the action on its own thread; callers arriving while it runs
+ * get the same future. After a successful run, further requests within the minimum interval
+ * are answered with that result instead of running again. Failures are not remembered, so the
+ * next request after a failure runs the action again.
+ */
+public class RequestCoalescer<K, V> {
+
+    private final long minIntervalMillis;
+    private final LongSupplier clock;
+    private final Map<K, Slot<V>> slots = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    public RequestCoalescer(long minIntervalMillis) {
+        this(minIntervalMillis, System::currentTimeMillis);
+    }
+
+    public RequestCoalescer(long minIntervalMillis, LongSupplier clock) {
+        this.minIntervalMillis = minIntervalMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the action for the key unless a run is in flight or finished within the minimum
+     * interval, in which case that run's future is returned.
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> action) {
+        Slot<V> slot = slots.computeIfAbsent(key, k -> new Slot<>());
+        CompletableFuture<V> future;
+        synchronized (slot) {
+            if (slot.inFlight != null) {
+                coalesced.increment();
+                return slot.inFlight;
+            }
+            if (slot.lastResult != null && clock.getAsLong() - slot.completedAt < minIntervalMillis) {
+                throttled.increment();
+                return slot.lastResult;
+            }
+            future = new CompletableFuture<>();
+            slot.inFlight = future;
+        }
+
+        executions.increment();
+        try {
+            V value = action.get();
+            synchronized (slot) {
+                slot.inFlight = null;
+                slot.lastResult = future;
+                slot.completedAt = clock.getAsLong();
+            }
+            future.complete(value);
+        } catch (Throwable e) {
+            synchronized (slot) {
+                slot.inFlight = null;
+                // Keys that never succeeded (e.g. unknown devices) are not kept around
+                if (slot.lastResult == null) {
+                    slots.remove(key, slot);
+                }
+            }
+            future.completeExceptionally(e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Blocking variant of {@link #submit} that rethrows the action's runtime exception as is.
+     */
+    public V execute(K key, Supplier<V> action) {
+        try {
+            return submit(key, action).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    private static final class Slot<V> {
+        private CompletableFuture<V> inFlight;
+        private CompletableFuture<V> lastResult;
+        private long completedAt;
+    }
+}
@@ -0,0 +1,84 @@
+package com.groceryautomation.util;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process fan-out of events to per-user subscribers, such as GraphQL subscriptions.
+ *
+ * Each user with at least one subscriber has one multicast sink, so an event is published once
+ * however many subscribers the user has, and users without subscribers cost a map lookup.
+ *
+ * Subscribers are delivered to on the given scheduler, so a slow client blocks neither the
+ * publisher nor the other subscribers. Each has a bounded buffer; one that falls further behind is
+ * detached and, once it has drained that buffer, terminated with an overflow error.
+ */
+public class UserEventHub<T> {
+
+    private final int bufferSize;
+    private final Scheduler scheduler;
+    private final Map<Long, Topic<T>> topics = new ConcurrentHashMap<>();
+
+    public UserEventHub(int bufferSize) {
+        this(bufferSize, Schedulers.boundedElastic());
+    }
+
+    public UserEventHub(int bufferSize, Scheduler scheduler) {
+        this.bufferSize = bufferSize;
+        this.scheduler = scheduler;
+    }
+
+    public Flux<T> subscribe(Long userId) {
+        return Flux.defer(() -> {
+                    // Counted inside compute() so release() cannot drop the topic in between
+                    Topic<T> topic = topics.compute(userId, (id, existing) -> {
+                        Topic<T> current = existing != null ? existing : new Topic<>();
+                        current.subscribers++;
+                        return current;
+                    });
+                    return topic.sink.asFlux()
+                            .onBackpressureBuffer(bufferSize)
+                            .publishOn(scheduler, 1)
+                            .doFinally(signal -> release(userId));
+                });
+    }
+
+    private void release(Long userId) {
+        topics.computeIfPresent(userId, (id, topic) -> --topic.subscribers == 0 ? null : topic);
+    }
+
+    public boolean hasSubscribers(Long userId) {
+        return topics.containsKey(userId);
+    }
+
+    public boolean hasSubscribers() {
+        return !topics.isEmpty();
+    }
+
+    public void publish(Long userId, T event) {
+        Topic<T> topic = userId != null ? topics.get(userId) : null;
+        if (topic == null) {
+            return;
+        }
+        // Sinks reject concurrent emission rather than wait for it
+        synchronized (topic) {
+            topic.sink.tryEmitNext(event);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return topics.values().stream().mapToInt(topic -> topic.sink.currentSubscriberCount()).sum();
+    }
+
+    private static final class Topic<T> {
+
+        // Subscribers always have demand thanks to their own buffer, so nothing is dropped here
+        private final Sinks.Many<T> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers;
+    }
+}
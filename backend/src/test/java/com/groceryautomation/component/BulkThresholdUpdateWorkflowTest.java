@@ -0,0 +1,148 @@
+package com.groceryautomation.component;
+
+import com.groceryautomation.dto.request.BulkThresholdUpdateRequest;
+import com.groceryautomation.dto.request.ThresholdUpdateRequest;
+import com.groceryautomation.dto.response.BulkThresholdUpdateResponse;
+import com.groceryautomation.dto.response.InventoryStatusTransitionResponse;
+import com.groceryautomation.entity.GroceryItem;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Component test for bulk threshold updates: the set-based UPDATEs and their status CASE
+ * run against the real schema, and the reported transitions match what was written.
+ */
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:bulkthresholdtestdb",
+    "spring.sql.init.mode=never"
+})
+class BulkThresholdUpdateWorkflowTest extends ComponentTestBase {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private InventoryItem milk;
+    private InventoryItem eggs;
+    private InventoryItem bread;
+
+    @BeforeEach
+    void setUpInventory() {
+        milk = stock(milkItem, 1.0, 0.25);
+        eggs = stock(eggsItem, 0.5, 0.25);
+        bread = stock(breadItem, 1.0, 0.5);
+    }
+
+    @Test
+    void shouldApplyCategoryRuleAndReportTransitions() {
+        // Arrange
+        final BulkThresholdUpdateRequest request = BulkThresholdUpdateRequest.builder()
+                .userId(testUser.getId())
+                .category(milkItem.getCategory())
+                .threshold(2.0)
+                .build();
+
+        // Act
+        final BulkThresholdUpdateResponse result = inventoryService.updateThresholds(request);
+
+        // Assert: 1.0 and 0.5 are both at or below half of 2.0
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getTransitions())
+                .extracting(InventoryStatusTransitionResponse::getItemId, InventoryStatusTransitionResponse::getTo)
+                .containsExactlyInAnyOrder(
+                        tuple(milk.getId(), InventoryStatus.CRITICAL),
+                        tuple(eggs.getId(), InventoryStatus.CRITICAL));
+        assertThat(statusOf(milk)).isEqualTo("CRITICAL");
+        assertThat(statusOf(eggs)).isEqualTo("CRITICAL");
+        assertThat(statusOf(bread)).isEqualTo("SUFFICIENT");
+        assertThat(jdbcTemplate.queryForObject("SELECT threshold_quantity FROM inventory_items WHERE id = ?",
+                Double.class, bread.getId())).isEqualTo(0.5);
+    }
+
+    @Test
+    void shouldApplyItemPairsAndReportMissingItems() {
+        // Arrange
+        final BulkThresholdUpdateRequest request = BulkThresholdUpdateRequest.builder()
+                .items(List.of(
+                        new ThresholdUpdateRequest(milk.getId(), 1.0),
+                        new ThresholdUpdateRequest(bread.getId(), 0.5),
+                        new ThresholdUpdateRequest(999_999L, 1.0)))
+                .build();
+
+        // Act
+        final BulkThresholdUpdateResponse result = inventoryService.updateThresholds(request);
+
+        // Assert: bread already had 0.5, so only milk is written
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getTransitions()).singleElement()
+                .satisfies(transition -> {
+                    assertThat(transition.getItemId()).isEqualTo(milk.getId());
+                    assertThat(transition.getFrom()).isEqualTo(InventoryStatus.SUFFICIENT);
+                    assertThat(transition.getTo()).isEqualTo(InventoryStatus.LOW);
+                });
+        assertThat(result.getMissingItemIds()).containsExactly(999_999L);
+        assertThat(statusOf(milk)).isEqualTo("LOW");
+    }
+
+    @Test
+    void shouldResetCategoryToDefaultThresholdsWithoutThreshold() {
+        // Arrange
+        jdbcTemplate.update("UPDATE inventory_items SET threshold_quantity = 5.0 WHERE id = ?", milk.getId());
+        final BulkThresholdUpdateRequest request = BulkThresholdUpdateRequest.builder()
+                .userId(testUser.getId())
+                .category(milkItem.getCategory())
+                .build();
+
+        // Act
+        final BulkThresholdUpdateResponse result = inventoryService.updateThresholds(request);
+
+        // Assert
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT threshold_quantity FROM inventory_items WHERE id = ?",
+                Double.class, milk.getId())).isEqualTo(milkItem.getDefaultThreshold());
+    }
+
+    @Test
+    void shouldRejectRequestWithBothItemsAndRule() {
+        // Arrange
+        final BulkThresholdUpdateRequest request = BulkThresholdUpdateRequest.builder()
+                .items(List.of(new ThresholdUpdateRequest(milk.getId(), 1.0)))
+                .userId(testUser.getId())
+                .category("Dairy")
+                .build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> inventoryService.updateThresholds(request))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("either items or a category rule");
+    }
+
+    private InventoryItem stock(GroceryItem groceryItem, double quantity, double threshold) {
+        return inventoryItemRepository.save(InventoryItem.builder()
+                .device(testDevice)
+                .groceryItem(groceryItem)
+                .quantity(quantity)
+                .thresholdQuantity(threshold)
+                .build());
+    }
+
+    private String statusOf(InventoryItem item) {
+        return jdbcTemplate.queryForObject("SELECT status FROM inventory_items WHERE id = ?", String.class, item.getId());
+    }
+}
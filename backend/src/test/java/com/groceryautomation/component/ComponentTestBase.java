@@ -250,7 +250,7 @@ public abstract class ComponentTestBase {
 
         when(storeApiService.fetchPrices(any(), anyList())).thenReturn(mockPrices);
         when(storeApiService.isStoreApiAvailable(any())).thenReturn(true);
-        when(storeApiService.submitOrder(any())).thenReturn("EXT-ORDER-123");
+        when(storeApiService.submitOrder(any(), any())).thenReturn("EXT-ORDER-123");
         when(storeApiService.checkOrderStatus(any(), any())).thenReturn("CONFIRMED");
     }
 
@@ -0,0 +1,176 @@
+package com.groceryautomation.component;
+
+import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.entity.Device;
+import com.groceryautomation.entity.GroceryItem;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.User;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.repository.DeviceRepository;
+import com.groceryautomation.repository.GroceryItemRepository;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the entity and projection read paths for a device's inventory.
+ * Opt-in because it only reports numbers: run with {@code mvn test -Dtest=InventoryReadBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:inventorybenchmarkdb",
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class InventoryReadBenchmarkTest {
+
+    private static final int ITEM_COUNT = 2_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private GroceryItemRepository groceryItemRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+    private Long deviceId;
+
+    @BeforeEach
+    void seedInventory() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        deviceId = new TransactionTemplate(transactionManager).execute(status -> {
+            final User user = userRepository.save(User.builder()
+                    .name("Benchmark User")
+                    .email("benchmark." + System.nanoTime() + "@example.com")
+                    .password("hashedPassword123")
+                    .phone("+15551234567")
+                    .address("123 Main St, Anytown, CA 90210")
+                    .active(true)
+                    .build());
+            final Device device = deviceRepository.save(Device.builder()
+                    .deviceId("BENCH-" + System.nanoTime())
+                    .user(user)
+                    .name("Benchmark Fridge")
+                    .online(true)
+                    .lastSync(LocalDateTime.now())
+                    .build());
+
+            final List<InventoryItem> items = new ArrayList<>(ITEM_COUNT);
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                final GroceryItem groceryItem = groceryItemRepository.save(GroceryItem.builder()
+                        .name("Benchmark Item " + i)
+                        .category("Pantry")
+                        .unit("unit")
+                        .barcode("BENCH-" + device.getDeviceId() + "-" + i)
+                        .sku("BENCH-SKU-" + device.getDeviceId() + "-" + i)
+                        .defaultThreshold(1.0)
+                        .active(true)
+                        .build());
+                items.add(InventoryItem.builder()
+                        .device(device)
+                        .groceryItem(groceryItem)
+                        .quantity((double) (i % 5))
+                        .thresholdQuantity(1.0)
+                        .status(InventoryStatus.values()[i % InventoryStatus.values().length])
+                        .build());
+            }
+            inventoryItemRepository.saveAll(items);
+            return device.getId();
+        });
+    }
+
+    @Test
+    void shouldReadSameInventoryWithFewerAllocationsThroughProjection() {
+        // Arrange
+        final Supplier<List<InventoryItemResponse>> entityPath = () -> readOnlyTransaction.execute(status ->
+                inventoryItemRepository.findByDeviceId(deviceId).stream()
+                        .map(this::toResponse)
+                        .toList());
+        final Supplier<List<InventoryItemResponse>> projectionPath = () -> readOnlyTransaction.execute(status ->
+                inventoryItemRepository.findResponsesByDeviceId(deviceId));
+
+        // Act
+        final Measurement entity = measure(entityPath);
+        final Measurement projection = measure(projectionPath);
+
+        // Assert
+        log.info("Inventory read of {} items, mean of {} rounds: entity {} ms / {} bytes, projection {} ms / {} bytes",
+                ITEM_COUNT, MEASURED_ROUNDS, String.format("%.2f", entity.millis()), entity.bytes(),
+                String.format("%.2f", projection.millis()), projection.bytes());
+
+        assertThat(projectionPath.get()).hasSize(ITEM_COUNT);
+        assertThat(projectionPath.get()).containsExactlyInAnyOrderElementsOf(entityPath.get());
+        assertThat(projection.bytes()).isLessThan(entity.bytes());
+    }
+
+    private Measurement measure(Supplier<List<InventoryItemResponse>> read) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            read.get();
+        }
+
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        final long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            read.get();
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        return new Measurement(elapsed / 1_000_000.0 / MEASURED_ROUNDS, bytes / MEASURED_ROUNDS);
+    }
+
+    private InventoryItemResponse toResponse(InventoryItem item) {
+        return InventoryItemResponse.builder()
+                .id(item.getId())
+                .itemId(item.getGroceryItem().getId())
+                .name(item.getGroceryItem().getName())
+                .category(item.getGroceryItem().getCategory())
+                .unit(item.getGroceryItem().getUnit())
+                .quantity(item.getQuantity())
+                .thresholdQuantity(item.getThresholdQuantity())
+                .status(item.getStatus())
+                .lastUpdated(item.getLastUpdated())
+                .expirationDate(item.getExpirationDate())
+                .imageUrl(item.getGroceryItem().getImageUrl())
+                .deviceId(item.getDevice().getDeviceId())
+                .build();
+    }
+
+    private record Measurement(double millis, long bytes) {
+    }
+}
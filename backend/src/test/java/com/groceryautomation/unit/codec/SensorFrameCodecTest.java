@@ -0,0 +1,91 @@
+package com.groceryautomation.unit.codec;
+
+import com.groceryautomation.codec.SensorFrame;
+import com.groceryautomation.codec.SensorFrameCodec;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SensorFrameCodecTest {
+
+    private static final long BASE_TIME = 1_700_000_000_000L;
+
+    @Test
+    void shouldRoundTripReadings() {
+        // Arrange
+        final ByteBuffer encoded = SensorFrameCodec.encode(BASE_TIME,
+                new long[]{1L, 42L},
+                new double[]{0.5, 12.345},
+                new long[]{BASE_TIME, BASE_TIME + 1500});
+
+        // Act
+        final SensorFrame frame = SensorFrameCodec.decode(encoded);
+
+        // Assert
+        assertThat(frame.size()).isEqualTo(2);
+        assertThat(frame.groceryItemId(1)).isEqualTo(42L);
+        assertThat(frame.quantity(1)).isEqualTo(12.345);
+        assertThat(frame.timestampMillis(1)).isEqualTo(BASE_TIME + 1500);
+    }
+
+    @Test
+    void shouldUseFixedWidthRecords() {
+        // Act
+        final ByteBuffer encoded = SensorFrameCodec.encode(BASE_TIME,
+                new long[]{1L, 2L, 3L}, new double[]{1, 2, 3}, new long[]{BASE_TIME, BASE_TIME, BASE_TIME});
+
+        // Assert
+        assertThat(encoded.remaining()).isEqualTo(SensorFrameCodec.HEADER_SIZE + 3 * SensorFrameCodec.RECORD_SIZE);
+    }
+
+    @Test
+    void shouldRejectFrameWithBadMagic() {
+        // Arrange
+        final ByteBuffer encoded = SensorFrameCodec.encode(BASE_TIME, new long[]{1L}, new double[]{1}, new long[]{BASE_TIME});
+        encoded.putShort(0, (short) 0x1234);
+
+        // Act & Assert
+        assertThatThrownBy(() -> SensorFrameCodec.decode(encoded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("bad magic");
+    }
+
+    @Test
+    void shouldRejectUnsupportedVersion() {
+        // Arrange
+        final ByteBuffer encoded = SensorFrameCodec.encode(BASE_TIME, new long[]{1L}, new double[]{1}, new long[]{BASE_TIME});
+        encoded.put(2, (byte) 9);
+
+        // Act & Assert
+        assertThatThrownBy(() -> SensorFrameCodec.decode(encoded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported frame version");
+    }
+
+    @Test
+    void shouldRejectTruncatedFrame() {
+        // Arrange
+        final ByteBuffer encoded = SensorFrameCodec.encode(BASE_TIME, new long[]{1L, 2L}, new double[]{1, 2}, 
+                new long[]{BASE_TIME, BASE_TIME});
+        encoded.limit(encoded.limit() - 4);
+
+        // Act & Assert
+        assertThatThrownBy(() -> SensorFrameCodec.decode(encoded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not match");
+    }
+
+    @Test
+    void shouldRejectNegativeQuantity() {
+        // Arrange
+        final ByteBuffer encoded = SensorFrameCodec.encode(BASE_TIME, new long[]{1L}, new double[]{-1}, new long[]{BASE_TIME});
+
+        // Act & Assert
+        assertThatThrownBy(() -> SensorFrameCodec.decode(encoded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("zero or positive");
+    }
+}
@@ -1,10 +1,20 @@
 package com.groceryautomation.unit.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groceryautomation.codec.SensorFrame;
+import com.groceryautomation.codec.SensorFrameCodec;
 import com.groceryautomation.controller.DeviceController;
 import com.groceryautomation.dto.request.DeviceRegistrationRequest;
+import com.groceryautomation.dto.request.SensorReadingBatchRequest;
+import com.groceryautomation.dto.request.SensorReadingRequest;
 import com.groceryautomation.dto.response.DeviceResponse;
+import com.groceryautomation.dto.response.SensorReadingBatchResponse;
+import com.groceryautomation.dto.response.SensorReadingResult;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.enums.ReadingOutcome;
 import com.groceryautomation.service.DeviceService;
+import com.groceryautomation.service.SensorIngestionPipeline;
+import com.groceryautomation.service.SensorIngestionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -12,6 +22,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -33,6 +44,12 @@ class DeviceControllerTest {
     @MockBean
     private DeviceService deviceService;
 
+    @MockBean
+    private SensorIngestionService sensorIngestionService;
+
+    @MockBean
+    private SensorIngestionPipeline sensorIngestionPipeline;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -269,4 +286,132 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$.data").isArray())
                 .andExpect(jsonPath("$.data.length()").value(0));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldIngestSensorReadingsSuccessfully() throws Exception {
+        // Arrange
+        final String deviceId = "FRIDGE-001";
+        final SensorReadingBatchRequest request = SensorReadingBatchRequest.builder()
+                .readings(List.of(SensorReadingRequest.builder().groceryItemId(1L).quantity(0.2).build()))
+                .build();
+
+        final SensorReadingBatchResponse response = SensorReadingBatchResponse.builder()
+                .deviceId(deviceId)
+                .received(1)
+                .applied(1)
+                .rejected(0)
+                .results(List.of(SensorReadingResult.builder()
+                        .groceryItemId(1L)
+                        .inventoryItemId(10L)
+                        .outcome(ReadingOutcome.APPLIED)
+                        .previousQuantity(1.0)
+                        .quantity(0.2)
+                        .previousStatus(InventoryStatus.SUFFICIENT)
+                        .status(InventoryStatus.CRITICAL)
+                        .build()))
+                .build();
+
+        when(sensorIngestionService.ingestReadings(eq(deviceId), any(SensorReadingBatchRequest.class))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/devices/{deviceId}/readings", deviceId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.applied").value(1))
+                .andExpect(jsonPath("$.data.results[0].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$.data.results[0].status").value("CRITICAL"));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenReadingBatchIsEmpty() throws Exception {
+        // Arrange
+        final SensorReadingBatchRequest request = SensorReadingBatchRequest.builder()
+                .readings(List.of())
+                .build();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/devices/{deviceId}/readings", "FRIDGE-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldIngestBinaryReadingFrame() throws Exception {
+        // Arrange
+        final String deviceId = "FRIDGE-001";
+        final long now = System.currentTimeMillis();
+        final ByteBuffer frame = SensorFrameCodec.encode(now, new long[]{1L}, new double[]{0.2}, new long[]{now});
+        final byte[] body = new byte[frame.remaining()];
+        frame.get(body);
+
+        final SensorReadingBatchResponse response = SensorReadingBatchResponse.builder()
+                .deviceId(deviceId)
+                .received(1)
+                .applied(1)
+                .results(List.of())
+                .build();
+
+        when(sensorIngestionService.ingestFrame(eq(deviceId), any(SensorFrame.class))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/devices/{deviceId}/readings", deviceId)
+                .contentType(SensorFrameCodec.MEDIA_TYPE)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.applied").value(1));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenBinaryFrameMalformed() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/devices/{deviceId}/readings", "FRIDGE-001")
+                .contentType(SensorFrameCodec.MEDIA_TYPE)
+                .content(new byte[]{0x01, 0x02, 0x03}))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("Frame too short: 3 bytes"));
+    }
+
+    @Test
+    void shouldAcceptQueuedReadings() throws Exception {
+        // Arrange
+        final String deviceId = "FRIDGE-001";
+        final SensorReadingBatchRequest request = SensorReadingBatchRequest.builder()
+                .readings(List.of(SensorReadingRequest.builder().groceryItemId(1L).quantity(0.2).build()))
+                .build();
+
+        when(sensorIngestionPipeline.submitReadings(eq(deviceId), any(SensorReadingBatchRequest.class))).thenReturn(true);
+        when(sensorIngestionPipeline.getQueueDepth()).thenReturn(3);
+        when(sensorIngestionPipeline.getQueueCapacity()).thenReturn(5120);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/devices/{deviceId}/readings/async", deviceId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.deviceId").value(deviceId))
+                .andExpect(jsonPath("$.data.queueDepth").value(3));
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWhenIngestionQueueFull() throws Exception {
+        // Arrange
+        final byte[] body = new byte[]{0x01, 0x02, 0x03};
+        when(sensorIngestionPipeline.submitFrame(eq("FRIDGE-001"), any(byte[].class))).thenReturn(false);
+        when(sensorIngestionPipeline.getRetryAfterSeconds()).thenReturn(2);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/devices/{deviceId}/readings/async", "FRIDGE-001")
+                .contentType(SensorFrameCodec.MEDIA_TYPE)
+                .content(body))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("Ingestion queue is full, retry later"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.groceryautomation.unit.controller;
+
+import com.groceryautomation.controller.InventoryController;
+import com.groceryautomation.dto.response.CurrentInventoryResponse;
+import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.service.InventoryChangeService;
+import com.groceryautomation.service.InventoryHistoryService;
+import com.groceryautomation.service.InventoryPushService;
+import com.groceryautomation.service.InventoryService;
+import com.groceryautomation.service.InventorySummaryService;
+import com.groceryautomation.service.InventoryVersionTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(InventoryController.class)
+class InventoryControllerTest {
+
+    private static final String ETAG = "\"inv-test-3\"";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private InventoryService inventoryService;
+
+    @MockBean
+    private InventoryHistoryService inventoryHistoryService;
+
+    @MockBean
+    private InventorySummaryService inventorySummaryService;
+
+    @MockBean
+    private InventoryVersionTracker inventoryVersionTracker;
+
+    @MockBean
+    private InventoryChangeService inventoryChangeService;
+
+    @MockBean
+    private InventoryPushService inventoryPushService;
+
+    @Test
+    void shouldReturnInventoryWithETag() throws Exception {
+        // Arrange
+        when(inventoryVersionTracker.getETag(1L)).thenReturn(ETAG);
+        when(inventoryService.getCurrentInventory(1L)).thenReturn(CurrentInventoryResponse.builder()
+                .deviceId("FRIDGE-001")
+                .items(List.of())
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/inventory/current/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(jsonPath("$.data.deviceId").value("FRIDGE-001"));
+    }
+
+    @Test
+    void shouldAnswerMatchingETagWithNotModifiedWithoutLoading() throws Exception {
+        // Arrange
+        when(inventoryVersionTracker.getETag(1L)).thenReturn(ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/inventory/current/1").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/inventory/alerts/1").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified());
+
+        verify(inventoryService, never()).getCurrentInventory(any());
+        verify(inventoryService, never()).getInventoryAlerts(any());
+    }
+
+    @Test
+    void shouldReturnAlertsWhenVersionMoved() throws Exception {
+        // Arrange
+        when(inventoryVersionTracker.getETag(1L)).thenReturn("\"inv-test-4\"");
+        when(inventoryService.getInventoryAlerts(1L)).thenReturn(List.of(InventoryItemResponse.builder()
+                .name("Milk")
+                .status(InventoryStatus.LOW)
+                .build()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/inventory/alerts/1").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"inv-test-4\""))
+                .andExpect(jsonPath("$.data[0].name").value("Milk"));
+    }
+
+    @Test
+    void shouldRejectMalformedChangesVersion() throws Exception {
+        // Arrange
+        when(inventoryChangeService.getChangesSince(1L, "bogus"))
+                .thenThrow(new RuntimeException("Invalid inventory version: bogus"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/inventory/changes/1").param("since", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+}
@@ -0,0 +1,136 @@
+package com.groceryautomation.unit.event;
+
+import com.groceryautomation.entity.Device;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.enums.InventoryChangeType;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.event.InventoryItemChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.event.listener.InventoryItemStatusListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryItemStatusListenerTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<JdbcTemplate> jdbcTemplateProvider;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private InventoryItemStatusListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new InventoryItemStatusListener(eventPublisher, jdbcTemplateProvider);
+    }
+
+    @Test
+    void shouldPublishEventWhenStatusTransitions() {
+        // Arrange
+        final InventoryItem item = loadedItem(2.0, 1.0);
+        when(jdbcTemplateProvider.getObject()).thenReturn(jdbcTemplate);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(5L))).thenReturn(9L);
+
+        // Act
+        item.setQuantity(0.4);
+        item.updateStatus();
+        listener.publishTransition(item);
+
+        // Assert
+        final ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        final InventoryStatusChangedEvent event = (InventoryStatusChangedEvent) captor.getAllValues().get(0);
+        assertThat(event.itemId()).isEqualTo(1L);
+        assertThat(event.deviceId()).isEqualTo(5L);
+        assertThat(event.userId()).isEqualTo(9L);
+        assertThat(event.from()).isEqualTo(InventoryStatus.SUFFICIENT);
+        assertThat(event.to()).isEqualTo(InventoryStatus.CRITICAL);
+        assertThat(event.isDegraded()).isTrue();
+        assertThat(captor.getAllValues().get(1)).isEqualTo(new InventoryItemChangedEvent(1L, 5L, 9L, InventoryChangeType.UPDATED));
+    }
+
+    @Test
+    void shouldOnlyPublishItemChangeWhenStatusIsUnchanged() {
+        // Arrange
+        final InventoryItem item = loadedItem(2.0, 1.0);
+        when(jdbcTemplateProvider.getObject()).thenReturn(jdbcTemplate);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(5L))).thenReturn(9L);
+
+        // Act
+        item.setQuantity(1.8);
+        item.updateStatus();
+        listener.publishTransition(item);
+
+        // Assert
+        verify(eventPublisher, never()).publishEvent(any(InventoryStatusChangedEvent.class));
+        verify(eventPublisher).publishEvent(new InventoryItemChangedEvent(1L, 5L, 9L, InventoryChangeType.UPDATED));
+    }
+
+    @Test
+    void shouldPublishEachTransitionOnceAcrossFlushes() {
+        // Arrange
+        final InventoryItem item = loadedItem(2.0, 1.0);
+        when(jdbcTemplateProvider.getObject()).thenReturn(jdbcTemplate);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(5L))).thenReturn(9L);
+
+        // Act
+        item.setQuantity(0.0);
+        item.updateStatus();
+        listener.publishTransition(item);
+        listener.publishTransition(item);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(any(InventoryStatusChangedEvent.class));
+    }
+
+    @Test
+    void shouldCacheDeviceOwnerLookups() {
+        // Arrange
+        final InventoryItem first = loadedItem(2.0, 1.0);
+        final InventoryItem second = loadedItem(2.0, 1.0);
+        when(jdbcTemplateProvider.getObject()).thenReturn(jdbcTemplate);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(5L))).thenReturn(9L);
+
+        // Act
+        first.setQuantity(0.0);
+        first.updateStatus();
+        listener.publishTransition(first);
+        second.setQuantity(0.9);
+        second.updateStatus();
+        listener.publishTransition(second);
+
+        // Assert
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class), eq(5L));
+        verify(eventPublisher, times(2)).publishEvent(any(InventoryStatusChangedEvent.class));
+    }
+
+    private InventoryItem loadedItem(Double quantity, Double threshold) {
+        final InventoryItem item = InventoryItem.builder()
+                .id(1L)
+                .device(Device.builder().id(5L).build())
+                .quantity(quantity)
+                .thresholdQuantity(threshold)
+                .build();
+        item.updateStatus();
+        listener.rememberStatus(item);
+        return item;
+    }
+}
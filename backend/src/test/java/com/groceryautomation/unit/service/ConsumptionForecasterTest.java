@@ -0,0 +1,195 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.InventoryReadingRollup;
+import com.groceryautomation.enums.HistoryGranularity;
+import com.groceryautomation.repository.InventoryReadingRollupRepository;
+import com.groceryautomation.service.ConsumptionForecaster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConsumptionForecasterTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Mock
+    private InventoryReadingRollupRepository rollupRepository;
+
+    private ConsumptionForecaster forecaster;
+
+    @BeforeEach
+    void setUp() {
+        forecaster = new ConsumptionForecaster(rollupRepository, 7, 7, 1.65, 3, 60, 28);
+    }
+
+    @Test
+    void shouldConvergeOnSteadyConsumptionRate() {
+        // Arrange - one unit per day, read every 15 minutes for ten days
+        final InventoryItem milk = item(1L, 2.0);
+        double quantity = 20.0;
+
+        // Act
+        for (long t = 0; t <= 10 * 24 * HOUR; t += HOUR / 4) {
+            forecaster.observe(1L, quantity, t);
+            quantity -= 1.0 / 96;
+        }
+        final ConsumptionForecaster.Forecast forecast = forecaster.forecast(milk, 5.0);
+
+        // Assert
+        assertThat(forecast.dailyRate()).isCloseTo(1.0, offset(0.01));
+        assertThat(forecast.rateStdDev()).isLessThan(0.01);
+        assertThat(forecast.daysUntilEmpty()).isCloseTo(5.0, offset(0.1));
+        // Seven days of cover at one per day, minus the five on hand
+        assertThat(forecast.suggestedQuantity()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldIgnoreRestocksWhenEstimatingConsumption() {
+        // Arrange
+        final InventoryItem eggs = item(2L, 6.0);
+
+        // Act - consume 12 per day, restock by 24 at midday
+        forecaster.observe(2L, 24.0, 0);
+        for (int hour = 1; hour <= 48; hour++) {
+            final double restocked = hour >= 12 ? 24.0 : 0.0;
+            forecaster.observe(2L, 24.0 - hour * 0.5 + restocked, hour * HOUR);
+        }
+        final ConsumptionForecaster.Forecast forecast = forecaster.forecast(eggs, 10.0);
+
+        // Assert
+        assertThat(forecast.dailyRate()).isCloseTo(12.0, offset(0.5));
+    }
+
+    @Test
+    void shouldFallBackToThresholdWithoutEnoughReadings() {
+        // Arrange
+        final InventoryItem bread = item(3L, 2.0);
+        forecaster.observe(3L, 1.0, 0);
+
+        // Act
+        final ConsumptionForecaster.Forecast forecast = forecaster.forecast(bread, 1.0);
+
+        // Assert
+        assertThat(forecast.dailyRate()).isNull();
+        assertThat(forecast.daysUntilEmpty()).isNull();
+        assertThat(forecast.suggestedQuantity()).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldNotCountStockThatExpiresBeforeItIsUsed() {
+        // Arrange - one unit per day, with five on hand that expire in two days
+        final InventoryItem milk = item(5L, 2.0);
+        for (long t = 0; t <= 10 * 24 * HOUR; t += HOUR) {
+            forecaster.observe(5L, 20.0 - t / (24.0 * HOUR), t);
+        }
+        final long now = 10 * 24 * HOUR;
+        milk.setExpirationDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(now + 48 * HOUR), ZoneId.systemDefault()));
+
+        // Act
+        final ConsumptionForecaster.Forecast perishable = forecaster.forecast(milk, 5.0, now);
+        final ConsumptionForecaster.Forecast expired = forecaster.forecast(milk, 5.0, now + 72 * HOUR);
+
+        // Assert - two of the five get used, the rest spoils
+        assertThat(perishable.daysUntilEmpty()).isCloseTo(2.0, offset(0.1));
+        assertThat(perishable.suggestedQuantity()).isEqualTo(5.0);
+        assertThat(expired.daysUntilEmpty()).isZero();
+        assertThat(expired.suggestedQuantity()).isEqualTo(7.0);
+    }
+
+    @Test
+    void shouldIgnoreReadingsOlderThanTheLastOne() {
+        // Arrange
+        final InventoryItem milk = item(4L, 1.0);
+        for (int hour = 0; hour <= 4; hour++) {
+            forecaster.observe(4L, 10.0 - hour * 0.1, hour * HOUR);
+        }
+        final double before = forecaster.forecast(milk, 5.0).dailyRate();
+
+        // Act
+        forecaster.observe(4L, 0.0, 2 * HOUR);
+
+        // Assert
+        assertThat(forecaster.forecast(milk, 5.0).dailyRate()).isEqualTo(before);
+    }
+
+    @Test
+    void shouldTrackManyItemsIndependently() {
+        // Act
+        for (long id = 1; id <= 10_000; id++) {
+            forecaster.observe(id, 10.0, 0);
+            forecaster.observe(id, 10.0 - id % 3, HOUR);
+        }
+
+        // Assert
+        assertThat(forecaster.getTrackedItemCount()).isEqualTo(10_000);
+        assertThat(forecaster.forecast(item(3L, 1.0), 5.0).samples()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSeedNewItemFromItsHourlyRollups() {
+        // Arrange - five days of hourly rollups at one unit per day, a tenth of each hour's
+        // consumption falling between the last reading of one hour and the first of the next
+        final LocalDateTime start = LocalDateTime.of(2024, 6, 1, 0, 0);
+        final List<InventoryReadingRollup> rollups = new ArrayList<>();
+        for (int hour = 0; hour < 5 * 24; hour++) {
+            final double first = 20.0 - hour / 24.0;
+            rollups.add(hourly(6L, start.plusHours(hour), first, first - 0.9 / 24));
+        }
+        when(rollupRepository.findByItemInRange(eq(6L), eq(HistoryGranularity.HOUR), any(), any())).thenReturn(rollups);
+        final long now = start.plusDays(5).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // Act
+        final ConsumptionForecaster.Forecast forecast = forecaster.forecast(item(6L, 1.0), 5.0, now);
+        forecaster.observe(6L, 15.0, now + HOUR);
+
+        // Assert - the history is loaded once, and the live reading carries on from it
+        assertThat(forecast.samples()).isEqualTo(5 * 24);
+        // The first hour has no drop into it, so its 0.9 per day is still being smoothed away
+        assertThat(forecast.dailyRate()).isCloseTo(0.95, offset(0.01));
+        assertThat(forecaster.forecast(item(6L, 1.0), 5.0, now + HOUR).samples()).isEqualTo(5 * 24 + 1);
+        verify(rollupRepository, times(1)).findByItemInRange(anyLong(), any(), any(), any());
+    }
+
+    private InventoryReadingRollup hourly(Long itemId, LocalDateTime bucketStart, double first, double last) {
+        return InventoryReadingRollup.builder()
+                .inventoryItemId(itemId)
+                .granularity(HistoryGranularity.HOUR)
+                .bucketStart(bucketStart.truncatedTo(ChronoUnit.HOURS))
+                .sampleCount(2)
+                .minQuantity(last)
+                .maxQuantity(first)
+                .avgQuantity((first + last) / 2)
+                .firstQuantity(first)
+                .lastQuantity(last)
+                .consumed(first - last)
+                .build();
+    }
+
+    private InventoryItem item(Long id, Double threshold) {
+        return InventoryItem.builder()
+                .id(id)
+                .quantity(0.0)
+                .thresholdQuantity(threshold)
+                .build();
+    }
+}
@@ -0,0 +1,196 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.entity.Device;
+import com.groceryautomation.entity.User;
+import com.groceryautomation.event.DeviceStatusChangedEvent;
+import com.groceryautomation.repository.DeviceRepository;
+import com.groceryautomation.service.DeviceLivenessTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceLivenessTrackerTest {
+
+    private static final long WINDOW_MILLIS = 60_000;
+    private static final long TICK_MILLIS = 1_000;
+    private static final long TOUCH_MILLIS = 20_000;
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private DeviceLivenessTracker tracker;
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        // A 16-slot wheel is smaller than the 60-tick window, so deadlines span several rounds
+        tracker = new DeviceLivenessTracker(deviceRepository, transactionManager, eventPublisher,
+                WINDOW_MILLIS / 1000, TOUCH_MILLIS / 1000, TICK_MILLIS, 16);
+        start = System.currentTimeMillis();
+    }
+
+    @Test
+    void shouldKeepHeartbeatingDeviceOnlineWithOnlyPeriodicSightingWrites() {
+        // Arrange
+        final Device device = createDevice(1L, true);
+
+        // Act: a heartbeat every 10s for three minutes
+        for (long t = 0; t <= 3 * WINDOW_MILLIS; t += 10_000) {
+            tracker.heartbeat(device, start + t);
+            assertThat(tracker.advance(start + t)).isZero();
+        }
+
+        // Assert: the first heartbeat plus one sighting per touch interval
+        assertThat(tracker.isOnline(1L)).isTrue();
+        verify(deviceRepository, times(10)).touchLastSync(eq(1L), any());
+        verify(deviceRepository, never()).markOfflineIfSilent(any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldFlipSilentDeviceOffline() {
+        // Arrange
+        final Device device = createDevice(1L, true);
+        when(deviceRepository.markOfflineIfSilent(eq(1L), any())).thenReturn(1);
+        tracker.heartbeat(device, start);
+
+        // Act
+        final int beforeWindow = tracker.advance(start + WINDOW_MILLIS - TICK_MILLIS);
+        final int afterWindow = tracker.advance(start + WINDOW_MILLIS + 2 * TICK_MILLIS);
+
+        // Assert
+        assertThat(beforeWindow).isZero();
+        assertThat(afterWindow).isEqualTo(1);
+        assertThat(tracker.isOnline(1L)).isFalse();
+        verify(deviceRepository).markOfflineIfSilent(eq(1L), any(LocalDateTime.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof DeviceStatusChangedEvent changed
+                && !changed.online() && changed.userId() == 10L));
+    }
+
+    @Test
+    void shouldRescheduleLazilyFromLatestHeartbeat() {
+        // Arrange
+        final Device device = createDevice(1L, true);
+        when(deviceRepository.markOfflineIfSilent(eq(1L), any())).thenReturn(1);
+        tracker.heartbeat(device, start);
+        tracker.heartbeat(device, start + WINDOW_MILLIS / 2);
+
+        // Act
+        final int atFirstDeadline = tracker.advance(start + WINDOW_MILLIS + 2 * TICK_MILLIS);
+        final int atSecondDeadline = tracker.advance(start + WINDOW_MILLIS * 3 / 2 + 2 * TICK_MILLIS);
+
+        // Assert
+        assertThat(atFirstDeadline).isZero();
+        assertThat(atSecondDeadline).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPersistDeviceComingBackOnline() {
+        // Arrange
+        final Device device = createDevice(1L, false);
+        when(deviceRepository.markOnline(eq(1L), any())).thenReturn(1);
+
+        // Act
+        tracker.heartbeat(device, start);
+        final int written = tracker.advance(start + TICK_MILLIS);
+
+        // Assert
+        assertThat(written).isEqualTo(1);
+        verify(deviceRepository).markOnline(eq(1L), any(LocalDateTime.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof DeviceStatusChangedEvent changed
+                && changed.online()));
+    }
+
+    @Test
+    void shouldStopTrackingForgottenDevice() {
+        // Arrange
+        final Device device = createDevice(1L, true);
+        tracker.heartbeat(device, start);
+        tracker.advance(start);
+
+        // Act
+        tracker.forget(1L);
+        final int written = tracker.advance(start + 2 * WINDOW_MILLIS);
+
+        // Assert
+        assertThat(written).isZero();
+        assertThat(tracker.getLastHeartbeat(1L)).isNull();
+        verify(deviceRepository, never()).markOfflineIfSilent(any(), any());
+    }
+
+    @Test
+    void shouldLeaveDeviceOnlineWhenAnotherInstanceHeardFromItLater() {
+        // Arrange: the row's last sync is newer than this instance's last heartbeat
+        final Device device = createDevice(1L, true);
+        tracker.heartbeat(device, start);
+
+        // Act
+        final int written = tracker.advance(start + WINDOW_MILLIS + 2 * TICK_MILLIS);
+
+        // Assert
+        assertThat(written).isZero();
+        verify(deviceRepository).markOfflineIfSilent(eq(1L), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldQueueTransitionsAgainWhenWriteFails() {
+        // Arrange
+        final Device device = createDevice(1L, false);
+        when(deviceRepository.markOnline(eq(1L), any()))
+                .thenThrow(new RuntimeException("Database unavailable"))
+                .thenReturn(1);
+        tracker.heartbeat(device, start);
+
+        // Act
+        final int failed = tracker.advance(start + TICK_MILLIS);
+        final int retried = tracker.advance(start + 2 * TICK_MILLIS);
+
+        // Assert
+        assertThat(failed).isZero();
+        assertThat(retried).isEqualTo(1);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof DeviceStatusChangedEvent changed
+                && changed.online()));
+    }
+
+    @Test
+    void shouldReportLatestOfHeartbeatAndPersistedSync() {
+        // Arrange
+        final Device device = createDevice(1L, true);
+        device.setLastSync(LocalDateTime.now().minusHours(1));
+
+        // Act & Assert
+        assertThat(tracker.getLastSeen(device)).isEqualTo(device.getLastSync());
+        tracker.heartbeat(device, start);
+        assertThat(tracker.getLastSeen(device)).isAfter(device.getLastSync());
+    }
+
+    private Device createDevice(Long id, boolean online) {
+        return Device.builder()
+                .id(id)
+                .deviceId("FRIDGE-00" + id)
+                .user(User.builder().id(10L).build())
+                .active(true)
+                .online(online)
+                .build();
+    }
+}
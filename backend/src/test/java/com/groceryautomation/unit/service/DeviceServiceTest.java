@@ -6,6 +6,8 @@ import com.groceryautomation.entity.Device;
 import com.groceryautomation.entity.User;
 import com.groceryautomation.repository.DeviceRepository;
 import com.groceryautomation.repository.UserRepository;
+import com.groceryautomation.service.DeviceLivenessTracker;
+import com.groceryautomation.service.InventorySummaryService;
 import com.groceryautomation.service.impl.DeviceServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +34,12 @@ class DeviceServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private DeviceLivenessTracker deviceLivenessTracker;
+
+    @Mock
+    private InventorySummaryService inventorySummaryService;
+
     @InjectMocks
     private DeviceServiceImpl deviceService;
 
@@ -79,6 +87,7 @@ class DeviceServiceTest {
         verify(deviceRepository).existsByDeviceId(request.getDeviceId());
         verify(userRepository).findById(request.getUserId());
         verify(deviceRepository).save(any(Device.class));
+        verify(inventorySummaryService).initializeDevice(1L, 1L);
     }
 
     @Test
@@ -251,6 +260,7 @@ class DeviceServiceTest {
 
         verify(deviceRepository).findByDeviceId(deviceId);
         verify(deviceRepository).save(any(Device.class));
+        verify(deviceLivenessTracker).forget(1L);
     }
 
     @Test
@@ -281,6 +291,7 @@ class DeviceServiceTest {
         verify(deviceRepository).findByDeviceId(deviceId);
         verify(deviceRepository).save(argThat(savedDevice -> 
             !savedDevice.isActive() && !savedDevice.isOnline()));
+        verify(deviceLivenessTracker).forget(1L);
     }
 
     @Test
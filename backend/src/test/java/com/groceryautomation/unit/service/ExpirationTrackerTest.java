@@ -0,0 +1,178 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.enums.ExpirationStage;
+import com.groceryautomation.event.InventoryItemExpirationEvent;
+import com.groceryautomation.service.ExpirationTracker;
+import com.groceryautomation.service.ExpirationTracker.ExpiringItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpirationTrackerTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ExpirationTracker tracker;
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        // 48 hours of lead and a 24 hour window: the first load covers the next 72 hours
+        tracker = new ExpirationTracker(jdbcTemplate, eventPublisher, 48, 24);
+        start = System.currentTimeMillis();
+    }
+
+    @Test
+    void shouldFireExpiringSoonAndThenExpired() {
+        // Arrange
+        final ExpiringItem milk = item(1L, start + 60 * HOUR, 1.0);
+        whenWindowContains(milk);
+        whenClaimsSucceedFor(1L);
+
+        // Act
+        final int atStart = tracker.advance(start);
+        final int beforeLead = tracker.advance(start + 11 * HOUR);
+        final int withinLead = tracker.advance(start + 12 * HOUR);
+        final int expired = tracker.advance(start + 60 * HOUR);
+
+        // Assert
+        assertThat(atStart).isZero();
+        assertThat(beforeLead).isZero();
+        assertThat(withinLead).isEqualTo(1);
+        assertThat(expired).isEqualTo(1);
+        assertThat(publishedStages()).containsExactly(ExpirationStage.EXPIRING_SOON, ExpirationStage.EXPIRED);
+        assertThat(tracker.getTrackedItemCount()).isZero();
+    }
+
+    @Test
+    void shouldLoadNextWindowOnlyWhenLeadReachesIt() {
+        // Arrange
+        whenWindowContains();
+
+        // Act
+        tracker.advance(start);
+        tracker.advance(start + 23 * HOUR);
+        tracker.advance(start + 25 * HOUR);
+
+        // Assert
+        verify(jdbcTemplate, times(2)).query(contains("i.expiration_date >"), any(RowMapper.class), any(), any());
+    }
+
+    @Test
+    void shouldFollowNewDateInsideWindow() {
+        // Arrange
+        final ExpiringItem original = item(1L, start + 10 * HOUR, 1.0);
+        final ExpiringItem redated = item(1L, start + 30 * HOUR, 1.0);
+        whenWindowContains(original);
+        whenClaimsSucceedFor(1L);
+        tracker.advance(start);
+
+        // Act
+        tracker.track(1L, 2L, 3L, redated.expirationDate());
+        final int beforeNewDate = tracker.advance(start + 29 * HOUR);
+        final int afterNewDate = tracker.advance(start + 30 * HOUR);
+
+        // Assert: only the new date fires, its soon event on the first tick after it was tracked
+        assertThat(beforeNewDate).isEqualTo(1);
+        assertThat(afterNewDate).isEqualTo(1);
+        assertThat(publishedStages()).containsExactly(ExpirationStage.EXPIRING_SOON, ExpirationStage.EXPIRED);
+    }
+
+    @Test
+    void shouldDropItemsThatWereEmptiedRemovedOrAnnouncedElsewhere() {
+        // Arrange: the claims of both items match no row
+        whenWindowContains(item(1L, start + HOUR, 1.0), item(2L, start + HOUR, 1.0));
+        whenClaimsSucceedFor();
+        tracker.advance(start);
+
+        // Act
+        final int published = tracker.advance(start + HOUR);
+
+        // Assert
+        assertThat(published).isZero();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldNotAnnounceSoonEventsAlreadyDueAtStartup() {
+        // Arrange: inside the lead when the tracker starts, as after a restart
+        whenWindowContains(item(1L, start + 10 * HOUR, 1.0));
+        whenClaimsSucceedFor(1L);
+
+        // Act
+        final int atStart = tracker.advance(start);
+        final int expired = tracker.advance(start + 10 * HOUR);
+
+        // Assert
+        assertThat(atStart).isZero();
+        assertThat(expired).isEqualTo(1);
+        assertThat(publishedStages()).containsExactly(ExpirationStage.EXPIRED);
+    }
+
+    @Test
+    void shouldLeaveDatesBeyondWindowToTheWindowQuery() {
+        // Arrange
+        whenWindowContains();
+        tracker.advance(start);
+
+        // Act
+        tracker.track(1L, 2L, 3L, toLocalDateTime(start + 100 * HOUR));
+        tracker.track(4L, 2L, 3L, toLocalDateTime(start + 50 * HOUR));
+
+        // Assert
+        assertThat(tracker.getTrackedItemCount()).isEqualTo(1);
+    }
+
+    // The first window holds the given items, later ones are empty
+    @SuppressWarnings("unchecked")
+    private void whenWindowContains(ExpiringItem... items) {
+        when(jdbcTemplate.query(contains("i.expiration_date >"), any(RowMapper.class), any(), any()))
+                .thenReturn(List.of(items), List.of());
+    }
+
+    // Claims of the given items update their row, all others match nothing
+    private void whenClaimsSucceedFor(Long... itemIds) {
+        when(jdbcTemplate.batchUpdate(contains("expiration_alert_stage"), anyList())).thenAnswer(invocation -> {
+            final List<Object[]> claims = invocation.getArgument(1);
+            return claims.stream().mapToInt(claim -> List.of(itemIds).contains((Long) claim[1]) ? 1 : 0).toArray();
+        });
+    }
+
+    private List<ExpirationStage> publishedStages() {
+        final ArgumentCaptor<InventoryItemExpirationEvent> captor = ArgumentCaptor.forClass(InventoryItemExpirationEvent.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(captor.capture());
+        return captor.getAllValues().stream().map(InventoryItemExpirationEvent::stage).toList();
+    }
+
+    private ExpiringItem item(Long id, long expiresAtMillis, double quantity) {
+        return new ExpiringItem(id, 2L, 3L, toLocalDateTime(expiresAtMillis), quantity);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
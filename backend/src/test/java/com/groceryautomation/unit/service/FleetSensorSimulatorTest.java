@@ -0,0 +1,153 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.dto.request.FleetSimulationRequest;
+import com.groceryautomation.dto.request.SensorReadingBatchRequest;
+import com.groceryautomation.dto.request.SensorReadingRequest;
+import com.groceryautomation.dto.response.FleetSimulationReport;
+import com.groceryautomation.entity.Device;
+import com.groceryautomation.entity.GroceryItem;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.repository.DeviceRepository;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.service.FleetSensorSimulator;
+import com.groceryautomation.service.SensorIngestionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FleetSensorSimulatorTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Mock
+    private SensorIngestionService sensorIngestionService;
+
+    @InjectMocks
+    private FleetSensorSimulator fleetSensorSimulator;
+
+    @Test
+    void shouldDriveEveryVirtualDeviceForEveryFrame() {
+        // Arrange
+        givenOneDeviceWithTwoItems();
+
+        // Act
+        final FleetSimulationReport report = fleetSensorSimulator.runSimulation(request(10, 2, 3, 7L, false));
+
+        // Assert
+        assertThat(report.getFrames()).isEqualTo(20);
+        assertThat(report.getReadings()).isEqualTo(40);
+        assertThat(report.getWorkers()).isEqualTo(3);
+        assertThat(report.getLatencyP99Millis()).isLessThanOrEqualTo(report.getLatencyMaxMillis());
+        assertThat(report.getSharedDeviceWarning()).contains("10 virtual devices share the inventory rows of 1 real devices");
+        verify(sensorIngestionService, times(20)).ingestReadings(eq("FRIDGE-001"), any(SensorReadingBatchRequest.class));
+    }
+
+    @Test
+    void shouldReplaySameReadingsForSameSeed() {
+        // Arrange
+        givenOneDeviceWithTwoItems();
+        final ArgumentCaptor<SensorReadingBatchRequest> captor = ArgumentCaptor.forClass(SensorReadingBatchRequest.class);
+
+        // Act
+        fleetSensorSimulator.runSimulation(request(5, 3, 1, 99L, false));
+        fleetSensorSimulator.runSimulation(request(5, 3, 1, 99L, false));
+
+        // Assert
+        verify(sensorIngestionService, times(30)).ingestReadings(anyString(), captor.capture());
+        final List<Double> quantities = captor.getAllValues().stream()
+                .flatMap(batch -> batch.getReadings().stream())
+                .map(SensorReadingRequest::getQuantity)
+                .collect(Collectors.toList());
+        assertThat(quantities.subList(0, 30)).isEqualTo(quantities.subList(30, 60));
+    }
+
+    @Test
+    void shouldCountFailedFrames() {
+        // Arrange
+        givenOneDeviceWithTwoItems();
+        when(sensorIngestionService.ingestReadings(anyString(), any(SensorReadingBatchRequest.class)))
+                .thenThrow(new RuntimeException("Device is not active: FRIDGE-001"));
+
+        // Act
+        final FleetSimulationReport report = fleetSensorSimulator.runSimulation(request(4, 1, 2, 1L, false));
+
+        // Assert
+        assertThat(report.getFailedFrames()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotWriteReadingsInDryRun() {
+        // Arrange
+        givenOneDeviceWithTwoItems();
+
+        // Act
+        final FleetSimulationReport report = fleetSensorSimulator.runSimulation(request(100, 1, 4, 1L, true));
+
+        // Assert
+        assertThat(report.getReadings()).isEqualTo(200);
+        verify(sensorIngestionService, never()).ingestReadings(anyString(), any(SensorReadingBatchRequest.class));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenNoDevicesAvailable() {
+        // Arrange
+        when(deviceRepository.findAllActiveAndOnlineDevices()).thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        assertThatThrownBy(() -> fleetSensorSimulator.runSimulation(request(10, 1, 1, 1L, false)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("No active and online devices");
+    }
+
+    // Helper methods
+    private FleetSimulationRequest request(int virtualDevices, int frames, int workers, long seed, boolean dryRun) {
+        return FleetSimulationRequest.builder()
+                .virtualDevices(virtualDevices)
+                .framesPerDevice(frames)
+                .workers(workers)
+                .seed(seed)
+                .dryRun(dryRun)
+                .build();
+    }
+
+    private void givenOneDeviceWithTwoItems() {
+        final Device device = Device.builder()
+                .id(1L)
+                .deviceId("FRIDGE-001")
+                .active(true)
+                .online(true)
+                .mockConsumptionRate(0.1)
+                .build();
+
+        when(deviceRepository.findAllActiveAndOnlineDevices()).thenReturn(List.of(device));
+        when(inventoryItemRepository.findByDeviceIdWithGroceryItem(1L)).thenReturn(List.of(
+                createInventoryItem(1L, 2.0, 1.0),
+                createInventoryItem(2L, 0.0, 0.5)));
+    }
+
+    private InventoryItem createInventoryItem(Long groceryItemId, Double quantity, Double threshold) {
+        return InventoryItem.builder()
+                .groceryItem(GroceryItem.builder().id(groceryItemId).name("Item " + groceryItemId).build())
+                .quantity(quantity)
+                .thresholdQuantity(threshold)
+                .build();
+    }
+}
@@ -0,0 +1,203 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.dto.response.InventoryChangesResponse;
+import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.enums.InventoryChangeType;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.event.InventoryItemChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.service.impl.InventoryChangeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryChangeServiceTest {
+
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private InventoryChangeServiceImpl inventoryChangeService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryChangeService = new InventoryChangeServiceImpl(inventoryItemRepository, jdbcTemplate, 24, 30);
+    }
+
+    @Test
+    void shouldAppendChangeToLog() {
+        // Act
+        inventoryChangeService.recordChange(new InventoryItemChangedEvent(5L, 2L, 1L, InventoryChangeType.UPDATED));
+
+        // Assert
+        verify(jdbcTemplate).update(contains("INSERT INTO inventory_changes"),
+                eq(1L), eq(2L), eq(5L), eq("UPDATED"), any(LocalDateTime.class), isNull(), isNull());
+    }
+
+    @Test
+    void shouldWriteTransactionChangesInOneBatchBeforeCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inventoryChangeService.recordChange(new InventoryItemChangedEvent(5L, 2L, 1L, InventoryChangeType.UPDATED));
+            inventoryChangeService.recordTransition(new InventoryStatusChangedEvent(5L, 2L, 1L,
+                    InventoryStatus.SUFFICIENT, InventoryStatus.LOW));
+            inventoryChangeService.recordChange(new InventoryItemChangedEvent(6L, 2L, 1L, InventoryChangeType.ADDED));
+            verifyNoInteractions(jdbcTemplate);
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO inventory_changes"), captor.capture());
+        assertThat(captor.getValue()).extracting(row -> row[2]).containsExactly(5L, 5L, 6L);
+        assertThat(captor.getValue().get(1)[6]).isEqualTo("LOW");
+        assertThat(captor.getValue()).allSatisfy(row -> assertThat(row[4]).isInstanceOf(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldAppendStatusTransitionAsUpdate() {
+        // Act
+        inventoryChangeService.recordTransition(new InventoryStatusChangedEvent(5L, 2L, 1L,
+                InventoryStatus.SUFFICIENT, InventoryStatus.LOW));
+
+        // Assert
+        verify(jdbcTemplate).update(contains("INSERT INTO inventory_changes"),
+                eq(1L), eq(2L), eq(5L), eq("UPDATED"), any(LocalDateTime.class), eq("SUFFICIENT"), eq("LOW"));
+    }
+
+    @Test
+    void shouldReturnFullInventoryWithoutVersion() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(1L))).thenReturn(42L);
+        when(inventoryItemRepository.findResponsesByUserId(1L)).thenReturn(List.of(item(5L), item(6L)));
+
+        // Act
+        final InventoryChangesResponse result = inventoryChangeService.getChangesSince(1L, null);
+
+        // Assert
+        assertThat(result.isFullSync()).isTrue();
+        assertThat(result.getUpserted()).hasSize(2);
+        assertThat(result.getVersion()).startsWith("42-");
+    }
+
+    @Test
+    void shouldReturnOnlyLatestChangePerItemSinceVersion() throws Exception {
+        // Arrange
+        final String since = "10-" + System.currentTimeMillis();
+        whenLogContains(
+                row(11L, 5L, "UPDATED"),
+                row(12L, 6L, "ADDED"),
+                row(13L, 5L, "UPDATED"),
+                row(14L, 6L, "REMOVED"),
+                row(15L, 7L, "ADDED"));
+        when(inventoryItemRepository.findResponsesByIdIn(Set.of(5L, 7L))).thenReturn(List.of(item(5L), item(7L)));
+
+        // Act
+        final InventoryChangesResponse result = inventoryChangeService.getChangesSince(1L, since);
+
+        // Assert
+        assertThat(result.isFullSync()).isFalse();
+        assertThat(result.getUpserted()).extracting(InventoryItemResponse::getId).containsExactly(5L, 7L);
+        assertThat(result.getRemoved()).containsExactly(6L);
+        assertThat(result.getVersion()).startsWith("15-");
+    }
+
+    @Test
+    void shouldReportItemWithUncommittedRemovalAsRemoved() throws Exception {
+        // Arrange
+        whenLogContains(row(11L, 5L, "UPDATED"));
+        when(inventoryItemRepository.findResponsesByIdIn(Set.of(5L))).thenReturn(List.of());
+
+        // Act
+        final InventoryChangesResponse result = inventoryChangeService.getChangesSince(1L,
+                "10-" + System.currentTimeMillis());
+
+        // Assert
+        assertThat(result.getUpserted()).isEmpty();
+        assertThat(result.getRemoved()).containsExactly(5L);
+    }
+
+    @Test
+    void shouldFallBackToFullSyncForVersionOlderThanRetention() {
+        // Arrange
+        final long twoDaysAgo = System.currentTimeMillis() - 48 * 3_600_000L;
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(1L))).thenReturn(42L);
+        when(inventoryItemRepository.findResponsesByUserId(1L)).thenReturn(List.of(item(5L)));
+
+        // Act
+        final InventoryChangesResponse result = inventoryChangeService.getChangesSince(1L, "10-" + twoDaysAgo);
+
+        // Assert
+        assertThat(result.isFullSync()).isTrue();
+        verify(jdbcTemplate, never()).query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectMalformedVersion() {
+        // Act & Assert
+        assertThatThrownBy(() -> inventoryChangeService.getChangesSince(1L, "not-a-version"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Invalid inventory version");
+    }
+
+    private void whenLogContains(ResultSet... rows) {
+        when(jdbcTemplate.query(contains("FROM inventory_changes"), ArgumentMatchers.<RowMapper<Object>>any(), eq(1L), eq(10L),
+                any(LocalDateTime.class))).thenAnswer(invocation -> {
+                    final RowMapper<Object> mapper = invocation.getArgument(1);
+                    final List<Object> mapped = new ArrayList<>();
+                    for (int i = 0; i < rows.length; i++) {
+                        mapped.add(mapper.mapRow(rows[i], i));
+                    }
+                    return mapped;
+                });
+    }
+
+    private ResultSet row(long id, long itemId, String changeType) throws SQLException {
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(id);
+        when(resultSet.getLong(2)).thenReturn(itemId);
+        when(resultSet.getString(3)).thenReturn(changeType);
+        return resultSet;
+    }
+
+    private InventoryItemResponse item(Long id) {
+        return InventoryItemResponse.builder()
+                .id(id)
+                .name("Item " + id)
+                .quantity(1.0)
+                .status(InventoryStatus.SUFFICIENT)
+                .build();
+    }
+}
@@ -0,0 +1,274 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.dto.response.InventoryHistoryResponse;
+import com.groceryautomation.entity.InventoryReading;
+import com.groceryautomation.entity.InventoryReadingRollup;
+import com.groceryautomation.enums.HistoryGranularity;
+import com.groceryautomation.repository.InventoryReadingRepository;
+import com.groceryautomation.repository.InventoryReadingRollupRepository;
+import com.groceryautomation.repository.JobLeaseRepository;
+import com.groceryautomation.service.impl.InventoryHistoryServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Rolls readings up from an in-memory H2 readings table; the rollups themselves are mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryHistoryServiceTest {
+
+    @Mock
+    private InventoryReadingRepository readingRepository;
+
+    @Mock
+    private InventoryReadingRollupRepository rollupRepository;
+
+    @Mock
+    private JobLeaseRepository leaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private InventoryHistoryServiceImpl historyService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:history;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE inventory_readings (id BIGINT PRIMARY KEY, inventory_item_id BIGINT NOT NULL, " +
+                "device_id BIGINT NOT NULL, quantity DOUBLE NOT NULL, recorded_at TIMESTAMP NOT NULL, " +
+                "rolled_up BOOLEAN DEFAULT FALSE NOT NULL)");
+        historyService = new InventoryHistoryServiceImpl(readingRepository, rollupRepository, leaseRepository,
+                jdbcTemplate, transactionManager, 7, 90, 5, 24, 31, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE inventory_readings");
+    }
+
+    @Test
+    void shouldResolveGranularityFromRequestedRange() {
+        // Arrange
+        final LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+        // Act & Assert
+        assertThat(historyService.resolveGranularity(now.minusHours(6), now, now)).isEqualTo(HistoryGranularity.RAW);
+        assertThat(historyService.resolveGranularity(now.minusDays(3), now, now)).isEqualTo(HistoryGranularity.HOUR);
+        assertThat(historyService.resolveGranularity(now.minusDays(60), now, now)).isEqualTo(HistoryGranularity.DAY);
+        // Short range whose raw rows have already expired
+        assertThat(historyService.resolveGranularity(now.minusDays(10), now.minusDays(10).plusHours(2), now))
+                .isEqualTo(HistoryGranularity.HOUR);
+    }
+
+    @Test
+    void shouldRollReadingsUpIntoHourlyBuckets() {
+        // Arrange
+        final LocalDateTime hour = LocalDateTime.now().minusHours(3).truncatedTo(ChronoUnit.HOURS);
+        insertReading(1L, hour.plusMinutes(10), 2.0, false);
+        insertReading(2L, hour.plusMinutes(20), 1.5, false);
+        insertReading(3L, hour.plusMinutes(40), 1.8, false);
+        insertReading(4L, hour.plusMinutes(70), 1.0, false);
+        givenLeaseIsFree();
+
+        // Act
+        historyService.runMaintenance();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<InventoryReadingRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(captor.capture());
+        final List<InventoryReadingRollup> rollups = captor.getValue();
+        assertThat(rollups).hasSize(2);
+
+        final InventoryReadingRollup first = rollups.get(0);
+        assertThat(first.getBucketStart()).isEqualTo(hour);
+        assertThat(first.getGranularity()).isEqualTo(HistoryGranularity.HOUR);
+        assertThat(first.getSampleCount()).isEqualTo(3);
+        assertThat(first.getMinQuantity()).isEqualTo(1.5);
+        assertThat(first.getMaxQuantity()).isEqualTo(2.0);
+        assertThat(first.getLastQuantity()).isEqualTo(1.8);
+        assertThat(first.getConsumed()).isEqualTo(0.5);
+        assertThat(rollups.get(1).getBucketStart()).isEqualTo(hour.plusHours(1));
+        assertThat(pendingCount()).isZero();
+        verify(leaseRepository).release(eq(InventoryHistoryServiceImpl.LEASE_NAME), anyString());
+    }
+
+    @Test
+    void shouldReaggregateRolledUpHourWhenLateReadingArrives() {
+        // Arrange: the hour was rolled up from two readings before a third arrived for it
+        final LocalDateTime hour = LocalDateTime.now().minusHours(3).truncatedTo(ChronoUnit.HOURS);
+        insertReading(1L, hour.plusMinutes(10), 2.0, true);
+        insertReading(2L, hour.plusMinutes(20), 1.0, false);
+        insertReading(3L, hour.plusMinutes(30), 1.5, true);
+        final InventoryReadingRollup previous = hourly(hour, 2, 2.0, 1.5, 0.5);
+        previous.setId(40L);
+
+        givenLeaseIsFree();
+        when(rollupRepository.findByItemsInRange(eq(HistoryGranularity.HOUR), eq(List.of(1L)), eq(hour), any()))
+                .thenReturn(List.of(previous));
+
+        // Act
+        historyService.runMaintenance();
+
+        // Assert: the existing row is rewritten with all three readings and the late one is flagged
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<InventoryReadingRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(captor.capture());
+        final InventoryReadingRollup rollup = captor.getValue().get(0);
+        assertThat(rollup.getId()).isEqualTo(40L);
+        assertThat(rollup.getSampleCount()).isEqualTo(3);
+        assertThat(rollup.getMinQuantity()).isEqualTo(1.0);
+        assertThat(rollup.getConsumed()).isEqualTo(1.0);
+        assertThat(pendingCount()).isZero();
+        verify(readingRepository).deleteOlderThan(any());
+    }
+
+    @Test
+    void shouldMergeLateReadingIntoHourWhoseRawReadingsExpired() {
+        // Arrange: the hour's other readings are past raw retention, only its rollup is left
+        final LocalDateTime hour = LocalDateTime.now().minusDays(8).truncatedTo(ChronoUnit.HOURS);
+        insertReading(1L, hour.plusMinutes(50), 1.0, false);
+        final InventoryReadingRollup previous = hourly(hour, 2, 2.0, 1.5, 0.5);
+        previous.setId(40L);
+
+        givenLeaseIsFree();
+        when(rollupRepository.findByItemsInRange(eq(HistoryGranularity.HOUR), eq(List.of(1L)), eq(hour), any()))
+                .thenReturn(List.of(previous));
+
+        // Act
+        historyService.runMaintenance();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<InventoryReadingRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(captor.capture());
+        final InventoryReadingRollup rollup = captor.getValue().get(0);
+        assertThat(rollup.getId()).isEqualTo(40L);
+        assertThat(rollup.getSampleCount()).isEqualTo(3);
+        assertThat(rollup.getLastQuantity()).isEqualTo(1.0);
+        assertThat(rollup.getConsumed()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldSkipMaintenanceWhileAnotherInstanceHoldsTheLease() {
+        // Arrange
+        insertReading(1L, LocalDateTime.now().minusHours(3), 2.0, false);
+        when(leaseRepository.claim(eq(InventoryHistoryServiceImpl.LEASE_NAME), anyString(), any(), any())).thenReturn(0);
+
+        // Act
+        historyService.runMaintenance();
+
+        // Assert
+        assertThat(pendingCount()).isEqualTo(1);
+        verify(rollupRepository, never()).saveAll(anyList());
+        verify(leaseRepository, never()).release(any(), any());
+    }
+
+    @Test
+    void shouldMergeHourlyRollupsForDaysNotRolledUpYet() {
+        // Arrange
+        final LocalDateTime day = LocalDateTime.of(2024, 5, 1, 0, 0);
+        when(rollupRepository.findByItemInRange(eq(1L), eq(HistoryGranularity.DAY), any(), any())).thenReturn(List.of());
+        when(rollupRepository.findByItemInRange(eq(1L), eq(HistoryGranularity.HOUR), any(), any())).thenReturn(List.of(
+                hourly(day.plusHours(8), 2, 3.0, 2.0, 0.5),
+                hourly(day.plusHours(9), 2, 1.5, 1.0, 0.5)));
+
+        // Act
+        final InventoryHistoryResponse result = historyService.getHistory(1L, day, day.plusDays(40), null);
+
+        // Assert
+        assertThat(result.getGranularity()).isEqualTo(HistoryGranularity.DAY);
+        assertThat(result.getPoints()).hasSize(1);
+        assertThat(result.getPoints().get(0).getSamples()).isEqualTo(4);
+        assertThat(result.getPoints().get(0).getLastQuantity()).isEqualTo(1.0);
+        // 0.5 inside each hour plus 0.5 between the end of one hour and the start of the next
+        assertThat(result.getPoints().get(0).getConsumed()).isEqualTo(1.5);
+    }
+
+    @Test
+    void shouldReturnRawReadingsWhenRequested() {
+        // Arrange
+        final LocalDateTime from = LocalDateTime.now().minusHours(2);
+        final LocalDateTime to = LocalDateTime.now();
+        when(readingRepository.findByItemInRange(1L, from, to))
+                .thenReturn(List.of(reading(from.plusMinutes(5), 2.0), reading(from.plusMinutes(15), 1.9)));
+
+        // Act
+        final InventoryHistoryResponse result = historyService.getHistory(1L, from, to, HistoryGranularity.RAW);
+
+        // Assert
+        assertThat(result.getPoints()).hasSize(2);
+        assertThat(result.getPoints().get(1).getLastQuantity()).isEqualTo(1.9);
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void shouldRejectEmptyRange() {
+        // Arrange
+        final LocalDateTime now = LocalDateTime.now();
+
+        // Act & Assert
+        assertThatThrownBy(() -> historyService.getHistory(1L, now, now, null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("History range start must be before its end");
+    }
+
+    private void givenLeaseIsFree() {
+        when(leaseRepository.claim(eq(InventoryHistoryServiceImpl.LEASE_NAME), anyString(), any(), any())).thenReturn(1);
+    }
+
+    private void insertReading(long id, LocalDateTime recordedAt, double quantity, boolean rolledUp) {
+        jdbcTemplate.update("INSERT INTO inventory_readings (id, inventory_item_id, device_id, quantity, recorded_at, rolled_up) " +
+                "VALUES (?, 1, 1, ?, ?, ?)", id, quantity, Timestamp.valueOf(recordedAt), rolledUp);
+    }
+
+    private int pendingCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory_readings WHERE rolled_up = false", Integer.class);
+    }
+
+    private InventoryReading reading(LocalDateTime recordedAt, double quantity) {
+        return InventoryReading.builder()
+                .inventoryItemId(1L)
+                .deviceId(1L)
+                .quantity(quantity)
+                .recordedAt(recordedAt)
+                .build();
+    }
+
+    private InventoryReadingRollup hourly(LocalDateTime bucketStart, int samples, double first, double last, double consumed) {
+        return InventoryReadingRollup.builder()
+                .inventoryItemId(1L)
+                .granularity(HistoryGranularity.HOUR)
+                .bucketStart(bucketStart)
+                .sampleCount(samples)
+                .minQuantity(last)
+                .maxQuantity(first)
+                .avgQuantity((first + last) / 2)
+                .firstQuantity(first)
+                .lastQuantity(last)
+                .consumed(consumed)
+                .build();
+    }
+}
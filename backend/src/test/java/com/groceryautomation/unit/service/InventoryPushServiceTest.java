@@ -0,0 +1,297 @@
+package com.groceryautomation.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.dto.response.InventoryUpdateResponse;
+import com.groceryautomation.enums.InventoryChangeType;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.enums.InventoryUpdateType;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.service.InventoryPushService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Reads the change log from an in-memory H2 table; items are loaded through a mocked repository.
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryPushServiceTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private CountDownLatch sendGate;
+    private InventoryPushService pushService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:push;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE inventory_changes (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "user_id BIGINT NOT NULL, device_id BIGINT NOT NULL, inventory_item_id BIGINT NOT NULL, " +
+                "change_type VARCHAR(20) NOT NULL, changed_at TIMESTAMP NOT NULL, " +
+                "from_status VARCHAR(20), to_status VARCHAR(20))");
+        meterRegistry = new SimpleMeterRegistry();
+        pushService = new InventoryPushService(inventoryItemRepository, jdbcTemplate, transactionManager,
+                new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                30, BUFFER_SIZE, 16, 10, 1, 30) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                final RecordingEmitter emitter = new RecordingEmitter(sendGate);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (sendGate != null) {
+            sendGate.countDown();
+        }
+        pushService.shutdown();
+        jdbcTemplate.execute("DROP TABLE inventory_changes");
+    }
+
+    @Test
+    void shouldBatchChangesIntoOneLoadAndPushToOpenStream() throws Exception {
+        // Arrange
+        pushService.subscribe(1L, null);
+        pushService.flush();
+        final RecordingEmitter stream = emitters.get(0);
+        assertThat(stream.next()).contains("heartbeat");
+        when(inventoryItemRepository.findResponsesByIdIn(Set.of(5L, 6L))).thenReturn(List.of(item(5L), item(6L)));
+
+        // Act
+        logChange(5L, 1L, InventoryChangeType.UPDATED);
+        logChange(6L, 1L, InventoryChangeType.ADDED);
+        logTransition(5L, 1L, InventoryStatus.SUFFICIENT, InventoryStatus.LOW);
+        logChange(5L, 1L, InventoryChangeType.UPDATED);
+        logChange(7L, 1L, InventoryChangeType.REMOVED);
+        logChange(9L, 2L, InventoryChangeType.UPDATED);
+        pushService.flush();
+
+        // Assert
+        assertThat(stream.next()).contains("event:item-changed").contains("-1\n").contains("\"name\":\"Item 5\"");
+        assertThat(stream.next()).contains("event:item-changed").contains("\"itemId\":6");
+        assertThat(stream.next()).contains("event:item-removed").contains("\"itemId\":7");
+        assertThat(stream.next()).contains("event:status-changed").contains("\"to\":\"LOW\"");
+        verify(inventoryItemRepository, times(1)).findResponsesByIdIn(any());
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+    }
+
+    @Test
+    void shouldReplayMissedEventsAfterLastEventId() throws Exception {
+        // Arrange
+        pushService.subscribe(1L, null);
+        pushService.flush();
+        for (long itemId = 1; itemId <= 3; itemId++) {
+            logChange(itemId, 1L, InventoryChangeType.REMOVED);
+            pushService.flush();
+        }
+        final RecordingEmitter first = emitters.get(0);
+        first.next();
+        final String firstEventId = eventId(first.next());
+
+        // Act
+        pushService.subscribe(1L, firstEventId);
+
+        // Assert
+        final RecordingEmitter resumed = emitters.get(1);
+        assertThat(resumed.next()).contains("heartbeat");
+        assertThat(resumed.next()).contains("\"itemId\":2");
+        assertThat(resumed.next()).contains("\"itemId\":3");
+        assertThat(resumed.poll()).isNull();
+        assertThat(pushService.getConnectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldAskForResyncWhenLastEventIdIsFromAnotherProcess() throws Exception {
+        // Act
+        pushService.subscribe(1L, "oldepoch-42");
+
+        // Assert
+        final RecordingEmitter stream = emitters.get(0);
+        assertThat(stream.next()).contains("heartbeat");
+        assertThat(stream.next()).contains("event:resync");
+    }
+
+    @Test
+    void shouldDisconnectConsumerThatFallsBehind() throws Exception {
+        // Arrange: the first write never returns, so events pile up in the connection buffer
+        sendGate = new CountDownLatch(1);
+        pushService.subscribe(1L, null);
+        pushService.flush();
+
+        // Act
+        for (long itemId = 1; itemId <= BUFFER_SIZE + 1; itemId++) {
+            logChange(itemId, 1L, InventoryChangeType.REMOVED);
+            pushService.flush();
+        }
+
+        // Assert
+        assertThat(pushService.getConnectionCount()).isZero();
+        assertThat(meterRegistry.get("inventory.push.dropped").counter().count()).isEqualTo(1.0);
+        sendGate.countDown();
+        assertThat(emitters.get(0).completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldShareUpdatesWithGraphQLSubscribers() throws Exception {
+        // Arrange
+        final CompletableFuture<List<InventoryUpdateResponse>> first =
+                pushService.subscribeUpdates(1L).take(1).collectList().toFuture();
+        final CompletableFuture<List<InventoryUpdateResponse>> second =
+                pushService.subscribeUpdates(1L).take(1).collectList().toFuture();
+        when(inventoryItemRepository.findResponsesByIdIn(Set.of(5L))).thenReturn(List.of(item(5L)));
+        pushService.flush();
+
+        // Act
+        logChange(5L, 1L, InventoryChangeType.UPDATED);
+        pushService.flush();
+
+        // Assert
+        final InventoryUpdateResponse update = first.get(5, TimeUnit.SECONDS).get(0);
+        assertThat(update.getType()).isEqualTo(InventoryUpdateType.ITEM_CHANGED);
+        assertThat(update.getItem().getName()).isEqualTo("Item 5");
+        assertThat(second.get(5, TimeUnit.SECONDS)).singleElement().isSameAs(update);
+        verify(inventoryItemRepository, times(1)).findResponsesByIdIn(any());
+    }
+
+    @Test
+    void shouldIgnoreChangesOfUsersWithoutStream() {
+        // Act
+        logChange(5L, 1L, InventoryChangeType.UPDATED);
+        pushService.flush();
+
+        // Assert
+        verifyNoInteractions(inventoryItemRepository, transactionManager);
+    }
+
+    @Test
+    void shouldPushEntryThatCommitsAfterLaterOnesExactlyOnce() throws Exception {
+        // Arrange: entry 1 is still uncommitted when entry 2 is read
+        pushService.subscribe(1L, null);
+        pushService.flush();
+        final RecordingEmitter stream = emitters.get(0);
+        stream.next();
+        logChange(2L, 7L, 1L, InventoryChangeType.REMOVED);
+        pushService.flush();
+
+        // Act
+        logChange(1L, 6L, 1L, InventoryChangeType.REMOVED);
+        pushService.flush();
+        pushService.flush();
+
+        // Assert
+        assertThat(stream.next()).contains("\"itemId\":7");
+        assertThat(stream.next()).contains("\"itemId\":6");
+        assertThat(stream.poll()).isNull();
+    }
+
+    private void logChange(Long itemId, Long userId, InventoryChangeType changeType) {
+        jdbcTemplate.update("INSERT INTO inventory_changes (user_id, device_id, inventory_item_id, change_type, " +
+                "changed_at) VALUES (?, 2, ?, ?, ?)", userId, itemId, changeType.name(), LocalDateTime.now());
+    }
+
+    private void logChange(Long id, Long itemId, Long userId, InventoryChangeType changeType) {
+        jdbcTemplate.update("INSERT INTO inventory_changes (id, user_id, device_id, inventory_item_id, change_type, " +
+                "changed_at) VALUES (?, ?, 2, ?, ?, ?)", id, userId, itemId, changeType.name(), LocalDateTime.now());
+    }
+
+    private void logTransition(Long itemId, Long userId, InventoryStatus from, InventoryStatus to) {
+        jdbcTemplate.update("INSERT INTO inventory_changes (user_id, device_id, inventory_item_id, change_type, " +
+                        "changed_at, from_status, to_status) VALUES (?, 2, ?, 'UPDATED', ?, ?, ?)",
+                userId, itemId, LocalDateTime.now(), from.name(), to.name());
+    }
+
+    private static String eventId(String event) {
+        for (String line : event.split("\n")) {
+            if (line.startsWith("id:")) {
+                return line.substring(3);
+            }
+        }
+        throw new AssertionError("No id in " + event);
+    }
+
+    private InventoryItemResponse item(Long id) {
+        return InventoryItemResponse.builder()
+                .id(id)
+                .name("Item " + id)
+                .status(InventoryStatus.SUFFICIENT)
+                .build();
+    }
+
+    /**
+     * Records what would be written to the client; optionally blocks like a client that stopped reading.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch gate;
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            final StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            final String event = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("event sent").isNotNull();
+            return event;
+        }
+
+        String poll() throws InterruptedException {
+            return sent.poll(200, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.dto.response.CurrentInventoryResponse;
+import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.service.InventoryReadCache;
+import com.groceryautomation.service.InventoryVersionTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryReadCacheTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private InventoryVersionTracker versionTracker;
+
+    private final AtomicLong version = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryReadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(versionTracker.getVersion(1L)).thenAnswer(invocation -> version.get());
+        cache = new InventoryReadCache(versionTracker, meterRegistry, transactionManager, 100, 60);
+    }
+
+    @Test
+    void shouldLoadOnceInReadOnlyTransactionAndCountHits() {
+        // Arrange
+        final AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            cache.getCurrentInventory(1L, () -> inventory("FRIDGE-" + loads.incrementAndGet()));
+        }
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(1);
+        verify(transactionManager, times(1)).getTransaction(argThat(definition -> definition.isReadOnly()));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "inventory.current").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "inventory.current").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldDropAllViewsOfInvalidatedUserOnly() {
+        // Arrange
+        final AtomicInteger loads = new AtomicInteger();
+        cache.getCurrentInventory(1L, () -> inventory("FRIDGE-" + loads.incrementAndGet()));
+        cache.getAlerts(1L, () -> {
+            loads.incrementAndGet();
+            return List.of(new InventoryItemResponse());
+        });
+        cache.getCurrentInventory(2L, () -> inventory("FRIDGE-" + loads.incrementAndGet()));
+
+        // Act
+        cache.invalidateUser(1L);
+        final CurrentInventoryResponse reloaded = cache.getCurrentInventory(1L, () -> inventory("RELOADED"));
+        cache.getAlerts(1L, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        cache.getCurrentInventory(2L, () -> inventory("UNEXPECTED"));
+
+        // Assert
+        assertThat(reloaded.getDeviceId()).isEqualTo("RELOADED");
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldReloadOnceAnotherInstanceMovedTheVersion() {
+        // Arrange
+        cache.getCurrentInventory(1L, () -> inventory("CACHED"));
+
+        // Act: a change committed elsewhere, so nothing was invalidated here
+        version.incrementAndGet();
+        final CurrentInventoryResponse reloaded = cache.getCurrentInventory(1L, () -> inventory("RELOADED"));
+        final CurrentInventoryResponse hit = cache.getCurrentInventory(1L, () -> inventory("UNEXPECTED"));
+
+        // Assert
+        assertThat(reloaded.getDeviceId()).isEqualTo("RELOADED");
+        assertThat(hit.getDeviceId()).isEqualTo("RELOADED");
+    }
+
+    @Test
+    void shouldNotServeLoadThatRacedWithCommit() {
+        // Arrange: the write commits while the read is still running
+        final CurrentInventoryResponse raced = cache.getCurrentInventory(1L, () -> {
+            version.incrementAndGet();
+            cache.invalidateUser(1L);
+            return inventory("RACED");
+        });
+
+        // Act
+        final CurrentInventoryResponse next = cache.getCurrentInventory(1L, () -> inventory("FRESH"));
+
+        // Assert
+        assertThat(raced.getDeviceId()).isEqualTo("RACED");
+        assertThat(next.getDeviceId()).isEqualTo("FRESH");
+        verify(transactionManager, times(2)).getTransaction(any());
+    }
+
+    private CurrentInventoryResponse inventory(String deviceId) {
+        return CurrentInventoryResponse.builder()
+                .deviceId(deviceId)
+                .items(List.of())
+                .build();
+    }
+}
@@ -1,20 +1,34 @@
 package com.groceryautomation.unit.service;
 
+import com.groceryautomation.dto.response.AggregatedInventoryItemResponse;
+import com.groceryautomation.dto.response.AggregatedInventoryResponse;
 import com.groceryautomation.dto.response.CurrentInventoryResponse;
 import com.groceryautomation.dto.response.InventoryItemResponse;
+import com.groceryautomation.dto.response.ItemForecastResponse;
 import com.groceryautomation.entity.Device;
 import com.groceryautomation.entity.GroceryItem;
 import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.InventorySummary;
 import com.groceryautomation.entity.User;
 import com.groceryautomation.enums.InventoryStatus;
 import com.groceryautomation.repository.DeviceRepository;
 import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.service.ConsumptionForecaster;
+import com.groceryautomation.service.DeviceLivenessTracker;
+import com.groceryautomation.service.InventoryReadCache;
+import com.groceryautomation.service.InventoryStateStore;
+import com.groceryautomation.service.InventorySummaryService;
+import com.groceryautomation.service.InventoryVersionTracker;
 import com.groceryautomation.service.impl.InventoryServiceImpl;
+import com.groceryautomation.util.RequestCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -25,6 +39,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,9 +48,29 @@ class InventoryServiceTest {
     @Mock
     private InventoryItemRepository inventoryItemRepository;
 
+    @Mock
+    private InventoryStateStore inventoryStateStore;
+
+    @Mock
+    private ConsumptionForecaster consumptionForecaster;
+
+    @Mock
+    private DeviceLivenessTracker deviceLivenessTracker;
+
+    @Mock
+    private InventorySummaryService inventorySummaryService;
+
     @Mock
     private DeviceRepository deviceRepository;
 
+    @Spy
+    private RequestCoalescer<String, Void> inventorySyncCoalescer = new RequestCoalescer<>(60_000);
+
+    // Real cache, so repeated reads within a test hit it
+    @Spy
+    private InventoryReadCache inventoryReadCache = new InventoryReadCache(
+            mock(InventoryVersionTracker.class), new SimpleMeterRegistry(), mock(PlatformTransactionManager.class), 100, 60);
+
     @InjectMocks
     private InventoryServiceImpl inventoryService;
 
@@ -48,7 +83,7 @@ class InventoryServiceTest {
         final List<InventoryItem> inventoryItems = createTestInventoryItems(device);
 
         when(deviceRepository.findByUserIdAndActive(userId, true)).thenReturn(Arrays.asList(device));
-        when(inventoryItemRepository.findByDeviceId(device.getId())).thenReturn(inventoryItems);
+        when(inventoryItemRepository.findResponsesByDeviceId(device.getId())).thenReturn(toResponses(inventoryItems));
 
         // Act
         final CurrentInventoryResponse result = inventoryService.getCurrentInventory(userId);
@@ -64,7 +99,99 @@ class InventoryServiceTest {
         assertThat(result.getOutOfStockItems()).isEqualTo(1); // One OUT_OF_STOCK item
 
         verify(deviceRepository).findByUserIdAndActive(userId, true);
-        verify(inventoryItemRepository).findByDeviceId(device.getId());
+        verify(inventoryItemRepository).findResponsesByDeviceId(device.getId());
+    }
+
+    @Test
+    void shouldServeRepeatedPollsFromCacheUntilInvalidated() {
+        // Arrange
+        final Long userId = 1L;
+        final Device device = createTestDevice(createTestUser());
+        when(deviceRepository.findByUserIdAndActive(userId, true)).thenReturn(List.of(device));
+        when(inventoryItemRepository.findResponsesByDeviceId(device.getId()))
+                .thenReturn(toResponses(createTestInventoryItems(device)));
+
+        // Act
+        final CurrentInventoryResponse first = inventoryService.getCurrentInventory(userId);
+        final CurrentInventoryResponse second = inventoryService.getCurrentInventory(userId);
+        inventoryReadCache.invalidateUser(userId);
+        inventoryService.getCurrentInventory(userId);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        verify(inventoryItemRepository, times(2)).findResponsesByDeviceId(device.getId());
+    }
+
+    @Test
+    void shouldTakeCurrentInventoryCountsFromSummary() {
+        // Arrange
+        final Long userId = 1L;
+        final Device device = createTestDevice(createTestUser());
+        final InventorySummary summary = InventorySummary.builder()
+                .deviceId(device.getId())
+                .userId(userId)
+                .totalItems(3)
+                .lowItems(1)
+                .criticalItems(1)
+                .outOfStockItems(0)
+                .build();
+
+        when(deviceRepository.findByUserIdAndActive(userId, true)).thenReturn(List.of(device));
+        when(inventoryItemRepository.findResponsesByDeviceId(device.getId()))
+                .thenReturn(toResponses(createTestInventoryItems(device)));
+        when(inventorySummaryService.getDeviceSummary(device.getId())).thenReturn(Optional.of(summary));
+
+        // Act
+        final CurrentInventoryResponse result = inventoryService.getCurrentInventory(userId);
+
+        // Assert
+        assertThat(result.getTotalItems()).isEqualTo(3);
+        assertThat(result.getLowStockItems()).isEqualTo(2);
+        assertThat(result.getOutOfStockItems()).isZero();
+    }
+
+    @Test
+    void shouldMergeItemsAcrossDevicesFromOneQuery() {
+        // Arrange
+        final Long userId = 1L;
+        final User user = createTestUser();
+        final Device fridge = createTestDevice(user);
+        final Device pantry = Device.builder()
+                .id(2L)
+                .deviceId("PANTRY-001")
+                .name("Pantry Shelf")
+                .user(user)
+                .online(false)
+                .build();
+
+        when(deviceRepository.findByUserIdAndActive(userId, true)).thenReturn(List.of(fridge, pantry));
+        when(inventoryItemRepository.findResponsesByDeviceIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                itemResponse(10L, 1L, "Milk", 2.0, InventoryStatus.SUFFICIENT, "FRIDGE-001"),
+                itemResponse(11L, 2L, "Eggs", 0.3, InventoryStatus.LOW, "FRIDGE-001"),
+                itemResponse(20L, 1L, "Milk", 0.0, InventoryStatus.OUT_OF_STOCK, "PANTRY-001")));
+
+        // Act
+        final AggregatedInventoryResponse result = inventoryService.getAggregatedInventory(userId);
+
+        // Assert
+        assertThat(result.getDeviceCount()).isEqualTo(2);
+        assertThat(result.getOnlineDevices()).isEqualTo(1);
+        assertThat(result.getTotalItems()).isEqualTo(2);
+        assertThat(result.getLowStockItems()).isEqualTo(1);
+        assertThat(result.getOutOfStockItems()).isEqualTo(1);
+
+        final AggregatedInventoryItemResponse milk = result.getItems().get(0);
+        assertThat(milk.getName()).isEqualTo("Milk");
+        assertThat(milk.getTotalQuantity()).isEqualTo(2.0);
+        assertThat(milk.getStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+        assertThat(milk.getDeviceIds()).containsExactly("FRIDGE-001", "PANTRY-001");
+
+        assertThat(result.getDevices()).extracting(CurrentInventoryResponse::getDeviceId)
+                .containsExactly("FRIDGE-001", "PANTRY-001");
+        assertThat(result.getDevices().get(0).getItems()).hasSize(2);
+        assertThat(result.getDevices().get(1).getOutOfStockItems()).isEqualTo(1);
+
+        verify(inventoryItemRepository, never()).findResponsesByDeviceId(any());
     }
 
     @Test
@@ -85,7 +212,7 @@ class InventoryServiceTest {
         assertThat(result.getOutOfStockItems()).isEqualTo(0);
 
         verify(deviceRepository).findByUserIdAndActive(userId, true);
-        verify(inventoryItemRepository, never()).findByDeviceId(any());
+        verify(inventoryItemRepository, never()).findResponsesByDeviceId(any());
     }
 
     @Test
@@ -96,7 +223,8 @@ class InventoryServiceTest {
                 InventoryStatus.LOW, InventoryStatus.CRITICAL, InventoryStatus.OUT_OF_STOCK);
         final List<InventoryItem> alertItems = createAlertInventoryItems();
 
-        when(inventoryItemRepository.findByUserIdAndStatusIn(userId, alertStatuses)).thenReturn(alertItems);
+        when(inventoryItemRepository.findResponsesByUserIdAndStatusIn(userId, alertStatuses))
+                .thenReturn(toResponses(alertItems));
 
         // Act
         final List<InventoryItemResponse> result = inventoryService.getInventoryAlerts(userId);
@@ -106,7 +234,7 @@ class InventoryServiceTest {
         assertThat(result.get(0).getStatus()).isEqualTo(InventoryStatus.LOW);
         assertThat(result.get(1).getStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
 
-        verify(inventoryItemRepository).findByUserIdAndStatusIn(userId, alertStatuses);
+        verify(inventoryItemRepository).findResponsesByUserIdAndStatusIn(userId, alertStatuses);
     }
 
     @Test
@@ -118,8 +246,8 @@ class InventoryServiceTest {
                 createInventoryItem("Milk", 0.3, 0.5, InventoryStatus.LOW)
         );
 
-        when(inventoryItemRepository.findByUserIdAndStatusIn(userId, Arrays.asList(status)))
-                .thenReturn(lowStockItems);
+        when(inventoryItemRepository.findResponsesByUserIdAndStatusIn(userId, Arrays.asList(status)))
+                .thenReturn(toResponses(lowStockItems));
 
         // Act
         final List<InventoryItemResponse> result = inventoryService.getInventoryByStatus(userId, status);
@@ -129,7 +257,7 @@ class InventoryServiceTest {
         assertThat(result.get(0).getStatus()).isEqualTo(InventoryStatus.LOW);
         assertThat(result.get(0).getName()).isEqualTo("Milk");
 
-        verify(inventoryItemRepository).findByUserIdAndStatusIn(userId, Arrays.asList(status));
+        verify(inventoryItemRepository).findResponsesByUserIdAndStatusIn(userId, Arrays.asList(status));
     }
 
     @Test
@@ -172,6 +300,28 @@ class InventoryServiceTest {
     }
 
     @Test
+    void shouldForecastAllItemsOfUserFromOneQuery() {
+        // Arrange
+        final Long userId = 1L;
+        final List<InventoryItem> inventoryItems = createTestInventoryItems(createTestDevice(createTestUser()));
+        when(inventoryItemRepository.findByUserIdWithGroceryItem(userId)).thenReturn(inventoryItems);
+        when(consumptionForecaster.forecast(any(InventoryItem.class), anyDouble()))
+                .thenReturn(new ConsumptionForecaster.Forecast(1L, 0.5, 0.1, 4.0, 2.0, 12));
+
+        // Act
+        final List<ItemForecastResponse> result = inventoryService.getConsumptionForecast(userId);
+
+        // Assert
+        assertThat(result).hasSize(3);
+        assertThat(result.get(0).getName()).isEqualTo("Milk");
+        assertThat(result.get(0).getDailyConsumptionRate()).isEqualTo(0.5);
+        assertThat(result.get(0).getDaysUntilEmpty()).isEqualTo(4.0);
+        assertThat(result.get(0).getSuggestedQuantity()).isEqualTo(2.0);
+        verify(inventoryItemRepository, times(1)).findByUserIdWithGroceryItem(userId);
+        verify(consumptionForecaster, times(3)).forecast(any(InventoryItem.class), anyDouble());
+    }
+
+        @Test
     void shouldSyncInventorySuccessfully() {
         // Arrange
         final String deviceId = "FRIDGE-001";
@@ -184,15 +334,14 @@ class InventoryServiceTest {
                 .build();
 
         when(deviceRepository.findByDeviceId(deviceId)).thenReturn(Optional.of(device));
-        when(deviceRepository.save(any(Device.class))).thenReturn(device);
 
         // Act
         inventoryService.syncInventory(deviceId);
 
         // Assert
         verify(deviceRepository).findByDeviceId(deviceId);
-        verify(deviceRepository).save(argThat(savedDevice -> 
-            savedDevice.getLastSync().isAfter(LocalDateTime.now().minusMinutes(1))));
+        verify(deviceLivenessTracker).heartbeat(device);
+        verify(deviceRepository, never()).save(any(Device.class));
     }
 
     @Test
@@ -207,7 +356,54 @@ class InventoryServiceTest {
                 .hasMessage("Device not found: NON-EXISTENT");
 
         verify(deviceRepository).findByDeviceId(deviceId);
-        verify(deviceRepository, never()).save(any(Device.class));
+        verify(deviceLivenessTracker, never()).heartbeat(any(Device.class));
+    }
+
+    @Test
+    void shouldThrottleRepeatedSyncsForSameDevice() {
+        // Arrange
+        final String deviceId = "FRIDGE-001";
+        final Device device = Device.builder()
+                .id(1L)
+                .deviceId(deviceId)
+                .online(true)
+                .build();
+
+        when(deviceRepository.findByDeviceId(deviceId)).thenReturn(Optional.of(device));
+
+        // Act
+        inventoryService.syncInventory(deviceId);
+        inventoryService.syncInventory(deviceId);
+        inventoryService.syncInventory(deviceId);
+
+        // Assert
+        verify(deviceRepository, times(1)).findByDeviceId(deviceId);
+        verify(deviceLivenessTracker, times(1)).heartbeat(device);
+        assertThat(inventorySyncCoalescer.getThrottledCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRetrySyncAfterFailure() {
+        // Arrange
+        final String deviceId = "FRIDGE-001";
+        final Device device = Device.builder()
+                .id(1L)
+                .deviceId(deviceId)
+                .online(true)
+                .build();
+
+        when(deviceRepository.findByDeviceId(deviceId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(device));
+
+        // Act
+        assertThatThrownBy(() -> inventoryService.syncInventory(deviceId))
+                .hasMessage("Device not found: FRIDGE-001");
+        inventoryService.syncInventory(deviceId);
+
+        // Assert
+        verify(deviceRepository, times(2)).findByDeviceId(deviceId);
+        verify(deviceLivenessTracker).heartbeat(device);
     }
 
     @Test
@@ -224,7 +420,7 @@ class InventoryServiceTest {
         );
 
         when(deviceRepository.findByUserIdAndActive(userId, true)).thenReturn(Arrays.asList(device));
-        when(inventoryItemRepository.findByDeviceId(device.getId())).thenReturn(inventoryItems);
+        when(inventoryItemRepository.findResponsesByDeviceId(device.getId())).thenReturn(toResponses(inventoryItems));
 
         // Act
         final CurrentInventoryResponse result = inventoryService.getCurrentInventory(userId);
@@ -235,7 +431,7 @@ class InventoryServiceTest {
         assertThat(result.getOutOfStockItems()).isEqualTo(1); // OUT_OF_STOCK only
 
         verify(deviceRepository).findByUserIdAndActive(userId, true);
-        verify(inventoryItemRepository).findByDeviceId(device.getId());
+        verify(inventoryItemRepository).findResponsesByDeviceId(device.getId());
     }
 
     // Helper methods
@@ -273,6 +469,32 @@ class InventoryServiceTest {
         );
     }
 
+    // Mirrors the constructor projection the repository selects
+    private List<InventoryItemResponse> toResponses(List<InventoryItem> items) {
+        return items.stream()
+                .map(item -> new InventoryItemResponse(item.getId(), item.getGroceryItem().getId(),
+                        item.getGroceryItem().getName(), item.getGroceryItem().getCategory(),
+                        item.getGroceryItem().getUnit(), item.getQuantity(), item.getThresholdQuantity(),
+                        item.getStatus(), item.getLastUpdated(), item.getExpirationDate(),
+                        item.getGroceryItem().getImageUrl(), item.getDevice().getDeviceId()))
+                .toList();
+    }
+
+    private InventoryItemResponse itemResponse(Long id, Long itemId, String name, Double quantity,
+                                               InventoryStatus status, String deviceId) {
+        return InventoryItemResponse.builder()
+                .id(id)
+                .itemId(itemId)
+                .name(name)
+                .unit("unit")
+                .quantity(quantity)
+                .thresholdQuantity(0.5)
+                .status(status)
+                .lastUpdated(LocalDateTime.now())
+                .deviceId(deviceId)
+                .build();
+    }
+
     private InventoryItem createInventoryItem(String name, Double quantity, Double threshold, InventoryStatus status) {
         final GroceryItem groceryItem = GroceryItem.builder()
                 .id(1L)
@@ -283,6 +505,7 @@ class InventoryServiceTest {
 
         return InventoryItem.builder()
                 .id(1L)
+                .device(createTestDevice(createTestUser()))
                 .groceryItem(groceryItem)
                 .quantity(quantity)
                 .thresholdQuantity(threshold)
@@ -0,0 +1,208 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.service.InventoryStateStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryStateStoreTest {
+
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldEvaluateStatusTransitionWithoutWritingToDatabase() {
+        // Arrange
+        final InventoryStateStore store = createStore();
+        final InventoryItem milk = createInventoryItem(1L, 2.0, 1.0);
+
+        // Act
+        final InventoryStateStore.QuantityChange change = store.applyQuantity(milk, 0.4);
+
+        // Assert
+        assertThat(change.previousStatus()).isEqualTo(InventoryStatus.SUFFICIENT);
+        assertThat(change.status()).isEqualTo(InventoryStatus.CRITICAL);
+        assertThat(change.isStatusChanged()).isTrue();
+        assertThat(store.getDirtyCount()).isEqualTo(1);
+        verifyNoInteractions(inventoryItemRepository);
+    }
+
+    @Test
+    void shouldCoalesceRepeatedUpdatesIntoOneWrite() {
+        // Arrange
+        final InventoryStateStore store = createStore();
+        final InventoryItem milk = createInventoryItem(1L, 2.0, 1.0);
+        final InventoryItem persisted = createInventoryItem(1L, 2.0, 1.0);
+        when(inventoryItemRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(persisted));
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            store.applyDelta(milk, -0.01);
+        }
+        final int written = store.flush();
+
+        // Assert
+        assertThat(written).isEqualTo(1);
+        assertThat(persisted.getQuantity()).isCloseTo(1.0, offset(1e-9));
+        assertThat(store.getDirtyCount()).isZero();
+        verify(inventoryItemRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void shouldNotGoBelowZeroOnDelta() {
+        // Arrange
+        final InventoryStateStore store = createStore();
+        final InventoryItem eggs = createInventoryItem(2L, 0.5, 1.0);
+
+        // Act
+        final InventoryStateStore.QuantityChange change = store.applyDelta(eggs, -3.0);
+
+        // Assert
+        assertThat(change.quantity()).isZero();
+        assertThat(change.status()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+    }
+
+    @Test
+    void shouldKeepItemsDirtyWhenFlushFails() {
+        // Arrange
+        final InventoryStateStore store = createStore();
+        store.applyQuantity(createInventoryItem(1L, 2.0, 1.0), 1.5);
+        when(inventoryItemRepository.findAllByIdForUpdate(anyList())).thenThrow(new RuntimeException("Database unavailable"));
+
+        // Act & Assert
+        assertThatThrownBy(store::flush).hasMessage("Database unavailable");
+        assertThat(store.getDirtyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTrackItemsBeyondInitialCapacity() {
+        // Arrange
+        final InventoryStateStore store = createStore();
+        final List<InventoryItem> items = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            items.add(createInventoryItem(id, 5.0, 1.0));
+        }
+
+        // Act
+        items.forEach(item -> store.applyQuantity(item, 4.0));
+
+        // Assert
+        assertThat(store.getDirtyCount()).isEqualTo(200);
+        assertThat(store.currentQuantity(items.get(199))).isEqualTo(4.0);
+    }
+
+    @Test
+    void shouldJournalUnflushedQuantitiesOnShutdownAndReplayThem() throws Exception {
+        // Arrange
+        final InventoryStateStore store = createStore();
+        store.applyQuantity(createInventoryItem(7L, 2.0, 1.0), 0.75);
+        when(inventoryItemRepository.findAllByIdForUpdate(anyList())).thenThrow(new RuntimeException("Database unavailable"));
+
+        // Act
+        store.shutdown();
+
+        // Assert
+        final Path journal = tempDir.resolve("inventory-state.journal");
+        assertThat(Files.readAllLines(journal)).containsExactly("7,0.75,2.0,true");
+
+        // Arrange replay on a fresh store
+        final InventoryItem persisted = createInventoryItem(7L, 2.0, 1.0);
+        reset(inventoryItemRepository);
+        when(inventoryItemRepository.findAllByIdForUpdate(List.of(7L))).thenReturn(List.of(persisted));
+
+        // Act
+        createStore().replayJournal();
+
+        // Assert
+        assertThat(persisted.getQuantity()).isEqualTo(0.75);
+        verify(inventoryItemRepository).saveAll(argThat(saved -> saved.iterator().next().getId() == 7L));
+        assertThat(Files.exists(journal)).isFalse();
+    }
+
+    @Test
+    void shouldReapplyDeltasOnTopOfQuantityWrittenByAnotherInstance() {
+        // Arrange: loaded at 2.0, another instance restocked the row to 5.0 before the flush
+        final InventoryStateStore store = createStore();
+        final InventoryItem persisted = createInventoryItem(1L, 5.0, 1.0);
+        when(inventoryItemRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(persisted));
+        store.applyDelta(createInventoryItem(1L, 2.0, 1.0), -0.5);
+
+        // Act
+        store.flush();
+
+        // Assert
+        assertThat(persisted.getQuantity()).isEqualTo(4.5);
+    }
+
+    @Test
+    void shouldLetStoredQuantityWinOverConflictingReading() {
+        // Arrange
+        final InventoryStateStore store = createStore();
+        final InventoryItem persisted = createInventoryItem(1L, 5.0, 1.0);
+        when(inventoryItemRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(persisted));
+        store.applyQuantity(createInventoryItem(1L, 2.0, 1.0), 0.5);
+
+        // Act
+        store.flush();
+
+        // Assert
+        assertThat(persisted.getQuantity()).isEqualTo(5.0);
+    }
+
+    @Test
+    void shouldDropCleanSlotsAfterFlushAndReseedFromEntity() {
+        // Arrange
+        final InventoryStateStore store = createStore();
+        when(inventoryItemRepository.findAllByIdForUpdate(anyList()))
+                .thenReturn(List.of(createInventoryItem(1L, 2.0, 1.0)));
+        store.currentQuantity(createInventoryItem(2L, 3.0, 1.0));
+        store.applyQuantity(createInventoryItem(1L, 2.0, 1.0), 1.5);
+
+        // Act
+        store.flush();
+
+        // Assert: a later load sees what other writers left in the row
+        assertThat(store.getTrackedCount()).isZero();
+        assertThat(store.currentQuantity(createInventoryItem(1L, 0.8, 1.0))).isEqualTo(0.8);
+    }
+
+    private InventoryStateStore createStore() {
+        return new InventoryStateStore(inventoryItemRepository, transactionManager, true, 16, 1000,
+                tempDir.resolve("inventory-state.journal").toString());
+    }
+
+    private InventoryItem createInventoryItem(Long id, Double quantity, Double threshold) {
+        final InventoryItem item = InventoryItem.builder()
+                .id(id)
+                .quantity(quantity)
+                .thresholdQuantity(threshold)
+                .build();
+        item.updateStatus();
+        return item;
+    }
+}
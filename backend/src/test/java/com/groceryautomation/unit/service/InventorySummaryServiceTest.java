@@ -0,0 +1,132 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.dto.response.InventorySummaryResponse;
+import com.groceryautomation.entity.InventorySummary;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.event.InventoryItemCountChangedEvent;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.repository.InventorySummaryRepository;
+import com.groceryautomation.service.impl.InventorySummaryServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventorySummaryServiceTest {
+
+    @Mock
+    private InventorySummaryRepository inventorySummaryRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private InventorySummaryServiceImpl inventorySummaryService;
+
+    @Test
+    void shouldMoveItemBetweenStatusCounters() {
+        // Arrange
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        // Act
+        inventorySummaryService.applyTransition(new InventoryStatusChangedEvent(
+                5L, 1L, 1L, InventoryStatus.LOW, InventoryStatus.OUT_OF_STOCK));
+
+        // Assert: total unchanged, one less LOW, one more OUT_OF_STOCK
+        verify(jdbcTemplate).update(anyString(), eq(0), eq(-1), eq(0), eq(1), any(LocalDateTime.class), eq(1L));
+    }
+
+    @Test
+    void shouldCountAddedAndRemovedItems() {
+        // Arrange
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        // Act
+        inventorySummaryService.applyItemCountChange(new InventoryItemCountChangedEvent(
+                5L, 1L, 1L, InventoryStatus.CRITICAL, 1));
+        inventorySummaryService.applyItemCountChange(new InventoryItemCountChangedEvent(
+                6L, 1L, 1L, InventoryStatus.SUFFICIENT, -1));
+
+        // Assert
+        verify(jdbcTemplate).update(anyString(), eq(1), eq(0), eq(1), eq(0), any(LocalDateTime.class), eq(1L));
+        verify(jdbcTemplate).update(anyString(), eq(-1), eq(0), eq(0), eq(0), any(LocalDateTime.class), eq(1L));
+    }
+
+    @Test
+    void shouldRecountDeviceWhoseSummaryWasMissing() {
+        // Arrange
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any(), any())).thenReturn(0);
+        inventorySummaryService.applyTransition(new InventoryStatusChangedEvent(
+                5L, 7L, 1L, InventoryStatus.SUFFICIENT, InventoryStatus.LOW));
+
+        // Act
+        inventorySummaryService.repairStaleSummaries();
+        inventorySummaryService.repairStaleSummaries();
+
+        // Assert: recounted once, then nothing left to repair
+        verify(jdbcTemplate, times(1)).update("DELETE FROM inventory_summaries WHERE device_id = ?", 7L);
+        verify(jdbcTemplate, times(1)).update(contains("WHERE d.id = ?"), eq(7L));
+    }
+
+    @Test
+    void shouldSumDeviceSummariesForUser() {
+        // Arrange
+        final LocalDateTime earlier = LocalDateTime.now().minusHours(2);
+        final LocalDateTime later = LocalDateTime.now().minusMinutes(5);
+        when(inventorySummaryRepository.findByUserId(1L)).thenReturn(List.of(
+                summary(1L, 10, 2, 1, 0, earlier),
+                summary(2L, 5, 0, 1, 2, later)));
+
+        // Act
+        final InventorySummaryResponse result = inventorySummaryService.getUserSummary(1L);
+
+        // Assert
+        assertThat(result.getDeviceCount()).isEqualTo(2);
+        assertThat(result.getTotalItems()).isEqualTo(15);
+        assertThat(result.getLowItems()).isEqualTo(2);
+        assertThat(result.getCriticalItems()).isEqualTo(2);
+        assertThat(result.getOutOfStockItems()).isEqualTo(2);
+        assertThat(result.getAlertItems()).isEqualTo(6);
+        assertThat(result.getLastChange()).isEqualTo(later);
+    }
+
+    private InventorySummary summary(Long deviceId, int total, int low, int critical, int outOfStock,
+                                     LocalDateTime lastChange) {
+        return InventorySummary.builder()
+                .deviceId(deviceId)
+                .userId(1L)
+                .totalItems(total)
+                .lowItems(low)
+                .criticalItems(critical)
+                .outOfStockItems(outOfStock)
+                .lastChange(lastChange)
+                .build();
+    }
+
+    @Test
+    void shouldOnlyRebuildAtStartupWhenNoSummariesExist() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of(1L), List.of());
+
+        // Act
+        inventorySummaryService.initializeSummaries();
+        final int afterPopulated = mockingDetails(jdbcTemplate).getInvocations().size();
+        inventorySummaryService.initializeSummaries();
+
+        // Assert
+        assertThat(afterPopulated).isEqualTo(1);
+        verify(jdbcTemplate).update("DELETE FROM inventory_summaries");
+    }
+}
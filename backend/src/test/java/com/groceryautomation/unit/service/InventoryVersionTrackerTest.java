@@ -0,0 +1,88 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.service.InventoryVersionTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads and bumps versions in an in-memory H2 users table.
+ */
+class InventoryVersionTrackerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private InventoryVersionTracker versionTracker;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:versions;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, inventory_version BIGINT DEFAULT 0 NOT NULL)");
+        jdbcTemplate.update("INSERT INTO users (id) VALUES (1), (2)");
+        versionTracker = new InventoryVersionTracker(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        jdbcTemplate.execute("DROP TABLE users");
+    }
+
+    @Test
+    void shouldBumpRightAwayOutsideTransaction() {
+        // Act
+        versionTracker.bump(1L);
+
+        // Assert
+        assertThat(versionTracker.getVersion(1L)).isEqualTo(1L);
+        assertThat(versionTracker.getVersion(2L)).isZero();
+        assertThat(versionTracker.getETag(1L)).isEqualTo("\"inv-1\"");
+    }
+
+    @Test
+    void shouldBumpEachUserOnceWhenTransactionCommits() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        versionTracker.bump(2L);
+        versionTracker.bump(1L);
+        versionTracker.bump(2L);
+        final long beforeCommit = versionTracker.getVersion(2L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Assert
+        assertThat(beforeCommit).isZero();
+        assertThat(versionTracker.getVersion(1L)).isEqualTo(1L);
+        assertThat(versionTracker.getVersion(2L)).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldNotBumpWhenTransactionRollsBack() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        versionTracker.bump(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        assertThat(versionTracker.getVersion(1L)).isZero();
+    }
+
+    @Test
+    void shouldReadUnknownUserAsVersionZero() {
+        // Act & Assert
+        assertThat(versionTracker.getVersion(99L)).isZero();
+    }
+}
@@ -7,6 +7,10 @@ import com.groceryautomation.entity.User;
 import com.groceryautomation.enums.InventoryStatus;
 import com.groceryautomation.repository.DeviceRepository;
 import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.service.InventoryHistoryService;
+import com.groceryautomation.service.ConsumptionForecaster;
+import com.groceryautomation.service.DeviceLivenessTracker;
+import com.groceryautomation.service.InventoryStateStore;
 import com.groceryautomation.service.MockSensorService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,7 +24,6 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +35,18 @@ class MockSensorServiceTest {
     @Mock
     private InventoryItemRepository inventoryItemRepository;
 
+    @Mock
+    private InventoryStateStore inventoryStateStore;
+
+    @Mock
+    private ConsumptionForecaster consumptionForecaster;
+
+    @Mock
+    private InventoryHistoryService inventoryHistoryService;
+
+    @Mock
+    private DeviceLivenessTracker deviceLivenessTracker;
+
     @InjectMocks
     private MockSensorService mockSensorService;
 
@@ -51,8 +66,7 @@ class MockSensorServiceTest {
         verify(deviceRepository).findAllActiveAndOnlineDevices();
         verify(inventoryItemRepository).findByDeviceId(device.getId());
         verify(inventoryItemRepository, atLeastOnce()).save(any(InventoryItem.class));
-        verify(deviceRepository).save(argThat(savedDevice -> 
-            savedDevice.getLastSync().isAfter(LocalDateTime.now().minusMinutes(1))));
+        verify(deviceLivenessTracker).heartbeat(device);
     }
 
     @Test
@@ -67,7 +81,7 @@ class MockSensorServiceTest {
         verify(deviceRepository).findAllActiveAndOnlineDevices();
         verify(inventoryItemRepository, never()).findByDeviceId(any());
         verify(inventoryItemRepository, never()).save(any(InventoryItem.class));
-        verify(deviceRepository, never()).save(any(Device.class));
+        verify(deviceLivenessTracker, never()).heartbeat(any(Device.class));
     }
 
     @Test
@@ -90,11 +104,11 @@ class MockSensorServiceTest {
         verify(inventoryItemRepository).findByDeviceId(device.getId());
         // Should only save items that had non-zero quantity
         verify(inventoryItemRepository, atMost(inventoryItems.size())).save(any(InventoryItem.class));
-        verify(deviceRepository).save(any(Device.class));
+        verify(deviceLivenessTracker).heartbeat(device);
     }
 
     @Test
-    void shouldUpdateDeviceLastSyncTime() {
+    void shouldRecordHeartbeatInsteadOfSavingDevice() {
         // Arrange
         final Device device = createTestDevice();
         final List<InventoryItem> inventoryItems = createTestInventoryItems();
@@ -106,10 +120,8 @@ class MockSensorServiceTest {
         mockSensorService.simulateInventoryConsumption();
 
         // Assert
-        verify(deviceRepository).save(argThat(savedDevice -> {
-            LocalDateTime lastSync = savedDevice.getLastSync();
-            return lastSync != null && lastSync.isAfter(LocalDateTime.now().minusMinutes(1));
-        }));
+        verify(deviceLivenessTracker).heartbeat(device);
+        verify(deviceRepository, never()).save(any(Device.class));
     }
 
     @Test
@@ -157,7 +169,7 @@ class MockSensorServiceTest {
         verify(deviceRepository).findAllActiveAndOnlineDevices();
         verify(inventoryItemRepository).findByDeviceId(device.getId());
         verify(inventoryItemRepository, never()).save(any(InventoryItem.class));
-        verify(deviceRepository).save(any(Device.class)); // Should still update last sync
+        verify(deviceLivenessTracker).heartbeat(device); // Should still record the heartbeat
     }
 
     @Test
@@ -189,7 +201,8 @@ class MockSensorServiceTest {
         verify(deviceRepository).findAllActiveAndOnlineDevices();
         verify(inventoryItemRepository).findByDeviceId(device1.getId());
         verify(inventoryItemRepository).findByDeviceId(device2.getId());
-        verify(deviceRepository, times(2)).save(any(Device.class));
+        verify(deviceLivenessTracker).heartbeat(device1);
+        verify(deviceLivenessTracker).heartbeat(device2);
     }
 
     // Helper methods
@@ -0,0 +1,384 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.dto.ProductPrice;
+import com.groceryautomation.entity.GroceryItem;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.Order;
+import com.groceryautomation.entity.OrderItem;
+import com.groceryautomation.entity.Store;
+import com.groceryautomation.entity.User;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.event.listener.DraftOrderListener;
+import com.groceryautomation.repository.GroceryItemRepository;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.repository.InventoryReadingRollupRepository;
+import com.groceryautomation.repository.OrderItemRepository;
+import com.groceryautomation.repository.OrderRepository;
+import com.groceryautomation.repository.UserRepository;
+import com.groceryautomation.service.ConsumptionForecaster;
+import com.groceryautomation.service.InventoryStateStore;
+import com.groceryautomation.service.NotificationService;
+import com.groceryautomation.service.OrderManagementService;
+import com.groceryautomation.service.OrderSubmissionService;
+import com.groceryautomation.service.StoreApiService;
+import com.groceryautomation.service.StoreSelectionStrategy;
+import com.groceryautomation.service.StoreSelectionStrategy.StoreSelection;
+import com.groceryautomation.service.impl.OrderManagementServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderManagementServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private GroceryItemRepository groceryItemRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StoreSelectionStrategy storeSelectionStrategy;
+
+    @Mock
+    private StoreApiService storeApiService;
+
+    @Mock
+    private OrderSubmissionService orderSubmissionService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private InventoryStateStore inventoryStateStore;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Mock
+    private InventoryReadingRollupRepository rollupRepository;
+
+    private ThreadPoolTaskExecutor executor;
+    private OrderManagementServiceImpl orderManagementService;
+
+    private final User user = User.builder().id(1L).email("test@example.com").build();
+    private final Store primary = Store.builder().id(10L).name("Primary").deliveryFee(5.0).build();
+    private final Store backup = Store.builder().id(20L).name("Backup").deliveryFee(3.0).build();
+    private final GroceryItem milk = grocery(1L, "MILK");
+    private final GroceryItem eggs = grocery(2L, "EGGS");
+    private final GroceryItem bread = grocery(3L, "BREAD");
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        orderManagementService = new OrderManagementServiceImpl(orderRepository, orderItemRepository,
+                groceryItemRepository, userRepository, storeSelectionStrategy, storeApiService, orderSubmissionService,
+                notificationService, new ConsumptionForecaster(rollupRepository, 7, 7, 1.65, 3, 60, 28), inventoryStateStore, jdbcTemplate,
+                transactionManager, executor, 1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldPriceEachStoreOnceConcurrentlyAndInsertItemsInOneBatch() {
+        // Arrange: each store only answers once both requests are in flight
+        final CountDownLatch bothInFlight = new CountDownLatch(2);
+        givenSelections(new StoreSelection(primary, List.of(milk, eggs)), new StoreSelection(backup, List.of(bread)));
+        when(storeApiService.fetchPrices(anyLong(), anyList())).thenAnswer(invocation -> {
+            bothInFlight.countDown();
+            assertThat(bothInFlight.await(5, TimeUnit.SECONDS)).isTrue();
+            return prices(invocation.getArgument(1));
+        });
+
+        // Act
+        final Order draft = orderManagementService.createDraftOrder(user, List.of(low(milk), low(eggs), low(bread)));
+
+        // Assert
+        verify(storeApiService).fetchPrices(10L, List.of("MILK", "EGGS"));
+        verify(storeApiService).fetchPrices(20L, List.of("BREAD"));
+        assertThat(batchedRows()).hasSize(3);
+        assertThat(draft.getStore()).isEqualTo(primary);
+        assertThat(draft.getStatus()).isEqualTo(OrderStatus.DRAFT);
+        // Threshold 2, quantity 0.5 and no consumption history: refill to 4 at $2
+        assertThat(draft.getSubtotal()).isEqualTo(2 * 4 * 2.0);
+    }
+
+    @Test
+    void shouldAddOnlyNewItemsToOpenDraftForStore() {
+        // Arrange
+        final Order openDraft = Order.builder().id(100L).orderNumber("DRAFT-1").user(user).store(primary).build();
+        openDraft.getItems().add(OrderItem.builder().id(1L).order(openDraft).groceryItem(milk)
+                .quantity(1.0).price(2.0).build());
+        givenSelections(new StoreSelection(primary, List.of(milk, eggs)));
+        when(orderRepository.findOpenDraftOrders(eq(1L), any())).thenReturn(List.of(openDraft));
+        when(storeApiService.fetchPrices(anyLong(), anyList()))
+                .thenAnswer(invocation -> prices(invocation.getArgument(1)));
+
+        // Act
+        final Order draft = orderManagementService.createDraftOrder(user, List.of(low(milk), low(eggs)));
+
+        // Assert: the user is locked before the open drafts are read
+        assertThat(draft).isSameAs(openDraft);
+        assertThat(batchedRows()).singleElement().satisfies(row -> assertThat(row[1]).isEqualTo(2L));
+        final InOrder inOrder = inOrder(userRepository, orderRepository);
+        inOrder.verify(userRepository).findByIdForUpdate(1L);
+        inOrder.verify(orderRepository).findOpenDraftOrders(eq(1L), any());
+    }
+
+    @Test
+    void shouldReturnOpenDraftWhenTheSameStatusChangeIsDeliveredTwice() {
+        // Arrange: the second delivery finds the draft the first one wrote
+        final DraftOrderListener listener = new DraftOrderListener(userRepository, inventoryItemRepository,
+                new StaticListableBeanFactory(Map.of("orderManagementService", orderManagementService))
+                        .getBeanProvider(OrderManagementService.class), true);
+        final InventoryStatusChangedEvent event = new InventoryStatusChangedEvent(1L, 5L, 1L,
+                InventoryStatus.LOW, InventoryStatus.CRITICAL);
+        final List<Order> openDrafts = new ArrayList<>();
+        givenSelections(new StoreSelection(primary, List.of(milk)));
+        when(inventoryItemRepository.findById(1L)).thenReturn(Optional.of(low(milk)));
+        when(orderRepository.findOpenDraftOrders(eq(1L), any())).thenAnswer(invocation -> List.copyOf(openDrafts));
+        when(storeApiService.fetchPrices(anyLong(), anyList()))
+                .thenAnswer(invocation -> prices(invocation.getArgument(1)));
+        when(orderItemRepository.findByOrderIdIn(any())).thenReturn(List.of(OrderItem.builder().id(1L)
+                .order(Order.builder().id(100L).build()).groceryItem(milk).quantity(4.0).price(2.0).build()));
+
+        // Act
+        listener.handle(event);
+        final ArgumentCaptor<Order> drafted = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(drafted.capture());
+        openDrafts.add(drafted.getValue());
+        listener.handle(event);
+
+        // Assert
+        verify(orderRepository, times(1)).save(any(Order.class));
+        assertThat(batchedRows()).singleElement().satisfies(row -> assertThat(row[1]).isEqualTo(1L));
+        assertThat(drafted.getValue().getItems()).hasSize(1);
+    }
+
+    @Test
+    void shouldLeaveOutStoreThatDoesNotAnswerInTime() {
+        // Arrange
+        givenSelections(new StoreSelection(primary, List.of(milk)), new StoreSelection(backup, List.of(bread)));
+        when(storeApiService.fetchPrices(anyLong(), anyList())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0).equals(20L)) {
+                Thread.sleep(1_500);
+            }
+            return prices(invocation.getArgument(1));
+        });
+
+        // Act
+        orderManagementService.createDraftOrder(user, List.of(low(milk), low(bread)));
+
+        // Assert
+        assertThat(batchedRows()).singleElement().satisfies(row -> assertThat(row[1]).isEqualTo(1L));
+        verify(orderRepository, times(1)).save(any(Order.class));
+    }
+
+    @Test
+    void shouldRepriceDraftWithOneRequestAndReportChanges() {
+        // Arrange
+        final Order draft = Order.builder().id(100L).orderNumber("DRAFT-1").user(user).store(primary).build();
+        draft.getItems().add(OrderItem.builder().id(1L).order(draft).groceryItem(milk)
+                .quantity(2.0).price(1.5).priceAtCreation(1.5).currentPrice(1.5).build());
+        draft.getItems().add(OrderItem.builder().id(2L).order(draft).groceryItem(eggs)
+                .quantity(1.0).price(2.0).priceAtCreation(2.0).currentPrice(2.0).build());
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(draft));
+        when(orderRepository.save(draft)).thenReturn(draft);
+        when(storeApiService.fetchPrices(10L, List.of("MILK", "EGGS"))).thenReturn(prices(List.of("MILK", "EGGS")));
+
+        // Act
+        final Order refreshed = orderManagementService.refreshPrices(100L);
+
+        // Assert
+        assertThat(refreshed.getItems().get(0).isPriceChanged()).isTrue();
+        assertThat(refreshed.getItems().get(1).isPriceChanged()).isFalse();
+        assertThat(refreshed.getSubtotal()).isEqualTo(3 * 2.0);
+        verify(notificationService).notifyPriceChanges(user, draft, List.of("MILK item"));
+    }
+
+    @Test
+    void shouldPriceAddedItemWithNoTransactionOpen() {
+        // Arrange
+        final Order draft = Order.builder().id(100L).orderNumber("DRAFT-1").user(user).store(primary).build();
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(draft));
+        when(orderRepository.save(draft)).thenReturn(draft);
+        when(groceryItemRepository.findById(2L)).thenReturn(Optional.of(eggs));
+        when(storeApiService.fetchPrices(10L, List.of("EGGS"))).thenReturn(prices(List.of("EGGS")));
+
+        // Act
+        final Order updated = orderManagementService.addItem(100L, 2L, 3.0);
+
+        // Assert: the read transaction ends before the store is asked, the write one starts after
+        final InOrder inOrder = inOrder(transactionManager, storeApiService);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(storeApiService).fetchPrices(10L, List.of("EGGS"));
+        inOrder.verify(transactionManager).getTransaction(any());
+        assertThat(updated.getItems()).singleElement().satisfies(item -> assertThat(item.getPrice()).isEqualTo(2.0));
+        assertThat(updated.getStatus()).isEqualTo(OrderStatus.USER_MODIFIED);
+    }
+
+    @Test
+    void shouldCheckOrderStatusWithNoTransactionOpen() {
+        // Arrange
+        final Order submitted = Order.builder().id(100L).orderNumber("ORD-1").user(user).store(primary)
+                .externalOrderId("EXT-1").status(OrderStatus.SUBMITTED).build();
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(submitted));
+        when(orderRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(submitted));
+        when(orderRepository.save(submitted)).thenReturn(submitted);
+        when(storeApiService.checkOrderStatus(10L, "EXT-1")).thenReturn("CONFIRMED");
+
+        // Act
+        final Order updated = orderManagementService.updateOrderStatus(100L);
+
+        // Assert
+        final InOrder inOrder = inOrder(transactionManager, storeApiService, orderRepository);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(storeApiService).checkOrderStatus(10L, "EXT-1");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(orderRepository).findByIdForUpdate(100L);
+        assertThat(updated.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void shouldKeepStatusThatChangedWhileTheStoreAnswered() {
+        // Arrange: the order is cancelled between the read and the store's answer
+        final Order read = Order.builder().id(100L).orderNumber("ORD-1").user(user).store(primary)
+                .externalOrderId("EXT-1").status(OrderStatus.SUBMITTED).build();
+        final Order current = Order.builder().id(100L).orderNumber("ORD-1").user(user).store(primary)
+                .externalOrderId("EXT-1").status(OrderStatus.CANCELLED).build();
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(read));
+        when(orderRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(current));
+        when(storeApiService.checkOrderStatus(10L, "EXT-1")).thenReturn("CONFIRMED");
+
+        // Act
+        final Order result = orderManagementService.updateOrderStatus(100L);
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldComparePricesWithNoTransactionOpen() {
+        // Arrange
+        final Order draft = Order.builder().id(100L).orderNumber("DRAFT-1").user(user).store(primary).build();
+        draft.getItems().add(OrderItem.builder().id(1L).order(draft).groceryItem(milk)
+                .quantity(2.0).price(1.5).priceAtCreation(1.5).currentPrice(1.5).build());
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(draft));
+        when(storeApiService.fetchPrices(10L, List.of("MILK"))).thenReturn(prices(List.of("MILK")));
+
+        // Act
+        final Order compared = orderManagementService.getOrderWithPriceComparison(100L);
+
+        // Assert: the current price is recorded, what the user pays is not changed
+        final InOrder inOrder = inOrder(transactionManager, storeApiService);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(storeApiService).fetchPrices(10L, List.of("MILK"));
+        inOrder.verify(transactionManager).getTransaction(any());
+        assertThat(compared.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getCurrentPrice()).isEqualTo(2.0);
+            assertThat(item.isPriceChanged()).isTrue();
+            assertThat(item.getPrice()).isEqualTo(1.5);
+        });
+    }
+
+    @Test
+    void shouldRejectChangesToSubmittedOrder() {
+        // Arrange
+        final Order submitted = Order.builder().id(100L).orderNumber("ORD-1").status(OrderStatus.SUBMITTED).build();
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(submitted));
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderManagementService.updateItemQuantity(100L, 1L, 3.0))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("can no longer be changed");
+        verify(orderRepository, never()).save(any());
+    }
+
+    private void givenSelections(StoreSelection... selections) {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        lenient().when(userRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(user));
+        when(storeSelectionStrategy.selectStoresForItems(eq(user), anyList())).thenReturn(List.of(selections));
+        long[] nextId = {100};
+        lenient().when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            final Order order = invocation.getArgument(0);
+            if (order.getId() == null) {
+                order.setId(nextId[0]++);
+            }
+            return order;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> batchedRows() {
+        final ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        return rows.getValue();
+    }
+
+    // Every SKU costs $2
+    private Map<String, ProductPrice> prices(List<String> skus) {
+        final Map<String, ProductPrice> prices = new HashMap<>();
+        for (String sku : skus) {
+            prices.put(sku, ProductPrice.builder().sku(sku).regularPrice(2.0).inStock(true).build());
+        }
+        return prices;
+    }
+
+    private InventoryItem low(GroceryItem groceryItem) {
+        return InventoryItem.builder()
+                .id(groceryItem.getId())
+                .groceryItem(groceryItem)
+                .quantity(0.5)
+                .thresholdQuantity(2.0)
+                .build();
+    }
+
+    private static GroceryItem grocery(Long id, String sku) {
+        return GroceryItem.builder().id(id).sku(sku).name(sku + " item").build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.groceryautomation.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.event.OrderStatusChangedEvent;
+import com.groceryautomation.event.listener.OutboxWriter;
+import com.groceryautomation.service.OrderStatusFeed;
+import com.groceryautomation.util.UserEventHub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tails an in-memory H2 outbox written by another instance's {@link OutboxWriter}.
+ */
+class OrderStatusFeedTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OutboxWriter writer;
+    private UserEventHub<OrderStatusChangedEvent> hub;
+    private OrderStatusFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:feed;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE outbox_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "event_type VARCHAR(100) NOT NULL, aggregate_type VARCHAR(50) NOT NULL, aggregate_id BIGINT NOT NULL, " +
+                "payload VARCHAR(2000) NOT NULL, status VARCHAR(20) NOT NULL, attempts INT NOT NULL, " +
+                "claim_token VARCHAR(36), claimed_at TIMESTAMP, created_at TIMESTAMP NOT NULL, " +
+                "processed_at TIMESTAMP, last_error VARCHAR(500))");
+        final ObjectMapper objectMapper = new ObjectMapper();
+        writer = new OutboxWriter(jdbcTemplate, objectMapper);
+        hub = new UserEventHub<>(16, Schedulers.immediate());
+        feed = new OrderStatusFeed(jdbcTemplate, objectMapper, hub, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE outbox_events");
+    }
+
+    @Test
+    void shouldPublishOrderStatusChangesToTheirOwnersOnce() throws Exception {
+        // Arrange
+        final CompletableFuture<List<OrderStatusChangedEvent>> received =
+                hub.subscribe(3L).take(2).collectList().toFuture();
+        feed.poll();
+        writer.onOrderStatusChanged(new OrderStatusChangedEvent(7L, 3L, "ORD-7", OrderStatus.DRAFT, OrderStatus.SUBMITTED));
+        writer.onInventoryStatusChanged(new InventoryStatusChangedEvent(1L, 2L, 3L,
+                InventoryStatus.LOW, InventoryStatus.CRITICAL));
+        writer.onOrderStatusChanged(new OrderStatusChangedEvent(8L, 4L, "ORD-8", OrderStatus.DRAFT, OrderStatus.SUBMITTED));
+        writer.onOrderStatusChanged(new OrderStatusChangedEvent(7L, 3L, "ORD-7", OrderStatus.SUBMITTED, OrderStatus.CONFIRMED));
+
+        // Act
+        final int first = feed.poll();
+        final int second = feed.poll();
+
+        // Assert
+        assertThat(first).isEqualTo(3);
+        assertThat(second).isZero();
+        assertThat(received.get(5, TimeUnit.SECONDS))
+                .extracting(OrderStatusChangedEvent::to)
+                .containsExactly(OrderStatus.SUBMITTED, OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void shouldNotReadTheOutboxWithoutSubscribers() {
+        // Arrange
+        writer.onOrderStatusChanged(new OrderStatusChangedEvent(7L, 3L, "ORD-7", OrderStatus.DRAFT, OrderStatus.SUBMITTED));
+
+        // Act & Assert
+        assertThat(feed.poll()).isZero();
+    }
+}
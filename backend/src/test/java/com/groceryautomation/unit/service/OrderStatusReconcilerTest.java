@@ -0,0 +1,264 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.event.OrderStatusChangedEvent;
+import com.groceryautomation.service.OrderStatusReconciler;
+import com.groceryautomation.service.StoreApiService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the reconciler's queries and bulk updates against an in-memory H2 orders table.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderStatusReconcilerTest {
+
+    @Mock
+    private StoreApiService storeApiService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private final LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:reconcile;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, store_id BIGINT NOT NULL, " +
+                "user_id BIGINT NOT NULL, order_number VARCHAR(50) NOT NULL, external_order_id VARCHAR(50), " +
+                "status VARCHAR(20) NOT NULL, submitted_at TIMESTAMP, next_status_check_at TIMESTAMP, " +
+                "actual_delivery_time TIMESTAMP, updated_at TIMESTAMP)");
+        lenient().when(storeApiService.maxOrderStatusBatchSize(anyLong())).thenReturn(Integer.MAX_VALUE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE orders");
+    }
+
+    @Test
+    void shouldQueryEachStoreInBatchesAndApplyTransitions() {
+        // Arrange: three orders at store 1 and one at store 2
+        insertOrder(1L, 1L, OrderStatus.SUBMITTED, null);
+        insertOrder(2L, 1L, OrderStatus.SUBMITTED, null);
+        insertOrder(3L, 1L, OrderStatus.OUT_FOR_DELIVERY, null);
+        insertOrder(4L, 2L, OrderStatus.CONFIRMED, null);
+        whenStoresReport(Map.of("EXT-1", "CONFIRMED", "EXT-2", "SUBMITTED", "EXT-3", "DELIVERED", "EXT-4", "CONFIRMED"));
+
+        // Act
+        final int changed = reconciler(new SyncTaskExecutor(), 2, 2).reconcile(now);
+
+        // Assert
+        assertThat(changed).isEqualTo(2);
+        verify(storeApiService).checkOrderStatuses(1L, List.of("EXT-1", "EXT-2"));
+        verify(storeApiService).checkOrderStatuses(1L, List.of("EXT-3"));
+        verify(storeApiService).checkOrderStatuses(2L, List.of("EXT-4"));
+        assertThat(statusOf(1L)).isEqualTo("CONFIRMED");
+        assertThat(statusOf(3L)).isEqualTo("DELIVERED");
+        assertThat(jdbcTemplate.queryForObject("SELECT actual_delivery_time FROM orders WHERE id = 3", Timestamp.class))
+                .isEqualTo(Timestamp.valueOf(now));
+        assertThat(publishedTransitions()).containsExactlyInAnyOrder(
+                "1:SUBMITTED->CONFIRMED", "3:OUT_FOR_DELIVERY->DELIVERED");
+    }
+
+    @Test
+    void shouldRescheduleUnchangedOrdersAndSkipThemUntilDue() {
+        // Arrange
+        insertOrder(1L, 1L, OrderStatus.SUBMITTED, null);
+        whenStoresReport(Map.of("EXT-1", "SUBMITTED"));
+        final OrderStatusReconciler reconciler = reconciler(new SyncTaskExecutor(), 50, 2);
+
+        // Act
+        reconciler.reconcile(now);
+        reconciler.reconcile(now.plusMinutes(1));
+
+        // Assert
+        verify(storeApiService, times(1)).checkOrderStatuses(anyLong(), anyList());
+        assertThat(jdbcTemplate.queryForObject("SELECT next_status_check_at FROM orders WHERE id = 1", Timestamp.class))
+                .isEqualTo(Timestamp.valueOf(now.plusMinutes(2)));
+    }
+
+    @Test
+    void shouldPassOverOrdersClaimedByAnotherRun() {
+        // Arrange: a second instance runs while the first is waiting on the store
+        insertOrder(1L, 1L, OrderStatus.SUBMITTED, null);
+        final OrderStatusReconciler first = reconciler(new SyncTaskExecutor(), 50, 2);
+        final OrderStatusReconciler second = reconciler(new SyncTaskExecutor(), 50, 2);
+        final int[] claimedBySecond = {-1};
+        when(storeApiService.checkOrderStatuses(anyLong(), anyList())).thenAnswer(invocation -> {
+            if (claimedBySecond[0] < 0) {
+                claimedBySecond[0] = second.reconcile(now);
+            }
+            return Map.of("EXT-1", "CONFIRMED");
+        });
+
+        // Act
+        final int changed = first.reconcile(now);
+
+        // Assert
+        assertThat(changed).isEqualTo(1);
+        assertThat(claimedBySecond[0]).isZero();
+        verify(storeApiService, times(1)).checkOrderStatuses(anyLong(), anyList());
+    }
+
+    @Test
+    void shouldRetryOrdersOfAnAbandonedRunOnceTheClaimTimesOut() {
+        // Arrange: a run claimed the order and died before writing anything back
+        insertOrder(1L, 1L, OrderStatus.SUBMITTED, now.plusMinutes(10));
+        whenStoresReport(Map.of("EXT-1", "CONFIRMED"));
+        final OrderStatusReconciler reconciler = reconciler(new SyncTaskExecutor(), 50, 2);
+
+        // Act
+        final int beforeTimeout = reconciler.reconcile(now.plusMinutes(5));
+        final int afterTimeout = reconciler.reconcile(now.plusMinutes(10));
+
+        // Assert
+        assertThat(beforeTimeout).isZero();
+        assertThat(afterTimeout).isEqualTo(1);
+    }
+
+    @Test
+    void shouldIgnoreBackwardAndUnknownStatuses() {
+        // Arrange
+        insertOrder(1L, 1L, OrderStatus.OUT_FOR_DELIVERY, null);
+        insertOrder(2L, 1L, OrderStatus.SUBMITTED, null);
+        whenStoresReport(Map.of("EXT-1", "CONFIRMED", "EXT-2", "LOST_IN_TRANSIT"));
+
+        // Act
+        final int changed = reconciler(new SyncTaskExecutor(), 50, 2).reconcile(now);
+
+        // Assert
+        assertThat(changed).isZero();
+        assertThat(statusOf(1L)).isEqualTo("OUT_FOR_DELIVERY");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldKeepAtMostTheConfiguredBatchesInFlightPerStore() {
+        // Arrange: twelve orders in batches of two, two lanes for the store
+        for (long id = 1; id <= 12; id++) {
+            insertOrder(id, 1L, OrderStatus.SUBMITTED, null);
+        }
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        when(storeApiService.checkOrderStatuses(eq(1L), anyList())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return Map.of();
+        });
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.initialize();
+
+        try {
+            // Act
+            reconciler(executor, 2, 2).reconcile(now);
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        verify(storeApiService, times(6)).checkOrderStatuses(eq(1L), anyList());
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSendOneOrderPerRequestToStoresWithoutBulkEndpoint() {
+        // Arrange: five orders at a store that answers one order per request
+        for (long id = 1; id <= 5; id++) {
+            insertOrder(id, 1L, OrderStatus.SUBMITTED, null);
+        }
+        when(storeApiService.maxOrderStatusBatchSize(1L)).thenReturn(1);
+        whenStoresReport(Map.of());
+
+        // Act
+        reconciler(new SyncTaskExecutor(), 50, 2).reconcile(now);
+
+        // Assert: each request goes through the rate limiter on its own
+        final ArgumentCaptor<List<String>> batches = ArgumentCaptor.forClass(List.class);
+        verify(storeApiService, times(5)).checkOrderStatuses(eq(1L), batches.capture());
+        assertThat(batches.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSize(1));
+    }
+
+    @Test
+    void shouldCheckOlderOrdersLessOften() {
+        // Arrange
+        final OrderStatusReconciler reconciler = reconciler(new SyncTaskExecutor(), 50, 2);
+
+        // Act
+        final Duration fresh = reconciler.nextCheckDelay(OrderStatus.SUBMITTED, now, now);
+        final Duration halfDay = reconciler.nextCheckDelay(OrderStatus.SUBMITTED, now.minusHours(12), now);
+        final Duration stale = reconciler.nextCheckDelay(OrderStatus.CONFIRMED, now.minusDays(3), now);
+
+        // Assert
+        assertThat(fresh).isEqualTo(Duration.ofMinutes(2));
+        assertThat(halfDay).isEqualTo(Duration.ofMinutes(6));
+        assertThat(stale).isEqualTo(Duration.ofMinutes(60));
+    }
+
+    private OrderStatusReconciler reconciler(TaskExecutor executor, int batchSize, int storeConcurrency) {
+        // A high request rate keeps the limiter out of the way of the assertions
+        return new OrderStatusReconciler(jdbcTemplate, storeApiService, eventPublisher, transactionManager, executor,
+                batchSize, storeConcurrency, 1_000, 5_000, 60, 10);
+    }
+
+    private void whenStoresReport(Map<String, String> statuses) {
+        when(storeApiService.checkOrderStatuses(anyLong(), anyList())).thenAnswer(invocation -> {
+            final List<String> externalOrderIds = invocation.getArgument(1);
+            final Map<String, String> reported = new HashMap<>();
+            externalOrderIds.forEach(id -> reported.put(id, statuses.get(id)));
+            return reported;
+        });
+    }
+
+    private void insertOrder(Long id, Long storeId, OrderStatus status, LocalDateTime nextCheckAt) {
+        jdbcTemplate.update("INSERT INTO orders (id, store_id, user_id, order_number, external_order_id, status, " +
+                        "submitted_at, next_status_check_at) VALUES (?, ?, 7, ?, ?, ?, ?, ?)",
+                id, storeId, "ORD-" + id, "EXT-" + id, status.name(), Timestamp.valueOf(now),
+                nextCheckAt == null ? null : Timestamp.valueOf(nextCheckAt));
+    }
+
+    private String statusOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, id);
+    }
+
+    private List<String> publishedTransitions() {
+        final ArgumentCaptor<OrderStatusChangedEvent> captor = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(captor.capture());
+        return captor.getAllValues().stream()
+                .map(event -> event.orderId() + ":" + event.from() + "->" + event.to())
+                .toList();
+    }
+}
@@ -0,0 +1,207 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.entity.Order;
+import com.groceryautomation.entity.OrderSubmissionJob;
+import com.groceryautomation.entity.Store;
+import com.groceryautomation.enums.OrderStatus;
+import com.groceryautomation.enums.SubmissionStatus;
+import com.groceryautomation.repository.OrderRepository;
+import com.groceryautomation.repository.OrderSubmissionJobRepository;
+import com.groceryautomation.service.OrderSubmissionWorker;
+import com.groceryautomation.service.StoreApiService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderSubmissionWorkerTest {
+
+    @Mock
+    private OrderSubmissionJobRepository jobRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private StoreApiService storeApiService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderSubmissionWorker worker;
+    private OrderSubmissionJob job;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        // One thread and one queued job per store, three attempts per job
+        worker = new OrderSubmissionWorker(jobRepository, orderRepository, storeApiService, transactionManager,
+                new MockEnvironment(), 1, 1, 3, 300, 200);
+        final Store store = Store.builder().id(10L).name("Store").build();
+        order = Order.builder().id(5L).orderNumber("ORD-5").store(store).status(OrderStatus.SUBMITTED).build();
+        job = OrderSubmissionJob.builder().id(1L).orderId(5L).storeId(10L)
+                .status(SubmissionStatus.IN_PROGRESS).attempts(1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    void shouldRecordExternalOrderIdOnSuccess() {
+        // Arrange
+        givenClaimed();
+        when(storeApiService.submitOrder(order, "order-submission-1")).thenReturn("EXT-10-1");
+
+        // Act
+        worker.process(1L);
+
+        // Assert
+        verify(jobRepository).complete(eq(1L), eq(1), eq(SubmissionStatus.SUCCEEDED), eq("EXT-10-1"), isNull(), any());
+        assertThat(order.getExternalOrderId()).isEqualTo("EXT-10-1");
+        verify(orderRepository).save(order);
+    }
+
+    @Test
+    void shouldDropSuccessWhenJobWasReclaimedMeanwhile() {
+        // Arrange: the job was released as stale during the call and another worker claimed attempt 2
+        givenClaimed();
+        when(storeApiService.submitOrder(order, "order-submission-1")).thenReturn("EXT-10-1");
+        when(jobRepository.complete(eq(1L), eq(1), any(), any(), any(), any())).thenReturn(0);
+
+        // Act
+        worker.process(1L);
+
+        // Assert
+        assertThat(order.getExternalOrderId()).isNull();
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldDropFailureWhenJobWasReclaimedMeanwhile() {
+        // Arrange
+        job.setAttempts(3);
+        givenClaimed();
+        when(storeApiService.submitOrder(order, "order-submission-1")).thenThrow(new RuntimeException("Store unavailable"));
+        when(jobRepository.complete(eq(1L), eq(3), any(), any(), any(), any())).thenReturn(0);
+
+        // Act
+        worker.process(1L);
+
+        // Assert
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.SUBMITTED);
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldNotCallStoreWhenJobIsAlreadyClaimed() {
+        // Arrange
+        when(jobRepository.claim(eq(1L), any())).thenReturn(0);
+
+        // Act
+        worker.process(1L);
+
+        // Assert
+        verifyNoInteractions(storeApiService);
+    }
+
+    @Test
+    void shouldReturnJobToPendingWhileAttemptsRemain() {
+        // Arrange
+        givenClaimed();
+        when(storeApiService.submitOrder(order, "order-submission-1")).thenThrow(new RuntimeException("Store unavailable"));
+
+        // Act
+        worker.process(1L);
+
+        // Assert
+        verify(jobRepository).retryLater(1L, 1, "Store unavailable");
+        verify(jobRepository, never()).complete(any(), anyInt(), any(), any(), any(), any());
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.SUBMITTED);
+    }
+
+    @Test
+    void shouldFailOrderAfterLastAttempt() {
+        // Arrange
+        job.setAttempts(3);
+        givenClaimed();
+        when(storeApiService.submitOrder(order, "order-submission-1")).thenThrow(new RuntimeException("Store unavailable"));
+
+        // Act
+        worker.process(1L);
+
+        // Assert
+        verify(jobRepository).complete(eq(1L), eq(3), eq(SubmissionStatus.FAILED), isNull(), eq("Store unavailable"), any());
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.FAILED);
+    }
+
+    @Test
+    void shouldSendTheSameIdempotencyKeyWhenJobIsRetried() {
+        // Arrange: the first attempt times out after the store may already have placed the order
+        givenClaimed();
+        when(storeApiService.submitOrder(eq(order), anyString()))
+                .thenThrow(new RuntimeException("Read timed out"))
+                .thenReturn("EXT-10-1");
+
+        // Act
+        worker.process(1L);
+        job.setAttempts(2);
+        worker.process(1L);
+
+        // Assert
+        verify(storeApiService, times(2)).submitOrder(order, "order-submission-1");
+        verify(jobRepository).retryLater(1L, 1, "Read timed out");
+        verify(jobRepository).complete(eq(1L), eq(2), eq(SubmissionStatus.SUCCEEDED), eq("EXT-10-1"), isNull(), any());
+    }
+
+    @Test
+    void shouldQueueWithoutWaitingOnStoreAndLeaveOverflowPending() throws InterruptedException {
+        // Arrange: the store holds the only worker until released
+        final CountDownLatch released = new CountDownLatch(1);
+        givenClaimed();
+        when(storeApiService.submitOrder(order, "order-submission-1")).thenAnswer(invocation -> {
+            released.await(5, TimeUnit.SECONDS);
+            return "EXT-10-1";
+        });
+
+        // Act
+        final boolean running = worker.enqueue(1L, 10L);
+        final boolean duplicate = worker.enqueue(1L, 10L);
+        final boolean waiting = worker.enqueue(2L, 10L);
+        final boolean overflow = worker.enqueue(3L, 10L);
+        released.countDown();
+
+        // Assert
+        assertThat(running).isTrue();
+        assertThat(duplicate).isFalse();
+        assertThat(waiting).isTrue();
+        assertThat(overflow).isFalse();
+        verify(storeApiService, timeout(5_000)).submitOrder(eq(order), anyString());
+    }
+
+    private void givenClaimed() {
+        lenient().when(jobRepository.claim(eq(1L), any())).thenReturn(1);
+        lenient().when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        lenient().when(orderRepository.findById(5L)).thenReturn(Optional.of(order));
+        lenient().when(jobRepository.complete(eq(1L), anyInt(), any(), any(), any(), any())).thenReturn(1);
+        lenient().when(jobRepository.retryLater(eq(1L), anyInt(), any())).thenReturn(1);
+    }
+}
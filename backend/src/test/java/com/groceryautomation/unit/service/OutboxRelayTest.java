@@ -0,0 +1,253 @@
+package com.groceryautomation.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.event.InventoryStatusChangedEvent;
+import com.groceryautomation.event.OrderStatusChangedEvent;
+import com.groceryautomation.event.OutboxHandler;
+import com.groceryautomation.event.listener.OutboxWriter;
+import com.groceryautomation.service.OutboxRelay;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the relay's claiming SQL against an in-memory H2 database.
+ */
+class OutboxRelayTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OutboxWriter writer;
+    private final List<InventoryStatusChangedEvent> handled = new ArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE outbox_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "event_type VARCHAR(100) NOT NULL, aggregate_type VARCHAR(50) NOT NULL, aggregate_id BIGINT NOT NULL, " +
+                "payload VARCHAR(2000) NOT NULL, status VARCHAR(20) NOT NULL, attempts INT NOT NULL, " +
+                "claim_token VARCHAR(36), claimed_at TIMESTAMP, created_at TIMESTAMP NOT NULL, " +
+                "processed_at TIMESTAMP, last_error VARCHAR(500))");
+        jdbcTemplate.execute("CREATE TABLE outbox_deliveries (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "event_id BIGINT NOT NULL, handler VARCHAR(200) NOT NULL, delivered_at TIMESTAMP NOT NULL, " +
+                "UNIQUE (event_id, handler))");
+        writer = new OutboxWriter(jdbcTemplate, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE outbox_deliveries");
+        jdbcTemplate.execute("DROP TABLE outbox_events");
+    }
+
+    @Test
+    void shouldDeliverEventsInOrderAndMarkThemDone() {
+        // Arrange
+        final OutboxRelay relay = relay(handled::add, 10);
+        writer.onInventoryStatusChanged(lowered(1L));
+        writer.onOrderStatusChanged(new OrderStatusChangedEvent(7L, 3L, "DRAFT-1", null, null));
+        writer.onInventoryStatusChanged(lowered(2L));
+
+        // Act
+        final int claimed = relay.relayBatch();
+
+        // Assert: events without a handler are done as well
+        assertThat(claimed).isEqualTo(3);
+        assertThat(handled).extracting(InventoryStatusChangedEvent::itemId).containsExactly(1L, 2L);
+        assertThat(handled.get(0).to()).isEqualTo(InventoryStatus.CRITICAL);
+        assertThat(countWithStatus("DONE")).isEqualTo(3);
+        assertThat(relay.relayBatch()).isZero();
+    }
+
+    @Test
+    void shouldRetryFailedEventsUntilAttemptsRunOut() {
+        // Arrange: two attempts per event
+        final OutboxRelay relay = relay(event -> {
+            throw new IllegalStateException("Mail server down");
+        }, 10, 2);
+        writer.onInventoryStatusChanged(lowered(1L));
+
+        // Act
+        relay.relayBatch();
+        final String afterFirst = statusOf(1L);
+        relay.relayBatch();
+
+        // Assert
+        assertThat(afterFirst).isEqualTo("PENDING");
+        assertThat(statusOf(1L)).isEqualTo("FAILED");
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM outbox_events", String.class))
+                .isEqualTo("Mail server down");
+    }
+
+    @Test
+    void shouldNotRerunHandlersThatSucceededWhenAnotherHandlerIsRetried() {
+        // Arrange: notifications succeed, drafting fails once
+        final List<InventoryStatusChangedEvent> notified = new ArrayList<>();
+        final int[] draftAttempts = {0};
+        final OutboxRelay relay = new OutboxRelay(jdbcTemplate, new SyncTaskExecutor(), objectMapper, List.of(
+                handler(notified::add),
+                new DraftingHandler(event -> {
+                    if (draftAttempts[0]++ == 0) {
+                        throw new IllegalStateException("Store unavailable");
+                    }
+                })), 10, 5, 300, 24);
+        writer.onInventoryStatusChanged(lowered(1L));
+
+        // Act
+        relay.relayBatch();
+        final String afterFirst = statusOf(1L);
+        relay.relayBatch();
+
+        // Assert
+        assertThat(afterFirst).isEqualTo("PENDING");
+        assertThat(statusOf(1L)).isEqualTo("DONE");
+        assertThat(notified).hasSize(1);
+        assertThat(draftAttempts[0]).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_deliveries", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSkipRowsClaimedByAnotherRelayUntilTheClaimIsAbandoned() {
+        // Arrange
+        final OutboxRelay relay = relay(handled::add, 10);
+        writer.onInventoryStatusChanged(lowered(1L));
+        writer.onInventoryStatusChanged(lowered(2L));
+        claim(1L, LocalDateTime.now());
+        claim(2L, LocalDateTime.now().minusHours(1));
+
+        // Act
+        final int claimed = relay.relayBatch();
+
+        // Assert
+        assertThat(claimed).isEqualTo(1);
+        assertThat(handled).extracting(InventoryStatusChangedEvent::itemId).containsExactly(2L);
+        assertThat(statusOf(1L)).isEqualTo("PENDING");
+    }
+
+    @Test
+    void shouldDropRowsTakenOverWhileTheBatchRuns() {
+        // Arrange: with no claim timeout the claim is renewed before every row, and handling the
+        // first row takes long enough for another relay to take over the second
+        final OutboxRelay relay = relay(event -> {
+            handled.add(event);
+            claim(2L, LocalDateTime.now());
+        }, 10, 5, 0);
+        writer.onInventoryStatusChanged(lowered(1L));
+        writer.onInventoryStatusChanged(lowered(2L));
+
+        // Act
+        relay.relayBatch();
+
+        // Assert
+        assertThat(handled).extracting(InventoryStatusChangedEvent::itemId).containsExactly(1L);
+        assertThat(statusOf(1L)).isEqualTo("DONE");
+        assertThat(statusOf(2L)).isEqualTo("PENDING");
+        assertThat(jdbcTemplate.queryForObject("SELECT claim_token FROM outbox_events WHERE aggregate_id = 2",
+                String.class)).isEqualTo("other");
+    }
+
+    @Test
+    void shouldNotMarkRowDoneOnceAnotherRelayHoldsIt() {
+        // Arrange: the claim times out while the only row is being handled
+        final OutboxRelay relay = relay(event -> claim(1L, LocalDateTime.now()), 10);
+        writer.onInventoryStatusChanged(lowered(1L));
+
+        // Act
+        relay.relayBatch();
+
+        // Assert: left for the relay that holds it now
+        assertThat(statusOf(1L)).isEqualTo("PENDING");
+        assertThat(jdbcTemplate.queryForObject("SELECT claim_token FROM outbox_events", String.class))
+                .isEqualTo("other");
+    }
+
+    @Test
+    void shouldClaimAtMostOneBatch() {
+        // Arrange
+        final OutboxRelay relay = relay(handled::add, 2);
+        for (long itemId = 1; itemId <= 5; itemId++) {
+            writer.onInventoryStatusChanged(lowered(itemId));
+        }
+
+        // Act
+        final int first = relay.relayBatch();
+        relay.poll();
+
+        // Assert
+        assertThat(first).isEqualTo(2);
+        assertThat(handled).hasSize(5);
+    }
+
+    private OutboxRelay relay(Consumer<InventoryStatusChangedEvent> handler, int batchSize) {
+        return relay(handler, batchSize, 5);
+    }
+
+    private OutboxRelay relay(Consumer<InventoryStatusChangedEvent> handler, int batchSize, int maxAttempts) {
+        return relay(handler, batchSize, maxAttempts, 300);
+    }
+
+    private OutboxRelay relay(Consumer<InventoryStatusChangedEvent> handler, int batchSize, int maxAttempts,
+                              long claimTimeoutSeconds) {
+        return new OutboxRelay(jdbcTemplate, new SyncTaskExecutor(), objectMapper, List.of(handler(handler)),
+                batchSize, maxAttempts, claimTimeoutSeconds, 24);
+    }
+
+    private static OutboxHandler<InventoryStatusChangedEvent> handler(Consumer<InventoryStatusChangedEvent> handler) {
+        return new OutboxHandler<>() {
+            @Override
+            public Class<InventoryStatusChangedEvent> eventType() {
+                return InventoryStatusChangedEvent.class;
+            }
+
+            @Override
+            public void handle(InventoryStatusChangedEvent event) {
+                handler.accept(event);
+            }
+        };
+    }
+
+    private void claim(Long aggregateId, LocalDateTime at) {
+        jdbcTemplate.update("UPDATE outbox_events SET claim_token = 'other', claimed_at = ? WHERE aggregate_id = ?",
+                Timestamp.valueOf(at), aggregateId);
+    }
+
+    private int countWithStatus(String status) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE status = ?", Integer.class, status);
+    }
+
+    private String statusOf(Long aggregateId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM outbox_events WHERE aggregate_id = ?",
+                String.class, aggregateId);
+    }
+
+    private static InventoryStatusChangedEvent lowered(Long itemId) {
+        return new InventoryStatusChangedEvent(itemId, 2L, 3L, InventoryStatus.LOW, InventoryStatus.CRITICAL);
+    }
+
+    // A second handler class for the same event, as deliveries are recorded per handler class
+    private record DraftingHandler(Consumer<InventoryStatusChangedEvent> handler)
+            implements OutboxHandler<InventoryStatusChangedEvent> {
+
+        @Override
+        public Class<InventoryStatusChangedEvent> eventType() {
+            return InventoryStatusChangedEvent.class;
+        }
+
+        @Override
+        public void handle(InventoryStatusChangedEvent event) {
+            handler.accept(event);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.entity.Device;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.ReorderSweepCheckpoint;
+import com.groceryautomation.entity.User;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.repository.OrderRepository;
+import com.groceryautomation.repository.ReorderSweepCheckpointRepository;
+import com.groceryautomation.repository.UserRepository;
+import com.groceryautomation.service.OrderManagementService;
+import com.groceryautomation.service.ReorderSweeper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReorderSweeperTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Mock
+    private ReorderSweepCheckpointRepository checkpointRepository;
+
+    @Mock
+    private OrderManagementService orderManagementService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReorderSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        // Two users per chunk over two workers
+        sweeper = new ReorderSweeper(userRepository, orderRepository, inventoryItemRepository,
+                checkpointRepository, orderManagementService, transactionManager, new SyncTaskExecutor(),
+                true, 2, 2, 15, 12);
+        lenient().when(checkpointRepository.claimLease(eq(ReorderSweeper.CHECKPOINT_NAME), anyString(), any(), any()))
+                .thenReturn(1);
+    }
+
+    @Test
+    void shouldDraftOrdersForUsersWithoutOpenDraft() {
+        // Arrange: users 1 to 5 are low on something, user 2 already has a draft
+        givenActiveUsers(5);
+        when(checkpointRepository.findById(ReorderSweeper.CHECKPOINT_NAME)).thenReturn(Optional.empty());
+        when(orderRepository.findUserIdsWithDraftOrders(any()))
+                .thenAnswer(invocation -> ((Collection<Long>) invocation.getArgument(0)).contains(2L) ? List.of(2L) : List.of());
+        givenEveryCandidateIsLow();
+
+        // Act
+        final ReorderSweepCheckpoint result = sweeper.sweep();
+
+        // Assert
+        assertThat(draftedUserIds()).containsExactlyInAnyOrder(1L, 3L, 4L, 5L);
+        assertThat(result.getCompletedAt()).isNotNull();
+        assertThat(result.getLastUserId()).isEqualTo(5L);
+        assertThat(result.getUsersScanned()).isEqualTo(5);
+        assertThat(result.getDraftsCreated()).isEqualTo(4);
+        // Checked per chunk, not per user
+        verify(orderRepository, times(3)).findUserIdsWithDraftOrders(any());
+    }
+
+    @Test
+    void shouldResumeAfterLastCheckpointedUser() {
+        // Arrange
+        givenActiveUsers(5);
+        final ReorderSweepCheckpoint interrupted = ReorderSweepCheckpoint.builder()
+                .name(ReorderSweeper.CHECKPOINT_NAME)
+                .runStartedAt(LocalDateTime.now().minusHours(1))
+                .lastUserId(3L)
+                .usersScanned(3)
+                .build();
+        when(checkpointRepository.findById(ReorderSweeper.CHECKPOINT_NAME)).thenReturn(Optional.of(interrupted));
+        when(orderRepository.findUserIdsWithDraftOrders(any())).thenReturn(List.of());
+        givenEveryCandidateIsLow();
+
+        // Act
+        final ReorderSweepCheckpoint result = sweeper.sweep();
+
+        // Assert
+        assertThat(draftedUserIds()).containsExactly(4L, 5L);
+        assertThat(result.getUsersScanned()).isEqualTo(5);
+        assertThat(result.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void shouldKeepGoingWhenOneUserCannotBeDrafted() {
+        // Arrange
+        givenActiveUsers(2);
+        when(checkpointRepository.findById(ReorderSweeper.CHECKPOINT_NAME)).thenReturn(Optional.empty());
+        when(orderRepository.findUserIdsWithDraftOrders(any())).thenReturn(List.of());
+        givenEveryCandidateIsLow();
+        when(orderManagementService.createDraftOrder(argThat(user -> user.getId() == 1L), anyList()))
+                .thenThrow(new RuntimeException("No store available"));
+
+        // Act
+        final ReorderSweepCheckpoint result = sweeper.sweep();
+
+        // Assert
+        assertThat(result.getDraftsCreated()).isEqualTo(1);
+        assertThat(result.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void shouldLeaveCheckpointBeforeFailedChunk() {
+        // Arrange
+        givenActiveUsers(4);
+        when(checkpointRepository.findById(ReorderSweeper.CHECKPOINT_NAME)).thenReturn(Optional.empty());
+        when(orderRepository.findUserIdsWithDraftOrders(any())).thenAnswer(invocation -> {
+            if (((Collection<Long>) invocation.getArgument(0)).contains(3L)) {
+                throw new IllegalStateException("Connection lost");
+            }
+            return List.of();
+        });
+        givenEveryCandidateIsLow();
+
+        // Act & Assert
+        assertThatThrownBy(() -> sweeper.sweep()).hasRootCauseMessage("Connection lost");
+        final ArgumentCaptor<ReorderSweepCheckpoint> saved = ArgumentCaptor.forClass(ReorderSweepCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(saved.capture());
+        assertThat(saved.getValue().getLastUserId()).isEqualTo(2L);
+        assertThat(saved.getValue().getCompletedAt()).isNull();
+    }
+
+    @Test
+    void shouldSkipWhenAnotherInstanceHoldsTheLease() {
+        // Arrange
+        when(checkpointRepository.existsById(ReorderSweeper.CHECKPOINT_NAME)).thenReturn(true);
+        when(checkpointRepository.claimLease(eq(ReorderSweeper.CHECKPOINT_NAME), anyString(), any(), any()))
+                .thenReturn(0);
+
+        // Act
+        sweeper.nightlySweep();
+
+        // Assert
+        verifyNoInteractions(userRepository, orderManagementService);
+        verify(checkpointRepository, never()).save(any());
+        verify(checkpointRepository, never()).releaseLease(any(), any());
+    }
+
+    @Test
+    void shouldSkipWhenAnotherInstanceCompletedTonightsSweep() {
+        // Arrange
+        final ReorderSweepCheckpoint completed = ReorderSweepCheckpoint.builder()
+                .name(ReorderSweeper.CHECKPOINT_NAME)
+                .runStartedAt(LocalDateTime.now().minusHours(2))
+                .completedAt(LocalDateTime.now().minusHours(1))
+                .lastUserId(5L)
+                .build();
+        when(checkpointRepository.existsById(ReorderSweeper.CHECKPOINT_NAME)).thenReturn(true);
+        when(checkpointRepository.findById(ReorderSweeper.CHECKPOINT_NAME)).thenReturn(Optional.of(completed));
+
+        // Act
+        final ReorderSweepCheckpoint result = sweeper.sweep();
+
+        // Assert
+        assertThat(result).isSameAs(completed);
+        verifyNoInteractions(userRepository);
+        verify(checkpointRepository).releaseLease(eq(ReorderSweeper.CHECKPOINT_NAME), anyString());
+    }
+
+    private void givenActiveUsers(long count) {
+        when(userRepository.findActiveIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            final long afterId = invocation.getArgument(0);
+            final Pageable page = invocation.getArgument(1);
+            return LongStream.rangeClosed(afterId + 1, count).limit(page.getPageSize()).boxed().toList();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenEveryCandidateIsLow() {
+        lenient().when(inventoryItemRepository.findByUserIdInAndStatusIn(any(), anyList())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream().map(this::lowItemFor).toList());
+    }
+
+    private List<Long> draftedUserIds() {
+        final ArgumentCaptor<User> users = ArgumentCaptor.forClass(User.class);
+        verify(orderManagementService, atLeastOnce()).createDraftOrder(users.capture(), anyList());
+        return users.getAllValues().stream().map(User::getId).toList();
+    }
+
+    private InventoryItem lowItemFor(Long userId) {
+        final User user = User.builder().id(userId).build();
+        final Device device = Device.builder().id(userId).user(user).build();
+        return InventoryItem.builder().id(userId).device(device).quantity(0.0).thresholdQuantity(1.0).build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.codec.SensorFrame;
+import com.groceryautomation.codec.SensorFrameCodec;
+import com.groceryautomation.dto.request.SensorReadingBatchRequest;
+import com.groceryautomation.dto.request.SensorReadingRequest;
+import com.groceryautomation.service.SensorIngestionPipeline;
+import com.groceryautomation.service.SensorIngestionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SensorIngestionPipelineTest {
+
+    @Mock
+    private SensorIngestionService sensorIngestionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+
+    // Workers are not started, so each test drives the stages itself
+    private SensorIngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new SensorIngestionPipeline(sensorIngestionService, transactionManager, meterRegistry,
+                4, 4, 1, 1, 8, 3);
+    }
+
+    @Test
+    void shouldRejectSubmissionsWhenIntakeIsFull() {
+        // Act
+        final List<Boolean> outcomes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            outcomes.add(pipeline.submitReadings("FRIDGE-001", batchOf(1L, 0.5)));
+        }
+
+        // Assert
+        assertThat(outcomes).containsExactly(true, true, true, true, false);
+        assertThat(pipeline.getQueueDepth()).isEqualTo(4);
+        assertThat(meterRegistry.get("ingestion.pipeline.queue.depth").tag("stage", "intake").gauge().value())
+                .isEqualTo(4.0);
+        assertThat(meterRegistry.get("ingestion.pipeline.submissions").tag("outcome", "rejected").counter().count())
+                .isEqualTo(1.0);
+        verifyNoInteractions(sensorIngestionService);
+    }
+
+    @Test
+    void shouldPersistDecodedSubmissionsInOneTransaction() {
+        // Arrange
+        pipeline.submitReadings("FRIDGE-001", batchOf(1L, 0.5));
+        pipeline.submitReadings("FRIDGE-002", batchOf(2L, 1.5));
+        pipeline.submitFrame("FRIDGE-003", frameOf(3L, 2.0));
+
+        // Act
+        final int decoded = pipeline.runDecodeStage(10);
+        final int persisted = pipeline.runPersistStage();
+
+        // Assert
+        assertThat(decoded).isEqualTo(3);
+        assertThat(persisted).isEqualTo(3);
+        assertThat(pipeline.getQueueDepth()).isZero();
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(sensorIngestionService).ingestReadings(eq("FRIDGE-001"), any(SensorReadingBatchRequest.class));
+        verify(sensorIngestionService).ingestReadings(eq("FRIDGE-002"), any(SensorReadingBatchRequest.class));
+        verify(sensorIngestionService).ingestFrame(eq("FRIDGE-003"), any(SensorFrame.class));
+    }
+
+    @Test
+    void shouldStampReadingsWithAcceptTime() {
+        // Arrange
+        final SensorReadingBatchRequest request = batchOf(1L, 0.5);
+        pipeline.submitReadings("FRIDGE-001", request);
+
+        // Act
+        pipeline.runDecodeStage(10);
+
+        // Assert
+        assertThat(request.getReadings().get(0).getTimestamp()).isNotNull();
+    }
+
+    @Test
+    void shouldRetryFailedBatchOneSubmissionAtATime() {
+        // Arrange
+        pipeline.submitReadings("FRIDGE-001", batchOf(1L, 0.5));
+        pipeline.submitReadings("UNKNOWN", batchOf(2L, 1.5));
+        // Lenient: the other device's calls use different arguments on purpose
+        lenient().when(sensorIngestionService.ingestReadings(eq("UNKNOWN"), any()))
+                .thenThrow(new RuntimeException("Device not found: UNKNOWN"));
+        pipeline.runDecodeStage(10);
+
+        // Act
+        pipeline.runPersistStage();
+
+        // Assert
+        // One shared transaction, then one per submission
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(sensorIngestionService, times(2)).ingestReadings(eq("FRIDGE-001"), any());
+        assertThat(meterRegistry.get("ingestion.pipeline.submissions").tag("outcome", "persisted").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("ingestion.pipeline.submissions").tag("outcome", "failed").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldDropMalformedFramesAtDecodeStage() {
+        // Arrange
+        pipeline.submitFrame("FRIDGE-001", new byte[]{0x01, 0x02, 0x03});
+
+        // Act
+        final int decoded = pipeline.runDecodeStage(10);
+        final int persisted = pipeline.runPersistStage();
+
+        // Assert
+        assertThat(decoded).isEqualTo(1);
+        assertThat(persisted).isZero();
+        assertThat(meterRegistry.get("ingestion.pipeline.submissions").tag("outcome", "failed").counter().count())
+                .isEqualTo(1.0);
+        verifyNoInteractions(sensorIngestionService);
+    }
+
+    @Test
+    void shouldPersistInlineWhenDecodedBufferIsFullAndWorkersAreStopped() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            pipeline.submitReadings("FRIDGE-001", batchOf(1L, 0.5));
+        }
+        pipeline.runDecodeStage(10);
+        for (int i = 0; i < 2; i++) {
+            pipeline.submitReadings("FRIDGE-001", batchOf(1L, 0.5));
+        }
+
+        // Act
+        pipeline.runDecodeStage(10);
+        pipeline.runPersistStage();
+
+        // Assert
+        verify(sensorIngestionService, times(6)).ingestReadings(eq("FRIDGE-001"), any());
+    }
+
+    private SensorReadingBatchRequest batchOf(Long groceryItemId, double quantity) {
+        return SensorReadingBatchRequest.builder()
+                .readings(new ArrayList<>(List.of(SensorReadingRequest.builder()
+                        .groceryItemId(groceryItemId)
+                        .quantity(quantity)
+                        .build())))
+                .build();
+    }
+
+    private byte[] frameOf(long groceryItemId, double quantity) {
+        final long now = System.currentTimeMillis();
+        final ByteBuffer frame = SensorFrameCodec.encode(now, new long[]{groceryItemId}, new double[]{quantity}, new long[]{now});
+        final byte[] body = new byte[frame.remaining()];
+        frame.get(body);
+        return body;
+    }
+}
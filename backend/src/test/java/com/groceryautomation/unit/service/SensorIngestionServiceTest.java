@@ -0,0 +1,238 @@
+package com.groceryautomation.unit.service;
+
+import com.groceryautomation.codec.SensorFrameCodec;
+import com.groceryautomation.dto.request.SensorReadingBatchRequest;
+import com.groceryautomation.dto.request.SensorReadingRequest;
+import com.groceryautomation.dto.response.SensorReadingBatchResponse;
+import com.groceryautomation.entity.Device;
+import com.groceryautomation.entity.GroceryItem;
+import com.groceryautomation.entity.InventoryItem;
+import com.groceryautomation.entity.User;
+import com.groceryautomation.enums.InventoryStatus;
+import com.groceryautomation.enums.ReadingOutcome;
+import com.groceryautomation.repository.DeviceRepository;
+import com.groceryautomation.repository.InventoryItemRepository;
+import com.groceryautomation.service.InventoryHistoryService;
+import com.groceryautomation.service.ConsumptionForecaster;
+import com.groceryautomation.service.DeviceLivenessTracker;
+import com.groceryautomation.service.InventoryStateStore;
+import com.groceryautomation.service.impl.SensorIngestionServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SensorIngestionServiceTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Mock
+    private InventoryStateStore inventoryStateStore;
+
+    @Mock
+    private ConsumptionForecaster consumptionForecaster;
+
+    @Mock
+    private InventoryHistoryService inventoryHistoryService;
+
+    @Mock
+    private DeviceLivenessTracker deviceLivenessTracker;
+
+    @InjectMocks
+    private SensorIngestionServiceImpl sensorIngestionService;
+
+    @Test
+    void shouldApplyReadingsAndRecomputeStatus() {
+        // Arrange
+        final Device device = createTestDevice();
+        final InventoryItem milk = createInventoryItem(10L, 1L, "Milk", 2.0, 1.0);
+
+        when(deviceRepository.findByDeviceId("FRIDGE-001")).thenReturn(Optional.of(device));
+        when(inventoryItemRepository.findByDeviceIdWithGroceryItem(device.getId())).thenReturn(List.of(milk));
+
+        // Act
+        final SensorReadingBatchResponse result = sensorIngestionService.ingestReadings("FRIDGE-001",
+                batchOf(reading(1L, 0.4, null)));
+
+        // Assert
+        assertThat(result.getApplied()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getOutcome()).isEqualTo(ReadingOutcome.APPLIED);
+        assertThat(result.getResults().get(0).getPreviousStatus()).isEqualTo(InventoryStatus.SUFFICIENT);
+        assertThat(result.getResults().get(0).getStatus()).isEqualTo(InventoryStatus.CRITICAL);
+        verify(inventoryItemRepository).saveAll(argThat(items -> items.iterator().next().getQuantity() == 0.4));
+    }
+
+    @Test
+    void shouldWriteAllChangedItemsInOneSaveAllCall() {
+        // Arrange
+        final Device device = createTestDevice();
+        final List<InventoryItem> items = List.of(
+                createInventoryItem(10L, 1L, "Milk", 2.0, 1.0),
+                createInventoryItem(11L, 2L, "Eggs", 1.5, 0.5),
+                createInventoryItem(12L, 3L, "Bread", 0.8, 1.0));
+
+        when(deviceRepository.findByDeviceId("FRIDGE-001")).thenReturn(Optional.of(device));
+        when(inventoryItemRepository.findByDeviceIdWithGroceryItem(device.getId())).thenReturn(items);
+
+        // Act
+        sensorIngestionService.ingestReadings("FRIDGE-001",
+                batchOf(reading(1L, 1.0, null), reading(2L, 1.0, null), reading(3L, 0.0, null)));
+
+        // Assert
+        verify(inventoryItemRepository, times(1)).saveAll(anyList());
+        verify(inventoryItemRepository, never()).save(any(InventoryItem.class));
+    }
+
+    @Test
+    void shouldRejectReadingsForItemsNotTrackedOnDevice() {
+        // Arrange
+        final Device device = createTestDevice();
+
+        when(deviceRepository.findByDeviceId("FRIDGE-001")).thenReturn(Optional.of(device));
+        when(inventoryItemRepository.findByDeviceIdWithGroceryItem(device.getId())).thenReturn(List.of());
+
+        // Act
+        final SensorReadingBatchResponse result = sensorIngestionService.ingestReadings("FRIDGE-001",
+                batchOf(reading(99L, 1.0, null)));
+
+        // Assert
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getOutcome()).isEqualTo(ReadingOutcome.UNKNOWN_ITEM);
+        verify(inventoryItemRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldApplyOnlyNewestReadingWhenItemReportedTwice() {
+        // Arrange
+        final Device device = createTestDevice();
+        final InventoryItem milk = createInventoryItem(10L, 1L, "Milk", 2.0, 1.0);
+        final LocalDateTime now = LocalDateTime.now();
+
+        when(deviceRepository.findByDeviceId("FRIDGE-001")).thenReturn(Optional.of(device));
+        when(inventoryItemRepository.findByDeviceIdWithGroceryItem(device.getId())).thenReturn(List.of(milk));
+
+        // Act
+        final SensorReadingBatchResponse result = sensorIngestionService.ingestReadings("FRIDGE-001",
+                batchOf(reading(1L, 0.9, now), reading(1L, 1.5, now.minusSeconds(30))));
+
+        // Assert
+        assertThat(result.getResults().get(0).getOutcome()).isEqualTo(ReadingOutcome.APPLIED);
+        assertThat(result.getResults().get(1).getOutcome()).isEqualTo(ReadingOutcome.SUPERSEDED);
+        assertThat(milk.getQuantity()).isEqualTo(0.9);
+    }
+
+    @Test
+    void shouldRecordHeartbeatOnIngestion() {
+        // Arrange
+        final Device device = createTestDevice();
+
+        when(deviceRepository.findByDeviceId("FRIDGE-001")).thenReturn(Optional.of(device));
+        when(inventoryItemRepository.findByDeviceIdWithGroceryItem(device.getId())).thenReturn(List.of());
+
+        // Act
+        sensorIngestionService.ingestReadings("FRIDGE-001", batchOf(reading(1L, 1.0, null)));
+
+        // Assert
+        verify(deviceLivenessTracker).heartbeat(device);
+        verify(deviceRepository, never()).save(any(Device.class));
+    }
+
+    @Test
+    void shouldApplyReadingsFromBinaryFrame() {
+        // Arrange
+        final Device device = createTestDevice();
+        final InventoryItem eggs = createInventoryItem(11L, 2L, "Eggs", 1.5, 0.5);
+        final long now = System.currentTimeMillis();
+
+        when(deviceRepository.findByDeviceId("FRIDGE-001")).thenReturn(Optional.of(device));
+        when(inventoryItemRepository.findByDeviceIdWithGroceryItem(device.getId())).thenReturn(List.of(eggs));
+
+        // Act
+        final SensorReadingBatchResponse result = sensorIngestionService.ingestFrame("FRIDGE-001",
+                SensorFrameCodec.decode(SensorFrameCodec.encode(now, new long[]{2L}, new double[]{0.0}, new long[]{now})));
+
+        // Assert
+        assertThat(result.getApplied()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+        assertThat(eggs.getQuantity()).isEqualTo(0.0);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenDeviceInactive() {
+        // Arrange
+        final Device device = createTestDevice();
+        device.setActive(false);
+        when(deviceRepository.findByDeviceId("FRIDGE-001")).thenReturn(Optional.of(device));
+
+        // Act & Assert
+        assertThatThrownBy(() -> sensorIngestionService.ingestReadings("FRIDGE-001", batchOf(reading(1L, 1.0, null))))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Device is not active");
+    }
+
+    // Helper methods
+    private SensorReadingBatchRequest batchOf(SensorReadingRequest... readings) {
+        return SensorReadingBatchRequest.builder().readings(List.of(readings)).build();
+    }
+
+    private SensorReadingRequest reading(Long groceryItemId, Double quantity, LocalDateTime timestamp) {
+        return SensorReadingRequest.builder()
+                .groceryItemId(groceryItemId)
+                .quantity(quantity)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private Device createTestDevice() {
+        final User user = User.builder()
+                .id(1L)
+                .name("John Doe")
+                .email("john.doe@example.com")
+                .build();
+
+        return Device.builder()
+                .id(1L)
+                .deviceId("FRIDGE-001")
+                .name("Kitchen Smart Fridge")
+                .user(user)
+                .active(true)
+                .online(false)
+                .build();
+    }
+
+    private InventoryItem createInventoryItem(Long id, Long groceryItemId, String name, Double quantity, Double threshold) {
+        final GroceryItem groceryItem = GroceryItem.builder()
+                .id(groceryItemId)
+                .name(name)
+                .category("Dairy")
+                .unit("gallon")
+                .build();
+
+        final InventoryItem item = InventoryItem.builder()
+                .id(id)
+                .groceryItem(groceryItem)
+                .quantity(quantity)
+                .thresholdQuantity(threshold)
+                .lastUpdated(LocalDateTime.now())
+                .build();
+        item.updateStatus();
+        return item;
+    }
+}
@@ -0,0 +1,69 @@
+package com.groceryautomation.unit.util;
+
+import com.groceryautomation.util.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldReadPercentilesWithinBucketPrecision() {
+        // Arrange: 1 to 100,000 microseconds, in nanoseconds
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        // Act
+        final long p50 = histogram.valueAt(0.50);
+        final long p99 = histogram.valueAt(0.99);
+
+        // Assert
+        assertThat(p50).isCloseTo(50_000_000L, withinPercentage(4));
+        assertThat(p99).isCloseTo(99_000_000L, withinPercentage(4));
+        assertThat(histogram.valueAt(1.0)).isEqualTo(100_000_000L);
+        assertThat(histogram.getMax()).isEqualTo(100_000_000L);
+    }
+
+    @Test
+    void shouldKeepSmallValuesExact() {
+        // Arrange
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(7);
+
+        // Act & Assert
+        assertThat(histogram.valueAt(0.3)).isEqualTo(3);
+        assertThat(histogram.valueAt(0.9)).isEqualTo(7);
+    }
+
+    @Test
+    void shouldMergeSeparatelyRecordedHistograms() {
+        // Arrange
+        final LatencyHistogram fast = new LatencyHistogram();
+        final LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            fast.record(1_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            slow.record(1_000_000);
+        }
+
+        // Act
+        fast.merge(slow);
+
+        // Assert
+        assertThat(fast.getTotalCount()).isEqualTo(100);
+        assertThat(fast.valueAt(0.90)).isCloseTo(1_000L, withinPercentage(4));
+        assertThat(fast.valueAt(0.91)).isCloseTo(1_000_000L, withinPercentage(4));
+    }
+
+    @Test
+    void shouldReportZeroWhenEmpty() {
+        // Act & Assert
+        assertThat(new LatencyHistogram().valueAt(0.99)).isZero();
+    }
+}
@@ -0,0 +1,64 @@
+package com.groceryautomation.unit.util;
+
+import com.groceryautomation.util.LogTail;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogTailTest {
+
+    @Test
+    void shouldReadNewRowsOnlyOnce() {
+        // Arrange
+        final LogTail tail = new LogTail(10, 30_000, 0);
+
+        // Act
+        final boolean first = tail.accept(11);
+        final boolean again = tail.accept(11);
+        tail.advance(11, 100);
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(again).isFalse();
+        assertThat(tail.accept(11)).isFalse();
+        assertThat(tail.getReadUpTo()).isEqualTo(11);
+        assertThat(tail.getGaps()).isEmpty();
+    }
+
+    @Test
+    void shouldKeepMissingIdsAsGapsUntilTheyAppear() {
+        // Arrange: 12 and 13 are not committed yet when 14 is read
+        final LogTail tail = new LogTail(10, 30_000, 0);
+        tail.accept(11);
+        tail.accept(14);
+
+        // Act
+        tail.advance(14, 100);
+
+        // Assert
+        assertThat(tail.getGaps()).containsExactly(12L, 13L);
+        assertThat(tail.getFloor()).isEqualTo(11);
+        assertThat(tail.accept(13)).isTrue();
+        assertThat(tail.accept(13)).isFalse();
+        assertThat(tail.getGaps()).containsExactly(12L);
+    }
+
+    @Test
+    void shouldGiveUpOnGapsOlderThanTheCommitLag() {
+        // Arrange
+        final LogTail tail = new LogTail(10, 30_000, 0);
+        tail.accept(12);
+        tail.advance(12, 1_000);
+
+        // Act
+        tail.advance(12, 20_000);
+        final boolean withinLag = tail.getGaps().contains(11L);
+        tail.advance(12, 31_001);
+
+        // Assert
+        assertThat(withinLag).isTrue();
+        assertThat(tail.getGaps()).isEmpty();
+        assertThat(tail.getFloor()).isEqualTo(12);
+        assertThat(tail.accept(11)).isFalse();
+    }
+}
@@ -0,0 +1,87 @@
+package com.groceryautomation.unit.util;
+
+import com.groceryautomation.util.MpmcRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpmcRingBufferTest {
+
+    @Test
+    void shouldRefuseOffersWhenFullAndKeepFifoOrder() {
+        // Arrange
+        final MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(3);
+
+        // Act
+        final List<Boolean> offers = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            offers.add(buffer.offer(i));
+        }
+        final List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained, 10);
+
+        // Assert
+        assertThat(buffer.capacity()).isEqualTo(4);
+        assertThat(offers).containsExactly(true, true, true, true, false);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.offer(6)).isTrue();
+    }
+
+    @Test
+    void shouldDeliverEveryElementExactlyOnceUnderContention() throws Exception {
+        // Arrange
+        final MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(64);
+        final int producers = 4;
+        final int perProducer = 5_000;
+        final int total = producers * perProducer;
+        final ConcurrentHashMap<Integer, Boolean> seen = new ConcurrentHashMap<>();
+        final AtomicInteger consumed = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(producers + 4);
+        final ExecutorService executor = Executors.newFixedThreadPool(producers + 4);
+
+        try {
+            // Act
+            for (int p = 0; p < producers; p++) {
+                final int base = p * perProducer;
+                executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(base + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            for (int c = 0; c < 4; c++) {
+                executor.submit(() -> {
+                    while (consumed.get() < total) {
+                        final Integer element = buffer.poll();
+                        if (element == null) {
+                            Thread.onSpinWait();
+                        } else if (seen.put(element, Boolean.TRUE) == null) {
+                            consumed.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+
+            // Assert
+            assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(seen).hasSize(total);
+            assertThat(buffer.isEmpty()).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
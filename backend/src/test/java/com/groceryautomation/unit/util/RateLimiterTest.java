@@ -0,0 +1,55 @@
+package com.groceryautomation.unit.util;
+
+import com.groceryautomation.util.RateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void shouldSpaceBackToBackPermitsByTheInterval() {
+        // Arrange: 10 per second is one permit every 100 ms
+        final AtomicLong now = new AtomicLong();
+        final RateLimiter limiter = new RateLimiter(10, now::get);
+
+        // Act
+        final long first = limiter.reserve();
+        final long second = limiter.reserve();
+        final long third = limiter.reserve();
+
+        // Assert
+        assertThat(first).isZero();
+        assertThat(second).isEqualTo(100 * MILLI);
+        assertThat(third).isEqualTo(200 * MILLI);
+    }
+
+    @Test
+    void shouldNotSaveUpPermitsWhileIdle() {
+        // Arrange
+        final AtomicLong now = new AtomicLong();
+        final RateLimiter limiter = new RateLimiter(10, now::get);
+        limiter.reserve();
+
+        // Act
+        now.addAndGet(1_000 * MILLI);
+        final long afterPause = limiter.reserve();
+        final long next = limiter.reserve();
+
+        // Assert
+        assertThat(afterPause).isZero();
+        assertThat(next).isEqualTo(100 * MILLI);
+    }
+
+    @Test
+    void shouldRejectNonPositiveRate() {
+        // Act & Assert
+        assertThatThrownBy(() -> new RateLimiter(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package com.groceryautomation.unit.util;
+
+import com.groceryautomation.util.RequestCoalescer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    @Test
+    void shouldShareInFlightExecutionBetweenConcurrentCallers() throws Exception {
+        // Arrange
+        final RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>(0);
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            final Future<Integer> leader = executor.submit(() -> coalescer.execute("FRIDGE-001", () -> {
+                started.countDown();
+                await(release);
+                return runs.incrementAndGet();
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            final List<CompletableFuture<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                followers.add(coalescer.submit("FRIDGE-001", runs::incrementAndGet));
+            }
+            release.countDown();
+
+            // Assert
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            for (CompletableFuture<Integer> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+            assertThat(runs.get()).isEqualTo(1);
+            assertThat(coalescer.getCoalescedCount()).isEqualTo(20);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRunAgainOnceMinimumIntervalHasPassed() {
+        // Arrange
+        final AtomicLong now = new AtomicLong(1_000);
+        final RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>(500, now::get);
+        final AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        final int first = coalescer.execute("FRIDGE-001", runs::incrementAndGet);
+        now.addAndGet(499);
+        final int throttled = coalescer.execute("FRIDGE-001", runs::incrementAndGet);
+        final int otherDevice = coalescer.execute("FRIDGE-002", runs::incrementAndGet);
+        now.addAndGet(1);
+        final int second = coalescer.execute("FRIDGE-001", runs::incrementAndGet);
+
+        // Assert
+        assertThat(first).isEqualTo(1);
+        assertThat(throttled).isEqualTo(1);
+        assertThat(otherDevice).isEqualTo(2);
+        assertThat(second).isEqualTo(3);
+        assertThat(coalescer.getExecutionCount()).isEqualTo(3);
+        assertThat(coalescer.getThrottledCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRethrowActionExceptionToCaller() {
+        // Arrange
+        final RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>(60_000);
+
+        // Act & Assert
+        assertThatThrownBy(() -> coalescer.execute("UNKNOWN", () -> {
+            throw new RuntimeException("Device not found: UNKNOWN");
+        })).isExactlyInstanceOf(RuntimeException.class).hasMessage("Device not found: UNKNOWN");
+        assertThat(coalescer.execute("UNKNOWN", () -> 7)).isEqualTo(7);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
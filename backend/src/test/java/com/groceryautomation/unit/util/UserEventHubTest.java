@@ -0,0 +1,89 @@
+package com.groceryautomation.unit.util;
+
+import com.groceryautomation.util.UserEventHub;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserEventHubTest {
+
+    @Test
+    void shouldDeliverOnlyToSubscribersOfThatUser() {
+        // Arrange
+        final UserEventHub<String> hub = new UserEventHub<>(8, Schedulers.immediate());
+        final List<String> first = new ArrayList<>();
+        final List<String> second = new ArrayList<>();
+        final List<String> otherUser = new ArrayList<>();
+        final Disposable firstSubscription = hub.subscribe(1L).subscribe(first::add);
+        final Disposable secondSubscription = hub.subscribe(1L).subscribe(second::add);
+        final Disposable otherSubscription = hub.subscribe(2L).subscribe(otherUser::add);
+
+        // Act
+        hub.publish(1L, "milk-low");
+        hub.publish(3L, "nobody-listens");
+
+        // Assert
+        assertThat(first).containsExactly("milk-low");
+        assertThat(second).containsExactly("milk-low");
+        assertThat(otherUser).isEmpty();
+        assertThat(hub.hasSubscribers(3L)).isFalse();
+        assertThat(hub.getSubscriberCount()).isEqualTo(3);
+
+        firstSubscription.dispose();
+        secondSubscription.dispose();
+        otherSubscription.dispose();
+        assertThat(hub.hasSubscribers(1L)).isFalse();
+        assertThat(hub.hasSubscribers(2L)).isFalse();
+    }
+
+    @Test
+    void shouldEndSubscriberThatFallsBehindWithoutAffectingOthers() {
+        // Arrange
+        final UserEventHub<Integer> hub = new UserEventHub<>(2, Schedulers.immediate());
+        final List<Integer> fast = new ArrayList<>();
+        final Disposable fastSubscription = hub.subscribe(1L).subscribe(fast::add);
+        final AtomicReference<Throwable> slowError = new AtomicReference<>();
+        final List<Integer> slowReceived = new ArrayList<>();
+        final BaseSubscriber<Integer> slowSubscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // Requests nothing until told to, like a client that stopped reading
+            }
+
+            @Override
+            protected void hookOnNext(Integer value) {
+                slowReceived.add(value);
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                slowError.set(throwable);
+            }
+        };
+        hub.subscribe(1L).subscribe(slowSubscriber);
+
+        // Act
+        for (int i = 1; i <= 4; i++) {
+            hub.publish(1L, i);
+        }
+
+        // Assert
+        assertThat(fast).containsExactly(1, 2, 3, 4);
+        assertThat(hub.getSubscriberCount()).isEqualTo(1);
+        assertThat(slowError.get()).isNull();
+
+        slowSubscriber.requestUnbounded();
+        assertThat(slowReceived).startsWith(1).hasSizeLessThan(4);
+        assertThat(Exceptions.isOverflow(slowError.get())).isTrue();
+        fastSubscription.dispose();
+    }
+}